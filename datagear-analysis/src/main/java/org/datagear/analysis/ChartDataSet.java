@@ -178,4 +178,21 @@ public class ChartDataSet
 	{
 		return this.dataSet.getResult(query);
 	}
+
+	/**
+	 * 使用{@linkplain DataSetResultLoader}获取{@linkplain #getDataSet()}的{@linkplain DataSetResult}。
+	 * 
+	 * @param query
+	 * @param loader
+	 *            允许为{@code null}，此时同{@linkplain #getResult(DataSetQuery)}
+	 * @return
+	 * @throws DataSetException
+	 */
+	public DataSetResult getResult(DataSetQuery query, DataSetResultLoader loader) throws DataSetException
+	{
+		if (loader == null)
+			return getResult(query);
+
+		return loader.load(this.dataSet, query);
+	}
 }
@@ -193,6 +193,20 @@ public class ChartDefinition extends AbstractIdentifiable implements ResultDataF
 	 * @throws DataSetException
 	 */
 	public ChartResult getResult(ChartQuery query) throws DataSetException
+	{
+		return getResult(query, null);
+	}
+
+	/**
+	 * 使用{@linkplain DataSetResultLoader}获取{@linkplain ChartResult}。
+	 * 
+	 * @param query
+	 * @param loader
+	 *            允许为{@code null}，此时同{@linkplain #getResult(ChartQuery)}
+	 * @return
+	 * @throws DataSetException
+	 */
+	public ChartResult getResult(ChartQuery query, DataSetResultLoader loader) throws DataSetException
 	{
 		if (this.chartDataSets == null || this.chartDataSets.length == 0)
 			return new ChartResult(Collections.emptyList());
@@ -205,7 +219,7 @@ public class ChartDefinition extends AbstractIdentifiable implements ResultDataF
 		{
 			ChartDataSet chartDataSet = this.chartDataSets[i];
 			DataSetQuery dataSetQuery = getDataSetQuery(query, chartDataSet, i);
-			DataSetResult dataSetResult = chartDataSet.getResult(dataSetQuery);
+			DataSetResult dataSetResult = chartDataSet.getResult(dataSetQuery, loader);
 
 			dataSetResults.add(dataSetResult);
 		}
@@ -17,24 +17,120 @@
 
 package org.datagear.analysis;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.datagear.util.StatementCanceler;
 
 /**
  * {@linkplain DashboardQuery}处理器。
+ * <p>
+ * 如果设置了{@linkplain #getQueryExecutor()}，所有图表的数据集查询将在其中并发执行，
+ * 单次看板查询内同时执行的数据集查询数由{@linkplain #getQueryConcurrency()}限定，全局并发数则由{@linkplain #getQueryExecutor()}本身限定。
+ * </p>
  * 
  * @author datagear@163.com
  *
  */
 public abstract class DashboardQueryHandler
 {
+	private DataSetResultLoader dataSetResultLoader = null;
+
+	private ExecutorService queryExecutor = null;
+
+	private int queryConcurrency = 5;
+
+	private long queryTimeout = 0;
+
 	public DashboardQueryHandler()
 	{
 		super();
 	}
 
+	/**
+	 * 获取用于加载图表数据集结果的{@linkplain DataSetResultLoader}。
+	 * 
+	 * @return 为{@code null}表示直接使用{@linkplain DataSet#getResult(DataSetQuery)}
+	 */
+	public DataSetResultLoader getDataSetResultLoader()
+	{
+		return dataSetResultLoader;
+	}
+
+	public void setDataSetResultLoader(DataSetResultLoader dataSetResultLoader)
+	{
+		this.dataSetResultLoader = dataSetResultLoader;
+	}
+
+	/**
+	 * 获取并发执行数据集查询的{@linkplain ExecutorService}。
+	 * 
+	 * @return 为{@code null}表示在当前线程中顺序执行
+	 */
+	public ExecutorService getQueryExecutor()
+	{
+		return queryExecutor;
+	}
+
+	public void setQueryExecutor(ExecutorService queryExecutor)
+	{
+		this.queryExecutor = queryExecutor;
+	}
+
+	/**
+	 * 获取单次看板查询内最多同时执行的数据集查询数。
+	 * <p>
+	 * 仅在设置了{@linkplain #getQueryExecutor()}时有效。
+	 * </p>
+	 * 
+	 * @return {@code <=0}表示不限定
+	 */
+	public int getQueryConcurrency()
+	{
+		return queryConcurrency;
+	}
+
+	public void setQueryConcurrency(int queryConcurrency)
+	{
+		this.queryConcurrency = queryConcurrency;
+	}
+
+	/**
+	 * 获取单个数据集查询的超时毫秒数，从提交执行时开始计算。
+	 * <p>
+	 * 仅在设置了{@linkplain #getQueryExecutor()}时有效，超时的查询将被取消（数据库端正在执行的SQL也将通过{@linkplain StatementCanceler}取消），
+	 * 并以{@linkplain DataSetQueryTimeoutException}作为错误。
+	 * </p>
+	 * 
+	 * @return {@code <=0}表示不限定
+	 */
+	public long getQueryTimeout()
+	{
+		return queryTimeout;
+	}
+
+	public void setQueryTimeout(long queryTimeout)
+	{
+		this.queryTimeout = queryTimeout;
+	}
+
 	/**
 	 * 获取{@linkplain DashboardResult}。
+	 * <p>
+	 * 所有图表中{@linkplain DataSet#getId()}及{@linkplain DataSetQuery}都相同的数据集查询只会执行一次，其结果由这些图表共享。
+	 * </p>
 	 * 
 	 * @param query
 	 * @return
@@ -45,51 +141,305 @@ public abstract class DashboardQueryHandler
 		Map<String, ChartQuery> chartQueries = query.getChartQueries();
 		boolean suppressChartError = query.isSuppressChartError();
 
+		List<ChartTask> chartTasks = new ArrayList<ChartTask>(chartQueries.size());
+		List<DataSetTask> dataSetTasks = buildDataSetTasks(query, chartTasks);
+
+		if (this.queryExecutor == null)
+			executeDataSetTasksSequentially(dataSetTasks, suppressChartError);
+		else
+			executeDataSetTasks(dataSetTasks, suppressChartError);
+
 		Map<String, ChartResult> chartResults = new HashMap<String, ChartResult>(chartQueries.size());
 		Map<String, ChartResultError> chartResultErrors = new HashMap<String, ChartResultError>();
 
-		for (Map.Entry<String, ChartQuery> entry : chartQueries.entrySet())
+		for (ChartTask chartTask : chartTasks)
+		{
+			if (chartTask.getError() != null)
+				chartResultErrors.put(chartTask.getChartId(), new ChartResultError(chartTask.getError()));
+			else
+				chartResults.put(chartTask.getChartId(), new ChartResult(chartTask.getDataSetResults()));
+		}
+
+		DashboardResult dashboardResult = new DashboardResult(chartResults);
+		dashboardResult.setChartResultErrors(chartResultErrors);
+
+		return dashboardResult;
+	}
+
+	/**
+	 * 构建查询计划：为每个图表创建{@linkplain ChartTask}，并将相同的数据集查询合并为同一个{@linkplain DataSetTask}。
+	 * 
+	 * @param query
+	 * @param chartTasks
+	 *            用于写入{@linkplain ChartTask}
+	 * @return 去重后的{@linkplain DataSetTask}列表
+	 */
+	protected List<DataSetTask> buildDataSetTasks(DashboardQuery query, List<ChartTask> chartTasks)
+	{
+		List<DataSetTask> dataSetTasks = new ArrayList<DataSetTask>();
+		Map<Object, DataSetTask> sharedTasks = new HashMap<Object, DataSetTask>();
+
+		for (Map.Entry<String, ChartQuery> entry : query.getChartQueries().entrySet())
 		{
 			String chartId = entry.getKey();
-			ChartQuery chartQuery = entry.getValue();
-			ChartDefinition chart = getChartDefinition(chartId);
+			ChartDefinition chart = getChartDefinitionNonNull(chartId);
+			ChartQuery chartQuery = getChartQuery(query, entry.getValue());
+			ChartDataSet[] chartDataSets = chart.getChartDataSets();
+			int chartDataSetCount = (chartDataSets == null ? 0 : chartDataSets.length);
+
+			ChartTask chartTask = new ChartTask(chartId, chartDataSetCount);
+			chartTasks.add(chartTask);
+
+			for (int i = 0; i < chartDataSetCount; i++)
+			{
+				DataSetQuery dataSetQuery = chart.getDataSetQuery(chartQuery, chartDataSets[i], i);
+				Object key = getDataSetTaskKey(chartDataSets[i], dataSetQuery);
+				DataSetTask dataSetTask = (key == null ? null : sharedTasks.get(key));
+
+				if (dataSetTask == null)
+				{
+					dataSetTask = new DataSetTask(chartDataSets[i], dataSetQuery, this.dataSetResultLoader);
+					dataSetTasks.add(dataSetTask);
+
+					if (key != null)
+						sharedTasks.put(key, dataSetTask);
+				}
+
+				dataSetTask.addTarget(chartTask, i);
+			}
+		}
 
-			if (chart == null)
-				throw new IllegalArgumentException("Chart '" + chartId + "' not found");
+		return dataSetTasks;
+	}
+
+	/**
+	 * 获取用于合并相同数据集查询的关键字。
+	 * 
+	 * @param chartDataSet
+	 * @param query
+	 * @return 为{@code null}表示不合并
+	 */
+	protected Object getDataSetTaskKey(ChartDataSet chartDataSet, DataSetQuery query)
+	{
+		String dataSetId = chartDataSet.getDataSet().getId();
+
+		if (dataSetId == null || dataSetId.isEmpty())
+			return null;
+
+		return new DataSetTaskKey(dataSetId, query);
+	}
+
+	/**
+	 * 在当前线程中顺序执行{@linkplain DataSetTask}。
+	 * 
+	 * @param tasks
+	 * @param suppressChartError
+	 * @throws DataSetException
+	 */
+	protected void executeDataSetTasksSequentially(List<DataSetTask> tasks, boolean suppressChartError)
+			throws DataSetException
+	{
+		for (DataSetTask task : tasks)
+		{
+			// 所属图表都已出错，不必再执行
+			if (task.isDiscarded())
+				continue;
 
-			if (chartQuery.getResultDataFormat() == null && query.getResultDataFormat() != null)
+			try
 			{
-				chartQuery = chartQuery.copy();
-				chartQuery.setResultDataFormat(query.getResultDataFormat());
+				task.setResult(task.call());
 			}
+			catch (Throwable t)
+			{
+				task.setError(t);
 
-			ChartResult chartResult = null;
+				if (!suppressChartError)
+					throwChartError(t);
+			}
+		}
+	}
 
-			if (suppressChartError)
+	/**
+	 * 并发执行{@linkplain DataSetTask}。
+	 * <p>
+	 * 如果{@code suppressChartError}为{@code false}，任一查询出错将取消其他查询，并抛出此错误。
+	 * </p>
+	 * 
+	 * @param tasks
+	 * @param suppressChartError
+	 * @throws DataSetException
+	 */
+	protected void executeDataSetTasks(List<DataSetTask> tasks, boolean suppressChartError)
+			throws DataSetException
+	{
+		CompletionService<DataSetResult> completionService = new ExecutorCompletionService<DataSetResult>(
+				this.queryExecutor);
+		LinkedList<DataSetTask> pendings = new LinkedList<DataSetTask>(tasks);
+		Map<Future<DataSetResult>, DataSetTask> runnings = new HashMap<Future<DataSetResult>, DataSetTask>();
+		int concurrency = (this.queryConcurrency > 0 ? this.queryConcurrency : Integer.MAX_VALUE);
+
+		try
+		{
+			while (!pendings.isEmpty() || !runnings.isEmpty())
 			{
-				try
+				while (!pendings.isEmpty() && runnings.size() < concurrency)
 				{
-					chartResult = chart.getResult(chartQuery);
-					chartResults.put(chartId, chartResult);
+					DataSetTask task = pendings.poll();
+
+					// 所属图表都已出错，不必再执行
+					if (task.isDiscarded())
+						continue;
+
+					Future<DataSetResult> future = completionService.submit(task);
+					task.setDeadline(this.queryTimeout > 0 ? System.currentTimeMillis() + this.queryTimeout : 0);
+					runnings.put(future, task);
 				}
-				catch (Throwable t)
+
+				if (runnings.isEmpty())
+					continue;
+
+				Future<DataSetResult> future = pollCompleted(completionService, runnings);
+
+				if (future == null)
 				{
-					chartResultErrors.put(chartId, new ChartResultError(t));
+					long now = System.currentTimeMillis();
+
+					for (Iterator<Map.Entry<Future<DataSetResult>, DataSetTask>> it = runnings.entrySet()
+							.iterator(); it.hasNext();)
+					{
+						Map.Entry<Future<DataSetResult>, DataSetTask> entry = it.next();
+						DataSetTask task = entry.getValue();
+
+						if (task.getDeadline() > 0 && task.getDeadline() <= now)
+						{
+							task.cancel();
+							entry.getKey().cancel(true);
+							it.remove();
+
+							DataSetQueryTimeoutException error = new DataSetQueryTimeoutException(this.queryTimeout);
+							task.setError(error);
+
+							if (!suppressChartError)
+								throwChartError(error);
+						}
+					}
+				}
+				else
+				{
+					DataSetTask task = runnings.remove(future);
+
+					// 已被取消的查询
+					if (task == null)
+						continue;
+
+					try
+					{
+						task.setResult(future.get());
+					}
+					catch (ExecutionException e)
+					{
+						task.setError(e.getCause());
+
+						if (!suppressChartError)
+							throwChartError(e.getCause());
+					}
 				}
 			}
-			else
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new DataSetException(e);
+		}
+		finally
+		{
+			for (Map.Entry<Future<DataSetResult>, DataSetTask> entry : runnings.entrySet())
 			{
-				chartResult = chart.getResult(chartQuery);
-				chartResults.put(chartId, chartResult);
+				entry.getValue().cancel();
+				entry.getKey().cancel(true);
 			}
 		}
+	}
 
-		DashboardResult dashboardResult = new DashboardResult(chartResults);
-		dashboardResult.setChartResultErrors(chartResultErrors);
+	/**
+	 * 获取下一个执行完成的{@linkplain Future}。
+	 * 
+	 * @param completionService
+	 * @param runnings
+	 * @return 为{@code null}表示有查询已超时
+	 * @throws InterruptedException
+	 */
+	protected Future<DataSetResult> pollCompleted(CompletionService<DataSetResult> completionService,
+			Map<Future<DataSetResult>, DataSetTask> runnings) throws InterruptedException
+	{
+		if (this.queryTimeout <= 0)
+			return completionService.take();
 
-		return dashboardResult;
+		long deadline = Long.MAX_VALUE;
+
+		for (DataSetTask task : runnings.values())
+			deadline = Math.min(deadline, task.getDeadline());
+
+		long wait = deadline - System.currentTimeMillis();
+
+		if (wait <= 0)
+			return completionService.poll();
+		else
+			return completionService.poll(wait, TimeUnit.MILLISECONDS);
 	}
-	
+
+	/**
+	 * 抛出图表查询错误。
+	 * 
+	 * @param t
+	 * @throws DataSetException
+	 */
+	protected void throwChartError(Throwable t) throws DataSetException
+	{
+		if (t instanceof DataSetException)
+			throw (DataSetException) t;
+		else if (t instanceof RuntimeException)
+			throw (RuntimeException) t;
+		else if (t instanceof Error)
+			throw (Error) t;
+		else
+			throw new DataSetException(t);
+	}
+
+	/**
+	 * 获取{@linkplain ChartDefinition}，没有则抛出{@linkplain IllegalArgumentException}。
+	 * 
+	 * @param chartId
+	 * @return
+	 */
+	protected ChartDefinition getChartDefinitionNonNull(String chartId)
+	{
+		ChartDefinition chart = getChartDefinition(chartId);
+
+		if (chart == null)
+			throw new IllegalArgumentException("Chart '" + chartId + "' not found");
+
+		return chart;
+	}
+
+	/**
+	 * 获取应用了{@linkplain DashboardQuery#getResultDataFormat()}的{@linkplain ChartQuery}。
+	 * 
+	 * @param query
+	 * @param chartQuery
+	 * @return
+	 */
+	protected ChartQuery getChartQuery(DashboardQuery query, ChartQuery chartQuery)
+	{
+		if (chartQuery.getResultDataFormat() == null && query.getResultDataFormat() != null)
+		{
+			chartQuery = chartQuery.copy();
+			chartQuery.setResultDataFormat(query.getResultDataFormat());
+		}
+
+		return chartQuery;
+	}
+
 	/**
 	 * 获取指定图表ID对应的{@linkplain ChartDefinition}。
 	 * 
@@ -98,4 +448,257 @@ public abstract class DashboardQueryHandler
 	 * @return 允许返回{@code null}
 	 */
 	protected abstract ChartDefinition getChartDefinition(String chartId);
+
+	/**
+	 * 图表查询任务。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ChartTask
+	{
+		private final String chartId;
+
+		private final DataSetResult[] dataSetResults;
+
+		private volatile Throwable error = null;
+
+		public ChartTask(String chartId, int chartDataSetCount)
+		{
+			super();
+			this.chartId = chartId;
+			this.dataSetResults = new DataSetResult[chartDataSetCount];
+		}
+
+		public String getChartId()
+		{
+			return chartId;
+		}
+
+		public List<DataSetResult> getDataSetResults()
+		{
+			return Arrays.asList(this.dataSetResults);
+		}
+
+		public void setDataSetResult(int index, DataSetResult result)
+		{
+			this.dataSetResults[index] = result;
+		}
+
+		/**
+		 * 获取首个数据集查询错误。
+		 * 
+		 * @return 为{@code null}表示没有错误
+		 */
+		public Throwable getError()
+		{
+			return error;
+		}
+
+		public void setError(Throwable error)
+		{
+			if (this.error == null)
+				this.error = error;
+		}
+	}
+
+	/**
+	 * 数据集查询任务，其结果可由多个图表共享。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class DataSetTask implements Callable<DataSetResult>
+	{
+		private final ChartDataSet chartDataSet;
+
+		private final DataSetQuery query;
+
+		private final DataSetResultLoader loader;
+
+		private final List<ChartTask> chartTasks = new ArrayList<ChartTask>(1);
+
+		private final List<Integer> chartDataSetIndexes = new ArrayList<Integer>(1);
+
+		private long deadline = 0;
+
+		private final StatementCanceler statementCanceler = new StatementCanceler();
+
+		public DataSetTask(ChartDataSet chartDataSet, DataSetQuery query, DataSetResultLoader loader)
+		{
+			super();
+			this.chartDataSet = chartDataSet;
+			this.query = query;
+			this.loader = loader;
+		}
+
+		public ChartDataSet getChartDataSet()
+		{
+			return chartDataSet;
+		}
+
+		public DataSetQuery getQuery()
+		{
+			return query;
+		}
+
+		public List<ChartTask> getChartTasks()
+		{
+			return chartTasks;
+		}
+
+		/**
+		 * 添加需要此查询结果的图表数据集。
+		 * 
+		 * @param chartTask
+		 * @param chartDataSetIndex
+		 */
+		public void addTarget(ChartTask chartTask, int chartDataSetIndex)
+		{
+			this.chartTasks.add(chartTask);
+			this.chartDataSetIndexes.add(chartDataSetIndex);
+		}
+
+		/**
+		 * 是否所属图表都已出错，无需再执行。
+		 * 
+		 * @return
+		 */
+		public boolean isDiscarded()
+		{
+			for (ChartTask chartTask : this.chartTasks)
+			{
+				if (chartTask.getError() == null)
+					return false;
+			}
+
+			return true;
+		}
+
+		/**
+		 * 获取超时时间点。
+		 * 
+		 * @return {@code <=0}表示不超时
+		 */
+		public long getDeadline()
+		{
+			return deadline;
+		}
+
+		public void setDeadline(long deadline)
+		{
+			this.deadline = deadline;
+		}
+
+		public void setResult(DataSetResult result)
+		{
+			for (int i = 0, len = this.chartTasks.size(); i < len; i++)
+				this.chartTasks.get(i).setDataSetResult(this.chartDataSetIndexes.get(i), result);
+		}
+
+		public void setError(Throwable error)
+		{
+			for (ChartTask chartTask : this.chartTasks)
+				chartTask.setError(error);
+		}
+
+		/**
+		 * 取消执行，数据库端正在执行的SQL也将被取消。
+		 * <p>
+		 * 此方法不会抛出任何{@linkplain Throwable}。
+		 * </p>
+		 */
+		public void cancel()
+		{
+			this.statementCanceler.cancel();
+		}
+
+		@Override
+		public DataSetResult call() throws Exception
+		{
+			this.statementCanceler.bind();
+
+			try
+			{
+				return this.chartDataSet.getResult(this.query, this.loader);
+			}
+			finally
+			{
+				this.statementCanceler.unbind();
+			}
+		}
+	}
+
+	/**
+	 * 用于合并相同数据集查询的关键字。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class DataSetTaskKey
+	{
+		private final String dataSetId;
+
+		private final DataSetQuery query;
+
+		public DataSetTaskKey(String dataSetId, DataSetQuery query)
+		{
+			super();
+			this.dataSetId = dataSetId;
+			this.query = query;
+		}
+
+		public String getDataSetId()
+		{
+			return dataSetId;
+		}
+
+		public DataSetQuery getQuery()
+		{
+			return query;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((dataSetId == null) ? 0 : dataSetId.hashCode());
+			result = prime * result + ((query == null) ? 0 : query.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			DataSetTaskKey other = (DataSetTaskKey) obj;
+			if (dataSetId == null)
+			{
+				if (other.dataSetId != null)
+					return false;
+			}
+			else if (!dataSetId.equals(other.dataSetId))
+				return false;
+			if (query == null)
+			{
+				if (other.query != null)
+					return false;
+			}
+			else if (!query.equals(other.query))
+				return false;
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [dataSetId=" + dataSetId + ", query=" + query + "]";
+		}
+	}
 }
@@ -40,6 +40,9 @@ public class DataSetQuery implements ResultDataFormatAware
 	/** 结果数据最大返回数目 */
 	private int resultFetchSize = -1;
 
+	/** 查询计划 */
+	private DataSetQueryPlan plan = null;
+
 	public DataSetQuery()
 	{
 		super();
@@ -51,6 +54,7 @@ public class DataSetQuery implements ResultDataFormatAware
 		setParamValues(query.getParamValues());
 		this.resultDataFormat = query.resultDataFormat;
 		this.resultFetchSize = query.resultFetchSize;
+		this.plan = query.plan;
 	}
 
 	public Map<String, ?> getParamValues()
@@ -113,6 +117,39 @@ public class DataSetQuery implements ResultDataFormatAware
 		this.resultFetchSize = resultFetchSize;
 	}
 
+	/**
+	 * 获取查询计划。
+	 * 
+	 * @return 为{@code null}表示没有
+	 */
+	public DataSetQueryPlan getPlan()
+	{
+		return plan;
+	}
+
+	/**
+	 * 设置查询计划。
+	 * <p>
+	 * 设置后，{@linkplain DataSet#getResult(DataSetQuery)}将返回执行计划后的数据，{@linkplain #getResultFetchSize()}也将作用于计划执行后的数据。
+	 * </p>
+	 * 
+	 * @param plan
+	 */
+	public void setPlan(DataSetQueryPlan plan)
+	{
+		this.plan = plan;
+	}
+
+	/**
+	 * 是否有非空的查询计划。
+	 * 
+	 * @return
+	 */
+	public boolean hasPlan()
+	{
+		return !DataSetQueryPlan.isEmpty(this.plan);
+	}
+
 	/**
 	 * 设置参数。
 	 * 
@@ -160,6 +197,61 @@ public class DataSetQuery implements ResultDataFormatAware
 		return new DataSetQuery(this);
 	}
 
+	@Override
+	public int hashCode()
+	{
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((paramValues == null) ? 0 : paramValues.hashCode());
+		result = prime * result + ((resultDataFormat == null) ? 0 : resultDataFormat.hashCode());
+		result = prime * result + resultFetchSize;
+		result = prime * result + ((plan == null) ? 0 : plan.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		DataSetQuery other = (DataSetQuery) obj;
+		if (paramValues == null)
+		{
+			if (other.paramValues != null)
+				return false;
+		}
+		else if (!paramValues.equals(other.paramValues))
+			return false;
+		if (resultDataFormat == null)
+		{
+			if (other.resultDataFormat != null)
+				return false;
+		}
+		else if (!resultDataFormat.equals(other.resultDataFormat))
+			return false;
+		if (resultFetchSize != other.resultFetchSize)
+			return false;
+		if (plan == null)
+		{
+			if (other.plan != null)
+				return false;
+		}
+		else if (!plan.equals(other.plan))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [paramValues=" + paramValues + ", resultDataFormat=" + resultDataFormat
+				+ ", resultFetchSize=" + resultFetchSize + ", plan=" + plan + "]";
+	}
+
 	/**
 	 * 构建{@linkplain DataSetQuery}。
 	 * 
@@ -0,0 +1,726 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 数据集查询计划。
+ * <p>
+ * 它描述对{@linkplain DataSet}结果数据的投影、过滤、分组、聚合、排序、限定数目操作，名称都是{@linkplain DataSetProperty#getName()}，
+ * 执行顺序为：过滤 -> 分组、聚合（或者投影） -> 排序 -> 限定数目。
+ * </p>
+ * <p>
+ * 支持的{@linkplain DataSet}（比如SQL数据集）可将其下推至数据源执行，其他的则在内存中执行。
+ * </p>
+ * <p>
+ * 列表属性设置为{@code null}时（比如JSON中为{@code null}），将被设为空列表，因此它们都不会为{@code null}。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DataSetQueryPlan implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 投影属性名，为空表示全部 */
+	private List<String> projections = new ArrayList<String>();
+
+	/** 过滤条件，多个之间为"且"关系 */
+	private List<Filter> filters = new ArrayList<Filter>();
+
+	/** 分组属性名 */
+	private List<String> groupBys = new ArrayList<String>();
+
+	/** 聚合 */
+	private List<Aggregate> aggregates = new ArrayList<Aggregate>();
+
+	/** 排序 */
+	private List<Order> orders = new ArrayList<Order>();
+
+	/** 限定数目，小于0表示不限定 */
+	private int limit = -1;
+
+	public DataSetQueryPlan()
+	{
+		super();
+	}
+
+	public List<String> getProjections()
+	{
+		return projections;
+	}
+
+	public void setProjections(List<String> projections)
+	{
+		this.projections = (projections == null ? new ArrayList<String>() : projections);
+	}
+
+	public List<Filter> getFilters()
+	{
+		return filters;
+	}
+
+	public void setFilters(List<Filter> filters)
+	{
+		this.filters = (filters == null ? new ArrayList<Filter>() : filters);
+	}
+
+	public List<String> getGroupBys()
+	{
+		return groupBys;
+	}
+
+	public void setGroupBys(List<String> groupBys)
+	{
+		this.groupBys = (groupBys == null ? new ArrayList<String>() : groupBys);
+	}
+
+	public List<Aggregate> getAggregates()
+	{
+		return aggregates;
+	}
+
+	public void setAggregates(List<Aggregate> aggregates)
+	{
+		this.aggregates = (aggregates == null ? new ArrayList<Aggregate>() : aggregates);
+	}
+
+	public List<Order> getOrders()
+	{
+		return orders;
+	}
+
+	public void setOrders(List<Order> orders)
+	{
+		this.orders = (orders == null ? new ArrayList<Order>() : orders);
+	}
+
+	public int getLimit()
+	{
+		return limit;
+	}
+
+	public void setLimit(int limit)
+	{
+		this.limit = limit;
+	}
+
+	/**
+	 * 添加投影。
+	 * 
+	 * @param names
+	 * @return
+	 */
+	public DataSetQueryPlan project(String... names)
+	{
+		this.projections.addAll(Arrays.asList(names));
+		return this;
+	}
+
+	/**
+	 * 添加过滤条件。
+	 * 
+	 * @param name
+	 * @param operator
+	 * @param value
+	 * @return
+	 */
+	public DataSetQueryPlan filter(String name, FilterOperator operator, Object value)
+	{
+		this.filters.add(new Filter(name, operator, value));
+		return this;
+	}
+
+	/**
+	 * 添加分组。
+	 * 
+	 * @param names
+	 * @return
+	 */
+	public DataSetQueryPlan groupBy(String... names)
+	{
+		this.groupBys.addAll(Arrays.asList(names));
+		return this;
+	}
+
+	/**
+	 * 添加聚合。
+	 * 
+	 * @param function
+	 * @param name
+	 *            为{@code null}仅适用于{@linkplain AggregateFunction#COUNT}，表示计数所有行
+	 * @param alias
+	 * @return
+	 */
+	public DataSetQueryPlan aggregate(AggregateFunction function, String name, String alias)
+	{
+		this.aggregates.add(new Aggregate(function, name, alias));
+		return this;
+	}
+
+	/**
+	 * 添加排序。
+	 * 
+	 * @param name
+	 *            如果是聚合查询，应是分组名或者聚合别名
+	 * @param asc
+	 * @return
+	 */
+	public DataSetQueryPlan orderBy(String name, boolean asc)
+	{
+		this.orders.add(new Order(name, asc));
+		return this;
+	}
+
+	/**
+	 * 设置限定数目。
+	 * 
+	 * @param limit
+	 * @return
+	 */
+	public DataSetQueryPlan limit(int limit)
+	{
+		this.limit = limit;
+		return this;
+	}
+
+	/**
+	 * 是否聚合查询。
+	 * 
+	 * @return
+	 */
+	public boolean isAggregate()
+	{
+		return (!isEmpty(this.groupBys) || !isEmpty(this.aggregates));
+	}
+
+	/**
+	 * 是否空计划，即不做任何操作。
+	 * 
+	 * @return
+	 */
+	public boolean isEmptyPlan()
+	{
+		return (isEmpty(this.projections) && isEmpty(this.filters) && !isAggregate() && isEmpty(this.orders)
+				&& this.limit < 0);
+	}
+
+	/**
+	 * 获取此计划引用的所有源属性名。
+	 * <p>
+	 * 不包括排序中引用的聚合别名。
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public Set<String> getReferencedNames()
+	{
+		Set<String> names = new LinkedHashSet<String>();
+
+		if (this.projections != null)
+			names.addAll(this.projections);
+
+		if (this.filters != null)
+		{
+			for (Filter filter : this.filters)
+				names.add(filter.getName());
+		}
+
+		if (this.groupBys != null)
+			names.addAll(this.groupBys);
+
+		Set<String> aliases = new LinkedHashSet<String>();
+
+		if (this.aggregates != null)
+		{
+			for (Aggregate aggregate : this.aggregates)
+			{
+				if (aggregate.getName() != null)
+					names.add(aggregate.getName());
+
+				aliases.add(aggregate.getAlias());
+			}
+		}
+
+		if (this.orders != null)
+		{
+			for (Order order : this.orders)
+			{
+				if (!aliases.contains(order.getName()))
+					names.add(order.getName());
+			}
+		}
+
+		return names;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((projections == null) ? 0 : projections.hashCode());
+		result = prime * result + ((filters == null) ? 0 : filters.hashCode());
+		result = prime * result + ((groupBys == null) ? 0 : groupBys.hashCode());
+		result = prime * result + ((aggregates == null) ? 0 : aggregates.hashCode());
+		result = prime * result + ((orders == null) ? 0 : orders.hashCode());
+		result = prime * result + limit;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj)
+	{
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		DataSetQueryPlan other = (DataSetQueryPlan) obj;
+		if (projections == null)
+		{
+			if (other.projections != null)
+				return false;
+		}
+		else if (!projections.equals(other.projections))
+			return false;
+		if (filters == null)
+		{
+			if (other.filters != null)
+				return false;
+		}
+		else if (!filters.equals(other.filters))
+			return false;
+		if (groupBys == null)
+		{
+			if (other.groupBys != null)
+				return false;
+		}
+		else if (!groupBys.equals(other.groupBys))
+			return false;
+		if (aggregates == null)
+		{
+			if (other.aggregates != null)
+				return false;
+		}
+		else if (!aggregates.equals(other.aggregates))
+			return false;
+		if (orders == null)
+		{
+			if (other.orders != null)
+				return false;
+		}
+		else if (!orders.equals(other.orders))
+			return false;
+		if (limit != other.limit)
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [projections=" + projections + ", filters=" + filters + ", groupBys="
+				+ groupBys + ", aggregates=" + aggregates + ", orders=" + orders + ", limit=" + limit + "]";
+	}
+
+	/**
+	 * 给定计划是否为{@code null}或者空计划。
+	 * 
+	 * @param plan
+	 * @return
+	 */
+	public static boolean isEmpty(DataSetQueryPlan plan)
+	{
+		return (plan == null || plan.isEmptyPlan());
+	}
+
+	private static boolean isEmpty(List<?> list)
+	{
+		return (list == null || list.isEmpty());
+	}
+
+	/**
+	 * 过滤运算符。
+	 * 
+	 * @author datagear@163.com
+	 * 
+	 */
+	public static enum FilterOperator
+	{
+		/** 等于 */
+		EQ,
+
+		/** 不等于 */
+		NE,
+
+		/** 大于 */
+		GT,
+
+		/** 大于等于 */
+		GE,
+
+		/** 小于 */
+		LT,
+
+		/** 小于等于 */
+		LE,
+
+		/** 在集合中，值应是{@linkplain java.util.Collection}或者数组 */
+		IN,
+
+		/** 为空 */
+		IS_NULL,
+
+		/** 不为空 */
+		IS_NOT_NULL
+	}
+
+	/**
+	 * 聚合函数。
+	 * 
+	 * @author datagear@163.com
+	 * 
+	 */
+	public static enum AggregateFunction
+	{
+		COUNT, SUM, AVG, MIN, MAX
+	}
+
+	/**
+	 * 过滤条件。
+	 * 
+	 * @author datagear@163.com
+	 * 
+	 */
+	public static class Filter implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private String name;
+
+		private FilterOperator operator;
+
+		private Object value;
+
+		public Filter()
+		{
+			super();
+		}
+
+		public Filter(String name, FilterOperator operator, Object value)
+		{
+			super();
+			this.name = name;
+			this.operator = operator;
+			this.value = value;
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+		public void setName(String name)
+		{
+			this.name = name;
+		}
+
+		public FilterOperator getOperator()
+		{
+			return operator;
+		}
+
+		public void setOperator(FilterOperator operator)
+		{
+			this.operator = operator;
+		}
+
+		public Object getValue()
+		{
+			return value;
+		}
+
+		public void setValue(Object value)
+		{
+			this.value = value;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((name == null) ? 0 : name.hashCode());
+			result = prime * result + ((operator == null) ? 0 : operator.hashCode());
+			result = prime * result + ((value == null) ? 0 : value.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			Filter other = (Filter) obj;
+			if (name == null)
+			{
+				if (other.name != null)
+					return false;
+			}
+			else if (!name.equals(other.name))
+				return false;
+			if (operator == null)
+			{
+				if (other.operator != null)
+					return false;
+			}
+			else if (!operator.equals(other.operator))
+				return false;
+			if (value == null)
+			{
+				if (other.value != null)
+					return false;
+			}
+			else if (!value.equals(other.value))
+				return false;
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [name=" + name + ", operator=" + operator + ", value=" + value
+					+ "]";
+		}
+	}
+
+	/**
+	 * 聚合。
+	 * 
+	 * @author datagear@163.com
+	 * 
+	 */
+	public static class Aggregate implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private AggregateFunction function;
+
+		private String name;
+
+		private String alias;
+
+		public Aggregate()
+		{
+			super();
+		}
+
+		public Aggregate(AggregateFunction function, String name, String alias)
+		{
+			super();
+			this.function = function;
+			this.name = name;
+			this.alias = alias;
+		}
+
+		public AggregateFunction getFunction()
+		{
+			return function;
+		}
+
+		public void setFunction(AggregateFunction function)
+		{
+			this.function = function;
+		}
+
+		/**
+		 * 获取聚合的属性名。
+		 * 
+		 * @return 为{@code null}仅适用于{@linkplain AggregateFunction#COUNT}，表示计数所有行
+		 */
+		public String getName()
+		{
+			return name;
+		}
+
+		public void setName(String name)
+		{
+			this.name = name;
+		}
+
+		public String getAlias()
+		{
+			return alias;
+		}
+
+		public void setAlias(String alias)
+		{
+			this.alias = alias;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((function == null) ? 0 : function.hashCode());
+			result = prime * result + ((name == null) ? 0 : name.hashCode());
+			result = prime * result + ((alias == null) ? 0 : alias.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			Aggregate other = (Aggregate) obj;
+			if (function == null)
+			{
+				if (other.function != null)
+					return false;
+			}
+			else if (!function.equals(other.function))
+				return false;
+			if (name == null)
+			{
+				if (other.name != null)
+					return false;
+			}
+			else if (!name.equals(other.name))
+				return false;
+			if (alias == null)
+			{
+				if (other.alias != null)
+					return false;
+			}
+			else if (!alias.equals(other.alias))
+				return false;
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [function=" + function + ", name=" + name + ", alias=" + alias
+					+ "]";
+		}
+	}
+
+	/**
+	 * 排序。
+	 * 
+	 * @author datagear@163.com
+	 * 
+	 */
+	public static class Order implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private String name;
+
+		private boolean asc = true;
+
+		public Order()
+		{
+			super();
+		}
+
+		public Order(String name, boolean asc)
+		{
+			super();
+			this.name = name;
+			this.asc = asc;
+		}
+
+		public String getName()
+		{
+			return name;
+		}
+
+		public void setName(String name)
+		{
+			this.name = name;
+		}
+
+		public boolean isAsc()
+		{
+			return asc;
+		}
+
+		public void setAsc(boolean asc)
+		{
+			this.asc = asc;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((name == null) ? 0 : name.hashCode());
+			result = prime * result + (asc ? 1231 : 1237);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			Order other = (Order) obj;
+			if (name == null)
+			{
+				if (other.name != null)
+					return false;
+			}
+			else if (!name.equals(other.name))
+				return false;
+			if (asc != other.asc)
+				return false;
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [name=" + name + ", asc=" + asc + "]";
+		}
+	}
+}
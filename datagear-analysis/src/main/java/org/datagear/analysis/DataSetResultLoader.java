@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis;
+
+/**
+ * {@linkplain DataSetResult}加载器。
+ * <p>
+ * 用于在{@linkplain DashboardQueryHandler}、{@linkplain ChartDefinition}获取{@linkplain DataSet}结果时，
+ * 加入合并请求、并发执行等处理逻辑。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public interface DataSetResultLoader
+{
+	/**
+	 * 加载{@linkplain DataSetResult}。
+	 * <p>
+	 * 结果应与{@linkplain DataSet#getResult(DataSetQuery)}一致。
+	 * </p>
+	 * 
+	 * @param dataSet
+	 * @param query
+	 * @return
+	 * @throws DataSetException
+	 */
+	DataSetResult load(DataSet dataSet, DataSetQuery query) throws DataSetException;
+}
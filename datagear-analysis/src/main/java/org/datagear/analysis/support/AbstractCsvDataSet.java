@@ -21,14 +21,13 @@ import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
 import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.DataSetQuery;
 import org.datagear.analysis.ResolvableDataSet;
 import org.datagear.analysis.support.AbstractCsvDataSet.CsvDataSetResource;
 import org.datagear.util.IOUtil;
@@ -96,8 +95,26 @@ public abstract class AbstractCsvDataSet<T extends CsvDataSetResource> extends A
 		this.nameRow = nameRow;
 	}
 
+	@Override
+	protected boolean isPartialResourceDataSupported()
+	{
+		return true;
+	}
+
 	@Override
 	protected ResourceData resolveResourceData(T resource) throws Throwable
+	{
+		return resolveResourceData(resource, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * 以流式方式逐行读取CSV，并在读取过程中推断属性类型，数据行数到达{@linkplain DataSetQuery#getResultFetchSize()}后即停止读取。
+	 * </p>
+	 */
+	@Override
+	protected ResourceData resolveResourceData(T resource, DataSetQuery query) throws Throwable
 	{
 		Reader reader = null;
 
@@ -106,11 +123,52 @@ public abstract class AbstractCsvDataSet<T extends CsvDataSetResource> extends A
 			reader = resource.getReader();
 
 			CSVParser csvParser = buildCSVParser(reader);
-			List<CSVRecord> csvRecords = csvParser.getRecords();
 
-			List<String> propertyNames = resolvePropertyNames(resource, csvRecords);
-			List<Map<String, String>> data = resolveData(resource, propertyNames, csvRecords);
-			List<DataSetProperty> properties = resolveProperties(propertyNames, data);
+			// 确定属性名之前的行，通常只有名称行及其之前的行
+			List<CSVRecord> headRecords = new ArrayList<CSVRecord>();
+			List<String> propertyNames = null;
+			ColumnarData data = null;
+			boolean[] isNumbers = null;
+			int rowIndex = 0;
+
+			for (CSVRecord csvRecord : csvParser)
+			{
+				if (data == null)
+				{
+					headRecords.add(csvRecord);
+
+					if (resource.isNameRow(rowIndex) || resource.isAfterNameRow(rowIndex))
+					{
+						propertyNames = resolvePropertyNames(resource, headRecords);
+						data = new ColumnarData(propertyNames);
+						isNumbers = createIsNumbers(propertyNames);
+
+						for (int i = 0, len = headRecords.size(); i < len; i++)
+						{
+							if (!resource.isNameRow(i) && !isReachResultFetchSize(query, data.size()))
+								addDataRow(data, headRecords.get(i), isNumbers);
+						}
+
+						headRecords = null;
+					}
+				}
+				else
+					addDataRow(data, csvRecord, isNumbers);
+
+				if (data != null && isReachResultFetchSize(query, data.size()))
+					break;
+
+				rowIndex++;
+			}
+
+			if (data == null)
+			{
+				propertyNames = resolvePropertyNames(resource, headRecords);
+				data = new ColumnarData(propertyNames);
+				isNumbers = createIsNumbers(propertyNames);
+			}
+
+			List<DataSetProperty> properties = resolveProperties(propertyNames, (data.isEmpty() ? null : isNumbers));
 
 			return new ResourceData(data, properties);
 		}
@@ -169,85 +227,61 @@ public abstract class AbstractCsvDataSet<T extends CsvDataSetResource> extends A
 		return propertyNames;
 	}
 
+	protected boolean[] createIsNumbers(List<String> propertyNames)
+	{
+		boolean[] isNumbers = new boolean[propertyNames.size()];
+		Arrays.fill(isNumbers, true);
+
+		return isNumbers;
+	}
+
 	/**
-	 * 解析数据。
+	 * 添加一行数据，并修订属性是否数值类型。
 	 * 
-	 * @param resource
-	 * @param propertyNames
-	 * @param csvRecords
-	 * @return
+	 * @param data
+	 * @param csvRecord
+	 * @param isNumbers
 	 * @throws Throwable
 	 */
-	protected List<Map<String, String>> resolveData(CsvDataSetResource resource, List<String> propertyNames,
-			List<CSVRecord> csvRecords) throws Throwable
+	protected void addDataRow(ColumnarData data, CSVRecord csvRecord, boolean[] isNumbers) throws Throwable
 	{
-		List<Map<String, String>> data = new ArrayList<>();
+		int row = data.addRow();
+		int csvSize = csvRecord.size();
 
-		for (int i = 0, len = csvRecords.size(); i < len; i++)
+		for (int j = 0; j < isNumbers.length; j++)
 		{
-			if (resource.isNameRow(i))
-				continue;
+			String value = (j < csvSize ? csvRecord.get(j) : null);
 
-			Map<String, String> row = new HashMap<>();
-
-			CSVRecord csvRecord = csvRecords.get(i);
-			for (int j = 0, jlen = Math.min(csvRecord.size(), propertyNames.size()); j < jlen; j++)
-			{
-				String name = propertyNames.get(j);
-				String value = csvRecord.get(j);
+			if (value != null)
+				data.setValue(row, j, value);
 
-				row.put(name, value);
-			}
-
-			data.add(row);
+			// 只有某一列的所有字符串都是数值格式，才认为是数值类型
+			if (isNumbers[j])
+				isNumbers[j] = isNumberString(value);
 		}
-
-		return data;
 	}
 
 	/**
 	 * 解析{@linkplain DataSetProperty}。
 	 * 
 	 * @param propertyNames
-	 * @param data              允许为{@code null}
+	 * @param isNumbers
+	 *            各属性是否数值类型，允许为{@code null}，表示都不是
 	 * @return
 	 * @throws Throwable
 	 */
-	protected List<DataSetProperty> resolveProperties(List<String> propertyNames,
-			List<Map<String, String>> data)
+	protected List<DataSetProperty> resolveProperties(List<String> propertyNames, boolean[] isNumbers)
 			throws Throwable
 	{
-		int propertyLen = propertyNames.size();
-		List<DataSetProperty> properties = new ArrayList<>(propertyLen);
-	
-		for (String name : propertyNames)
-			properties.add(new DataSetProperty(name, DataSetProperty.DataType.STRING));
-	
-		// 根据数据格式，修订可能的数值类型：只有某一列的所有字符串都是数值格式，才认为是数值类型
-		if (data != null && data.size() > 0)
+		List<DataSetProperty> properties = new ArrayList<>(propertyNames.size());
+
+		for (int i = 0, len = propertyNames.size(); i < len; i++)
 		{
-			boolean[] isNumbers = new boolean[propertyLen];
-			Arrays.fill(isNumbers, true);
-	
-			for (Map<String, String> row : data)
-			{
-				for (int i = 0; i < propertyLen; i++)
-				{
-					if (!isNumbers[i])
-						continue;
-	
-					String value = row.get(propertyNames.get(i));
-					isNumbers[i] = isNumberString(value);
-				}
-			}
-	
-			for (int i = 0; i < propertyLen; i++)
-			{
-				if (isNumbers[i])
-					properties.get(i).setType(DataSetProperty.DataType.NUMBER);
-			}
+			String type = (isNumbers != null && isNumbers[i] ? DataSetProperty.DataType.NUMBER
+					: DataSetProperty.DataType.STRING);
+			properties.add(new DataSetProperty(propertyNames.get(i), type));
 		}
-	
+
 		return properties;
 	}
 
@@ -243,6 +243,9 @@ public abstract class AbstractDataSet extends AbstractIdentifiable implements Da
 
 	/**
 	 * 转换原始数据。
+	 * <p>
+	 * 如果不是易变模型（{@linkplain #isMutableModel()}为{@code false}），返回结果将是{@linkplain ColumnarData}。
+	 * </p>
 	 * 
 	 * @param rawData
 	 * @param properties
@@ -257,7 +260,37 @@ public abstract class AbstractDataSet extends AbstractIdentifiable implements Da
 		DataSetPropertyValueConverter converter = createDataSetPropertyValueConverter();
 		List<Object> defaultValues = getDefaultValues(properties, converter);
 
-		int dataSize = (fetchSize >= 0 ? fetchSize : rawData.size());
+		int dataSize = (fetchSize >= 0 ? Math.min(fetchSize, rawData.size()) : rawData.size());
+
+		// 易变模型应保留所有原始数据，列名不确定，不能采用列式数据
+		List<Map<String, Object>> data = (isMutableModel()
+				? convertRawDataToMapRows(rawData, properties, dataSize, defaultValues, converter)
+				: convertRawDataToColumnarData(rawData, properties, dataSize, defaultValues, converter));
+		
+		// 计算表达式
+		evalResultData(data, properties, defaultValues, converter);
+		
+		// 格式化，应是最后步骤
+		formatResultData(data, properties, format);
+		
+		return data;
+	}
+
+	/**
+	 * 将原始数据转换为{@linkplain Map}行数据列表。
+	 * 
+	 * @param rawData
+	 * @param properties
+	 * @param dataSize
+	 * @param defaultValues
+	 * @param converter
+	 * @return
+	 * @throws Throwable
+	 */
+	protected List<Map<String, Object>> convertRawDataToMapRows(Collection<? extends Map<String, ?>> rawData,
+			List<DataSetProperty> properties, int dataSize, List<Object> defaultValues,
+			DataSetPropertyValueConverter converter) throws Throwable
+	{
 		List<Map<String, Object>> data = new ArrayList<>(dataSize);
 
 		int plen = properties.size();
@@ -287,15 +320,86 @@ public abstract class AbstractDataSet extends AbstractIdentifiable implements Da
 
 			data.add(row);
 		}
-		
-		// 计算表达式
-		evalResultData(data, properties, defaultValues, converter);
-		
-		// 格式化，应是最后步骤
-		formatResultData(data, properties, format);
-		
+
+		return data;
+	}
+
+	/**
+	 * 将原始数据转换为{@linkplain ColumnarData}。
+	 * <p>
+	 * 如果{@code rawData}也是{@linkplain ColumnarData}，将直接按列索引读取，不会创建行视图。
+	 * </p>
+	 * 
+	 * @param rawData
+	 * @param properties
+	 * @param dataSize
+	 * @param defaultValues
+	 * @param converter
+	 * @return
+	 * @throws Throwable
+	 */
+	protected ColumnarData convertRawDataToColumnarData(Collection<? extends Map<String, ?>> rawData,
+			List<DataSetProperty> properties, int dataSize, List<Object> defaultValues,
+			DataSetPropertyValueConverter converter) throws Throwable
+	{
+		int plen = properties.size();
+		String[] names = new String[plen];
+
+		for (int i = 0; i < plen; i++)
+			names[i] = properties.get(i).getName();
+
+		ColumnarData data = new ColumnarData(names, dataSize);
+
+		if (rawData instanceof ColumnarData)
+		{
+			ColumnarData rawColumnar = (ColumnarData) rawData;
+			int[] rawColumns = new int[plen];
+
+			for (int i = 0; i < plen; i++)
+				rawColumns[i] = rawColumnar.getColumnIndex(names[i]);
+
+			for (int r = 0, rlen = Math.min(dataSize, rawColumnar.size()); r < rlen; r++)
+			{
+				int row = data.addRow();
+
+				for (int i = 0; i < plen; i++)
+				{
+					Object value = (rawColumns[i] < 0 ? null : rawColumnar.getValue(r, rawColumns[i]));
+					setColumnarDataValue(data, row, i, value, properties.get(i), defaultValues, converter);
+				}
+			}
+		}
+		else
+		{
+			for (Map<String, ?> rowRaw : rawData)
+			{
+				if (data.size() >= dataSize)
+					break;
+
+				int row = data.addRow();
+
+				for (int i = 0; i < plen; i++)
+				{
+					Object value = rowRaw.get(names[i]);
+					setColumnarDataValue(data, row, i, value, properties.get(i), defaultValues, converter);
+				}
+			}
+		}
+
 		return data;
 	}
+
+	private void setColumnarDataValue(ColumnarData data, int row, int column, Object value, DataSetProperty property,
+			List<Object> defaultValues, DataSetPropertyValueConverter converter)
+	{
+		value = convertToPropertyDataType(converter, value, property);
+
+		//无论是否计算属性，这里都应设置默认值
+		if (value == null)
+			value = defaultValues.get(column);
+
+		data.setValue(row, column, value);
+	}
 	
 	protected void evalResultData(List<Map<String, Object>> data, List<DataSetProperty> properties,
 			List<Object> defaultValues, DataSetPropertyValueConverter converter)
@@ -325,6 +429,32 @@ public abstract class AbstractDataSet extends AbstractIdentifiable implements Da
 		ResultDataFormatter formatter = new ResultDataFormatter(format);
 		int plen = properties.size();
 
+		if (data instanceof ColumnarData)
+		{
+			ColumnarData columnar = (ColumnarData) data;
+			int[] columns = new int[plen];
+
+			for (int i = 0; i < plen; i++)
+				columns[i] = columnar.getColumnIndex(properties.get(i).getName());
+
+			for (int r = 0, rlen = columnar.size(); r < rlen; r++)
+			{
+				for (int i = 0; i < plen; i++)
+				{
+					if (columns[i] < 0)
+						continue;
+
+					Object value = columnar.getValue(r, columns[i]);
+					Object fv = formatter.format(value);
+
+					if (fv != value)
+						columnar.setValue(r, columns[i], fv);
+				}
+			}
+
+			return;
+		}
+
 		for (Map<String, Object> row : data)
 		{
 			for (int i = 0; i < plen; i++)
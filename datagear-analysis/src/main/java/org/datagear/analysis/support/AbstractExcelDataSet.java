@@ -17,6 +17,8 @@
 
 package org.datagear.analysis.support;
 
+import static org.apache.poi.xssf.usermodel.XSSFRelation.NS_SPREADSHEETML;
+
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -26,17 +28,24 @@ import java.util.Map;
 
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.FormulaError;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellReference;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.datagear.analysis.DataSetException;
 import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.DataSetQuery;
 import org.datagear.analysis.support.AbstractExcelDataSet.ExcelDataSetResource;
 import org.datagear.analysis.support.RangeExpResolver.IndexRange;
 import org.datagear.analysis.support.RangeExpResolver.Range;
@@ -44,6 +53,11 @@ import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * 抽象Excel数据集。
@@ -56,6 +70,9 @@ import org.slf4j.LoggerFactory;
  * <p>
  * 通过{@linkplain #setNameRow(int)}可设置名称行。
  * </p>
+ * <p>
+ * {@code .xlsx}文件采用SAX事件模式流式读取，仅{@code .xls}文件采用{@linkplain HSSFWorkbook}读取。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -245,23 +262,37 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 		this.forceXls = forceXls;
 	}
 
+	@Override
+	protected boolean isPartialResourceDataSupported()
+	{
+		return true;
+	}
+
 	@Override
 	protected ResourceData resolveResourceData(T resource) throws Throwable
+	{
+		return resolveResourceData(resource, null);
+	}
+
+	@Override
+	protected ResourceData resolveResourceData(T resource, DataSetQuery query) throws Throwable
 	{
 		if (resource.isXls())
-			return resolveExcelResourceDataForXls(resource);
+			return resolveExcelResourceDataForXls(resource, query);
 		else
-			return resolveExcelResourceDataForXlsx(resource);
+			return resolveExcelResourceDataForXlsx(resource, query);
 	}
 
 	/**
 	 * 解析{@code ExcelResourceData}。
 	 * 
 	 * @param resource
+	 * @param query
+	 *            允许为{@code null}
 	 * @return
 	 * @throws DataSetException
 	 */
-	protected ResourceData resolveExcelResourceDataForXls(T resource)
+	protected ResourceData resolveExcelResourceDataForXls(T resource, DataSetQuery query)
 			throws DataSetException
 	{
 		InputStream in = null;
@@ -275,7 +306,7 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 			wb = new HSSFWorkbook(poifs.getRoot(), true);
 			Sheet sheet = resource.getDataSheet(wb);
 
-			return resolveExcelResourceDataForSheet(resource, sheet);
+			return resolveExcelResourceDataForSheet(resource, sheet, query);
 		}
 		catch (DataSetException e)
 		{
@@ -295,25 +326,50 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 
 	/**
 	 * 解析{@code ExcelResourceData}。
+	 * <p>
+	 * 采用SAX事件模式流式读取工作表，不会将整个工作簿载入内存。
+	 * </p>
 	 * 
 	 * @param resource
+	 * @param query
+	 *            允许为{@code null}
 	 * @return
 	 * @throws Throwable
 	 */
-	protected ResourceData resolveExcelResourceDataForXlsx(T resource) throws Throwable
+	protected ResourceData resolveExcelResourceDataForXlsx(T resource, DataSetQuery query) throws Throwable
 	{
-		InputStream in = null;
 		OPCPackage pkg = null;
-		XSSFWorkbook wb = null;
+		InputStream sheetIn = null;
 
 		try
 		{
-			in = resource.getInputStream();
-			pkg = OPCPackage.open(in);
-			wb = new XSSFWorkbook(pkg);
-			Sheet sheet = resource.getDataSheet(wb);
+			pkg = resource.openXlsxPackage();
+
+			XSSFReader xssfReader = new XSSFReader(pkg);
+			ReadOnlySharedStringsTable sharedStringsTable = new ReadOnlySharedStringsTable(pkg);
+			StylesTable stylesTable = xssfReader.getStylesTable();
+
+			sheetIn = resource.getDataSheetInputStream(xssfReader);
+
+			XlsxSheetHandler handler = new XlsxSheetHandler(resource, query, sharedStringsTable, stylesTable);
+
+			XMLReader sheetParser = XMLHelper.newXMLReader();
+			sheetParser.setContentHandler(handler);
 
-			return resolveExcelResourceDataForSheet(resource, sheet);
+			try
+			{
+				sheetParser.parse(new InputSource(sheetIn));
+			}
+			catch (XlsxSheetEndException e)
+			{
+			}
+
+			List<ExcelPropertyInfo> propertyInfos = handler.getPropertyInfos();
+			List<String> rawDataPropertyNames = toPropertyNames(propertyInfos);
+			List<Map<String, Object>> data = handler.getData();
+			List<DataSetProperty> properties = resolveProperties(rawDataPropertyNames, data);
+
+			return new ResourceData(data, properties);
 		}
 		catch (DataSetException e)
 		{
@@ -325,23 +381,23 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 		}
 		finally
 		{
-			IOUtil.close(wb);
-			IOUtil.close(pkg);
-			IOUtil.close(in);
+			IOUtil.close(sheetIn);
+			if (pkg != null)
+				pkg.revert();
 		}
 	}
 	
 	/**
 	 * 解析sheet数据。
 	 * 
-	 * @param query
+	 * @param resource
 	 * @param sheet
-	 * @param properties
-	 * @param resolveProperties
+	 * @param query
+	 *            允许为{@code null}
 	 * @return
 	 * @throws Throwable
 	 */
-	protected ResourceData resolveExcelResourceDataForSheet(T resource, Sheet sheet)
+	protected ResourceData resolveExcelResourceDataForSheet(T resource, Sheet sheet, DataSetQuery query)
 			throws Throwable
 	{
 		List<Row> excelRows = new ArrayList<Row>();
@@ -351,7 +407,7 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 
 		List<ExcelPropertyInfo> propertyInfos = resolvePropertyInfos(resource, excelRows);
 		List<String> rawDataPropertyNames = toPropertyNames(propertyInfos);
-		List<Map<String, Object>> data = resolveData(resource, propertyInfos, excelRows);
+		List<Map<String, Object>> data = resolveData(resource, propertyInfos, excelRows, query);
 		List<DataSetProperty> properties = resolveProperties(rawDataPropertyNames, data);
 
 		return new ResourceData(data, properties);
@@ -488,13 +544,15 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 	 * @param resource
 	 * @param propertyInfos
 	 * @param excelRows
-	 * @return
+	 * @param query
+	 *            允许为{@code null}
+	 * @return {@linkplain ColumnarData}
 	 * @throws Throwable
 	 */
 	protected List<Map<String, Object>> resolveData(T resource,
-			List<ExcelPropertyInfo> propertyInfos, List<Row> excelRows) throws Throwable
+			List<ExcelPropertyInfo> propertyInfos, List<Row> excelRows, DataSetQuery query) throws Throwable
 	{
-		List<Map<String, Object>> data = new ArrayList<>();
+		ColumnarData data = new ColumnarData(toPropertyNames(propertyInfos), excelRows.size());
 
 		Map<Short, String> cellNumPropertyNames = toCellNumPropertyNames(propertyInfos);
 
@@ -503,7 +561,10 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 			if (resource.isNameRow(i) || !resource.isDataRow(i))
 				continue;
 
-			Map<String, Object> row = new HashMap<>();
+			if (isReachResultFetchSize(query, data.size()))
+				break;
+
+			int row = data.addRow();
 
 			Row excelRow = excelRows.get(i);
 
@@ -512,14 +573,17 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 			{
 				if (resource.isDataColumn(colIdx))
 				{
-					Cell cell = excelRow.getCell(colIdx);
 					String name = cellNumPropertyNames.get(colIdx);
+					int column = data.getColumnIndex(name);
+
+					if (column < 0)
+						continue;
+
+					Cell cell = excelRow.getCell(colIdx);
 					Object value = resolveCellValue(cell);
-					row.put(name, value);
+					data.setValue(row, column, value);
 				}
 			}
-
-			data.add(row);
 		}
 
 		return data;
@@ -604,6 +668,404 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 		return cellValue;
 	}
 	
+	/**
+	 * {@code .xlsx}工作表SAX处理器。
+	 * <p>
+	 * 行、列、单元格值的解析规则与{@linkplain AbstractExcelDataSet#resolveExcelResourceDataForSheet(ExcelDataSetResource, Sheet, DataSetQuery)}保持一致，
+	 * 行索引是工作表中实际存在的行的序号。
+	 * </p>
+	 * <p>
+	 * 读取到足够的数据后，将抛出{@linkplain XlsxSheetEndException}以提前结束解析。
+	 * </p>
+	 */
+	protected class XlsxSheetHandler extends DefaultHandler
+	{
+		private final T resource;
+		private final DataSetQuery query;
+		private final ReadOnlySharedStringsTable sharedStringsTable;
+		private final StylesTable stylesTable;
+
+		private List<ExcelPropertyInfo> propertyInfos = null;
+		private ColumnarData data = null;
+
+		// 属性信息确定前读取的数据行
+		private List<XlsxRow> _pendingRows = new ArrayList<XlsxRow>();
+		private List<ExcelPropertyInfo> _firstDataRowPropertyInfos = null;
+		// 单元格序号 -> 数据列索引
+		private Map<Integer, Integer> _cellIdxColumns = null;
+
+		private int _rowIndex = -1;
+		private XlsxRow _row = null;
+		private int _cellIdx = -1;
+		private String _cellType = null;
+		private String _cellStyle = null;
+		private StringBuilder _cellContent = new StringBuilder();
+		private StringBuilder _cellFormula = new StringBuilder();
+		private boolean _inValue = false;
+		private boolean _inFormula = false;
+		private boolean _inInlineString = false;
+		private boolean _inInlineText = false;
+		private boolean _inPhonetic = false;
+
+		public XlsxSheetHandler(T resource, DataSetQuery query, ReadOnlySharedStringsTable sharedStringsTable,
+				StylesTable stylesTable)
+		{
+			super();
+			this.resource = resource;
+			this.query = query;
+			this.sharedStringsTable = sharedStringsTable;
+			this.stylesTable = stylesTable;
+		}
+
+		/**
+		 * 获取属性信息，应在解析结束后调用。
+		 * 
+		 * @return
+		 */
+		public List<ExcelPropertyInfo> getPropertyInfos()
+		{
+			if (this.propertyInfos == null)
+				initPropertyInfos(this._firstDataRowPropertyInfos);
+
+			return this.propertyInfos;
+		}
+
+		/**
+		 * 获取数据，应在解析结束后调用。
+		 * 
+		 * @return {@linkplain ColumnarData}
+		 */
+		public List<Map<String, Object>> getData()
+		{
+			getPropertyInfos();
+			return this.data;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes)
+				throws SAXException
+		{
+			if (uri != null && !uri.equals(NS_SPREADSHEETML))
+				return;
+
+			if ("row".equals(localName))
+			{
+				this._rowIndex++;
+				this._row = new XlsxRow();
+			}
+			else if ("c".equals(localName))
+			{
+				String cellRef = attributes.getValue("r");
+
+				this._cellIdx = (cellRef == null ? Math.max(this._row.getLastCellNum(), 0)
+						: new CellReference(cellRef).getCol());
+				this._cellType = attributes.getValue("t");
+				this._cellStyle = attributes.getValue("s");
+				clear(this._cellContent);
+				clear(this._cellFormula);
+			}
+			else if ("v".equals(localName))
+				this._inValue = true;
+			else if ("f".equals(localName))
+				this._inFormula = true;
+			else if ("is".equals(localName))
+				this._inInlineString = true;
+			else if ("rPh".equals(localName))
+				this._inPhonetic = true;
+			else if ("t".equals(localName) && this._inInlineString && !this._inPhonetic)
+				this._inInlineText = true;
+		}
+
+		@Override
+		public void endElement(String uri, String localName, String qName) throws SAXException
+		{
+			if (uri != null && !uri.equals(NS_SPREADSHEETML))
+				return;
+
+			if ("v".equals(localName))
+				this._inValue = false;
+			else if ("f".equals(localName))
+				this._inFormula = false;
+			else if ("is".equals(localName))
+				this._inInlineString = false;
+			else if ("rPh".equals(localName))
+				this._inPhonetic = false;
+			else if ("t".equals(localName))
+				this._inInlineText = false;
+			else if ("c".equals(localName))
+			{
+				boolean nameRow = this.resource.isNameRow(this._rowIndex);
+				this._row.setValue(this._cellIdx, (nameRow ? resolveNameCellValue() : resolveCellValue()));
+			}
+			else if ("row".equals(localName))
+			{
+				handleRow(this._rowIndex, this._row);
+				this._row = null;
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) throws SAXException
+		{
+			if (this._inValue || this._inInlineText)
+				this._cellContent.append(ch, start, length);
+			else if (this._inFormula)
+				this._cellFormula.append(ch, start, length);
+		}
+
+		protected void handleRow(int rowIndex, XlsxRow row) throws SAXException
+		{
+			if (this.propertyInfos == null)
+			{
+				if (this.resource.isNameRow(rowIndex))
+				{
+					initPropertyInfos(resolvePropertyInfos(row, true));
+				}
+				else if (this.resource.isDataRow(rowIndex))
+				{
+					if (this._firstDataRowPropertyInfos == null)
+						this._firstDataRowPropertyInfos = resolvePropertyInfos(row, false);
+
+					this._pendingRows.add(row);
+
+					if (this.resource.isAfterNameRow(rowIndex))
+						initPropertyInfos(this._firstDataRowPropertyInfos);
+				}
+			}
+			else if (this.resource.isDataRow(rowIndex))
+			{
+				addDataRow(row);
+			}
+
+			if (this.propertyInfos != null)
+			{
+				if (isReachResultFetchSize(this.query, this.data.size()) || this.resource.isAfterDataRows(rowIndex))
+					throw new XlsxSheetEndException();
+			}
+		}
+
+		protected void initPropertyInfos(List<ExcelPropertyInfo> propertyInfos)
+		{
+			if (propertyInfos == null)
+				propertyInfos = Collections.emptyList();
+
+			this.propertyInfos = propertyInfos;
+			this.data = new ColumnarData(toPropertyNames(propertyInfos));
+			this._cellIdxColumns = new HashMap<Integer, Integer>();
+
+			Map<Short, String> cellNumPropertyNames = toCellNumPropertyNames(propertyInfos);
+
+			for (Map.Entry<Short, String> entry : cellNumPropertyNames.entrySet())
+			{
+				int column = this.data.getColumnIndex(entry.getValue());
+
+				if (column > -1)
+					this._cellIdxColumns.put(entry.getKey().intValue(), column);
+			}
+
+			for (XlsxRow row : this._pendingRows)
+				addDataRow(row);
+
+			this._pendingRows = null;
+		}
+
+		protected void addDataRow(XlsxRow row)
+		{
+			if (isReachResultFetchSize(this.query, this.data.size()))
+				return;
+
+			int rowIdx = this.data.addRow();
+
+			for (int colIdx = row.getFirstCellNum(), maxColIdx = row.getLastCellNum(); colIdx < maxColIdx; colIdx++)
+			{
+				if (!this.resource.isDataColumn(colIdx))
+					continue;
+
+				Integer column = this._cellIdxColumns.get(colIdx);
+
+				if (column != null)
+					this.data.setValue(rowIdx, column, row.getValue(colIdx));
+			}
+		}
+
+		protected List<ExcelPropertyInfo> resolvePropertyInfos(XlsxRow row, boolean nameRow)
+		{
+			List<ExcelPropertyInfo> propertyInfos = new ArrayList<ExcelPropertyInfo>();
+
+			for (int colIdx = row.getFirstCellNum(), maxColIdx = row.getLastCellNum(); colIdx < maxColIdx; colIdx++)
+			{
+				if (this.resource.isDataColumn(colIdx))
+				{
+					String name = (nameRow ? (String) row.getValue(colIdx) : null);
+
+					if (StringUtil.isEmpty(name))
+						name = CellReference.convertNumToColString(colIdx);
+
+					propertyInfos.add(new ExcelPropertyInfo(name, (short) colIdx));
+				}
+			}
+
+			return propertyInfos;
+		}
+
+		/**
+		 * 解析名称行单元格值，仅字符串单元格有值。
+		 * 
+		 * @return
+		 */
+		protected String resolveNameCellValue()
+		{
+			String content = this._cellContent.toString();
+
+			if ("s".equals(this._cellType))
+				return (content.isEmpty() ? null : this.sharedStringsTable.getItemAt(Integer.parseInt(content))
+						.getString());
+			else if ("inlineStr".equals(this._cellType) || "str".equals(this._cellType))
+				return content;
+			else
+				return null;
+		}
+
+		/**
+		 * 解析单元格值，规则应与{@linkplain AbstractExcelDataSet#resolveCellValue(Cell)}一致。
+		 * 
+		 * @return
+		 */
+		protected Object resolveCellValue()
+		{
+			// 与DOM模式一致：公式单元格取公式，共享公式的从属单元格没有公式文本，则取其计算结果
+			if (this._cellFormula.length() > 0)
+				return this._cellFormula.toString();
+
+			String content = this._cellContent.toString();
+
+			if ("inlineStr".equals(this._cellType) || "str".equals(this._cellType))
+				return content;
+
+			if (content.isEmpty())
+				return null;
+
+			if ("s".equals(this._cellType))
+				return this.sharedStringsTable.getItemAt(Integer.parseInt(content)).getString();
+			else if ("b".equals(this._cellType))
+				return "1".equals(content);
+			else if ("e".equals(this._cellType))
+			{
+				try
+				{
+					return FormulaError.forString(content).getCode();
+				}
+				catch(Throwable t)
+				{
+					return content;
+				}
+			}
+			else
+			{
+				double value = Double.parseDouble(content);
+
+				if (isDateFormatted(value))
+					return DateUtil.getJavaDate(value);
+				else
+					return value;
+			}
+		}
+
+		protected boolean isDateFormatted(double value)
+		{
+			if (StringUtil.isEmpty(this._cellStyle) || this.stylesTable == null || !DateUtil.isValidExcelDate(value))
+				return false;
+
+			XSSFCellStyle style = this.stylesTable.getStyleAt(Integer.parseInt(this._cellStyle));
+
+			if (style == null)
+				return false;
+
+			short formatIndex = style.getDataFormat();
+			String formatString = style.getDataFormatString();
+
+			if (formatString == null)
+				formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+
+			return DateUtil.isADateFormat(formatIndex, formatString);
+		}
+
+		protected void clear(StringBuilder sb)
+		{
+			if (sb.length() > 0)
+				sb.delete(0, sb.length());
+		}
+	}
+
+	/**
+	 * {@code .xlsx}工作表中的一行。
+	 */
+	protected static class XlsxRow
+	{
+		private final List<Object> values = new ArrayList<Object>();
+
+		private int firstCellNum = -1;
+
+		private int lastCellNum = -1;
+
+		public XlsxRow()
+		{
+			super();
+		}
+
+		/**
+		 * 获取首个单元格序号，与{@linkplain Row#getFirstCellNum()}一致。
+		 * 
+		 * @return
+		 */
+		public int getFirstCellNum()
+		{
+			return firstCellNum;
+		}
+
+		/**
+		 * 获取最后单元格序号加{@code 1}，与{@linkplain Row#getLastCellNum()}一致。
+		 * 
+		 * @return
+		 */
+		public int getLastCellNum()
+		{
+			return lastCellNum;
+		}
+
+		public Object getValue(int cellIdx)
+		{
+			return (cellIdx < this.values.size() ? this.values.get(cellIdx) : null);
+		}
+
+		public void setValue(int cellIdx, Object value)
+		{
+			while (this.values.size() <= cellIdx)
+				this.values.add(null);
+
+			this.values.set(cellIdx, value);
+
+			if (this.firstCellNum < 0 || cellIdx < this.firstCellNum)
+				this.firstCellNum = cellIdx;
+
+			if (cellIdx + 1 > this.lastCellNum)
+				this.lastCellNum = cellIdx + 1;
+		}
+	}
+
+	/**
+	 * 提前结束{@linkplain XlsxSheetHandler}解析的异常。
+	 */
+	protected static class XlsxSheetEndException extends SAXException
+	{
+		private static final long serialVersionUID = 1L;
+
+		public XlsxSheetEndException()
+		{
+			super();
+		}
+	}
+
 	protected static class ExcelPropertyInfo
 	{
 		/** 属性名 */
@@ -733,6 +1195,59 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 			return sheet;
 		}
 		
+		/**
+		 * 获取数据所在工作表的{@code .xlsx}输入流。
+		 * 
+		 * @param xssfReader
+		 * @return
+		 * @throws Throwable
+		 */
+		public InputStream getDataSheetInputStream(XSSFReader xssfReader) throws Throwable
+		{
+			XSSFReader.SheetIterator iter = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+			boolean byName = !StringUtil.isEmpty(this.sheetName);
+			int sheetIndex = (this.sheetIndex < 1 ? 0 : this.sheetIndex - 1);
+			int index = 0;
+
+			while (iter.hasNext())
+			{
+				InputStream in = iter.next();
+
+				// 与Workbook.getSheet(String)一致，忽略大小写
+				if (byName ? this.sheetName.equalsIgnoreCase(iter.getSheetName()) : index == sheetIndex)
+					return in;
+
+				IOUtil.close(in);
+				index++;
+			}
+
+			throw new DataSetSourceParseException("No sheet found");
+		}
+
+		/**
+		 * 打开{@code .xlsx}文件包。
+		 * <p>
+		 * 子类如果可以直接访问文件，应重写此方法，以避免将整个文件载入内存。
+		 * </p>
+		 * 
+		 * @return
+		 * @throws Throwable
+		 */
+		public OPCPackage openXlsxPackage() throws Throwable
+		{
+			InputStream in = null;
+
+			try
+			{
+				in = getInputStream();
+				return OPCPackage.open(in);
+			}
+			finally
+			{
+				IOUtil.close(in);
+			}
+		}
+
 		/**
 		 * 获取Excel输入流。
 		 * 
@@ -783,6 +1298,26 @@ public abstract class AbstractExcelDataSet<T extends ExcelDataSetResource> exten
 			return IndexRange.includes(this._dataRowRanges, rowIndex + 1);
 		}
 
+		/**
+		 * 是否在名称行和所有数据行之后，即之后不会再有需要读取的行。
+		 * 
+		 * @param rowIndex 行索引（以{@code 0}计数）
+		 * @return
+		 */
+		protected boolean isAfterDataRows(int rowIndex)
+		{
+			if (this._dataRowRanges == null || this._dataRowRanges.isEmpty() || !isAfterNameRow(rowIndex))
+				return false;
+
+			for (IndexRange range : this._dataRowRanges)
+			{
+				if (range.getTo() < 0 || range.getTo() > rowIndex + 1)
+					return false;
+			}
+
+			return true;
+		}
+
 		/**
 		 * 是否数据列。
 		 * 
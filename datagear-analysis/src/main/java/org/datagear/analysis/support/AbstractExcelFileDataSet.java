@@ -21,6 +21,9 @@ import java.io.File;
 import java.io.InputStream;
 import java.util.List;
 
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetQuery;
 import org.datagear.analysis.support.AbstractExcelDataSet.ExcelDataSetResource;
@@ -172,6 +175,13 @@ public abstract class AbstractExcelFileDataSet extends AbstractExcelDataSet<Exce
 			return IOUtil.getInputStream(file);
 		}
 
+		@Override
+		public OPCPackage openXlsxPackage() throws Throwable
+		{
+			File file = FileUtil.getFile(this.filePath);
+			return OPCPackage.open(file, PackageAccess.READ);
+		}
+
 		@Override
 		public int hashCode()
 		{
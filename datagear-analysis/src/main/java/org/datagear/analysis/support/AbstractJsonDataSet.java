@@ -22,6 +22,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetResult;
@@ -30,18 +32,23 @@ import org.datagear.analysis.support.AbstractJsonDataSet.JsonDataSetResource;
 import org.datagear.util.IOUtil;
 import org.datagear.util.StringUtil;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.node.ValueNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
 import com.jayway.jsonpath.spi.json.JacksonJsonProvider;
 import com.jayway.jsonpath.spi.mapper.JacksonMappingProvider;
 
 /**
  * 抽象JSON数据集。
+ * <p>
+ * 对于{@code $}、{@code $.a.b}、{@code $.a[*]}这类简单的数据JSON路径，将流式读取JSON，仅构建路径所选部分的数据；
+ * 其他JSON路径则读取全部JSON后再执行，编译后的JSON路径会被缓存。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -53,6 +60,16 @@ public abstract class AbstractJsonDataSet<T extends JsonDataSetResource> extends
 	protected static final Configuration JACKSON_JSON_PATH_CONFIGURATION = Configuration.builder()
 			.jsonProvider(new JacksonJsonProvider()).mappingProvider(new JacksonMappingProvider()).build();
 
+	/** 已编译JSON路径缓存最大数目 */
+	protected static final int DATA_JSON_PATH_CACHE_MAXIMUM_SIZE = 500;
+
+	/** 已编译JSON路径缓存，关键字是规范JSON路径 */
+	private static final Cache<String, DataJsonPath> DATA_JSON_PATH_CACHE = Caffeine.newBuilder()
+			.maximumSize(DATA_JSON_PATH_CACHE_MAXIMUM_SIZE).build();
+
+	/** 读取数组、对象所有元素的JSON路径 */
+	private static final JsonPath WILDCARD_JSON_PATH = JsonPath.compile("$[*]");
+
 	/** 数据JSON路径 */
 	private String dataJsonPath = "";
 
@@ -128,79 +145,218 @@ public abstract class AbstractJsonDataSet<T extends JsonDataSetResource> extends
 	protected Object resolveData(Reader jsonReader, String dataJsonPath)
 			throws ReadJsonDataPathException, Throwable
 	{
-		JsonNode jsonNode = getObjectMapperNonStardand().readTree(jsonReader);
-	
-		if (!isLegalDataJsonNode(jsonNode))
-			throw new UnsupportedJsonResultDataException("Result data must be JSON object or array");
-	
-		if (jsonNode == null)
-			return null;
-	
-		Object data = getObjectMapperNonStardand().treeToValue(jsonNode, Object.class);
-	
-		if (data != null && !StringUtil.isEmpty(dataJsonPath))
+		ObjectMapper objectMapper = getObjectMapperNonStardand();
+		JsonParser parser = objectMapper.createParser(jsonReader);
+
+		try
 		{
-			String stdDataJsonPath = dataJsonPath.trim();
-	
-			if (!StringUtil.isEmpty(stdDataJsonPath))
+			JsonToken token = parser.nextToken();
+
+			if (token == null)
+				throw new UnsupportedJsonResultDataException("Result data must be JSON object or array");
+
+			if (token == JsonToken.VALUE_NULL)
+				return null;
+
+			// 根为JSON对象时，简单JSON路径可以直接定位所选部分，而无需构建全部JSON数据
+			if (token == JsonToken.START_OBJECT)
 			{
-				// 转换"stores[0].books"、"[1].stores"简化模式为规范的JSONPath
-				if (!stdDataJsonPath.startsWith("$"))
+				DataJsonPath jsonPath = null;
+
+				try
 				{
-					if (stdDataJsonPath.startsWith("["))
-						stdDataJsonPath = "$" + stdDataJsonPath;
-					else
-						stdDataJsonPath = "$." + stdDataJsonPath;
+					jsonPath = getDataJsonPath(dataJsonPath);
 				}
-	
-				try
+				catch(ReadJsonDataPathException e)
 				{
-					data = JsonPath.compile(stdDataJsonPath).read(data, JACKSON_JSON_PATH_CONFIGURATION);
+					// 非法的JSON路径，应在读取全部JSON后再报错，与JSON语法错误的优先级保持一致
 				}
-				catch(Throwable t)
+
+				if (jsonPath != null && jsonPath.isStreamable())
+					return resolveDataStreaming(parser, jsonPath, dataJsonPath);
+			}
+
+			Object data = objectMapper.readValue(parser, Object.class);
+
+			if (!isLegalData(data))
+				throw new UnsupportedJsonResultDataException("Result data must be JSON object or array");
+
+			DataJsonPath jsonPath = getDataJsonPath(dataJsonPath);
+
+			if (jsonPath != null)
+				data = readJsonPath(jsonPath.getJsonPath(), data, dataJsonPath);
+
+			return data;
+		}
+		finally
+		{
+			IOUtil.close(parser);
+		}
+	}
+
+	/**
+	 * 流式定位并解析{@linkplain DataJsonPath#isStreamable()}的JSON路径所选数据。
+	 * <p>
+	 * 未选中的部分仅做语法校验而不会构建数据。注意：如果JSON对象有重名属性，这里将选取首个，而非最后一个。
+	 * </p>
+	 * 
+	 * @param parser
+	 *            当前位于根JSON对象开始处
+	 * @param jsonPath
+	 * @param dataJsonPath
+	 * @return
+	 * @throws ReadJsonDataPathException
+	 * @throws Throwable
+	 */
+	protected Object resolveDataStreaming(JsonParser parser, DataJsonPath jsonPath, String dataJsonPath)
+			throws ReadJsonDataPathException, Throwable
+	{
+		for (String propertyName : jsonPath.getPropertyNames())
+		{
+			boolean found = false;
+
+			if (parser.currentToken() == JsonToken.START_OBJECT)
+			{
+				while (parser.nextToken() == JsonToken.FIELD_NAME)
 				{
-					throw new ReadJsonDataPathException(dataJsonPath, t);
+					String name = parser.getCurrentName();
+					parser.nextToken();
+
+					if (propertyName.equals(name))
+					{
+						found = true;
+						break;
+					}
+
+					parser.skipChildren();
 				}
 			}
+
+			if (!found)
+				throw new ReadJsonDataPathException(dataJsonPath,
+						new PathNotFoundException("No results for path: " + jsonPath.getPath()));
+		}
+
+		Object data = getObjectMapperNonStardand().readValue(parser, Object.class);
+
+		// 校验所在JSON对象剩余部分的语法
+		for (int i = 0, len = jsonPath.getPropertyNames().size(); i < len; i++)
+		{
+			while (parser.nextToken() == JsonToken.FIELD_NAME)
+			{
+				parser.nextToken();
+				parser.skipChildren();
+			}
 		}
-	
+
+		if (jsonPath.isWildcard())
+			data = readJsonPath(WILDCARD_JSON_PATH, data, dataJsonPath);
+
 		return data;
 	}
 
+	protected Object readJsonPath(JsonPath jsonPath, Object data, String dataJsonPath)
+			throws ReadJsonDataPathException
+	{
+		try
+		{
+			return jsonPath.read(data, JACKSON_JSON_PATH_CONFIGURATION);
+		}
+		catch(Throwable t)
+		{
+			throw new ReadJsonDataPathException(dataJsonPath, t);
+		}
+	}
+
+	/**
+	 * 获取{@linkplain DataJsonPath}。
+	 * 
+	 * @param dataJsonPath
+	 *            允许为{@code null}
+	 * @return {@code null}表示无数据JSON路径
+	 * @throws ReadJsonDataPathException
+	 */
+	protected DataJsonPath getDataJsonPath(String dataJsonPath) throws ReadJsonDataPathException
+	{
+		String stdDataJsonPath = toStdDataJsonPath(dataJsonPath);
+
+		if (stdDataJsonPath == null)
+			return null;
+
+		DataJsonPath jsonPath = DATA_JSON_PATH_CACHE.getIfPresent(stdDataJsonPath);
+
+		if (jsonPath == null)
+		{
+			try
+			{
+				jsonPath = DataJsonPath.compile(stdDataJsonPath);
+			}
+			catch(Throwable t)
+			{
+				throw new ReadJsonDataPathException(dataJsonPath, t);
+			}
+
+			DATA_JSON_PATH_CACHE.put(stdDataJsonPath, jsonPath);
+		}
+
+		return jsonPath;
+	}
+
 	/**
-	 * 是否是合法的数据{@linkplain JsonNode}。
+	 * 转换为规范的JSONPath，"stores[0].books"、"[1].stores"简化模式将被补全。
+	 * 
+	 * @param dataJsonPath
+	 *            允许为{@code null}
+	 * @return {@code null}表示无数据JSON路径
+	 */
+	protected String toStdDataJsonPath(String dataJsonPath)
+	{
+		if (StringUtil.isEmpty(dataJsonPath))
+			return null;
+
+		String stdDataJsonPath = dataJsonPath.trim();
+
+		if (StringUtil.isEmpty(stdDataJsonPath))
+			return null;
+
+		if (!stdDataJsonPath.startsWith("$"))
+		{
+			if (stdDataJsonPath.startsWith("["))
+				stdDataJsonPath = "$" + stdDataJsonPath;
+			else
+				stdDataJsonPath = "$." + stdDataJsonPath;
+		}
+
+		return stdDataJsonPath;
+	}
+
+	/**
+	 * 是否是合法的数据。
 	 * <p>
 	 * 参考{@linkplain DataSetResult#getData()}说明。
 	 * </p>
 	 * 
-	 * @param jsonNode 允许为{@code null}
+	 * @param data
+	 *            允许为{@code null}
 	 * @return
 	 */
-	protected boolean isLegalDataJsonNode(JsonNode jsonNode) throws Throwable
+	protected boolean isLegalData(Object data)
 	{
-		if (jsonNode == null || jsonNode.isNull())
+		if (data == null || data instanceof Map<?, ?>)
 			return true;
-	
-		if (jsonNode instanceof ValueNode)
-			return false;
-	
-		if (jsonNode instanceof ArrayNode)
+
+		if (data instanceof List<?>)
 		{
-			ArrayNode arrayNode = (ArrayNode) jsonNode;
-	
-			for (int i = 0; i < arrayNode.size(); i++)
+			for (Object ele : (List<?>) data)
 			{
-				JsonNode eleNode = arrayNode.get(i);
-	
-				if (eleNode == null || eleNode.isNull())
-					continue;
-	
-				if (!(eleNode instanceof ObjectNode))
+				if (ele != null && !(ele instanceof Map<?, ?>))
 					return false;
 			}
+
+			return true;
 		}
-	
-		return true;
+
+		return false;
 	}
 
 	/**
@@ -227,7 +383,7 @@ public abstract class AbstractJsonDataSet<T extends JsonDataSetResource> extends
 
 			if (list.size() == 0)
 				return Collections.EMPTY_LIST;
-			else
+			else if (list.get(0) instanceof Map<?, ?>)
 				return resolveJsonObjProperties((Map<String, ?>) list.get(0));
 		}
 		else if (data instanceof Object[])
@@ -236,11 +392,11 @@ public abstract class AbstractJsonDataSet<T extends JsonDataSetResource> extends
 
 			if (array.length == 0)
 				return Collections.EMPTY_LIST;
-			else
+			else if (array[0] instanceof Map<?, ?>)
 				return resolveJsonObjProperties((Map<String, ?>) array[0]);
 		}
-		else
-			throw new UnsupportedJsonResultDataException("Result data must be object or object array/list");
+
+		throw new UnsupportedJsonResultDataException("Result data must be object or object array/list");
 	}
 
 	/**
@@ -284,6 +440,112 @@ public abstract class AbstractJsonDataSet<T extends JsonDataSetResource> extends
 		return JsonSupport.getObjectMapperNonStardand();
 	}
 
+	/**
+	 * 已编译的数据JSON路径。
+	 * <p>
+	 * 对于仅由属性名组成（可选以{@code [*]}、{@code .*}结尾）的简单路径，{@linkplain #isStreamable()}为{@code true}。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class DataJsonPath
+	{
+		private static final Pattern SIMPLE_SEGMENT_PATTERN = Pattern
+				.compile("\\.([^.\\[\\]'\"*()?@,$\\s]+)|\\['([^'\\\\]*)'\\]|\\[\"([^\"\\\\]*)\"\\]");
+
+		private static final Pattern WILDCARD_SUFFIX_PATTERN = Pattern.compile("(\\[\\*\\]|\\.\\*)$");
+
+		/** 规范JSON路径 */
+		private final String path;
+
+		private final JsonPath jsonPath;
+
+		/** 简单路径的属性名，{@code null}表示不是简单路径 */
+		private final List<String> propertyNames;
+
+		private final boolean wildcard;
+
+		public DataJsonPath(String path, JsonPath jsonPath, List<String> propertyNames, boolean wildcard)
+		{
+			super();
+			this.path = path;
+			this.jsonPath = jsonPath;
+			this.propertyNames = propertyNames;
+			this.wildcard = wildcard;
+		}
+
+		public String getPath()
+		{
+			return path;
+		}
+
+		public JsonPath getJsonPath()
+		{
+			return jsonPath;
+		}
+
+		public List<String> getPropertyNames()
+		{
+			return propertyNames;
+		}
+
+		public boolean isWildcard()
+		{
+			return wildcard;
+		}
+
+		/**
+		 * 是否可以流式定位。
+		 * 
+		 * @return
+		 */
+		public boolean isStreamable()
+		{
+			return (this.propertyNames != null);
+		}
+
+		/**
+		 * 编译。
+		 * 
+		 * @param path
+		 *            规范JSON路径，以{@code $}开头
+		 * @return
+		 */
+		public static DataJsonPath compile(String path)
+		{
+			JsonPath jsonPath = JsonPath.compile(path);
+
+			String segments = path.substring(1);
+			boolean wildcard = false;
+
+			Matcher wm = WILDCARD_SUFFIX_PATTERN.matcher(segments);
+			if (wm.find())
+			{
+				wildcard = true;
+				segments = segments.substring(0, wm.start());
+			}
+
+			List<String> propertyNames = new ArrayList<String>();
+			Matcher m = SIMPLE_SEGMENT_PATTERN.matcher(segments);
+			int end = 0;
+
+			while (m.find() && m.start() == end)
+			{
+				String name = m.group(1);
+				if (name == null)
+					name = m.group(2);
+				if (name == null)
+					name = m.group(3);
+
+				propertyNames.add(name);
+				end = m.end();
+			}
+
+			return new DataJsonPath(path, jsonPath, (end == segments.length() ? propertyNames : null), wildcard);
+		}
+	}
+
 	/**
 	 * JSON数据集资源。
 	 * 
@@ -18,13 +18,17 @@
 package org.datagear.analysis.support;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 
 import org.datagear.analysis.DataSetException;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.DataSetQueryPlan;
 import org.datagear.analysis.DataSetResult;
 import org.datagear.analysis.NameAwareUtil;
 import org.datagear.analysis.ResolvableDataSet;
@@ -92,6 +96,9 @@ public abstract class AbstractResolvableDataSet extends AbstractDataSet implemen
 
 	/**
 	 * 解析结果。
+	 * <p>
+	 * 如果{@linkplain DataSetQuery#hasPlan()}，将在内存中执行查询计划，返回结果的属性也将是执行计划后的属性。
+	 * </p>
 	 * 
 	 * @param query
 	 * @param rawData           允许为{@code null}
@@ -110,9 +117,84 @@ public abstract class AbstractResolvableDataSet extends AbstractDataSet implemen
 
 		properties = (properties == null ? Collections.emptyList() : properties);
 
+		checkRawData(rawData);
+
+		if (query.hasPlan())
+			return resolveResultWithPlan(query, rawData, properties);
+
 		return resolveResult(rawData, properties, query.getResultFetchSize(), query.getResultDataFormat());
 	}
 
+	/**
+	 * 校验原始数据，它应是{@code null}、{@code Map}、{@code Map[]}、{@code Collection<Map>}。
+	 * <p>
+	 * 比如，JSON路径选择了数值、字符串等非对象数据时，将抛出{@linkplain UnsupportedResultDataException}。
+	 * </p>
+	 * 
+	 * @param rawData
+	 *            允许为{@code null}
+	 * @throws UnsupportedResultDataException
+	 */
+	protected void checkRawData(Object rawData) throws UnsupportedResultDataException
+	{
+		if (rawData == null || rawData instanceof ColumnarData || rawData instanceof Map<?, ?>
+				|| rawData instanceof Map<?, ?>[])
+			return;
+
+		if (rawData instanceof Collection<?>)
+		{
+			for (Object ele : (Collection<?>) rawData)
+			{
+				if (ele != null && !(ele instanceof Map<?, ?>))
+					throw new UnsupportedResultDataException("Result data must be object or object array/list");
+			}
+
+			return;
+		}
+
+		throw new UnsupportedResultDataException("Result data must be object or object array/list");
+	}
+
+	/**
+	 * 在内存中执行{@linkplain DataSetQuery#getPlan()}并解析结果。
+	 * 
+	 * @param query
+	 * @param rawData    允许为{@code null}
+	 * @param properties
+	 * @return
+	 * @throws Throwable
+	 */
+	@SuppressWarnings("unchecked")
+	protected ResolvedDataSetResult resolveResultWithPlan(DataSetQuery query, Object rawData,
+			List<DataSetProperty> properties) throws Throwable
+	{
+		// 应在计划执行后再限定数目、格式化
+		Object data = resolveResultData(rawData, properties, -1, null);
+
+		List<Map<String, Object>> dataList = null;
+
+		if (data == null)
+			dataList = Collections.emptyList();
+		else if (data instanceof List<?>)
+			dataList = (List<Map<String, Object>>) data;
+		else if (data instanceof Map<?, ?>[])
+			dataList = Arrays.asList((Map<String, Object>[]) data);
+		else if (data instanceof Map<?, ?>)
+			dataList = Collections.singletonList((Map<String, Object>) data);
+		else
+			throw new UnsupportedResultDataException("Result data must be object or object array/list");
+
+		DataSetQueryPlanEvaluator evaluator = new DataSetQueryPlanEvaluator(createDataSetPropertyValueConverter());
+		DataSetQueryPlan plan = query.getPlan();
+
+		List<DataSetProperty> planProperties = evaluator.evalProperties(plan, properties);
+		ColumnarData planData = evaluator.eval(plan, dataList, properties, query.getResultFetchSize());
+
+		formatResultData(planData, planProperties, query.getResultDataFormat());
+
+		return new ResolvedDataSetResult(new DataSetResult(planData), planProperties);
+	}
+
 	/**
 	 * 合并{@linkplain DataSetProperty}。
 	 * <p>
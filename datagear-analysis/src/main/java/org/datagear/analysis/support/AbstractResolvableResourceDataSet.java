@@ -18,6 +18,7 @@
 package org.datagear.analysis.support;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -32,6 +33,11 @@ import org.springframework.cache.Cache.ValueWrapper;
 
 /**
  * 抽象资源{@linkplain ResolvableDataSet}。
+ * <p>
+ * 对于{@linkplain DataSetResource#isIdempotent()}的资源，它支持两级缓存：
+ * {@linkplain #getCacheService()}缓存资源数据（{@linkplain ResourceData}），
+ * {@linkplain #getResultCacheService()}缓存转换、计算、格式化后的最终结果，使相同资源、相同查询的重复请求不必再处理数据。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -40,6 +46,9 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 {
 	private CacheService cacheService = null;
 
+	/** 最终结果缓存服务 */
+	private CacheService resultCacheService = null;
+
 	public AbstractResolvableResourceDataSet()
 	{
 		super();
@@ -65,6 +74,16 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 		this.cacheService = cacheService;
 	}
 
+	public CacheService getResultCacheService()
+	{
+		return resultCacheService;
+	}
+
+	public void setResultCacheService(CacheService resultCacheService)
+	{
+		this.resultCacheService = resultCacheService;
+	}
+
 	/**
 	 * 解析结果。
 	 * <p>
@@ -81,9 +100,8 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 		try
 		{
 			resource = getResource(query, properties, resolveProperties);
-			ResourceData resourceData = getResourceData(resource);
 
-			ResolvedDataSetResult result = resolveResult(query, properties, resolveProperties, resourceData);
+			ResolvedDataSetResult result = getResolvedResult(resource, query, properties, resolveProperties);
 
 			if (resource.hasResolvedTemplate())
 				result = new TemplateResolvedDataSetResult(result.getResult(), result.getProperties(),
@@ -101,6 +119,88 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 		}
 	}
 
+	/**
+	 * 获取结果。
+	 * <p>
+	 * 如果启用了{@linkplain #getResultCacheService()}，将优先返回缓存的结果：缓存中存储的是只读数据，
+	 * 每次都返回新的{@linkplain ResolvedDataSetResult}对象，但是其数据、属性不应被修改。
+	 * </p>
+	 * 
+	 * @param resource
+	 * @param query
+	 * @param properties
+	 *            允许为{@code null}
+	 * @param resolveProperties
+	 * @return
+	 * @throws Throwable
+	 */
+	protected ResolvedDataSetResult getResolvedResult(T resource, DataSetQuery query,
+			List<DataSetProperty> properties, boolean resolveProperties) throws Throwable
+	{
+		if (!resource.isIdempotent() || this.resultCacheService == null || !this.resultCacheService.isEnabled())
+			return resolveResult(query, properties, resolveProperties, getResourceData(resource, query, resolveProperties));
+
+		ResultCacheKey key = new ResultCacheKey(getId(), resource, query.copy(), properties, resolveProperties);
+
+		ValueWrapper vw = this.resultCacheService.get(key);
+		ResolvedDataSetResult result = (vw == null ? null : (ResolvedDataSetResult) vw.get());
+
+		if (result != null)
+			return DataSetResultUtil.share(result);
+
+		result = resolveResult(query, properties, resolveProperties, getResourceData(resource, query, resolveProperties));
+		result = DataSetResultUtil.toUnmodifiable(result);
+		this.resultCacheService.put(key, result);
+
+		return DataSetResultUtil.share(result);
+	}
+
+	/**
+	 * 获取用于查询的资源数据。
+	 * <p>
+	 * 如果{@linkplain #isPartialResourceDataSupported()}为{@code true}、{@linkplain DataSetQuery#getResultFetchSize()}有效、
+	 * 没有{@linkplain DataSetQuery#getPlan()}、不需解析属性，并且没有已缓存的完整资源数据，
+	 * 将调用{@linkplain #resolveResourceData(DataSetResource, DataSetQuery)}仅读取所需行数的资源数据（不会被缓存），
+	 * 否则，调用{@linkplain #getResourceData(DataSetResource)}。
+	 * </p>
+	 * <p>
+	 * 解析属性时总是读取全部资源数据，因为属性类型应由全部数据推断，否则可能与之后的完整数据不符。
+	 * </p>
+	 * 
+	 * @param resource
+	 * @param query
+	 * @param resolveProperties
+	 * @return
+	 * @throws Throwable
+	 */
+	protected ResourceData getResourceData(T resource, DataSetQuery query, boolean resolveProperties)
+			throws Throwable
+	{
+		if (!isPartialResourceDataSupported() || resolveProperties || query.hasPlan()
+				|| query.getResultFetchSize() < 0)
+			return getResourceData(resource);
+
+		ResourceData rd = getCachedResourceData(resource);
+
+		if (rd != null)
+			return rd;
+
+		return resolveResourceData(resource, query);
+	}
+
+	/**
+	 * 是否支持仅读取查询所需行数的资源数据，参考{@linkplain #resolveResourceData(DataSetResource, DataSetQuery)}。
+	 * <p>
+	 * 此方法默认返回{@code false}。
+	 * </p>
+	 * 
+	 * @return
+	 */
+	protected boolean isPartialResourceDataSupported()
+	{
+		return false;
+	}
+
 	/**
 	 * 获取资源数据。
 	 * 
@@ -110,11 +210,10 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 	 */
 	protected ResourceData getResourceData(T resource) throws Throwable
 	{
-		if (!resource.isIdempotent() || this.cacheService == null || !this.cacheService.isEnabled())
+		if (!isResourceDataCacheable(resource))
 			return resolveResourceData(resource);
 
-		ValueWrapper vw = this.cacheService.get(resource);
-		ResourceData rd = (vw == null ? null : (ResourceData) vw.get());
+		ResourceData rd = getCachedResourceData(resource);
 
 		if (rd != null)
 			return rd;
@@ -125,6 +224,32 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 		return rd;
 	}
 
+	/**
+	 * 资源数据是否可缓存。
+	 * 
+	 * @param resource
+	 * @return
+	 */
+	protected boolean isResourceDataCacheable(T resource)
+	{
+		return (resource.isIdempotent() && this.cacheService != null && this.cacheService.isEnabled());
+	}
+
+	/**
+	 * 获取已缓存的资源数据。
+	 * 
+	 * @param resource
+	 * @return {@code null}表示没有
+	 */
+	protected ResourceData getCachedResourceData(T resource)
+	{
+		if (!isResourceDataCacheable(resource))
+			return null;
+
+		ValueWrapper vw = this.cacheService.get(resource);
+		return (vw == null ? null : (ResourceData) vw.get());
+	}
+
 	/**
 	 * 解析结果。
 	 * 
@@ -165,6 +290,23 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 	 */
 	protected abstract ResourceData resolveResourceData(T resource) throws Throwable;
 
+	/**
+	 * 解析仅包含查询所需行数的资源数据。
+	 * <p>
+	 * 仅在{@linkplain #isPartialResourceDataSupported()}为{@code true}时才会被调用，此方法默认调用{@linkplain #resolveResourceData(DataSetResource)}。
+	 * </p>
+	 * 
+	 * @param resource
+	 * @param query
+	 *            允许为{@code null}，表示读取全部数据
+	 * @return
+	 * @throws Throwable
+	 */
+	protected ResourceData resolveResourceData(T resource, DataSetQuery query) throws Throwable
+	{
+		return resolveResourceData(resource);
+	}
+
 	/**
 	 * 数据集资源。
 	 * <p>
@@ -248,6 +390,137 @@ public abstract class AbstractResolvableResourceDataSet<T extends DataSetResourc
 		}
 	}
 
+	/**
+	 * 最终结果缓存关键字。
+	 * <p>
+	 * 除了资源、查询，它还包含数据集ID以及{@linkplain DataSetProperty}的定义，因为它们也影响最终结果。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ResultCacheKey implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String dataSetId;
+
+		private final DataSetResource resource;
+
+		private final DataSetQuery query;
+
+		private final List<Object> propertiesSignature;
+
+		private final boolean resolveProperties;
+
+		public ResultCacheKey(String dataSetId, DataSetResource resource, DataSetQuery query,
+				List<DataSetProperty> properties, boolean resolveProperties)
+		{
+			super();
+			this.dataSetId = dataSetId;
+			this.resource = resource;
+			this.query = query;
+			this.propertiesSignature = toSignature(properties);
+			this.resolveProperties = resolveProperties;
+		}
+
+		public String getDataSetId()
+		{
+			return dataSetId;
+		}
+
+		public DataSetResource getResource()
+		{
+			return resource;
+		}
+
+		public DataSetQuery getQuery()
+		{
+			return query;
+		}
+
+		public boolean isResolveProperties()
+		{
+			return resolveProperties;
+		}
+
+		protected List<Object> toSignature(List<DataSetProperty> properties)
+		{
+			if (properties == null)
+				return null;
+
+			List<Object> re = new ArrayList<Object>(properties.size() * 6);
+
+			for (DataSetProperty p : properties)
+			{
+				re.add(p.getName());
+				re.add(p.getType());
+				re.add(p.getLabel());
+				re.add(p.getDefaultValue());
+				re.add(p.isEvaluated());
+				re.add(p.getExpression());
+			}
+
+			return re;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((dataSetId == null) ? 0 : dataSetId.hashCode());
+			result = prime * result + ((resource == null) ? 0 : resource.hashCode());
+			result = prime * result + ((query == null) ? 0 : query.hashCode());
+			result = prime * result + ((propertiesSignature == null) ? 0 : propertiesSignature.hashCode());
+			result = prime * result + (resolveProperties ? 1231 : 1237);
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			ResultCacheKey other = (ResultCacheKey) obj;
+			if (dataSetId == null)
+			{
+				if (other.dataSetId != null)
+					return false;
+			}
+			else if (!dataSetId.equals(other.dataSetId))
+				return false;
+			if (resource == null)
+			{
+				if (other.resource != null)
+					return false;
+			}
+			else if (!resource.equals(other.resource))
+				return false;
+			if (query == null)
+			{
+				if (other.query != null)
+					return false;
+			}
+			else if (!query.equals(other.query))
+				return false;
+			if (propertiesSignature == null)
+			{
+				if (other.propertiesSignature != null)
+					return false;
+			}
+			else if (!propertiesSignature.equals(other.propertiesSignature))
+				return false;
+			if (resolveProperties != other.resolveProperties)
+				return false;
+			return true;
+		}
+	}
+
 	/**
 	 * 数据集资源数据。
 	 * 
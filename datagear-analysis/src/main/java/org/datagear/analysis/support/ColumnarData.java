@@ -0,0 +1,751 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis.support;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * 列式数据。
+ * <p>
+ * 此类按列存储数据：整数列存储为{@code long[]}、小数列存储为{@code double[]}、字符串列采用字典编码存储，
+ * 其他类型则存储为{@code Object[]}，{@code null}值由位图记录，从而避免为每一行数据创建{@linkplain HashMap}、以及装箱数值对象。
+ * </p>
+ * <p>
+ * 此类同时也是{@code List<Map<String, Object>>}，它的元素是行数据的{@linkplain Map}视图，仅在被访问时（比如JSON序列化时）才创建，
+ * 并且视图的{@linkplain Map#put(Object, Object)}会直接写回列中。
+ * </p>
+ * <p>
+ * 列名称在创建时确定，行视图的{@linkplain Map#put(Object, Object)}不支持新增列，也不支持删除操作。
+ * </p>
+ * <p>
+ * 如果列名称有重复（比如SQL查询结果中的{@code a.id, b.id}），行视图中只会有一个此名称的键，它对应最后一个同名列，与{@linkplain HashMap}行数据的覆盖规则一致。
+ * </p>
+ * <p>
+ * 此类不是线程安全的，需要在多个线程间共享时，应先调用{@linkplain #unmodifiable()}将其设为只读。
+ * </p>
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ColumnarData extends AbstractList<Map<String, Object>> implements RandomAccess, Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 初始容量 */
+	protected static final int INITIAL_CAPACITY = 16;
+
+	/** 字符串列字典最大容量，超过后将转为普通对象列 */
+	protected static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+	private final String[] names;
+
+	private final Map<String, Integer> nameIndexes;
+
+	/** 行视图的键名称（已去重，保持首次出现的顺序） */
+	private final String[] keyNames;
+
+	/** 行视图的键名称对应的列索引 */
+	private final int[] keyColumns;
+
+	private final Column[] columns;
+
+	private int size = 0;
+
+	private int capacity;
+
+	private volatile boolean modifiable = true;
+
+	public ColumnarData(List<String> names)
+	{
+		this(names.toArray(new String[names.size()]), INITIAL_CAPACITY);
+	}
+
+	public ColumnarData(List<String> names, int initialCapacity)
+	{
+		this(names.toArray(new String[names.size()]), initialCapacity);
+	}
+
+	public ColumnarData(String[] names)
+	{
+		this(names, INITIAL_CAPACITY);
+	}
+
+	public ColumnarData(String[] names, int initialCapacity)
+	{
+		super();
+		this.names = names;
+		this.nameIndexes = new HashMap<String, Integer>(names.length * 2);
+		this.columns = new Column[names.length];
+		this.capacity = Math.max(initialCapacity, 1);
+
+		List<String> keyNames = new ArrayList<String>(names.length);
+
+		for (int i = 0; i < names.length; i++)
+		{
+			if (this.nameIndexes.put(names[i], i) == null)
+				keyNames.add(names[i]);
+
+			this.columns[i] = new NullColumn();
+		}
+
+		this.keyNames = keyNames.toArray(new String[keyNames.size()]);
+		this.keyColumns = new int[this.keyNames.length];
+
+		for (int i = 0; i < this.keyNames.length; i++)
+			this.keyColumns[i] = this.nameIndexes.get(this.keyNames[i]);
+	}
+
+	/**
+	 * 获取列名称列表。
+	 *
+	 * @return
+	 */
+	public List<String> getNames()
+	{
+		return Collections.unmodifiableList(Arrays.asList(this.names));
+	}
+
+	/**
+	 * 获取列数。
+	 *
+	 * @return
+	 */
+	public int getColumnCount()
+	{
+		return this.names.length;
+	}
+
+	/**
+	 * 获取列名称对应的列索引。
+	 *
+	 * @param name
+	 * @return {@code -1}表示没有
+	 */
+	public int getColumnIndex(Object name)
+	{
+		Integer index = this.nameIndexes.get(name);
+		return (index == null ? -1 : index.intValue());
+	}
+
+	/**
+	 * 是否可修改。
+	 *
+	 * @return
+	 */
+	public boolean isModifiable()
+	{
+		return this.modifiable;
+	}
+
+	/**
+	 * 设为只读，之后的{@linkplain #addRow()}、{@linkplain #setValue(int, int, Object)}及行视图的修改操作都将抛出{@linkplain UnsupportedOperationException}。
+	 * <p>
+	 * 只读后的数据可以在多个线程间安全共享读取。
+	 * </p>
+	 *
+	 * @return 此对象
+	 */
+	public ColumnarData unmodifiable()
+	{
+		this.modifiable = false;
+		return this;
+	}
+
+	/**
+	 * 新增一行（所有值都为{@code null}）。
+	 *
+	 * @return 新行的索引
+	 */
+	public int addRow()
+	{
+		checkModifiable();
+
+		if (this.size >= this.capacity)
+		{
+			int newCapacity = this.capacity + (this.capacity >> 1) + 1;
+
+			for (Column column : this.columns)
+				column.ensureCapacity(newCapacity);
+
+			this.capacity = newCapacity;
+		}
+
+		this.modCount++;
+		return this.size++;
+	}
+
+	/**
+	 * 获取值。
+	 *
+	 * @param row
+	 * @param column
+	 * @return
+	 */
+	public Object getValue(int row, int column)
+	{
+		checkRow(row);
+		return this.columns[column].get(row);
+	}
+
+	/**
+	 * 设置值。
+	 * <p>
+	 * 如果值类型与列的现有存储类型不匹配，列将转换为可存储它的类型。
+	 * </p>
+	 *
+	 * @param row
+	 * @param column
+	 * @param value
+	 *            允许为{@code null}
+	 * @return 旧值
+	 */
+	public Object setValue(int row, int column, Object value)
+	{
+		checkModifiable();
+		checkRow(row);
+
+		Column c = this.columns[column];
+		Object old = c.get(row);
+
+		if (!c.set(row, value))
+		{
+			c = promote(c, value);
+			c.set(row, value);
+			this.columns[column] = c;
+		}
+
+		return old;
+	}
+
+	@Override
+	public Map<String, Object> get(int index)
+	{
+		checkRow(index);
+		return new RowMap(index);
+	}
+
+	@Override
+	public int size()
+	{
+		return this.size;
+	}
+
+	protected void checkRow(int row)
+	{
+		if (row < 0 || row >= this.size)
+			throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + this.size);
+	}
+
+	protected void checkModifiable()
+	{
+		if (!this.modifiable)
+			throw new UnsupportedOperationException("Unmodifiable");
+	}
+
+	/**
+	 * 将列转换为可存储给定值的新列。
+	 *
+	 * @param column
+	 * @param value
+	 * @return
+	 */
+	protected Column promote(Column column, Object value)
+	{
+		if (column instanceof NullColumn)
+			return createColumn(value);
+
+		Column re = new ObjectColumn(this.capacity);
+
+		for (int i = 0; i < this.size; i++)
+			re.set(i, column.get(i));
+
+		return re;
+	}
+
+	/**
+	 * 为给定的首个非{@code null}值创建列。
+	 *
+	 * @param value
+	 * @return
+	 */
+	protected Column createColumn(Object value)
+	{
+		if (value instanceof Long || value instanceof Integer)
+			return new LongColumn(this.capacity, value.getClass());
+		else if (value instanceof Double)
+			return new DoubleColumn(this.capacity);
+		else if (value instanceof String)
+			return new StringColumn(this.capacity);
+		else
+			return new ObjectColumn(this.capacity);
+	}
+
+	/**
+	 * 行数据视图。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected class RowMap extends AbstractMap<String, Object>
+	{
+		private final int row;
+
+		public RowMap(int row)
+		{
+			super();
+			this.row = row;
+		}
+
+		@Override
+		public int size()
+		{
+			return keyNames.length;
+		}
+
+		@Override
+		public boolean containsKey(Object key)
+		{
+			return (getColumnIndex(key) >= 0);
+		}
+
+		@Override
+		public Object get(Object key)
+		{
+			int column = getColumnIndex(key);
+			return (column < 0 ? null : columns[column].get(this.row));
+		}
+
+		@Override
+		public Object put(String key, Object value)
+		{
+			int column = getColumnIndex(key);
+
+			if (column < 0)
+				throw new UnsupportedOperationException("Column [" + key + "] not found");
+
+			return setValue(this.row, column, value);
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet()
+		{
+			return new AbstractSet<Entry<String, Object>>()
+			{
+				@Override
+				public Iterator<Entry<String, Object>> iterator()
+				{
+					return new Iterator<Entry<String, Object>>()
+					{
+						private int key = 0;
+
+						@Override
+						public boolean hasNext()
+						{
+							return (this.key < keyNames.length);
+						}
+
+						@Override
+						public Entry<String, Object> next()
+						{
+							if (!hasNext())
+								throw new NoSuchElementException();
+
+							return new RowEntry(row, keyColumns[this.key++]);
+						}
+					};
+				}
+
+				@Override
+				public int size()
+				{
+					return keyNames.length;
+				}
+			};
+		}
+	}
+
+	protected class RowEntry implements Map.Entry<String, Object>
+	{
+		private final int row;
+
+		private final int column;
+
+		public RowEntry(int row, int column)
+		{
+			super();
+			this.row = row;
+			this.column = column;
+		}
+
+		@Override
+		public String getKey()
+		{
+			return names[this.column];
+		}
+
+		@Override
+		public Object getValue()
+		{
+			return columns[this.column].get(this.row);
+		}
+
+		@Override
+		public Object setValue(Object value)
+		{
+			return ColumnarData.this.setValue(this.row, this.column, value);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			Object value = getValue();
+			return getKey().hashCode() ^ (value == null ? 0 : value.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof Map.Entry<?, ?>))
+				return false;
+
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+			Object value = getValue();
+
+			return getKey().equals(other.getKey())
+					&& (value == null ? other.getValue() == null : value.equals(other.getValue()));
+		}
+
+		@Override
+		public String toString()
+		{
+			return getKey() + "=" + getValue();
+		}
+	}
+
+	/**
+	 * 列。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static abstract class Column implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		public Column()
+		{
+			super();
+		}
+
+		/**
+		 * 获取值。
+		 *
+		 * @param row
+		 * @return
+		 */
+		public abstract Object get(int row);
+
+		/**
+		 * 设置值。
+		 *
+		 * @param row
+		 * @param value
+		 *            允许为{@code null}
+		 * @return {@code false} 表示此列不支持存储此值
+		 */
+		public abstract boolean set(int row, Object value);
+
+		/**
+		 * 确保容量。
+		 *
+		 * @param capacity
+		 */
+		public abstract void ensureCapacity(int capacity);
+	}
+
+	/**
+	 * 全{@code null}值列，在写入首个非{@code null}值时被转换。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class NullColumn extends Column
+	{
+		private static final long serialVersionUID = 1L;
+
+		public NullColumn()
+		{
+			super();
+		}
+
+		@Override
+		public Object get(int row)
+		{
+			return null;
+		}
+
+		@Override
+		public boolean set(int row, Object value)
+		{
+			return (value == null);
+		}
+
+		@Override
+		public void ensureCapacity(int capacity)
+		{
+		}
+	}
+
+	/**
+	 * 整数列，仅存储同一种装箱类型（{@linkplain Long}或{@linkplain Integer}）的值，确保取出的值类型不变。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class LongColumn extends Column
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final boolean intType;
+
+		private long[] values;
+
+		private final BitSet nonNulls = new BitSet();
+
+		public LongColumn(int capacity, Class<?> type)
+		{
+			super();
+			this.intType = Integer.class.equals(type);
+			this.values = new long[capacity];
+		}
+
+		@Override
+		public Object get(int row)
+		{
+			if (!this.nonNulls.get(row))
+				return null;
+
+			long value = this.values[row];
+
+			if (this.intType)
+				return Integer.valueOf((int) value);
+			else
+				return Long.valueOf(value);
+		}
+
+		@Override
+		public boolean set(int row, Object value)
+		{
+			if (value == null)
+			{
+				this.nonNulls.clear(row);
+				return true;
+			}
+
+			if (this.intType ? !(value instanceof Integer) : !(value instanceof Long))
+				return false;
+
+			this.values[row] = ((Number) value).longValue();
+			this.nonNulls.set(row);
+
+			return true;
+		}
+
+		@Override
+		public void ensureCapacity(int capacity)
+		{
+			if (this.values.length < capacity)
+				this.values = Arrays.copyOf(this.values, capacity);
+		}
+	}
+
+	/**
+	 * 小数列。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class DoubleColumn extends Column
+	{
+		private static final long serialVersionUID = 1L;
+
+		private double[] values;
+
+		private final BitSet nonNulls = new BitSet();
+
+		public DoubleColumn(int capacity)
+		{
+			super();
+			this.values = new double[capacity];
+		}
+
+		@Override
+		public Object get(int row)
+		{
+			return (this.nonNulls.get(row) ? Double.valueOf(this.values[row]) : null);
+		}
+
+		@Override
+		public boolean set(int row, Object value)
+		{
+			if (value == null)
+			{
+				this.nonNulls.clear(row);
+				return true;
+			}
+
+			if (!(value instanceof Double))
+				return false;
+
+			this.values[row] = ((Double) value).doubleValue();
+			this.nonNulls.set(row);
+
+			return true;
+		}
+
+		@Override
+		public void ensureCapacity(int capacity)
+		{
+			if (this.values.length < capacity)
+				this.values = Arrays.copyOf(this.values, capacity);
+		}
+	}
+
+	/**
+	 * 字典编码的字符串列。
+	 * <p>
+	 * 编码{@code 0}表示{@code null}，编码{@code n}表示字典中的第{@code n-1}个字符串。
+	 * </p>
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class StringColumn extends Column
+	{
+		private static final long serialVersionUID = 1L;
+
+		private int[] codes;
+
+		private final List<String> dictionary = new ArrayList<String>();
+
+		private final Map<String, Integer> dictionaryCodes = new HashMap<String, Integer>();
+
+		public StringColumn(int capacity)
+		{
+			super();
+			this.codes = new int[capacity];
+		}
+
+		@Override
+		public Object get(int row)
+		{
+			int code = this.codes[row];
+			return (code == 0 ? null : this.dictionary.get(code - 1));
+		}
+
+		@Override
+		public boolean set(int row, Object value)
+		{
+			if (value == null)
+			{
+				this.codes[row] = 0;
+				return true;
+			}
+
+			if (!(value instanceof String))
+				return false;
+
+			Integer code = this.dictionaryCodes.get(value);
+
+			if (code == null)
+			{
+				if (this.dictionary.size() >= MAX_DICTIONARY_SIZE)
+					return false;
+
+				String str = (String) value;
+				this.dictionary.add(str);
+				code = this.dictionary.size();
+				this.dictionaryCodes.put(str, code);
+			}
+
+			this.codes[row] = code;
+
+			return true;
+		}
+
+		@Override
+		public void ensureCapacity(int capacity)
+		{
+			if (this.codes.length < capacity)
+				this.codes = Arrays.copyOf(this.codes, capacity);
+		}
+	}
+
+	/**
+	 * 普通对象列。
+	 *
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ObjectColumn extends Column
+	{
+		private static final long serialVersionUID = 1L;
+
+		private Object[] values;
+
+		public ObjectColumn(int capacity)
+		{
+			super();
+			this.values = new Object[capacity];
+		}
+
+		@Override
+		public Object get(int row)
+		{
+			return this.values[row];
+		}
+
+		@Override
+		public boolean set(int row, Object value)
+		{
+			this.values[row] = value;
+			return true;
+		}
+
+		@Override
+		public void ensureCapacity(int capacity)
+		{
+			if (this.values.length < capacity)
+				this.values = Arrays.copyOf(this.values, capacity);
+		}
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis.support;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import org.datagear.analysis.DataSetResult;
+import org.datagear.analysis.ResolvedDataSetResult;
+import org.datagear.analysis.support.AbstractResolvableResourceDataSet.ResourceData;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+/**
+ * 数据集缓存的权重计算器。
+ * <p>
+ * 它估算{@linkplain ResourceData}、{@linkplain ResolvedDataSetResult}、{@linkplain DataSetResult}占用的内存字节数，
+ * 并以{@code KB}作为权重，使数据集缓存可按照内存占用而非条目数限定容量。
+ * </p>
+ * <p>
+ * 对于大列表，它只抽样估算前{@linkplain #getSampleSize()}个元素，再按比例推算。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DataSetCacheWeigher implements Weigher<Object, Object>
+{
+	/** 默认抽样数 */
+	public static final int DEFAULT_SAMPLE_SIZE = 100;
+
+	/** 最大估算深度 */
+	protected static final int MAX_DEPTH = 8;
+
+	/** 对象头、引用等的估算字节数 */
+	protected static final int OBJECT_BYTES = 16;
+
+	private int sampleSize = DEFAULT_SAMPLE_SIZE;
+
+	public DataSetCacheWeigher()
+	{
+		super();
+	}
+
+	public int getSampleSize()
+	{
+		return sampleSize;
+	}
+
+	public void setSampleSize(int sampleSize)
+	{
+		this.sampleSize = sampleSize;
+	}
+
+	@Override
+	public int weigh(Object key, Object value)
+	{
+		long bytes = estimateBytes(value);
+		long kb = (bytes >> 10);
+
+		if (kb < 1)
+			return 1;
+
+		return (kb > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) kb);
+	}
+
+	/**
+	 * 估算缓存值的内存字节数。
+	 * 
+	 * @param value
+	 *            允许为{@code null}
+	 * @return
+	 */
+	public long estimateBytes(Object value)
+	{
+		if (value instanceof ResourceData)
+			return OBJECT_BYTES + estimate(((ResourceData) value).getData(), 0);
+		else if (value instanceof ResolvedDataSetResult)
+		{
+			DataSetResult result = ((ResolvedDataSetResult) value).getResult();
+			return OBJECT_BYTES + (result == null ? 0 : estimate(result.getData(), 0));
+		}
+		else if (value instanceof DataSetResult)
+			return OBJECT_BYTES + estimate(((DataSetResult) value).getData(), 0);
+		else
+			return estimate(value, 0);
+	}
+
+	protected long estimate(Object obj, int depth)
+	{
+		if (obj == null)
+			return 0;
+
+		if (obj instanceof String)
+			return 40 + 2L * ((String) obj).length();
+		else if (obj instanceof Number || obj instanceof Boolean || obj instanceof Character)
+			return OBJECT_BYTES;
+		else if (obj instanceof Date)
+			return 24;
+
+		if (depth >= MAX_DEPTH)
+			return OBJECT_BYTES;
+
+		if (obj instanceof ColumnarData)
+			return estimateColumnarData((ColumnarData) obj, depth);
+		else if (obj instanceof Map<?, ?>)
+			return estimateMap((Map<?, ?>) obj, depth);
+		else if (obj instanceof Collection<?>)
+			return estimateCollection((Collection<?>) obj, depth);
+		else if (obj instanceof Object[])
+			return estimateArray((Object[]) obj, depth);
+		else
+			return OBJECT_BYTES;
+	}
+
+	protected long estimateColumnarData(ColumnarData data, int depth)
+	{
+		int rows = data.size();
+		int cols = data.getColumnCount();
+		int samples = Math.min(rows, this.sampleSize);
+
+		long bytes = 64;
+
+		for (String name : data.getNames())
+			bytes += estimate(name, depth + 1);
+
+		if (samples == 0)
+			return bytes;
+
+		long sampleBytes = 0;
+
+		for (int i = 0; i < samples; i++)
+		{
+			for (int j = 0; j < cols; j++)
+				sampleBytes += 8 + estimate(data.getValue(i, j), depth + 1);
+		}
+
+		return bytes + sampleBytes * rows / samples;
+	}
+
+	protected long estimateMap(Map<?, ?> map, int depth)
+	{
+		long bytes = 48;
+
+		for (Map.Entry<?, ?> entry : map.entrySet())
+			bytes += 32 + estimate(entry.getKey(), depth + 1) + estimate(entry.getValue(), depth + 1);
+
+		return bytes;
+	}
+
+	protected long estimateCollection(Collection<?> collection, int depth)
+	{
+		int size = collection.size();
+		int samples = Math.min(size, this.sampleSize);
+
+		long bytes = 40 + 8L * size;
+
+		if (samples == 0)
+			return bytes;
+
+		long sampleBytes = 0;
+
+		if (collection instanceof List<?> && collection instanceof RandomAccess)
+		{
+			List<?> list = (List<?>) collection;
+
+			for (int i = 0; i < samples; i++)
+				sampleBytes += estimate(list.get(i), depth + 1);
+		}
+		else
+		{
+			Iterator<?> it = collection.iterator();
+
+			for (int i = 0; i < samples && it.hasNext(); i++)
+				sampleBytes += estimate(it.next(), depth + 1);
+		}
+
+		return bytes + sampleBytes * size / samples;
+	}
+
+	protected long estimateArray(Object[] array, int depth)
+	{
+		int size = array.length;
+		int samples = Math.min(size, this.sampleSize);
+
+		long bytes = OBJECT_BYTES + 8L * size;
+
+		if (samples == 0)
+			return bytes;
+
+		long sampleBytes = 0;
+
+		for (int i = 0; i < samples; i++)
+			sampleBytes += estimate(array[i], depth + 1);
+
+		return bytes + sampleBytes * size / samples;
+	}
+}
@@ -27,6 +27,7 @@ import org.datagear.util.CacheService;
 import org.springframework.cache.Cache.ValueWrapper;
 
 import freemarker.cache.TemplateLoader;
+import freemarker.core.Environment;
 import freemarker.core.OutputFormat;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
@@ -55,6 +56,10 @@ public class DataSetFmkTemplateResolver implements TemplateResolver
 	 */
 	public static final String FREEMARKER_NUMBER_FORMAT_COMPUTER = "computer";
 
+	/** 存储当前{@linkplain TemplateContext}的Freemarker自定义属性名 */
+	protected static final String CUSTOM_ATTR_TEMPLATE_CONTEXT = DataSetFmkTemplateResolver.class.getName()
+			+ ".templateContext";
+
 	private NameTemplateLoader nameTemplateLoader;
 
 	private Configuration configuration;
@@ -157,7 +162,9 @@ public class DataSetFmkTemplateResolver implements TemplateResolver
 		{
 			Template templateObj = this.configuration.getTemplate(template);
 			StringWriter out = new StringWriter();
-			templateObj.process(values, out);
+			Environment env = templateObj.createProcessingEnvironment(values, out);
+			env.setCustomAttribute(CUSTOM_ATTR_TEMPLATE_CONTEXT, templateContext);
+			env.process();
 			re = out.toString();
 		}
 		catch (IOException e)
@@ -172,6 +179,17 @@ public class DataSetFmkTemplateResolver implements TemplateResolver
 		return re;
 	}
 
+	/**
+	 * 获取当前线程正在解析模板的{@linkplain TemplateContext}，供模板中的函数使用。
+	 * 
+	 * @return 返回{@code null}表示当前不在模板解析过程中
+	 */
+	public static TemplateContext getCurrentTemplateContext()
+	{
+		Environment env = Environment.getCurrentEnvironment();
+		return (env == null ? null : (TemplateContext) env.getCustomAttribute(CUSTOM_ATTR_TEMPLATE_CONTEXT));
+	}
+
 	/**
 	 * 直接使用名称作为模板的{@linkplain TemplateLoader}。
 	 * 
@@ -58,11 +58,16 @@ public final class DataSetFmkTemplateResolvers
 	/**
 	 * SQL。
 	 * <p>
-	 * 转义SQL特殊字符。
+	 * 转义SQL特殊字符，并支持{@linkplain SqlParamTemplateMethod}参数函数。
 	 * </p>
 	 */
 	public static final DataSetFmkTemplateResolver SQL = new DataSetFmkTemplateResolver(SqlOutputFormat.INSTANCE);
 
+	static
+	{
+		SQL.getConfiguration().setSharedVariable(SqlParamTemplateMethod.NAME, SqlParamTemplateMethod.INSTANCE);
+	}
+
 	/**
 	 * XML。
 	 * <p>
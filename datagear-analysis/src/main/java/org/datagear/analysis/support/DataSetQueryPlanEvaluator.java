@@ -0,0 +1,740 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis.support;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.datagear.analysis.DataSetException;
+import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.DataSetProperty.DataType;
+import org.datagear.analysis.DataSetQueryPlan;
+import org.datagear.analysis.DataSetQueryPlan.Aggregate;
+import org.datagear.analysis.DataSetQueryPlan.AggregateFunction;
+import org.datagear.analysis.DataSetQueryPlan.Filter;
+import org.datagear.analysis.DataSetQueryPlan.FilterOperator;
+import org.datagear.analysis.DataSetQueryPlan.Order;
+import org.datagear.analysis.NameAwareUtil;
+
+/**
+ * {@linkplain DataSetQueryPlan}内存执行器。
+ * <p>
+ * 它基于{@linkplain ColumnarData}按列执行计划：过滤得到行号选择向量，再分组聚合或者投影，最后排序、限定数目。
+ * </p>
+ * <p>
+ * 此类不是线程安全的。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DataSetQueryPlanEvaluator
+{
+	private DataSetPropertyValueConverter converter;
+
+	public DataSetQueryPlanEvaluator()
+	{
+		this(new DataSetPropertyValueConverter());
+	}
+
+	public DataSetQueryPlanEvaluator(DataSetPropertyValueConverter converter)
+	{
+		super();
+		this.converter = converter;
+	}
+
+	public DataSetPropertyValueConverter getConverter()
+	{
+		return converter;
+	}
+
+	public void setConverter(DataSetPropertyValueConverter converter)
+	{
+		this.converter = converter;
+	}
+
+	/**
+	 * 获取执行计划后的结果数据对应的{@linkplain DataSetProperty}列表。
+	 * 
+	 * @param plan
+	 * @param properties
+	 * @return
+	 * @throws DataSetPropertyNotFoundException
+	 */
+	public List<DataSetProperty> evalProperties(DataSetQueryPlan plan, List<DataSetProperty> properties)
+			throws DataSetPropertyNotFoundException
+	{
+		if (plan.isAggregate())
+		{
+			List<DataSetProperty> re = new ArrayList<DataSetProperty>();
+
+			for (String name : plan.getGroupBys())
+				re.add(getPropertyNonNull(properties, name).clone());
+
+			for (Aggregate aggregate : plan.getAggregates())
+			{
+				AggregateFunction function = aggregate.getFunction();
+				String type = null;
+
+				if (AggregateFunction.COUNT.equals(function))
+					type = DataType.INTEGER;
+				else if (AggregateFunction.SUM.equals(function) || AggregateFunction.AVG.equals(function))
+					type = DataType.NUMBER;
+				else
+					type = getPropertyNonNull(properties, aggregate.getName()).getType();
+
+				re.add(new DataSetProperty(aggregate.getAlias(), type));
+			}
+
+			return re;
+		}
+		else if (plan.getProjections() != null && !plan.getProjections().isEmpty())
+		{
+			List<DataSetProperty> re = new ArrayList<DataSetProperty>(plan.getProjections().size());
+
+			for (String name : plan.getProjections())
+				re.add(getPropertyNonNull(properties, name));
+
+			return re;
+		}
+		else
+			return properties;
+	}
+
+	/**
+	 * 执行计划。
+	 * 
+	 * @param plan
+	 * @param data
+	 *            如果是{@linkplain ColumnarData}，将直接按列执行
+	 * @param properties
+	 *            {@code data}的{@linkplain DataSetProperty}列表
+	 * @return
+	 * @throws DataSetPropertyNotFoundException
+	 */
+	public ColumnarData eval(DataSetQueryPlan plan, List<? extends Map<String, ?>> data,
+			List<DataSetProperty> properties) throws DataSetPropertyNotFoundException
+	{
+		return eval(plan, data, properties, -1);
+	}
+
+	/**
+	 * 执行计划，并限定最多返回数目。
+	 * 
+	 * @param plan
+	 * @param data
+	 *            如果是{@linkplain ColumnarData}，将直接按列执行
+	 * @param properties
+	 *            {@code data}的{@linkplain DataSetProperty}列表
+	 * @param fetchSize
+	 *            最多返回数目，与{@linkplain DataSetQueryPlan#getLimit()}取小者，小于{@code 0}表示不限定
+	 * @return
+	 * @throws DataSetPropertyNotFoundException
+	 */
+	public ColumnarData eval(DataSetQueryPlan plan, List<? extends Map<String, ?>> data,
+			List<DataSetProperty> properties, int fetchSize) throws DataSetPropertyNotFoundException
+	{
+		int limit = getLimit(plan, fetchSize);
+		ColumnarData source = toColumnarData(data, properties);
+
+		int[] rows = new int[source.size()];
+		for (int i = 0; i < rows.length; i++)
+			rows[i] = i;
+
+		if (plan.getFilters() != null)
+		{
+			for (Filter filter : plan.getFilters())
+				rows = filter(source, rows, filter, getPropertyNonNull(properties, filter.getName()));
+		}
+
+		ColumnarData target = null;
+
+		if (plan.isAggregate())
+		{
+			ColumnarData aggregated = aggregate(source, rows, plan.getGroupBys(), plan.getAggregates());
+
+			rows = new int[aggregated.size()];
+			for (int i = 0; i < rows.length; i++)
+				rows[i] = i;
+
+			rows = sort(aggregated, rows, plan.getOrders());
+			target = copy(aggregated, aggregated.getNames(), rows, limit);
+		}
+		else
+		{
+			rows = sort(source, rows, plan.getOrders());
+
+			List<String> names = (plan.getProjections() == null || plan.getProjections().isEmpty()
+					? source.getNames()
+					: plan.getProjections());
+
+			target = copy(source, names, rows, limit);
+		}
+
+		return target;
+	}
+
+	/**
+	 * 获取{@linkplain DataSetQueryPlan#getLimit()}与{@code fetchSize}中较小的限定数目。
+	 * 
+	 * @param plan
+	 * @param fetchSize
+	 * @return 小于{@code 0}表示不限定
+	 */
+	public static int getLimit(DataSetQueryPlan plan, int fetchSize)
+	{
+		int limit = plan.getLimit();
+
+		if (limit < 0)
+			return fetchSize;
+		else if (fetchSize < 0)
+			return limit;
+		else
+			return Math.min(limit, fetchSize);
+	}
+
+	/**
+	 * 过滤，返回新的行号选择向量。
+	 * 
+	 * @param data
+	 * @param rows
+	 * @param filter
+	 * @param property
+	 * @return
+	 * @throws DataSetPropertyNotFoundException
+	 */
+	protected int[] filter(ColumnarData data, int[] rows, Filter filter, DataSetProperty property)
+			throws DataSetPropertyNotFoundException
+	{
+		int column = getColumnIndexNonNull(data, filter.getName());
+		FilterOperator operator = filter.getOperator();
+		Object filterValue = null;
+		List<Object> filterValues = null;
+
+		if (FilterOperator.IN.equals(operator))
+			filterValues = toPropertyValues(filter.getValue(), property);
+		else
+			filterValue = toPropertyValue(filter.getValue(), property);
+
+		int count = 0;
+
+		for (int i = 0; i < rows.length; i++)
+		{
+			Object value = data.getValue(rows[i], column);
+			boolean accept = false;
+
+			switch (operator)
+			{
+				case IS_NULL:
+					accept = (value == null);
+					break;
+				case IS_NOT_NULL:
+					accept = (value != null);
+					break;
+				case IN:
+				{
+					if (value != null)
+					{
+						for (Object fv : filterValues)
+						{
+							if (fv != null && compareValues(value, fv) == 0)
+							{
+								accept = true;
+								break;
+							}
+						}
+					}
+
+					break;
+				}
+				default:
+				{
+					if (value != null && filterValue != null)
+					{
+						int c = compareValues(value, filterValue);
+
+						if (FilterOperator.EQ.equals(operator))
+							accept = (c == 0);
+						else if (FilterOperator.NE.equals(operator))
+							accept = (c != 0);
+						else if (FilterOperator.GT.equals(operator))
+							accept = (c > 0);
+						else if (FilterOperator.GE.equals(operator))
+							accept = (c >= 0);
+						else if (FilterOperator.LT.equals(operator))
+							accept = (c < 0);
+						else if (FilterOperator.LE.equals(operator))
+							accept = (c <= 0);
+					}
+				}
+			}
+
+			if (accept)
+				rows[count++] = rows[i];
+		}
+
+		return (count == rows.length ? rows : Arrays.copyOf(rows, count));
+	}
+
+	/**
+	 * 分组聚合。
+	 * 
+	 * @param data
+	 * @param rows
+	 * @param groupBys
+	 * @param aggregates
+	 * @return
+	 * @throws DataSetPropertyNotFoundException
+	 */
+	protected ColumnarData aggregate(ColumnarData data, int[] rows, List<String> groupBys,
+			List<Aggregate> aggregates) throws DataSetPropertyNotFoundException
+	{
+		int glen = groupBys.size();
+		int alen = aggregates.size();
+
+		int[] groupColumns = new int[glen];
+		for (int i = 0; i < glen; i++)
+			groupColumns[i] = getColumnIndexNonNull(data, groupBys.get(i));
+
+		int[] aggregateColumns = new int[alen];
+		String[] names = new String[glen + alen];
+
+		for (int i = 0; i < glen; i++)
+			names[i] = groupBys.get(i);
+
+		for (int i = 0; i < alen; i++)
+		{
+			Aggregate aggregate = aggregates.get(i);
+
+			if (aggregate.getName() == null && !AggregateFunction.COUNT.equals(aggregate.getFunction()))
+				throw new DataSetException("The property name of aggregate function " + aggregate.getFunction()
+						+ " must not be null");
+
+			aggregateColumns[i] = (aggregate.getName() == null ? -1
+					: getColumnIndexNonNull(data, aggregate.getName()));
+			names[glen + i] = aggregate.getAlias();
+		}
+
+		Map<Object, Accumulator[]> groups = new LinkedHashMap<Object, Accumulator[]>();
+		Map<Object, Object[]> groupValues = new LinkedHashMap<Object, Object[]>();
+
+		// 没有分组时，即使没有数据，也应返回一行聚合结果
+		if (glen == 0)
+		{
+			groups.put(Boolean.TRUE, createAccumulators(aggregates));
+			groupValues.put(Boolean.TRUE, new Object[0]);
+		}
+
+		for (int i = 0; i < rows.length; i++)
+		{
+			int row = rows[i];
+			Object key = null;
+			Object[] keyValues = null;
+
+			if (glen == 0)
+				key = Boolean.TRUE;
+			else if (glen == 1)
+				key = data.getValue(row, groupColumns[0]);
+			else
+			{
+				keyValues = new Object[glen];
+				for (int j = 0; j < glen; j++)
+					keyValues[j] = data.getValue(row, groupColumns[j]);
+
+				key = Arrays.asList(keyValues);
+			}
+
+			Accumulator[] accumulators = groups.get(key);
+
+			if (accumulators == null)
+			{
+				accumulators = createAccumulators(aggregates);
+				groups.put(key, accumulators);
+
+				if (keyValues == null)
+					keyValues = new Object[] { key };
+
+				groupValues.put(key, keyValues);
+			}
+
+			for (int j = 0; j < alen; j++)
+			{
+				if (aggregateColumns[j] < 0)
+					accumulators[j].addRow();
+				else
+					accumulators[j].add(data.getValue(row, aggregateColumns[j]));
+			}
+		}
+
+		ColumnarData re = new ColumnarData(names, groups.size());
+
+		for (Map.Entry<Object, Accumulator[]> entry : groups.entrySet())
+		{
+			int row = re.addRow();
+			Object[] keyValues = groupValues.get(entry.getKey());
+			Accumulator[] accumulators = entry.getValue();
+
+			for (int j = 0; j < glen; j++)
+				re.setValue(row, j, keyValues[j]);
+
+			for (int j = 0; j < alen; j++)
+				re.setValue(row, glen + j, accumulators[j].getResult());
+		}
+
+		return re;
+	}
+
+	/**
+	 * 排序行号选择向量。
+	 * 
+	 * @param data
+	 * @param rows
+	 * @param orders
+	 *            允许为{@code null}
+	 * @return
+	 * @throws DataSetPropertyNotFoundException
+	 */
+	protected int[] sort(final ColumnarData data, int[] rows, List<Order> orders)
+			throws DataSetPropertyNotFoundException
+	{
+		if (orders == null || orders.isEmpty() || rows.length < 2)
+			return rows;
+
+		final int olen = orders.size();
+		final int[] columns = new int[olen];
+		final boolean[] ascs = new boolean[olen];
+
+		for (int i = 0; i < olen; i++)
+		{
+			columns[i] = getColumnIndexNonNull(data, orders.get(i).getName());
+			ascs[i] = orders.get(i).isAsc();
+		}
+
+		Integer[] sorted = new Integer[rows.length];
+		for (int i = 0; i < rows.length; i++)
+			sorted[i] = rows[i];
+
+		Arrays.sort(sorted, new Comparator<Integer>()
+		{
+			@Override
+			public int compare(Integer o1, Integer o2)
+			{
+				for (int i = 0; i < olen; i++)
+				{
+					int c = compareValues(data.getValue(o1, columns[i]), data.getValue(o2, columns[i]));
+
+					if (c != 0)
+						return (ascs[i] ? c : -c);
+				}
+
+				return 0;
+			}
+		});
+
+		int[] re = new int[sorted.length];
+		for (int i = 0; i < sorted.length; i++)
+			re[i] = sorted[i];
+
+		return re;
+	}
+
+	/**
+	 * 按照行号选择向量复制指定列。
+	 * 
+	 * @param data
+	 * @param names
+	 * @param rows
+	 * @param limit
+	 *            小于{@code 0}表示不限定
+	 * @return
+	 * @throws DataSetPropertyNotFoundException
+	 */
+	protected ColumnarData copy(ColumnarData data, List<String> names, int[] rows, int limit)
+			throws DataSetPropertyNotFoundException
+	{
+		int size = (limit < 0 ? rows.length : Math.min(limit, rows.length));
+		int nlen = names.size();
+		int[] columns = new int[nlen];
+
+		for (int i = 0; i < nlen; i++)
+			columns[i] = getColumnIndexNonNull(data, names.get(i));
+
+		ColumnarData re = new ColumnarData(names, size);
+
+		for (int i = 0; i < size; i++)
+		{
+			int row = re.addRow();
+
+			for (int j = 0; j < nlen; j++)
+				re.setValue(row, j, data.getValue(rows[i], columns[j]));
+		}
+
+		return re;
+	}
+
+	protected ColumnarData toColumnarData(List<? extends Map<String, ?>> data, List<DataSetProperty> properties)
+	{
+		if (data instanceof ColumnarData)
+			return (ColumnarData) data;
+
+		int plen = properties.size();
+		String[] names = new String[plen];
+
+		for (int i = 0; i < plen; i++)
+			names[i] = properties.get(i).getName();
+
+		ColumnarData re = new ColumnarData(names, data.size());
+
+		for (Map<String, ?> rowData : data)
+		{
+			int row = re.addRow();
+
+			for (int i = 0; i < plen; i++)
+				re.setValue(row, i, rowData.get(names[i]));
+		}
+
+		return re;
+	}
+
+	/**
+	 * 将过滤值转换为属性类型的值。
+	 * 
+	 * @param value
+	 * @param property
+	 * @return
+	 */
+	public Object toPropertyValue(Object value, DataSetProperty property)
+	{
+		if (value == null)
+			return null;
+
+		String type = property.getType();
+
+		if (type == null || DataType.UNKNOWN.equals(type))
+			return value;
+
+		return this.converter.convert(value, property);
+	}
+
+	/**
+	 * 将{@linkplain FilterOperator#IN}过滤值转换为属性类型的值列表。
+	 * 
+	 * @param value
+	 *            {@linkplain Collection}、数组、其他
+	 * @param property
+	 * @return
+	 */
+	public List<Object> toPropertyValues(Object value, DataSetProperty property)
+	{
+		List<Object> re = new ArrayList<Object>();
+
+		if (value == null)
+			return re;
+
+		if (value instanceof Collection<?>)
+		{
+			for (Object v : (Collection<?>) value)
+				re.add(toPropertyValue(v, property));
+		}
+		else if (value instanceof Object[])
+		{
+			for (Object v : (Object[]) value)
+				re.add(toPropertyValue(v, property));
+		}
+		else
+			re.add(toPropertyValue(value, property));
+
+		return re;
+	}
+
+	protected Accumulator[] createAccumulators(List<Aggregate> aggregates)
+	{
+		Accumulator[] accumulators = new Accumulator[aggregates.size()];
+
+		for (int i = 0; i < accumulators.length; i++)
+			accumulators[i] = new Accumulator(aggregates.get(i).getFunction());
+
+		return accumulators;
+	}
+
+	protected DataSetProperty getPropertyNonNull(List<DataSetProperty> properties, String name)
+			throws DataSetPropertyNotFoundException
+	{
+		DataSetProperty property = NameAwareUtil.find(properties, name);
+
+		if (property == null)
+			throw new DataSetPropertyNotFoundException(name);
+
+		return property;
+	}
+
+	protected int getColumnIndexNonNull(ColumnarData data, String name) throws DataSetPropertyNotFoundException
+	{
+		int index = data.getColumnIndex(name);
+
+		if (index < 0)
+			throw new DataSetPropertyNotFoundException(name);
+
+		return index;
+	}
+
+	/**
+	 * 比较两个值，{@code null}最小。
+	 * 
+	 * @param v0
+	 * @param v1
+	 * @return
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static int compareValues(Object v0, Object v1)
+	{
+		if (v0 == v1)
+			return 0;
+		if (v0 == null)
+			return -1;
+		if (v1 == null)
+			return 1;
+
+		if (v0 instanceof Number && v1 instanceof Number)
+		{
+			if (isIntegral(v0) && isIntegral(v1))
+				return Long.compare(((Number) v0).longValue(), ((Number) v1).longValue());
+
+			return toBigDecimal((Number) v0).compareTo(toBigDecimal((Number) v1));
+		}
+
+		if (v0 instanceof Date && v1 instanceof Date)
+			return Long.compare(((Date) v0).getTime(), ((Date) v1).getTime());
+
+		if (v0.getClass().equals(v1.getClass()) && v0 instanceof Comparable<?>)
+			return ((Comparable) v0).compareTo(v1);
+
+		return v0.toString().compareTo(v1.toString());
+	}
+
+	protected static boolean isIntegral(Object v)
+	{
+		return (v instanceof Long || v instanceof Integer || v instanceof Short || v instanceof Byte);
+	}
+
+	protected static BigDecimal toBigDecimal(Number v)
+	{
+		if (v instanceof BigDecimal)
+			return (BigDecimal) v;
+		else if (v instanceof BigInteger)
+			return new BigDecimal((BigInteger) v);
+		else if (isIntegral(v))
+			return BigDecimal.valueOf(v.longValue());
+		else
+			return BigDecimal.valueOf(v.doubleValue());
+	}
+
+	/**
+	 * 聚合累加器。
+	 * 
+	 * @author datagear@163.com
+	 * 
+	 */
+	protected static class Accumulator
+	{
+		private final AggregateFunction function;
+
+		private long count = 0;
+
+		private BigDecimal sum = null;
+
+		private Object value = null;
+
+		public Accumulator(AggregateFunction function)
+		{
+			super();
+			this.function = function;
+		}
+
+		/**
+		 * 计数一行，仅用于{@linkplain AggregateFunction#COUNT}所有行。
+		 */
+		public void addRow()
+		{
+			this.count++;
+		}
+
+		public void add(Object v)
+		{
+			if (v == null)
+				return;
+
+			this.count++;
+
+			switch (this.function)
+			{
+				case SUM:
+				case AVG:
+				{
+					if (v instanceof Number)
+					{
+						BigDecimal bd = toBigDecimal((Number) v);
+						this.sum = (this.sum == null ? bd : this.sum.add(bd));
+					}
+
+					break;
+				}
+				case MIN:
+				{
+					if (this.value == null || compareValues(v, this.value) < 0)
+						this.value = v;
+
+					break;
+				}
+				case MAX:
+				{
+					if (this.value == null || compareValues(v, this.value) > 0)
+						this.value = v;
+
+					break;
+				}
+				default:
+			}
+		}
+
+		public Object getResult()
+		{
+			switch (this.function)
+			{
+				case COUNT:
+					return this.count;
+				case SUM:
+					return this.sum;
+				case AVG:
+					return (this.sum == null ? null
+							: this.sum.divide(BigDecimal.valueOf(this.count), MathContext.DECIMAL64));
+				default:
+					return this.value;
+			}
+		}
+	}
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.DataSetResult;
+import org.datagear.analysis.ResolvedDataSetResult;
+
+/**
+ * {@linkplain DataSetResult}工具类。
+ * <p>
+ * 用于在多个请求间共享结果：共享的数据是只读的，每个请求获得各自的{@linkplain DataSetResult}对象。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DataSetResultUtil
+{
+	private static final Class<?> UNMODIFIABLE_LIST_CLASS = Collections
+			.unmodifiableList(new LinkedList<Object>()).getClass();
+
+	private static final Class<?> UNMODIFIABLE_RANDOM_ACCESS_LIST_CLASS = Collections
+			.unmodifiableList(new ArrayList<Object>()).getClass();
+
+	private static final Class<?> UNMODIFIABLE_MAP_CLASS = Collections.unmodifiableMap(Collections.emptyMap())
+			.getClass();
+
+	/**
+	 * 创建与{@code result}共享数据的新{@linkplain DataSetResult}。
+	 * 
+	 * @param result
+	 *            允许为{@code null}
+	 * @return
+	 */
+	public static DataSetResult share(DataSetResult result)
+	{
+		return (result == null ? null : new DataSetResult(result.getData()));
+	}
+
+	/**
+	 * 创建与{@code result}共享数据、属性的新{@linkplain ResolvedDataSetResult}。
+	 * 
+	 * @param result
+	 *            允许为{@code null}
+	 * @return
+	 */
+	public static ResolvedDataSetResult share(ResolvedDataSetResult result)
+	{
+		return (result == null ? null : new ResolvedDataSetResult(share(result.getResult()), result.getProperties()));
+	}
+
+	/**
+	 * 创建数据只读的新{@linkplain DataSetResult}，用于在多个请求间共享。
+	 * 
+	 * @param result
+	 *            允许为{@code null}
+	 * @return
+	 * @see #toUnmodifiableData(Object)
+	 */
+	public static DataSetResult toUnmodifiable(DataSetResult result)
+	{
+		return (result == null ? null : new DataSetResult(toUnmodifiableData(result.getData())));
+	}
+
+	/**
+	 * 创建数据、属性只读的新{@linkplain ResolvedDataSetResult}，用于在多个请求间共享。
+	 * 
+	 * @param result
+	 *            允许为{@code null}
+	 * @return
+	 * @see #toUnmodifiableData(Object)
+	 */
+	public static ResolvedDataSetResult toUnmodifiable(ResolvedDataSetResult result)
+	{
+		if (result == null)
+			return null;
+
+		List<DataSetProperty> properties = result.getProperties();
+
+		return new ResolvedDataSetResult(toUnmodifiable(result.getResult()),
+				(properties == null ? null : Collections.unmodifiableList(properties)));
+	}
+
+	/**
+	 * 将结果数据转换为只读的，使其可以在多个请求间安全共享。
+	 * <p>
+	 * {@linkplain ColumnarData}将被直接设为只读；{@code List<Map>}、{@code Map[]}、{@code Map}将被包装为只读的，
+	 * 已经是只读的则不再包装；其他类型则原样返回。
+	 * </p>
+	 * 
+	 * @param data
+	 *            允许为{@code null}
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public static Object toUnmodifiableData(Object data)
+	{
+		if (data instanceof ColumnarData)
+		{
+			ColumnarData columnarData = (ColumnarData) data;
+			return (columnarData.isModifiable() ? columnarData.unmodifiable() : columnarData);
+		}
+		else if (data instanceof List<?>)
+		{
+			if (isUnmodifiableList(data))
+				return data;
+
+			List<?> list = (List<?>) data;
+			List<Object> re = new ArrayList<Object>(list.size());
+
+			for (Object ele : list)
+				re.add(ele instanceof Map<?, ?> ? toUnmodifiableMap((Map<Object, Object>) ele) : ele);
+
+			return Collections.unmodifiableList(re);
+		}
+		else if (data instanceof Map<?, ?>[])
+		{
+			Map<?, ?>[] array = (Map<?, ?>[]) data;
+			Map<?, ?>[] re = new Map<?, ?>[array.length];
+
+			for (int i = 0; i < array.length; i++)
+				re[i] = (array[i] == null ? null : toUnmodifiableMap((Map<Object, Object>) array[i]));
+
+			return re;
+		}
+		else if (data instanceof Map<?, ?>)
+		{
+			return toUnmodifiableMap((Map<Object, Object>) data);
+		}
+		else
+			return data;
+	}
+
+	protected static Map<Object, Object> toUnmodifiableMap(Map<Object, Object> map)
+	{
+		return (UNMODIFIABLE_MAP_CLASS.equals(map.getClass()) ? map : Collections.unmodifiableMap(map));
+	}
+
+	protected static boolean isUnmodifiableList(Object list)
+	{
+		Class<?> clazz = list.getClass();
+		return (UNMODIFIABLE_RANDOM_ACCESS_LIST_CLASS.equals(clazz) || UNMODIFIABLE_LIST_CLASS.equals(clazz));
+	}
+}
@@ -33,6 +33,9 @@ import org.apache.hc.client5.http.classic.methods.HttpGet;
 import org.apache.hc.client5.http.classic.methods.HttpPatch;
 import org.apache.hc.client5.http.classic.methods.HttpPost;
 import org.apache.hc.client5.http.classic.methods.HttpPut;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.config.Configurable;
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.entity.UrlEncodedFormEntity;
 import org.apache.hc.core5.http.ClassicHttpRequest;
 import org.apache.hc.core5.http.ClassicHttpResponse;
@@ -43,6 +46,7 @@ import org.apache.hc.core5.http.NameValuePair;
 import org.apache.hc.core5.http.io.HttpClientResponseHandler;
 import org.apache.hc.core5.http.io.entity.StringEntity;
 import org.apache.hc.core5.http.message.BasicNameValuePair;
+import org.apache.hc.core5.util.Timeout;
 import org.datagear.analysis.DataSetException;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetQuery;
@@ -138,6 +142,9 @@ public class HttpDataSet extends AbstractResolvableDataSet
 	/** 响应数据的JSON路径 */
 	private String responseDataJsonPath = "";
 
+	/** 建立连接、等待响应的超时秒数 */
+	private int timeout = 0;
+
 	public HttpDataSet()
 	{
 		super();
@@ -343,6 +350,24 @@ public class HttpDataSet extends AbstractResolvableDataSet
 		this.responseDataJsonPath = responseDataJsonPath;
 	}
 
+	public int getTimeout()
+	{
+		return timeout;
+	}
+
+	/**
+	 * 设置建立连接、等待响应的超时秒数。
+	 * <p>
+	 * 小于等于{@code 0}表示使用{@linkplain #getHttpClient()}的默认配置。
+	 * </p>
+	 * 
+	 * @param timeout
+	 */
+	public void setTimeout(int timeout)
+	{
+		this.timeout = timeout;
+	}
+
 	@Override
 	public TemplateResolvedDataSetResult resolve(DataSetQuery query)
 			throws DataSetException
@@ -363,6 +388,7 @@ public class HttpDataSet extends AbstractResolvableDataSet
 			uri = resolveTemplateUri(query);
 
 			ClassicHttpRequest request = createHttpRequest(uri);
+			setRequestConfig(request);
 
 			headerContent = setHttpHeaders(request, query);
 			requestContent = setHttpEntity(request, query);
@@ -385,6 +411,34 @@ public class HttpDataSet extends AbstractResolvableDataSet
 		}
 	}
 
+	/**
+	 * 设置请求配置。
+	 * <p>
+	 * 如果设置了{@linkplain #getTimeout()}，将以{@linkplain #getHttpClient()}的默认配置为基础设置超时时长，
+	 * 因为请求配置会完全替代客户端的默认配置。
+	 * </p>
+	 * 
+	 * @param request
+	 * @throws Throwable
+	 */
+	protected void setRequestConfig(ClassicHttpRequest request) throws Throwable
+	{
+		if (this.timeout <= 0 || !(request instanceof HttpUriRequestBase))
+			return;
+
+		RequestConfig defaultConfig = (this.httpClient instanceof Configurable
+				? ((Configurable) this.httpClient).getConfig()
+				: null);
+
+		RequestConfig.Builder builder = (defaultConfig == null ? RequestConfig.custom()
+				: RequestConfig.copy(defaultConfig));
+
+		Timeout timeoutValue = Timeout.ofSeconds(this.timeout);
+		builder.setConnectTimeout(timeoutValue).setResponseTimeout(timeoutValue);
+
+		((HttpUriRequestBase) request).setConfig(builder.build());
+	}
+
 	protected String buildResolvedTemplate(String uri, String headerContent, String requestContent)
 	{
 		StringBuilder sb = new StringBuilder();
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import org.datagear.analysis.DataSet;
+import org.datagear.analysis.DataSetException;
+import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.DataSetResult;
+import org.datagear.analysis.DataSetResultLoader;
+
+/**
+ * 合并并发相同请求的{@linkplain DataSetResultLoader}。
+ * <p>
+ * 对于{@linkplain DataSet#getId()}、{@linkplain DataSetQuery}都相同的并发请求，只有第一个请求会实际执行{@linkplain DataSet#getResult(DataSetQuery)}，
+ * 其他请求将等待其执行完成并共享同一个结果数据（或者异常）。
+ * </p>
+ * <p>
+ * 每个请求都将获得各自的{@linkplain DataSetResult}对象，但是因为结果数据被多个请求共享，
+ * 所以{@linkplain DataSetResult#getData()}是只读的（参考{@linkplain DataSetResultUtil#toUnmodifiableData(Object)}），
+ * 调用方不应修改它，需要修改时应先自行复制。
+ * </p>
+ * <p>
+ * 此类不缓存结果，执行完成后即删除，后续请求将重新执行。
+ * </p>
+ * <p>
+ * 此类是线程安全的，通常应作为单例全局共享。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SingleFlightDataSetResultLoader implements DataSetResultLoader
+{
+	private final ConcurrentMap<FlightKey, CompletableFuture<DataSetResult>> flights = new ConcurrentHashMap<FlightKey, CompletableFuture<DataSetResult>>();
+
+	public SingleFlightDataSetResultLoader()
+	{
+		super();
+	}
+
+	@Override
+	public DataSetResult load(DataSet dataSet, DataSetQuery query) throws DataSetException
+	{
+		String dataSetId = dataSet.getId();
+
+		if (dataSetId == null)
+			return dataSet.getResult(query);
+
+		// 复制查询对象，避免执行期间外部修改导致关键字改变
+		FlightKey key = new FlightKey(dataSetId, DataSetQuery.copy(query));
+		CompletableFuture<DataSetResult> flight = new CompletableFuture<DataSetResult>();
+		CompletableFuture<DataSetResult> prevFlight = this.flights.putIfAbsent(key, flight);
+
+		if (prevFlight != null)
+			return DataSetResultUtil.share(waitFlight(prevFlight));
+
+		try
+		{
+			DataSetResult result = DataSetResultUtil.toUnmodifiable(dataSet.getResult(query));
+			flight.complete(result);
+
+			return DataSetResultUtil.share(result);
+		}
+		catch (Throwable t)
+		{
+			flight.completeExceptionally(t);
+			throw t;
+		}
+		finally
+		{
+			this.flights.remove(key, flight);
+		}
+	}
+
+	/**
+	 * 获取正在执行的请求数。
+	 * 
+	 * @return
+	 */
+	public int getFlightCount()
+	{
+		return this.flights.size();
+	}
+
+	protected DataSetResult waitFlight(CompletableFuture<DataSetResult> flight) throws DataSetException
+	{
+		try
+		{
+			return flight.get();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new DataSetException(e);
+		}
+		catch (ExecutionException e)
+		{
+			Throwable cause = e.getCause();
+
+			if (cause instanceof DataSetException)
+				throw (DataSetException) cause;
+			else if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			else if (cause instanceof Error)
+				throw (Error) cause;
+			else
+				throw new DataSetException(cause);
+		}
+	}
+
+	/**
+	 * 请求关键字。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class FlightKey
+	{
+		private final String dataSetId;
+
+		private final DataSetQuery query;
+
+		public FlightKey(String dataSetId, DataSetQuery query)
+		{
+			super();
+			this.dataSetId = dataSetId;
+			this.query = query;
+		}
+
+		public String getDataSetId()
+		{
+			return dataSetId;
+		}
+
+		public DataSetQuery getQuery()
+		{
+			return query;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((dataSetId == null) ? 0 : dataSetId.hashCode());
+			result = prime * result + ((query == null) ? 0 : query.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			FlightKey other = (FlightKey) obj;
+			if (dataSetId == null)
+			{
+				if (other.dataSetId != null)
+					return false;
+			}
+			else if (!dataSetId.equals(other.dataSetId))
+				return false;
+			if (query == null)
+			{
+				if (other.query != null)
+					return false;
+			}
+			else if (!query.equals(other.query))
+				return false;
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [dataSetId=" + dataSetId + ", query=" + query + "]";
+		}
+	}
+}
@@ -18,29 +18,47 @@
 package org.datagear.analysis.support;
 
 import java.io.Reader;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLSyntaxErrorException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
 
 import org.datagear.analysis.DataSet;
 import org.datagear.analysis.DataSetException;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetProperty.DataType;
 import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.DataSetQueryPlan;
+import org.datagear.analysis.DataSetQueryPlan.Aggregate;
+import org.datagear.analysis.DataSetQueryPlan.AggregateFunction;
+import org.datagear.analysis.DataSetQueryPlan.Filter;
+import org.datagear.analysis.DataSetQueryPlan.FilterOperator;
+import org.datagear.analysis.DataSetQueryPlan.Order;
+import org.datagear.analysis.NameAwareUtil;
 import org.datagear.analysis.ResolvableDataSet;
 import org.datagear.analysis.ResolvedDataSetResult;
+import org.datagear.util.CacheService;
 import org.datagear.util.IOUtil;
 import org.datagear.util.JDBCCompatiblity;
 import org.datagear.util.JdbcSupport;
+import org.datagear.util.JdbcUtil;
 import org.datagear.util.QueryResultSet;
 import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
 import org.datagear.util.SqlType;
 import org.datagear.util.resource.ConnectionFactory;
 import org.datagear.util.sqlvalidator.DatabaseProfile;
@@ -48,12 +66,20 @@ import org.datagear.util.sqlvalidator.SqlValidation;
 import org.datagear.util.sqlvalidator.SqlValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache.ValueWrapper;
 
 /**
  * SQL {@linkplain DataSet}。
  * <p>
  * 此类的{@linkplain #getSql()}支持<code>Freemarker</code>模板语言。
  * </p>
+ * <p>
+ * {@linkplain #getSql()}中的{@code ${sqlParam(...)}}（参考{@linkplain SqlParamTemplateMethod}）将作为JDBC参数绑定，而不是直接插入SQL文本中，
+ * 使参数值不同的查询也是相同的SQL语句，数据库可复用已解析的执行计划。
+ * </p>
+ * <p>
+ * 如果{@linkplain DataSetQuery#getPlan()}仅引用了非计算属性，它将被转换为包裹原SQL的子查询，在数据库中执行。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -64,12 +90,28 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 
 	protected static final JdbcSupport JDBC_SUPPORT = new JdbcSupport();
 
+	/** 执行查询计划时，原SQL子查询的别名 */
+	protected static final String PLAN_TABLE_ALIAS = "DG_PLAN_T";
+
+	/** 出现在末尾{@code ORDER BY}之后时，表明它会影响结果集内容、不能删除的关键字 */
+	protected static final Set<String> TRAILING_ORDER_BY_STOP_WORDS = Collections.unmodifiableSet(new HashSet<String>(
+			Arrays.asList("LIMIT", "OFFSET", "FETCH", "FOR", "ROWS", "UNION", "INTERSECT", "EXCEPT", "MINUS")));
+
 	private ConnectionFactory connectionFactory;
 
 	private String sql;
 
 	private SqlValidator sqlValidator = null;
 
+	/** 结果缓存服务 */
+	private CacheService resultCacheService = null;
+
+	/** 结果缓存有效期（秒），小于等于0表示不缓存 */
+	private int resultCacheTtl = 0;
+
+	/** 执行SQL的JDBC操作支持类，为{@code null}时使用默认的 */
+	private JdbcSupport jdbcSupport = null;
+
 	public SqlDataSet()
 	{
 		super();
@@ -120,6 +162,35 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 		this.sqlValidator = sqlValidator;
 	}
 
+	public CacheService getResultCacheService()
+	{
+		return resultCacheService;
+	}
+
+	public void setResultCacheService(CacheService resultCacheService)
+	{
+		this.resultCacheService = resultCacheService;
+	}
+
+	/**
+	 * 获取结果缓存有效期（秒）。
+	 * <p>
+	 * 当此值大于{@code 0}、且设置了可用的{@linkplain #getResultCacheService()}时，
+	 * 相同{@linkplain #getResultCacheConnectionKey()}、相同{@linkplain #resolveTemplateSqlWithParams(String, DataSetQuery)}结果SQL及参数值的查询将在有效期内复用缓存结果，而不再查询数据库。
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public int getResultCacheTtl()
+	{
+		return resultCacheTtl;
+	}
+
+	public void setResultCacheTtl(int resultCacheTtl)
+	{
+		this.resultCacheTtl = resultCacheTtl;
+	}
+
 	@Override
 	public TemplateResolvedDataSetResult resolve(DataSetQuery query)
 			throws DataSetException
@@ -131,8 +202,287 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 	protected TemplateResolvedDataSetResult resolveResult(DataSetQuery query, List<DataSetProperty> properties,
 			boolean resolveProperties) throws DataSetException
 	{
-		String sql = resolveTemplateSql(getSql(), query);
+		Sql sql = resolveTemplateSqlWithParams(getSql(), query);
+		boolean pushdownPlan = isPlanPushdownable(query, properties);
+		DataSetQuery rawQuery = getRawQuery(query, pushdownPlan);
+
+		RawResult rawResult = null;
+
+		if (pushdownPlan)
+		{
+			try
+			{
+				rawResult = getRawResult(sql, rawQuery, resolveProperties);
+			}
+			catch (SqlDataSetSqlExecutionException e)
+			{
+				// 其他错误（比如超时、连接断开）重新执行查询也不会成功，不应回退
+				if (!isPlanSqlUnsupported(e))
+					throw e;
+
+				// 某些数据库、某些SQL不支持作为计划SQL的子查询，此时应回退为在内存中执行计划
+				if (LOGGER.isWarnEnabled())
+					LOGGER.warn("Execute plan SQL error, the plan will be evaluated in memory : " + e.getMessage());
+
+				pushdownPlan = false;
+				rawQuery = getRawQuery(query, false);
+			}
+		}
+
+		if (rawResult == null)
+			rawResult = getRawResult(sql, rawQuery, resolveProperties);
+
+		try
+		{
+			DataSetQuery resultQuery = query;
+			List<DataSetProperty> resultProperties = properties;
+
+			// 计划已在数据库中执行，结果数据应按照计划的结果属性解析
+			if (pushdownPlan)
+			{
+				resultQuery = query.copy();
+				resultQuery.setPlan(null);
+				resultProperties = new DataSetQueryPlanEvaluator(createDataSetPropertyValueConverter())
+						.evalProperties(query.getPlan(), properties);
+			}
+
+			ResolvedDataSetResult result = resolveResult(resultQuery, rawResult.getData(), rawResult.getProperties(),
+					resultProperties, resolveProperties);
+
+			return new TemplateResolvedDataSetResult(result.getResult(), result.getProperties(), sql.getSqlValue());
+		}
+		catch (DataSetException e)
+		{
+			throw e;
+		}
+		catch (Throwable t)
+		{
+			throw new DataSetException(t);
+		}
+	}
+
+	/**
+	 * 解析SQL模板，模板中{@code ${sqlParam(...)}}的参数值将作为{@linkplain Sql#getParamValues()}。
+	 * 
+	 * @param sql
+	 * @param query
+	 * @return
+	 */
+	protected Sql resolveTemplateSqlWithParams(String sql, DataSetQuery query)
+	{
+		SqlTemplateContext context = new SqlTemplateContext(query.getParamValues(), true);
+		String resolved = DataSetFmkTemplateResolvers.resolveSql(sql, context);
+
+		Sql re = Sql.valueOf(resolved);
+
+		for (Object value : context.getSqlParamValues())
+			re.param(value == null ? SqlParamValue.valueOf(null, Types.VARCHAR) : toSqlParamValue(value));
+
+		return re;
+	}
+
+	/**
+	 * 获取作为结果缓存关键字的参数值。
+	 * 
+	 * @param sql
+	 * @return
+	 */
+	protected List<Object> toCacheParamValues(Sql sql)
+	{
+		List<SqlParamValue> paramValues = sql.getParamValues();
+		List<Object> re = new ArrayList<Object>(paramValues.size());
+
+		for (SqlParamValue pv : paramValues)
+			re.add(pv.getValue());
+
+		return re;
+	}
+
+	/**
+	 * 获取{@linkplain RawResult}，启用结果缓存时将优先从缓存中获取。
+	 * 
+	 * @param sql
+	 * @param rawQuery
+	 * @param resolveProperties
+	 * @return
+	 * @throws DataSetException
+	 */
+	protected RawResult getRawResult(Sql sql, DataSetQuery rawQuery, boolean resolveProperties)
+			throws DataSetException
+	{
+		RawResult rawResult = null;
+
+		if (isResultCacheEnabled())
+		{
+			ResultCacheKey key = new ResultCacheKey(getId(), getResultCacheConnectionKey(), sql.getSqlValue(),
+					toCacheParamValues(sql), rawQuery.getPlan(), rawQuery.getResultFetchSize());
+
+			rawResult = getCachedRawResult(key);
+
+			if (rawResult == null)
+			{
+				// 总是解析属性，使缓存同时适用于getResult()、resolve()
+				rawResult = resolveRawResult(sql, rawQuery, true);
+				this.resultCacheService.put(key, rawResult);
+			}
+		}
+		else
+			rawResult = resolveRawResult(sql, rawQuery, resolveProperties);
+
+		return rawResult;
+	}
+
+	/**
+	 * 是否可将{@linkplain DataSetQuery#getPlan()}下推至数据库执行。
+	 * <p>
+	 * 仅当计划引用的属性都是已定义的非计算属性时才可下推，因为计算属性不是SQL结果列。
+	 * </p>
+	 * 
+	 * @param query
+	 * @param properties
+	 *            允许为{@code null}
+	 * @return
+	 */
+	protected boolean isPlanPushdownable(DataSetQuery query, List<DataSetProperty> properties)
+	{
+		if (!query.hasPlan() || properties == null || properties.isEmpty())
+			return false;
+
+		for (String name : query.getPlan().getReferencedNames())
+		{
+			DataSetProperty property = NameAwareUtil.find(properties, name);
+
+			if (property == null || property.isEvaluated())
+				return false;
+		}
+
+		return true;
+	}
 
+	/**
+	 * 计划SQL执行异常是否是因为数据库不支持计划SQL的语法。
+	 * <p>
+	 * 仅在此时回退为在内存中执行计划，因为回退将重新执行原SQL。
+	 * </p>
+	 * 
+	 * @param e
+	 * @return
+	 */
+	protected boolean isPlanSqlUnsupported(SqlDataSetSqlExecutionException e)
+	{
+		Throwable cause = e.getCause();
+
+		while (cause != null)
+		{
+			if (cause instanceof SQLSyntaxErrorException || cause instanceof SQLFeatureNotSupportedException)
+				return true;
+
+			if (cause instanceof SQLException)
+			{
+				// 42：语法错误或者访问规则冲突；0A：不支持的特性
+				String sqlState = ((SQLException) cause).getSQLState();
+
+				if (sqlState != null && (sqlState.startsWith("42") || sqlState.startsWith("0A")))
+					return true;
+			}
+
+			cause = (cause.getCause() == cause ? null : cause.getCause());
+		}
+
+		return false;
+	}
+
+	/**
+	 * 获取用于执行SQL的{@linkplain DataSetQuery}。
+	 * <p>
+	 * 如果下推计划，返回的{@linkplain DataSetQuery#getResultFetchSize()}将合并计划的限定数目；
+	 * 如果不下推计划，返回的{@linkplain DataSetQuery#getPlan()}将为{@code null}，且不限定数目，以便在内存中执行计划。
+	 * </p>
+	 * 
+	 * @param query
+	 * @param pushdownPlan
+	 * @return
+	 */
+	protected DataSetQuery getRawQuery(DataSetQuery query, boolean pushdownPlan)
+	{
+		if (!query.hasPlan())
+			return query;
+
+		DataSetQuery rawQuery = query.copy();
+
+		if (pushdownPlan)
+		{
+			rawQuery.setResultFetchSize(
+					DataSetQueryPlanEvaluator.getLimit(query.getPlan(), query.getResultFetchSize()));
+		}
+		else
+		{
+			rawQuery.setPlan(null);
+			rawQuery.setResultFetchSize(-1);
+		}
+
+		return rawQuery;
+	}
+
+	/**
+	 * 是否启用结果缓存。
+	 * 
+	 * @return
+	 */
+	protected boolean isResultCacheEnabled()
+	{
+		return (this.resultCacheTtl > 0 && this.resultCacheService != null && this.resultCacheService.isEnabled());
+	}
+
+	/**
+	 * 获取结果缓存关键字中的连接标识。
+	 * <p>
+	 * 相同连接标识、相同SQL的查询结果应相同，子类可重写此方法返回更明确的标识，比如：数据源ID。
+	 * </p>
+	 * 
+	 * @return
+	 */
+	protected Object getResultCacheConnectionKey()
+	{
+		return getConnectionFactory();
+	}
+
+	/**
+	 * 获取缓存的{@linkplain RawResult}。
+	 * 
+	 * @param key
+	 * @return 为{@code null}表示未缓存或者已过期
+	 */
+	protected RawResult getCachedRawResult(ResultCacheKey key)
+	{
+		ValueWrapper vw = this.resultCacheService.get(key);
+		RawResult rawResult = (vw == null ? null : (RawResult) vw.get());
+
+		if (rawResult == null)
+			return null;
+
+		if (System.currentTimeMillis() - rawResult.getCreateTime() >= this.resultCacheTtl * 1000L)
+		{
+			this.resultCacheService.evictImmediately(key);
+			return null;
+		}
+
+		return rawResult;
+	}
+
+	/**
+	 * 执行SQL并解析{@linkplain RawResult}。
+	 * 
+	 * @param sql
+	 * @param query
+	 *            如果{@linkplain DataSetQuery#hasPlan()}，将执行{@linkplain #buildPlanSql(Connection, Sql, DataSetQueryPlan)}
+	 * @param resolveProperties
+	 * @return
+	 * @throws DataSetException
+	 */
+	protected RawResult resolveRawResult(Sql sql, DataSetQuery query, boolean resolveProperties)
+			throws DataSetException
+	{
 		Connection cn = null;
 
 		try
@@ -146,9 +496,9 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 				throw new SqlDataSetConnectionException(t);
 			}
 
-			validateSql(cn, sql);
+			validateSql(cn, sql.getSqlValue());
 
-			Sql sqlObj = Sql.valueOf(sql);
+			Sql sqlObj = (query.hasPlan() ? buildPlanSql(cn, sql, query.getPlan()) : sql);
 
 			JdbcSupport jdbcSupport = getJdbcSupport();
 
@@ -156,22 +506,18 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 
 			try
 			{
-				qrs = jdbcSupport.executeQuery(cn, sqlObj, ResultSet.TYPE_FORWARD_ONLY);
+				qrs = jdbcSupport.executeQuery(cn, sqlObj, ResultSet.TYPE_FORWARD_ONLY, query.getResultFetchSize());
 			}
 			catch (Throwable t)
 			{
 				QueryResultSet.close(qrs);
-				throw new SqlDataSetSqlExecutionException(sql, t);
+				throw new SqlDataSetSqlExecutionException(sqlObj.getSqlValue(), t);
 			}
 
-			TemplateResolvedDataSetResult dataSetResult = null;
-
 			try
 			{
 				ResultSet rs = qrs.getResultSet();
-				ResolvedDataSetResult result = resolveResult(cn, rs, query, properties, resolveProperties);
-
-				dataSetResult = new TemplateResolvedDataSetResult(result.getResult(), result.getProperties(), sql);
+				return resolveRawResult(cn, rs, query, resolveProperties);
 			}
 			catch (DataSetException e)
 			{
@@ -185,8 +531,6 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 			{
 				QueryResultSet.close(qrs);
 			}
-
-			return dataSetResult;
 		}
 		finally
 		{
@@ -204,6 +548,374 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 		}
 	}
 
+	/**
+	 * 构建执行{@linkplain DataSetQueryPlan}的SQL，它以子查询方式包裹原SQL。
+	 * <p>
+	 * 计划的限定数目不在此SQL中处理，而是由{@linkplain DataSetQuery#getResultFetchSize()}在读取结果时限定。
+	 * </p>
+	 * <p>
+	 * 原SQL末尾的{@code ORDER BY}子句将移出子查询（参考{@linkplain #trimSqlOrderBy(String)}），因为很多数据库（比如SQL Server）不允许子查询中有它：
+	 * 如果计划有排序，或者是不限定数目的聚合查询，将删除它；否则，将它应用于外层查询，以保证限定数目的结果与原SQL的顺序一致。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @param plan
+	 * @return
+	 */
+	protected Sql buildPlanSql(Connection cn, Sql sql, DataSetQueryPlan plan) throws DataSetException
+	{
+		String iq = JdbcUtil.getIdentifierQuote(cn);
+		List<DataSetProperty> properties = getProperties();
+		DataSetQueryPlanEvaluator evaluator = new DataSetQueryPlanEvaluator(createDataSetPropertyValueConverter());
+
+		List<String> columns = new ArrayList<String>();
+
+		if (plan.isAggregate())
+		{
+			for (String name : plan.getGroupBys())
+				columns.add(JdbcUtil.quote(name, iq));
+
+			for (Aggregate aggregate : plan.getAggregates())
+			{
+				AggregateFunction function = aggregate.getFunction();
+				String name = null;
+
+				if (aggregate.getName() != null)
+					name = JdbcUtil.quote(aggregate.getName(), iq);
+				else if (AggregateFunction.COUNT.equals(function))
+					name = "*";
+				else
+					throw new DataSetException("The property name of aggregate function " + function
+							+ " must not be null");
+
+				columns.add(function.name() + "(" + name + ") AS " + JdbcUtil.quote(aggregate.getAlias(), iq));
+			}
+		}
+		else
+		{
+			for (String name : plan.getProjections())
+				columns.add(JdbcUtil.quote(name, iq));
+		}
+
+		Sql re = Sql.valueOf("SELECT ");
+
+		if (columns.isEmpty())
+			re.sql("*");
+		else
+			re.delimit(", ").sqld(columns.toArray(new String[columns.size()]));
+
+		String subquery = trimSqlEnd(sql.getSqlValue());
+		String sqlOrderBy = null;
+		int orderByIndex = getTrailingOrderByIndex(subquery);
+
+		if (orderByIndex >= 0)
+		{
+			boolean keepOrder = (plan.getOrders().isEmpty() && (!plan.isAggregate() || plan.getLimit() >= 0));
+
+			// 按列序号排序的不能应用于外层查询，保留在子查询中
+			if (!keepOrder || !isOrdinalOrderBy(subquery.substring(orderByIndex)))
+			{
+				if (keepOrder)
+					sqlOrderBy = subquery.substring(orderByIndex);
+
+				subquery = trimSqlEnd(subquery.substring(0, orderByIndex));
+			}
+		}
+
+		re.sql(" FROM (").sql(subquery).param(sql.getParamValues()).sql(") " + PLAN_TABLE_ALIAS);
+
+		if (!plan.getFilters().isEmpty())
+		{
+			re.sql(" WHERE ").delimit(" AND ");
+
+			for (Filter filter : plan.getFilters())
+			{
+				DataSetProperty property = NameAwareUtil.find(properties, filter.getName());
+				re.sqld(buildPlanFilterSql(filter, property, iq, evaluator));
+			}
+		}
+
+		if (!plan.getGroupBys().isEmpty())
+		{
+			re.sql(" GROUP BY ").delimit(", ");
+
+			for (String name : plan.getGroupBys())
+				re.sqld(JdbcUtil.quote(name, iq));
+		}
+
+		if (!plan.getOrders().isEmpty())
+		{
+			re.sql(" ORDER BY ").delimit(", ");
+
+			for (Order order : plan.getOrders())
+				re.sqld(JdbcUtil.quote(order.getName(), iq) + (order.isAsc() ? " ASC" : " DESC"));
+		}
+		else if (sqlOrderBy != null)
+			re.sql(" " + sqlOrderBy);
+
+		return re;
+	}
+
+	/**
+	 * 构建过滤条件SQL。
+	 * 
+	 * @param filter
+	 * @param property
+	 * @param iq
+	 * @param evaluator
+	 * @return
+	 */
+	protected Sql buildPlanFilterSql(Filter filter, DataSetProperty property, String iq,
+			DataSetQueryPlanEvaluator evaluator)
+	{
+		String name = JdbcUtil.quote(filter.getName(), iq);
+		FilterOperator operator = filter.getOperator();
+
+		if (FilterOperator.IS_NULL.equals(operator))
+			return Sql.valueOf(name + " IS NULL");
+		else if (FilterOperator.IS_NOT_NULL.equals(operator))
+			return Sql.valueOf(name + " IS NOT NULL");
+		else if (FilterOperator.IN.equals(operator))
+		{
+			List<Object> values = evaluator.toPropertyValues(filter.getValue(), property);
+
+			// 空集合不匹配任何行
+			if (values.isEmpty())
+				return Sql.valueOf("1 = 0");
+
+			Sql re = Sql.valueOf(name + " IN (").delimit(", ").sqld("?", values.size()).sql(")");
+
+			for (Object value : values)
+				re.param(toSqlParamValue(value));
+
+			return re;
+		}
+		else
+		{
+			String op = null;
+
+			if (FilterOperator.EQ.equals(operator))
+				op = " = ";
+			else if (FilterOperator.NE.equals(operator))
+				op = " <> ";
+			else if (FilterOperator.GT.equals(operator))
+				op = " > ";
+			else if (FilterOperator.GE.equals(operator))
+				op = " >= ";
+			else if (FilterOperator.LT.equals(operator))
+				op = " < ";
+			else
+				op = " <= ";
+
+			Object value = evaluator.toPropertyValue(filter.getValue(), property);
+
+			// 与内存执行一致：与null比较不匹配任何行
+			if (value == null)
+				return Sql.valueOf("1 = 0");
+
+			return Sql.valueOf(name + op + "?").param(toSqlParamValue(value));
+		}
+	}
+
+	/**
+	 * 转换为{@linkplain SqlParamValue}。
+	 * 
+	 * @param value
+	 *            不允许为{@code null}
+	 * @return
+	 */
+	protected SqlParamValue toSqlParamValue(Object value)
+	{
+		int type = Types.VARCHAR;
+
+		if (value instanceof BigDecimal || value instanceof BigInteger)
+			type = Types.NUMERIC;
+		else if (value instanceof Long || value instanceof Integer || value instanceof Short
+				|| value instanceof Byte)
+			type = Types.BIGINT;
+		else if (value instanceof Number)
+			type = Types.DOUBLE;
+		else if (value instanceof Boolean)
+			type = Types.BOOLEAN;
+		else if (value instanceof java.sql.Date)
+			type = Types.DATE;
+		else if (value instanceof java.sql.Time)
+			type = Types.TIME;
+		else if (value instanceof java.util.Date)
+			type = Types.TIMESTAMP;
+		else
+			value = value.toString();
+
+		return SqlParamValue.valueOf(value, type);
+	}
+
+	/**
+	 * 删除SQL末尾的空白、分号，使其可作为子查询。
+	 * 
+	 * @param sql
+	 * @return
+	 */
+	protected String trimSqlEnd(String sql)
+	{
+		int end = sql.length();
+
+		while (end > 0)
+		{
+			char c = sql.charAt(end - 1);
+
+			if (c == ';' || Character.isWhitespace(c))
+				end--;
+			else
+				break;
+		}
+
+		return sql.substring(0, end);
+	}
+
+	/**
+	 * 删除SQL末尾的{@code ORDER BY}子句。
+	 * <p>
+	 * 仅当{@code ORDER BY}是最外层的最后一个子句，且不会影响结果集内容时才删除：
+	 * 如果其后还有{@code LIMIT}、{@code OFFSET}、{@code FETCH}等子句，或者SQL中有{@code TOP}，或者子句中有参数，将原样返回。
+	 * </p>
+	 * 
+	 * @param sql
+	 *            末尾不应有分号
+	 * @return
+	 */
+	protected String trimSqlOrderBy(String sql)
+	{
+		int index = getTrailingOrderByIndex(sql);
+		return (index < 0 ? sql : trimSqlEnd(sql.substring(0, index)));
+	}
+
+	/**
+	 * 获取SQL末尾可删除的{@code ORDER BY}子句的起始位置。
+	 * 
+	 * @param sql
+	 *            末尾不应有分号
+	 * @return 小于{@code 0}表示没有，或者不可删除（参考{@linkplain #trimSqlOrderBy(String)}）
+	 */
+	protected int getTrailingOrderByIndex(String sql)
+	{
+		List<int[]> words = new ArrayList<int[]>();
+		int depth = 0;
+
+		for (int i = 0, len = sql.length(); i < len;)
+		{
+			char c = sql.charAt(i);
+
+			if (c == '\'' || c == '"' || c == '`' || c == '[')
+			{
+				char end = (c == '[' ? ']' : c);
+				int j = sql.indexOf(end, i + 1);
+				i = (j < 0 ? len : j + 1);
+			}
+			else if (c == '-' && i + 1 < len && sql.charAt(i + 1) == '-')
+			{
+				int j = sql.indexOf('\n', i + 2);
+				i = (j < 0 ? len : j + 1);
+			}
+			else if (c == '/' && i + 1 < len && sql.charAt(i + 1) == '*')
+			{
+				int j = sql.indexOf("*/", i + 2);
+				i = (j < 0 ? len : j + 2);
+			}
+			else if (c == '(')
+			{
+				depth++;
+				i++;
+			}
+			else if (c == ')')
+			{
+				depth--;
+				i++;
+			}
+			else if (Character.isLetter(c) || c == '_')
+			{
+				int j = i + 1;
+
+				while (j < len && (Character.isLetterOrDigit(sql.charAt(j)) || sql.charAt(j) == '_'))
+					j++;
+
+				if (depth == 0)
+					words.add(new int[] { i, j });
+
+				i = j;
+			}
+			else
+				i++;
+		}
+
+		int orderBy = -1;
+
+		for (int i = 0, size = words.size(); i < size; i++)
+		{
+			String word = wordOf(sql, words.get(i));
+
+			if ("TOP".equals(word))
+				return -1;
+
+			if (orderBy < 0 && "ORDER".equals(word) && i + 1 < size && "BY".equals(wordOf(sql, words.get(i + 1))))
+				orderBy = i;
+			else if (orderBy >= 0 && TRAILING_ORDER_BY_STOP_WORDS.contains(word))
+				orderBy = -1;
+		}
+
+		if (orderBy < 0)
+			return -1;
+
+		int start = words.get(orderBy)[0];
+
+		// 子句中有参数时不能删除，否则参数值将无法对应
+		if (sql.indexOf('?', start) >= 0)
+			return -1;
+
+		return start;
+	}
+
+	/**
+	 * 给定{@code ORDER BY}子句是否有按列序号（比如：{@code ORDER BY 2 DESC}）排序的项。
+	 * 
+	 * @param orderBy
+	 * @return
+	 */
+	protected boolean isOrdinalOrderBy(String orderBy)
+	{
+		// 跳过"ORDER BY"
+		int start = orderBy.toUpperCase().indexOf("BY") + 2;
+		int depth = 0;
+		boolean itemStart = true;
+
+		for (int i = start, len = orderBy.length(); i < len; i++)
+		{
+			char c = orderBy.charAt(i);
+
+			if (Character.isWhitespace(c))
+				continue;
+
+			if (itemStart && depth == 0 && Character.isDigit(c))
+				return true;
+
+			itemStart = false;
+
+			if (c == '(')
+				depth++;
+			else if (c == ')')
+				depth--;
+			else if (c == ',' && depth == 0)
+				itemStart = true;
+		}
+
+		return false;
+	}
+
+	private String wordOf(String sql, int[] range)
+	{
+		return sql.substring(range[0], range[1]).toUpperCase();
+	}
+
 	/**
 	 * 校验SQL。
 	 * 
@@ -223,19 +935,17 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 	}
 
 	/**
-	 * 解析结果。
+	 * 解析{@linkplain RawResult}。
 	 * 
 	 * @param cn
 	 * @param rs
 	 * @param query
-	 * @param properties
-	 *            允许为{@code null}
 	 * @param resolveProperties
 	 * @return
 	 * @throws Throwable
 	 */
-	protected ResolvedDataSetResult resolveResult(Connection cn, ResultSet rs,
-			DataSetQuery query, List<DataSetProperty> properties, boolean resolveProperties) throws Throwable
+	protected RawResult resolveRawResult(Connection cn, ResultSet rs, DataSetQuery query,
+			boolean resolveProperties) throws Throwable
 	{
 		List<DataSetProperty> rawProperties =(resolveProperties ? new ArrayList<DataSetProperty>() : Collections.emptyList());
 		List<Map<String, ?>> rawData = resolveRawData(cn, rs, query, resolveProperties, rawProperties);
@@ -243,7 +953,7 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 		if(resolveProperties)
 			calibrateProperties(rawProperties, rawData);
 		
-		return resolveResult(query, rawData, rawProperties, properties, resolveProperties);
+		return new RawResult(rawData, rawProperties);
 	}
 
 	/**
@@ -254,18 +964,18 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 	 * @param query
 	 * @param resolveProperties 是否同时解析{@linkplain DataSetProperty}并写入下面的{@code properties}中
 	 * @param properties
-	 * @return
+	 * @return {@linkplain ColumnarData}
 	 * @throws Throwable
 	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
 	protected List<Map<String, ?>> resolveRawData(Connection cn, ResultSet rs, DataSetQuery query,
 			boolean resolveProperties, List<DataSetProperty> properties) throws Throwable
 	{
-		List<Map<String, ?>> data = new ArrayList<>();
-
 		JdbcSupport jdbcSupport = getJdbcSupport();
 
 		ResultSetMetaData rsMeta = rs.getMetaData();
 		String[] colNames = jdbcSupport.getColumnNames(rsMeta);
+		ColumnarData data = new ColumnarData(colNames);
 		SqlType[] sqlTypes = jdbcSupport.getColumnSqlTypes(rsMeta);
 		String[] propertyTypes = new String[colNames.length];
 		
@@ -290,18 +1000,16 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 			if (isReachResultFetchSize(query, data.size()))
 				break;
 
-			Map<String, Object> row = new HashMap<>();
+			int row = data.addRow();
 
 			for (int i = 0; i < colNames.length; i++)
 			{
 				Object value = getColumnValue(cn, rs, colNames[i], sqlTypes[i].getType(), jdbcSupport);
-				row.put(colNames[i], value);
+				data.setValue(row, i, value);
 			}
-
-			data.add(row);
 		}
 
-		return data;
+		return (List) data;
 	}
 
 	protected Object getColumnValue(Connection cn, ResultSet rs, String columnName, int sqlType,
@@ -447,6 +1155,236 @@ public class SqlDataSet extends AbstractResolvableDataSet implements ResolvableD
 
 	protected JdbcSupport getJdbcSupport()
 	{
-		return JDBC_SUPPORT;
+		return (this.jdbcSupport == null ? JDBC_SUPPORT : this.jdbcSupport);
+	}
+
+	/**
+	 * 设置执行SQL的JDBC操作支持类，可用于配置{@linkplain JdbcSupport#setQueryFetchSizeStrategy(org.datagear.util.QueryFetchSizeStrategy)}。
+	 * 
+	 * @param jdbcSupport
+	 *            允许为{@code null}，表示使用默认的
+	 */
+	public void setJdbcSupport(JdbcSupport jdbcSupport)
+	{
+		this.jdbcSupport = jdbcSupport;
+	}
+
+	/**
+	 * 删除指定{@linkplain SqlDataSet}的所有结果缓存。
+	 * 
+	 * @param resultCacheService
+	 *            允许为{@code null}
+	 * @param dataSetId
+	 */
+	public static void evictResultCache(CacheService resultCacheService, final String dataSetId)
+	{
+		if (resultCacheService == null)
+			return;
+
+		resultCacheService.evictIf(new Predicate<Object>()
+		{
+			@Override
+			public boolean test(Object key)
+			{
+				return (key instanceof ResultCacheKey) && dataSetId.equals(((ResultCacheKey) key).getDataSetId());
+			}
+		});
+	}
+
+	/**
+	 * SQL查询的原始结果。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class RawResult implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final List<Map<String, ?>> data;
+
+		private final List<DataSetProperty> properties;
+
+		private final long createTime;
+
+		public RawResult(List<Map<String, ?>> data, List<DataSetProperty> properties)
+		{
+			super();
+			this.data = data;
+			this.properties = Collections.unmodifiableList(properties);
+			this.createTime = System.currentTimeMillis();
+		}
+
+		/**
+		 * 获取原始数据。
+		 * <p>
+		 * 返回值及其内容不应被修改，因为可能会缓存。
+		 * </p>
+		 * 
+		 * @return
+		 */
+		public List<Map<String, ?>> getData()
+		{
+			return data;
+		}
+
+		/**
+		 * 获取原始{@linkplain DataSetProperty}列表。
+		 * <p>
+		 * 返回值及其内容不应被修改，因为可能会缓存。
+		 * </p>
+		 * 
+		 * @return
+		 */
+		public List<DataSetProperty> getProperties()
+		{
+			return properties;
+		}
+
+		public long getCreateTime()
+		{
+			return createTime;
+		}
+	}
+
+	/**
+	 * 结果缓存关键字。
+	 * 
+	 * @author datagear@163.com
+	 *
+	 */
+	protected static class ResultCacheKey implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final String dataSetId;
+
+		private final Object connectionKey;
+
+		private final String sql;
+
+		private final List<Object> sqlParamValues;
+
+		private final DataSetQueryPlan plan;
+
+		private final int resultFetchSize;
+
+		public ResultCacheKey(String dataSetId, Object connectionKey, String sql, List<Object> sqlParamValues,
+				DataSetQueryPlan plan, int resultFetchSize)
+		{
+			super();
+			this.dataSetId = dataSetId;
+			this.connectionKey = connectionKey;
+			this.sql = sql;
+			this.sqlParamValues = sqlParamValues;
+			this.plan = plan;
+			this.resultFetchSize = resultFetchSize;
+		}
+
+		public String getDataSetId()
+		{
+			return dataSetId;
+		}
+
+		public Object getConnectionKey()
+		{
+			return connectionKey;
+		}
+
+		public String getSql()
+		{
+			return sql;
+		}
+
+		public List<Object> getSqlParamValues()
+		{
+			return sqlParamValues;
+		}
+
+		/**
+		 * 获取下推至数据库执行的查询计划。
+		 * 
+		 * @return 可能为{@code null}
+		 */
+		public DataSetQueryPlan getPlan()
+		{
+			return plan;
+		}
+
+		public int getResultFetchSize()
+		{
+			return resultFetchSize;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((dataSetId == null) ? 0 : dataSetId.hashCode());
+			result = prime * result + ((connectionKey == null) ? 0 : connectionKey.hashCode());
+			result = prime * result + ((sql == null) ? 0 : sql.hashCode());
+			result = prime * result + ((sqlParamValues == null) ? 0 : sqlParamValues.hashCode());
+			result = prime * result + ((plan == null) ? 0 : plan.hashCode());
+			result = prime * result + resultFetchSize;
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			ResultCacheKey other = (ResultCacheKey) obj;
+			if (dataSetId == null)
+			{
+				if (other.dataSetId != null)
+					return false;
+			}
+			else if (!dataSetId.equals(other.dataSetId))
+				return false;
+			if (connectionKey == null)
+			{
+				if (other.connectionKey != null)
+					return false;
+			}
+			else if (!connectionKey.equals(other.connectionKey))
+				return false;
+			if (sql == null)
+			{
+				if (other.sql != null)
+					return false;
+			}
+			else if (!sql.equals(other.sql))
+				return false;
+			if (sqlParamValues == null)
+			{
+				if (other.sqlParamValues != null)
+					return false;
+			}
+			else if (!sqlParamValues.equals(other.sqlParamValues))
+				return false;
+			if (plan == null)
+			{
+				if (other.plan != null)
+					return false;
+			}
+			else if (!plan.equals(other.plan))
+				return false;
+			if (resultFetchSize != other.resultFetchSize)
+				return false;
+			return true;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [dataSetId=" + dataSetId + ", connectionKey=" + connectionKey
+					+ ", sql=" + sql + ", sqlParamValues=" + sqlParamValues + ", plan=" + plan + ", resultFetchSize=" + resultFetchSize + "]";
+		}
 	}
 }
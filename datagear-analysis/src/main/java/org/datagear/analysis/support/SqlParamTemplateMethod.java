@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis.support;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.List;
+
+import org.datagear.analysis.support.fmk.SqlOutputFormat;
+
+import freemarker.core.Environment;
+import freemarker.template.TemplateMethodModelEx;
+import freemarker.template.TemplateModel;
+import freemarker.template.TemplateModelException;
+import freemarker.template.utility.DeepUnwrap;
+
+/**
+ * SQL模板参数函数：{@code ${sqlParam(value)}}。
+ * <p>
+ * 如果当前{@linkplain DataSetFmkTemplateResolver#getCurrentTemplateContext()}是启用了参数绑定的{@linkplain SqlTemplateContext}，
+ * 它将输出JDBC参数占位符{@code ?}，并将参数值添加至上下文，使SQL语句文本不随参数值变化，数据库可复用已解析的执行计划；
+ * 否则，它将输出参数值的SQL字面值（字符串会被加上单引号并转义）。
+ * </p>
+ * <p>
+ * 参数值为集合、数组时，将输出以{@code ", "}分隔的多个占位符（或字面值），可用于{@code IN}条件，比如：
+ * {@code WHERE ID IN (${sqlParam(ids)})}；空集合、空数组将输出{@code NULL}。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class SqlParamTemplateMethod implements TemplateMethodModelEx
+{
+	/** 在SQL模板中的函数名 */
+	public static final String NAME = "sqlParam";
+
+	public static final SqlParamTemplateMethod INSTANCE = new SqlParamTemplateMethod();
+
+	public SqlParamTemplateMethod()
+	{
+		super();
+	}
+
+	@SuppressWarnings("rawtypes")
+	@Override
+	public Object exec(List arguments) throws TemplateModelException
+	{
+		if (arguments == null || arguments.size() != 1)
+			throw new TemplateModelException("The function [" + NAME + "] requires exactly 1 argument");
+
+		Object value = DeepUnwrap.unwrap((TemplateModel) arguments.get(0));
+
+		TemplateContext context = DataSetFmkTemplateResolver.getCurrentTemplateContext();
+		SqlTemplateContext sqlContext = (context instanceof SqlTemplateContext
+				&& ((SqlTemplateContext) context).isParamBinding() ? (SqlTemplateContext) context : null);
+
+		StringBuilder sb = new StringBuilder();
+
+		if (value instanceof Collection<?>)
+		{
+			for (Object ele : (Collection<?>) value)
+				appendParam(sb, sqlContext, ele);
+		}
+		else if (value instanceof Object[])
+		{
+			for (Object ele : (Object[]) value)
+				appendParam(sb, sqlContext, ele);
+		}
+		else
+			appendParam(sb, sqlContext, value);
+
+		// 空集合、空数组输出NULL，避免出现"IN ()"这样的非法SQL
+		if (sb.length() == 0)
+			sb.append("NULL");
+
+		return SqlOutputFormat.INSTANCE.fromMarkup(sb.toString());
+	}
+
+	protected void appendParam(StringBuilder sb, SqlTemplateContext sqlContext, Object value)
+			throws TemplateModelException
+	{
+		if (sb.length() > 0)
+			sb.append(", ");
+
+		if (sqlContext != null)
+		{
+			sqlContext.addSqlParamValue(value);
+			sb.append('?');
+		}
+		else
+			sb.append(toSqlLiteral(value));
+	}
+
+	/**
+	 * 转换为SQL字面值。
+	 * 
+	 * @param value
+	 * @return
+	 * @throws TemplateModelException
+	 */
+	protected String toSqlLiteral(Object value) throws TemplateModelException
+	{
+		if (value == null)
+			return "NULL";
+
+		if (value instanceof BigDecimal)
+			return ((BigDecimal) value).toPlainString();
+		else if (value instanceof BigInteger || value instanceof Long || value instanceof Integer
+				|| value instanceof Short || value instanceof Byte)
+			return value.toString();
+		else if (value instanceof Number)
+		{
+			try
+			{
+				return new BigDecimal(value.toString()).toPlainString();
+			}
+			catch (NumberFormatException e)
+			{
+				return value.toString();
+			}
+		}
+		else if (value instanceof Boolean)
+			return value.toString();
+		else
+			return "'" + SqlOutputFormat.INSTANCE.escapePlainText(value.toString()) + "'";
+	}
+}
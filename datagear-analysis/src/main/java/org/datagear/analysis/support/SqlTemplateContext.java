@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL模板上下文。
+ * <p>
+ * 当{@linkplain #isParamBinding()}为{@code true}时，SQL模板中的{@code ${sqlParam(...)}}将输出JDBC参数占位符{@code ?}，
+ * 而参数值将按顺序写入{@linkplain #getSqlParamValues()}；否则，将直接输出参数值的SQL字面值。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class SqlTemplateContext extends TemplateContext
+{
+	private boolean paramBinding = false;
+
+	private List<Object> sqlParamValues = null;
+
+	public SqlTemplateContext()
+	{
+		super();
+	}
+
+	public SqlTemplateContext(Map<String, ?> values, boolean paramBinding)
+	{
+		super(values);
+		setParamBinding(paramBinding);
+	}
+
+	public boolean isParamBinding()
+	{
+		return paramBinding;
+	}
+
+	public void setParamBinding(boolean paramBinding)
+	{
+		this.paramBinding = paramBinding;
+		this.sqlParamValues = (paramBinding ? new ArrayList<Object>() : null);
+	}
+
+	/**
+	 * 获取按占位符顺序排列的参数值。
+	 * 
+	 * @return
+	 */
+	public List<Object> getSqlParamValues()
+	{
+		if (this.sqlParamValues == null)
+			return Collections.emptyList();
+
+		return Collections.unmodifiableList(this.sqlParamValues);
+	}
+
+	/**
+	 * 添加参数值。
+	 * 
+	 * @param value
+	 *            允许为{@code null}
+	 */
+	public void addSqlParamValue(Object value)
+	{
+		if (this.sqlParamValues == null)
+			throw new IllegalStateException();
+
+		this.sqlParamValues.add(value);
+	}
+}
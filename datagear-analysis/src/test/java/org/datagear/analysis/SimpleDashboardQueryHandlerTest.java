@@ -0,0 +1,279 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.analysis.support.AbstractDataSet;
+import org.datagear.util.StatementCanceler;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+/**
+ * {@linkplain SimpleDashboardQueryHandler}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SimpleDashboardQueryHandlerTest
+{
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(10);
+
+	@AfterClass
+	public static void destroy()
+	{
+		EXECUTOR.shutdownNow();
+	}
+
+	@Test
+	public void getResultTest() throws Exception
+	{
+		Map<String, ChartDefinition> charts = new HashMap<String, ChartDefinition>();
+		charts.put("c0", createChart("c0", new TestDataSet("ds0", 300, false), new TestDataSet("ds1", 300, false)));
+		charts.put("c1", createChart("c1", new TestDataSet("ds2", 300, false)));
+		charts.put("c2", createChart("c2"));
+
+		SimpleDashboardQueryHandler handler = new SimpleDashboardQueryHandler(charts);
+		handler.setQueryExecutor(EXECUTOR);
+
+		long start = System.currentTimeMillis();
+		DashboardResult result = handler.getResult(createDashboardQuery(charts, false));
+		long time = System.currentTimeMillis() - start;
+
+		assertTrue("time : " + time, time < 800);
+		assertEquals(3, result.getChartResults().size());
+		assertTrue(result.getChartResultErrors().isEmpty());
+
+		ChartResult c0 = result.getChartResults().get("c0");
+		assertEquals(2, c0.getDataSetResults().size());
+		assertEquals("ds0", c0.getDataSetResults().get(0).getData());
+		assertEquals("ds1", c0.getDataSetResults().get(1).getData());
+
+		assertEquals("ds2", result.getChartResults().get("c1").getDataSetResults().get(0).getData());
+		assertTrue(result.getChartResults().get("c2").getDataSetResults().isEmpty());
+	}
+
+	@Test
+	public void getResultTest_suppressChartError() throws Exception
+	{
+		Map<String, ChartDefinition> charts = new HashMap<String, ChartDefinition>();
+		charts.put("c0", createChart("c0", new TestDataSet("ds0", 0, false)));
+		charts.put("c1", createChart("c1", new TestDataSet("ds1", 0, true)));
+		charts.put("c2", createChart("c2", new TestDataSet("ds2", 2000, false)));
+
+		SimpleDashboardQueryHandler handler = new SimpleDashboardQueryHandler(charts);
+		handler.setQueryExecutor(EXECUTOR);
+		handler.setQueryTimeout(200);
+
+		DashboardResult result = handler.getResult(createDashboardQuery(charts, true));
+
+		assertEquals(1, result.getChartResults().size());
+		assertEquals("ds0", result.getChartResults().get("c0").getDataSetResults().get(0).getData());
+
+		assertEquals(2, result.getChartResultErrors().size());
+		assertEquals("ds1", result.getChartResultErrors().get("c1").getThrowable().getMessage());
+		assertTrue(result.getChartResultErrors().get("c2").getThrowable() instanceof DataSetQueryTimeoutException);
+	}
+
+	@Test
+	public void getResultTest_sharedDataSet() throws Exception
+	{
+		TestDataSet ds0 = new TestDataSet("ds0", 0, false);
+		TestDataSet ds1 = new TestDataSet("ds1", 0, false);
+
+		Map<String, ChartDefinition> charts = new HashMap<String, ChartDefinition>();
+		charts.put("c0", createChart("c0", ds0, ds1));
+		charts.put("c1", createChart("c1", ds0));
+		charts.put("c2", createChart("c2", ds1, ds0));
+
+		SimpleDashboardQueryHandler handler = new SimpleDashboardQueryHandler(charts);
+
+		{
+			DashboardResult result = handler.getResult(createDashboardQuery(charts, false));
+
+			assertEquals(1, ds0.getQueryCount());
+			assertEquals(1, ds1.getQueryCount());
+			assertEquals("ds0", result.getChartResults().get("c1").getDataSetResults().get(0).getData());
+			assertEquals("ds1", result.getChartResults().get("c2").getDataSetResults().get(0).getData());
+			assertEquals("ds0", result.getChartResults().get("c2").getDataSetResults().get(1).getData());
+		}
+
+		handler.setQueryExecutor(EXECUTOR);
+
+		{
+			DashboardQuery query = createDashboardQuery(charts, false);
+			Map<String, Object> paramValues = new HashMap<String, Object>();
+			paramValues.put("p", "v");
+			query.getChartQueries().put("c1",
+					new ChartQuery(Collections.singletonList(DataSetQuery.valueOf(paramValues))));
+
+			DashboardResult result = handler.getResult(query);
+
+			assertEquals(3, ds0.getQueryCount());
+			assertEquals(2, ds1.getQueryCount());
+			assertEquals("ds0", result.getChartResults().get("c0").getDataSetResults().get(0).getData());
+			assertEquals("ds0", result.getChartResults().get("c1").getDataSetResults().get(0).getData());
+		}
+	}
+
+	@Test
+	public void getResultTest_timeoutCancelStatement() throws Exception
+	{
+		final CountDownLatch cancelLatch = new CountDownLatch(1);
+
+		final Statement statement = (Statement) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { Statement.class }, new InvocationHandler()
+				{
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+					{
+						if ("cancel".equals(method.getName()))
+							cancelLatch.countDown();
+
+						return null;
+					}
+				});
+
+		// 模拟执行中的SQL查询
+		DataSet dataSet = new TestDataSet("ds0", 0, false)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			public DataSetResult getResult(DataSetQuery query) throws DataSetException
+			{
+				try
+				{
+					StatementCanceler.registerCurrent(statement);
+					cancelLatch.await();
+				}
+				catch (SQLException | InterruptedException e)
+				{
+				}
+
+				throw new DataSetException("canceled");
+			}
+		};
+
+		Map<String, ChartDefinition> charts = new HashMap<String, ChartDefinition>();
+		charts.put("c0", createChart("c0", dataSet));
+
+		SimpleDashboardQueryHandler handler = new SimpleDashboardQueryHandler(charts);
+		handler.setQueryExecutor(EXECUTOR);
+		handler.setQueryTimeout(200);
+
+		DashboardResult result = handler.getResult(createDashboardQuery(charts, true));
+
+		// 超时后应取消数据库端的执行
+		assertEquals(0, cancelLatch.getCount());
+		assertTrue(result.getChartResultErrors().get("c0").getThrowable() instanceof DataSetQueryTimeoutException);
+	}
+
+	@Test(expected = DataSetException.class)
+	public void getResultTest_error() throws Exception
+	{
+		Map<String, ChartDefinition> charts = new HashMap<String, ChartDefinition>();
+		charts.put("c0", createChart("c0", new TestDataSet("ds0", 0, false)));
+		charts.put("c1", createChart("c1", new TestDataSet("ds1", 0, true)));
+
+		SimpleDashboardQueryHandler handler = new SimpleDashboardQueryHandler(charts);
+		handler.setQueryExecutor(EXECUTOR);
+
+		handler.getResult(createDashboardQuery(charts, false));
+	}
+
+	protected ChartDefinition createChart(String id, DataSet... dataSets)
+	{
+		ChartDataSet[] chartDataSets = new ChartDataSet[dataSets.length];
+
+		for (int i = 0; i < dataSets.length; i++)
+			chartDataSets[i] = new ChartDataSet(dataSets[i]);
+
+		return new ChartDefinition(id, id, chartDataSets);
+	}
+
+	protected DashboardQuery createDashboardQuery(Map<String, ChartDefinition> charts, boolean suppressChartError)
+	{
+		Map<String, ChartQuery> chartQueries = new HashMap<String, ChartQuery>();
+
+		for (String id : charts.keySet())
+			chartQueries.put(id, new ChartQuery());
+
+		DashboardQuery query = new DashboardQuery(chartQueries);
+		query.setSuppressChartError(suppressChartError);
+
+		return query;
+	}
+
+	private static class TestDataSet extends AbstractDataSet
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final long sleep;
+
+		private final boolean error;
+
+		private final AtomicInteger queryCount = new AtomicInteger(0);
+
+		public TestDataSet(String id, long sleep, boolean error)
+		{
+			super(id, id, Collections.emptyList());
+			this.sleep = sleep;
+			this.error = error;
+		}
+
+		public int getQueryCount()
+		{
+			return this.queryCount.get();
+		}
+
+		@Override
+		public DataSetResult getResult(DataSetQuery query) throws DataSetException
+		{
+			this.queryCount.incrementAndGet();
+
+			try
+			{
+				Thread.sleep(this.sleep);
+			}
+			catch (InterruptedException e)
+			{
+				throw new DataSetException(e);
+			}
+
+			if (this.error)
+				throw new DataSetException(getId());
+
+			return new DataSetResult(getId());
+		}
+	}
+}
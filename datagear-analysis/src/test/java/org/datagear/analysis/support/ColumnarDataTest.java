@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain ColumnarData}单元测试类。
+ *
+ * @author datagear@163.com
+ *
+ */
+public class ColumnarDataTest
+{
+	@Test
+	public void setValueTest()
+	{
+		ColumnarData data = new ColumnarData(new String[] { "id", "name", "value", "amount" }, 1);
+
+		for (int i = 0; i < 100; i++)
+		{
+			int row = data.addRow();
+
+			data.setValue(row, 0, (long) i);
+			data.setValue(row, 1, (i % 2 == 0 ? "aaa" : null));
+			data.setValue(row, 2, (i % 3 == 0 ? null : i * 1.5d));
+			data.setValue(row, 3, i);
+		}
+
+		assertEquals(100, data.size());
+
+		{
+			Map<String, Object> row = data.get(0);
+
+			assertEquals(Long.valueOf(0), row.get("id"));
+			assertEquals("aaa", row.get("name"));
+			assertNull(row.get("value"));
+			assertEquals(Integer.valueOf(0), row.get("amount"));
+		}
+
+		{
+			Map<String, Object> row = data.get(97);
+
+			assertEquals(Long.valueOf(97), row.get("id"));
+			assertNull(row.get("name"));
+			assertEquals(Double.valueOf(97 * 1.5d), row.get("value"));
+			assertEquals(Integer.valueOf(97), row.get("amount"));
+		}
+	}
+
+	@Test
+	public void setValueTest_promote()
+	{
+		ColumnarData data = new ColumnarData(new String[] { "value" });
+
+		data.setValue(data.addRow(), 0, 1L);
+		data.setValue(data.addRow(), 0, null);
+		data.setValue(data.addRow(), 0, new BigDecimal("2.50"));
+		data.setValue(data.addRow(), 0, "3");
+
+		assertEquals(Long.valueOf(1), data.getValue(0, 0));
+		assertNull(data.getValue(1, 0));
+		assertEquals(new BigDecimal("2.50"), data.getValue(2, 0));
+		assertEquals("3", data.getValue(3, 0));
+	}
+
+	@Test
+	public void rowMapTest()
+	{
+		ColumnarData data = new ColumnarData(new String[] { "name", "value" });
+
+		int rowIdx = data.addRow();
+		Map<String, Object> row = data.get(rowIdx);
+
+		row.put("name", "aaa");
+		row.put("value", 3);
+
+		assertEquals("aaa", data.getValue(rowIdx, 0));
+		assertEquals(3, data.getValue(rowIdx, 1));
+
+		Map<String, Object> expected = new HashMap<String, Object>();
+		expected.put("name", "aaa");
+		expected.put("value", 3);
+
+		assertEquals(expected, row);
+		assertEquals(expected, new HashMap<String, Object>(row));
+		assertTrue(row.containsKey("value"));
+		assertNull(row.get("notExists"));
+	}
+
+	@Test
+	public void rowMapTest_duplicateNames()
+	{
+		ColumnarData data = new ColumnarData(new String[] { "id", "name", "id" });
+
+		int rowIdx = data.addRow();
+		data.setValue(rowIdx, 0, 1);
+		data.setValue(rowIdx, 1, "aaa");
+		data.setValue(rowIdx, 2, 2);
+
+		Map<String, Object> row = data.get(rowIdx);
+
+		Map<String, Object> expected = new HashMap<String, Object>();
+		expected.put("id", 1);
+		expected.put("name", "aaa");
+		expected.put("id", 2);
+
+		assertEquals(2, row.size());
+		assertEquals(2, row.entrySet().size());
+		assertEquals(Integer.valueOf(2), row.get("id"));
+		assertEquals(expected, row);
+		assertEquals(expected, new HashMap<String, Object>(row));
+		assertEquals(Arrays.asList("id", "name"), new ArrayList<String>(new LinkedHashMap<String, Object>(row).keySet()));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void unmodifiableTest()
+	{
+		ColumnarData data = new ColumnarData(new String[] { "name" });
+		data.setValue(data.addRow(), 0, "aaa");
+
+		data.unmodifiable();
+
+		assertEquals("aaa", data.get(0).get("name"));
+		data.get(0).put("name", "bbb");
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void rowMapTest_putNotExists()
+	{
+		ColumnarData data = new ColumnarData(new String[] { "name" });
+		data.get(data.addRow()).put("notExists", 1);
+	}
+}
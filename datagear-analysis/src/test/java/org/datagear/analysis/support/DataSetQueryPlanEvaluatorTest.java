@@ -0,0 +1,151 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis.support;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.DataSetQueryPlan;
+import org.datagear.analysis.DataSetQueryPlan.AggregateFunction;
+import org.datagear.analysis.DataSetQueryPlan.FilterOperator;
+import org.datagear.analysis.ResolvedDataSetResult;
+import org.junit.Test;
+
+/**
+ * {@linkplain DataSetQueryPlanEvaluator}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DataSetQueryPlanEvaluatorTest
+{
+	private final List<DataSetProperty> properties = Arrays.asList(
+			new DataSetProperty("region", DataSetProperty.DataType.STRING),
+			new DataSetProperty("amount", DataSetProperty.DataType.INTEGER),
+			new DataSetProperty("price", DataSetProperty.DataType.DECIMAL));
+
+	@Test
+	public void evalTest_aggregate()
+	{
+		DataSetQueryPlan plan = new DataSetQueryPlan().filter("amount", FilterOperator.GT, "1").groupBy("region")
+				.aggregate(AggregateFunction.SUM, "amount", "total")
+				.aggregate(AggregateFunction.COUNT, null, "count")
+				.aggregate(AggregateFunction.MAX, "price", "maxPrice").orderBy("total", false);
+
+		DataSetQueryPlanEvaluator evaluator = new DataSetQueryPlanEvaluator();
+		ColumnarData data = evaluator.eval(plan, createData(), this.properties);
+
+		assertEquals(2, data.size());
+		assertEquals(Arrays.asList("region", "total", "count", "maxPrice"), data.getNames());
+
+		assertEquals("south", data.getValue(0, 0));
+		assertEquals(0, new BigDecimal(9).compareTo((BigDecimal) data.getValue(0, 1)));
+		assertEquals(2L, data.getValue(0, 2));
+		assertEquals(new BigDecimal("4.5"), data.getValue(0, 3));
+
+		assertEquals("north", data.getValue(1, 0));
+		assertEquals(0, new BigDecimal(5).compareTo((BigDecimal) data.getValue(1, 1)));
+		assertEquals(2L, data.getValue(1, 2));
+
+		List<DataSetProperty> planProperties = evaluator.evalProperties(plan, this.properties);
+
+		assertEquals(4, planProperties.size());
+		assertEquals(DataSetProperty.DataType.STRING, planProperties.get(0).getType());
+		assertEquals(DataSetProperty.DataType.NUMBER, planProperties.get(1).getType());
+		assertEquals(DataSetProperty.DataType.INTEGER, planProperties.get(2).getType());
+		assertEquals(DataSetProperty.DataType.DECIMAL, planProperties.get(3).getType());
+	}
+
+	@Test
+	public void evalTest_aggregateWithoutGroupBy()
+	{
+		DataSetQueryPlan plan = new DataSetQueryPlan().filter("region", FilterOperator.EQ, "none")
+				.aggregate(AggregateFunction.COUNT, null, "count");
+
+		ColumnarData data = new DataSetQueryPlanEvaluator().eval(plan, createData(), this.properties);
+
+		assertEquals(1, data.size());
+		assertEquals(0L, data.getValue(0, 0));
+	}
+
+	@Test
+	public void evalTest_projectOrderLimit()
+	{
+		DataSetQueryPlan plan = new DataSetQueryPlan().project("amount", "region")
+				.filter("region", FilterOperator.IN, Arrays.asList("north", "south"))
+				.filter("price", FilterOperator.IS_NOT_NULL, null).orderBy("amount", true).limit(10);
+
+		ColumnarData data = new DataSetQueryPlanEvaluator().eval(plan, createData(), this.properties, 2);
+
+		assertEquals(2, data.size());
+		assertEquals(Arrays.asList("amount", "region"), data.getNames());
+		assertEquals(1L, data.getValue(0, 0));
+		assertEquals(2L, data.getValue(1, 0));
+		assertEquals("north", data.getValue(1, 1));
+	}
+
+	@Test
+	public void getResultTest_jsonValueDataSet()
+	{
+		JsonValueDataSet dataSet = new JsonValueDataSet("1", "1", new ArrayList<>(this.properties),
+				"[ { region: 'north', amount: 2, price: 1.5 }, { region: 'south', amount: 4, price: 4.5 },"
+						+ " { region: 'north', amount: 3, price: 2.5 } ]");
+
+		DataSetQuery query = DataSetQuery.valueOf();
+		query.setPlan(new DataSetQueryPlan().groupBy("region").aggregate(AggregateFunction.AVG, "price", "avgPrice")
+				.orderBy("region", true));
+
+		ResolvedDataSetResult result = dataSet.resolve(query);
+
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> data = (List<Map<String, Object>>) result.getResult().getData();
+
+		assertEquals(2, data.size());
+		assertEquals("north", data.get(0).get("region"));
+		assertEquals(0, new BigDecimal(2).compareTo((BigDecimal) data.get(0).get("avgPrice")));
+		assertEquals("south", data.get(1).get("region"));
+		assertEquals(2, result.getProperties().size());
+		assertEquals("avgPrice", result.getProperties().get(1).getName());
+	}
+
+	protected ColumnarData createData()
+	{
+		ColumnarData data = new ColumnarData(new String[] { "region", "amount", "price" });
+
+		Object[][] rows = { { "north", 1L, new BigDecimal("1.5") }, { "north", 2L, new BigDecimal("2.5") },
+				{ "south", 4L, new BigDecimal("4.5") }, { "north", 3L, null }, { "south", 5L, new BigDecimal("3.5") },
+				{ "east", 1L, new BigDecimal("9.5") } };
+
+		for (Object[] values : rows)
+		{
+			int row = data.addRow();
+
+			for (int i = 0; i < values.length; i++)
+				data.setValue(row, i, values[i]);
+		}
+
+		return data;
+	}
+}
@@ -218,6 +218,29 @@ public class ExcelDirectoryFileDataSetTest
 		}
 	}
 
+	@Test
+	public void resolveTest_xlsx_resultFetchSize()
+	{
+		ExcelDirectoryFileDataSet dataSet = new ExcelDirectoryFileDataSet("a", "a", DIRECTORY,
+				"ExcelDirectoryFileDataSetTest-0.xlsx");
+		dataSet.setNameRow(1);
+
+		DataSetQuery query = DataSetQuery.valueOf();
+		query.setResultFetchSize(2);
+
+		ResolvedDataSetResult resolvedResult = dataSet.resolve(query);
+
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> data = (List<Map<String, Object>>) resolvedResult.getResult().getData();
+		List<DataSetProperty> properties = resolvedResult.getProperties();
+
+		assertEquals(4, properties.size());
+		assertEquals(DataSetProperty.DataType.DATE, properties.get(3).getType());
+		assertEquals(2, data.size());
+		assertEquals("bbb", data.get(1).get("name"));
+		assertEquals(26, ((Number) data.get(1).get("size")).intValue());
+	}
+
 	@Test
 	public void resolveTest_xls()
 	{
@@ -18,6 +18,7 @@
 package org.datagear.analysis.support;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -27,6 +28,7 @@ import java.util.Map;
 import org.datagear.analysis.DataSetParam;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.DataSetQueryPlan;
 import org.datagear.analysis.DataSetResult;
 import org.junit.Test;
 
@@ -167,4 +169,104 @@ public class JsonValueDataSetTest
 			}
 		}
 	}
+
+	@Test
+	public void resolveTest_dataJsonPath()
+	{
+		String json = "{ meta: { total: 2, list: [ 1, 2 ] }, data: { rows: [ { name: 'aaa', size: 11 }, { name: 'bbb', size: 12 } ] } }";
+
+		// 可流式读取的简单路径
+		{
+			JsonValueDataSet dataSet = new JsonValueDataSet("a", "a", json);
+			dataSet.setDataJsonPath("data.rows");
+
+			@SuppressWarnings("unchecked")
+			List<Map<String, Object>> data = (List<Map<String, Object>>) dataSet.resolve(DataSetQuery.valueOf())
+					.getResult().getData();
+
+			assertEquals(2, data.size());
+			assertEquals("bbb", data.get(1).get("name"));
+		}
+
+		{
+			JsonValueDataSet dataSet = new JsonValueDataSet("a", "a", json);
+			dataSet.setDataJsonPath("$['data'].rows[*]");
+
+			@SuppressWarnings("unchecked")
+			List<Map<String, Object>> data = (List<Map<String, Object>>) dataSet.resolve(DataSetQuery.valueOf())
+					.getResult().getData();
+
+			assertEquals(2, data.size());
+			assertEquals(12, ((Number) data.get(1).get("size")).intValue());
+		}
+
+		// 其他路径
+		{
+			JsonValueDataSet dataSet = new JsonValueDataSet("a", "a", json);
+			dataSet.setDataJsonPath("$.data.rows[?(@.size > 11)]");
+
+			@SuppressWarnings("unchecked")
+			List<Map<String, Object>> data = (List<Map<String, Object>>) dataSet.resolve(DataSetQuery.valueOf())
+					.getResult().getData();
+
+			assertEquals(1, data.size());
+			assertEquals("bbb", data.get(0).get("name"));
+		}
+
+		// 路径不存在
+		{
+			JsonValueDataSet dataSet = new JsonValueDataSet("a", "a", json);
+			dataSet.setDataJsonPath("data.cols");
+
+			try
+			{
+				dataSet.resolve(DataSetQuery.valueOf());
+				fail();
+			}
+			catch (ReadJsonDataPathException e)
+			{
+			}
+		}
+	}
+
+	@Test
+	public void resolveTest_dataJsonPath_notObject()
+	{
+		String json = "{ meta: { total: 2, list: [ 1, 2 ] } }";
+
+		for (String dataJsonPath : new String[] { "meta.total", "meta.list", "$.meta.list[*]" })
+		{
+			JsonValueDataSet dataSet = new JsonValueDataSet("a", "a", json);
+			dataSet.setDataJsonPath(dataJsonPath);
+
+			try
+			{
+				dataSet.resolve(DataSetQuery.valueOf());
+				fail();
+			}
+			catch (UnsupportedResultDataException e)
+			{
+			}
+
+			try
+			{
+				dataSet.getResult(DataSetQuery.valueOf());
+				fail();
+			}
+			catch (UnsupportedResultDataException e)
+			{
+			}
+
+			try
+			{
+				DataSetQuery query = DataSetQuery.valueOf();
+				query.setPlan(new DataSetQueryPlan().limit(1));
+				dataSet.getResult(query);
+				fail();
+			}
+			catch (UnsupportedResultDataException e)
+			{
+			}
+		}
+	}
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.analysis.DataSetException;
+import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.DataSetResult;
+import org.junit.Test;
+
+/**
+ * {@linkplain SingleFlightDataSetResultLoader}单元测试类。
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class SingleFlightDataSetResultLoaderTest
+{
+	@Test
+	public void loadTest() throws Exception
+	{
+		final SingleFlightDataSetResultLoader loader = new SingleFlightDataSetResultLoader();
+		final CountDownLatch startLatch = new CountDownLatch(1);
+		final CountDownLatch releaseLatch = new CountDownLatch(1);
+		final TestDataSet dataSet = new TestDataSet("1", startLatch, releaseLatch);
+
+		final DataSetQuery query = DataSetQuery.valueOf();
+		query.setParamValue("id", "1");
+
+		final DataSetResult[] results = new DataSetResult[5];
+		List<Thread> threads = new ArrayList<Thread>();
+
+		for (int i = 0; i < results.length; i++)
+		{
+			final int index = i;
+
+			threads.add(new Thread()
+			{
+				@Override
+				public void run()
+				{
+					results[index] = loader.load(dataSet, query.copy());
+				}
+			});
+		}
+
+		threads.get(0).start();
+		startLatch.await();
+
+		for (int i = 1; i < threads.size(); i++)
+			threads.get(i).start();
+
+		// 等待其他线程加入执行中的请求
+		Thread.sleep(300);
+		releaseLatch.countDown();
+
+		for (Thread thread : threads)
+			thread.join();
+
+		assertEquals(1, dataSet.getCount());
+		assertEquals(0, loader.getFlightCount());
+
+		// 共享结果数据，但每个请求获得各自的结果对象
+		for (int i = 1; i < results.length; i++)
+		{
+			assertNotSame(results[0], results[i]);
+			assertSame(results[0].getData(), results[i].getData());
+		}
+
+		// 执行完成后不缓存
+		loader.load(dataSet, query);
+		assertEquals(2, dataSet.getCount());
+	}
+
+	@Test
+	public void loadTest_differentQuery() throws Exception
+	{
+		SingleFlightDataSetResultLoader loader = new SingleFlightDataSetResultLoader();
+		TestDataSet dataSet = new TestDataSet("1", new CountDownLatch(1), new CountDownLatch(0));
+
+		DataSetQuery query0 = DataSetQuery.valueOf();
+		query0.setParamValue("id", "1");
+
+		DataSetQuery query1 = DataSetQuery.valueOf();
+		query1.setParamValue("id", "2");
+
+		DataSetResult result0 = loader.load(dataSet, query0);
+		DataSetResult result1 = loader.load(dataSet, query1);
+
+		assertEquals(2, dataSet.getCount());
+		assertEquals("1", result0.getData());
+		assertEquals("2", result1.getData());
+	}
+
+	@Test
+	public void loadTest_unmodifiable() throws Exception
+	{
+		SingleFlightDataSetResultLoader loader = new SingleFlightDataSetResultLoader();
+		TestDataSet dataSet = new TestDataSet("1", new CountDownLatch(1), new CountDownLatch(0));
+
+		{
+			DataSetQuery query = DataSetQuery.valueOf();
+			query.setParamValue("id", "1");
+			query.setParamValue("columnar", "true");
+
+			ColumnarData data = (ColumnarData) loader.load(dataSet, query).getData();
+
+			assertFalse(data.isModifiable());
+			assertEquals("1", data.get(0).get("id"));
+
+			try
+			{
+				data.get(0).put("id", "2");
+				throw new AssertionError();
+			}
+			catch (UnsupportedOperationException e)
+			{
+			}
+		}
+
+		{
+			DataSetQuery query = DataSetQuery.valueOf();
+			query.setParamValue("id", "1");
+			query.setParamValue("rows", "true");
+
+			@SuppressWarnings("unchecked")
+			List<Map<String, Object>> data = (List<Map<String, Object>>) loader.load(dataSet, query).getData();
+
+			assertEquals("1", data.get(0).get("id"));
+
+			try
+			{
+				data.get(0).put("id", "2");
+				throw new AssertionError();
+			}
+			catch (UnsupportedOperationException e)
+			{
+			}
+		}
+	}
+
+	@Test(expected = DataSetException.class)
+	public void loadTest_exception() throws Exception
+	{
+		SingleFlightDataSetResultLoader loader = new SingleFlightDataSetResultLoader();
+		TestDataSet dataSet = new TestDataSet("1", new CountDownLatch(1), new CountDownLatch(0));
+
+		DataSetQuery query = DataSetQuery.valueOf();
+		query.setParamValue("error", "true");
+
+		loader.load(dataSet, query);
+	}
+
+	private static class TestDataSet extends AbstractDataSet
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final CountDownLatch startLatch;
+
+		private final CountDownLatch releaseLatch;
+
+		private final AtomicInteger count = new AtomicInteger(0);
+
+		public TestDataSet(String id, CountDownLatch startLatch, CountDownLatch releaseLatch)
+		{
+			super(id, id, Collections.emptyList());
+			this.startLatch = startLatch;
+			this.releaseLatch = releaseLatch;
+		}
+
+		public int getCount()
+		{
+			return count.get();
+		}
+
+		@Override
+		public DataSetResult getResult(DataSetQuery query) throws DataSetException
+		{
+			this.count.incrementAndGet();
+			this.startLatch.countDown();
+
+			try
+			{
+				this.releaseLatch.await();
+			}
+			catch (InterruptedException e)
+			{
+				throw new DataSetException(e);
+			}
+
+			if (query.getParamValue("error") != null)
+				throw new DataSetException("error");
+
+			if (query.getParamValue("columnar") != null)
+			{
+				ColumnarData data = new ColumnarData(new String[] { "id" });
+				data.setValue(data.addRow(), 0, query.getParamValue("id"));
+
+				return new DataSetResult(data);
+			}
+
+			if (query.getParamValue("rows") != null)
+			{
+				Map<String, Object> row = new HashMap<String, Object>();
+				row.put("id", query.getParamValue("id"));
+
+				List<Map<String, Object>> data = new ArrayList<Map<String, Object>>();
+				data.add(row);
+
+				return new DataSetResult(data);
+			}
+
+			return new DataSetResult(query.getParamValue("id"));
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.analysis.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.analysis.DataSetException;
+import org.datagear.analysis.DataSetProperty;
+import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.DataSetQueryPlan;
+import org.datagear.analysis.DataSetQueryPlan.AggregateFunction;
+import org.datagear.analysis.DataSetQueryPlan.FilterOperator;
+import org.datagear.analysis.DataSetResult;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.Sql;
+import org.datagear.util.resource.SimpleConnectionFactory;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * 基于内嵌Derby数据库的{@linkplain SqlDataSet}查询计划下推单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class SqlDataSetDerbyTest
+{
+	private static final String DB_URL = "jdbc:derby:memory:SqlDataSetDerbyTest";
+
+	private static final int ROW_COUNT = 10;
+
+	private Connection connection;
+
+	/** 执行SQL的次数 */
+	private AtomicInteger queryCount = new AtomicInteger(0);
+
+	public SqlDataSetDerbyTest()
+	{
+		super();
+	}
+
+	@BeforeClass
+	public static void initDatabase() throws Exception
+	{
+		// 避免在工作目录下生成derby.log
+		System.setProperty("derby.stream.error.file", "target/derby.log");
+
+		Connection cn = null;
+		Statement st = null;
+
+		try
+		{
+			cn = DriverManager.getConnection(DB_URL + ";create=true");
+			st = cn.createStatement();
+			st.executeUpdate("CREATE TABLE T_SALE (ID INTEGER NOT NULL PRIMARY KEY, REGION VARCHAR(50), AMOUNT INTEGER)");
+
+			// 按照ID插入，使数据库自然顺序与AMOUNT降序相反
+			for (int i = 1; i <= ROW_COUNT; i++)
+				st.executeUpdate(
+						"INSERT INTO T_SALE (ID, REGION, AMOUNT) VALUES (" + i + ", 'R" + (i % 3) + "', " + (i * 10) + ")");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection(DB_URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库时总会抛出异常
+		}
+	}
+
+	@Before
+	public void init() throws Exception
+	{
+		this.connection = DriverManager.getConnection(DB_URL);
+		this.queryCount.set(0);
+	}
+
+	@After
+	public void destroy()
+	{
+		JdbcUtil.closeConnection(this.connection);
+	}
+
+	@Test
+	public void getResultTest_planTopN()
+	{
+		SqlDataSet sqlDataSet = createSqlDataSet("SELECT ID, REGION, AMOUNT FROM T_SALE ORDER BY AMOUNT DESC");
+
+		// 计划没有排序时，限定数目的结果应保持原SQL的顺序
+		assertEquals(Arrays.asList(10, 9, 8), getIds(sqlDataSet, new DataSetQueryPlan().project("ID").limit(3), -1));
+		assertEquals(Arrays.asList(9, 6), getIds(sqlDataSet,
+				new DataSetQueryPlan().project("ID", "AMOUNT").filter("REGION", FilterOperator.EQ, "R0").limit(2),
+				-1));
+		assertEquals(Arrays.asList(10, 9, 8, 7), getIds(sqlDataSet, new DataSetQueryPlan().project("ID"), 4));
+
+		// 计划有排序时，以计划的排序为准
+		assertEquals(Arrays.asList(1, 2, 3),
+				getIds(sqlDataSet, new DataSetQueryPlan().project("ID").orderBy("ID", true).limit(3), -1));
+
+		// 都应下推至数据库执行，没有回退
+		assertEquals(4, this.queryCount.get());
+	}
+
+	@Test
+	public void getResultTest_planTopN_ordinalOrderBy()
+	{
+		SqlDataSet sqlDataSet = createSqlDataSet("SELECT ID, REGION, AMOUNT FROM T_SALE ORDER BY 3 DESC");
+
+		assertEquals(Arrays.asList(10, 9, 8), getIds(sqlDataSet, new DataSetQueryPlan().project("ID").limit(3), -1));
+		assertEquals(1, this.queryCount.get());
+	}
+
+	@Test
+	public void getResultTest_planAggregateTopN()
+	{
+		SqlDataSet sqlDataSet = createSqlDataSet("SELECT ID, REGION, AMOUNT FROM T_SALE ORDER BY AMOUNT DESC");
+
+		DataSetQuery query = DataSetQuery.valueOf();
+		query.setPlan(new DataSetQueryPlan().groupBy("REGION").aggregate(AggregateFunction.COUNT, null, "CNT")
+				.limit(2));
+
+		// 原SQL的排序列不是分组列，外层排序语法错误，回退为在内存中执行，分组按原SQL顺序
+		List<Map<String, ?>> data = getData(sqlDataSet.getResult(query));
+
+		assertEquals(2, data.size());
+		assertEquals("R1", data.get(0).get("REGION"));
+		assertEquals("R0", data.get(1).get("REGION"));
+		assertEquals(2, this.queryCount.get());
+	}
+
+	@Test
+	public void getResultTest_planAggregateNullName()
+	{
+		SqlDataSet sqlDataSet = createSqlDataSet("SELECT ID, REGION, AMOUNT FROM T_SALE");
+
+		DataSetQuery query = DataSetQuery.valueOf();
+		query.setPlan(new DataSetQueryPlan().groupBy("REGION").aggregate(AggregateFunction.SUM, null, "TOTAL"));
+
+		try
+		{
+			sqlDataSet.getResult(query);
+			fail();
+		}
+		catch (DataSetException e)
+		{
+			// 不应回退为在内存中执行
+			assertEquals(1, this.queryCount.get());
+		}
+	}
+
+	protected SqlDataSet createSqlDataSet(String sql)
+	{
+		List<DataSetProperty> properties = new ArrayList<DataSetProperty>();
+		properties.add(new DataSetProperty("ID", DataSetProperty.DataType.INTEGER));
+		properties.add(new DataSetProperty("REGION", DataSetProperty.DataType.STRING));
+		properties.add(new DataSetProperty("AMOUNT", DataSetProperty.DataType.INTEGER));
+
+		SqlDataSet sqlDataSet = new SqlDataSet("1", "1", properties,
+				new SimpleConnectionFactory(this.connection, false), sql)
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected RawResult resolveRawResult(Sql sql, DataSetQuery query, boolean resolveProperties)
+					throws DataSetException
+			{
+				queryCount.incrementAndGet();
+				return super.resolveRawResult(sql, query, resolveProperties);
+			}
+		};
+
+		return sqlDataSet;
+	}
+
+	protected List<Integer> getIds(SqlDataSet sqlDataSet, DataSetQueryPlan plan, int resultFetchSize)
+	{
+		DataSetQuery query = DataSetQuery.valueOf();
+		query.setPlan(plan);
+		query.setResultFetchSize(resultFetchSize);
+
+		List<Integer> ids = new ArrayList<Integer>();
+
+		for (Map<String, ?> row : getData(sqlDataSet.getResult(query)))
+			ids.add(((Number) row.get("ID")).intValue());
+
+		return ids;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected List<Map<String, ?>> getData(DataSetResult result)
+	{
+		return (List<Map<String, ?>>) result.getData();
+	}
+}
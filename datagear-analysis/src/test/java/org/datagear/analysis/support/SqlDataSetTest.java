@@ -20,24 +20,35 @@ package org.datagear.analysis.support;
 import static org.junit.Assert.assertTrue;
 
 import java.sql.Connection;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.SQLTimeoutException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
+import org.datagear.analysis.DataSetException;
 import org.datagear.analysis.DataSetParam;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.DataSetQueryPlan;
 import org.datagear.analysis.DataSetResult;
+import org.datagear.analysis.ResolvedDataSetResult;
+import org.datagear.util.CacheService;
 import org.datagear.util.JdbcUtil;
+import org.datagear.util.Sql;
 import org.datagear.util.resource.SimpleConnectionFactory;
 import org.datagear.util.sqlvalidator.InvalidPatternSqlValidator;
 import org.datagear.util.sqlvalidator.SqlValidator;
 import org.datagear.util.test.DBTestSupport;
 import org.junit.Assert;
 import org.junit.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
 
 /**
  * {@linkplain SqlDataSet}单元测试类。
@@ -130,6 +141,351 @@ public class SqlDataSetTest extends DBTestSupport
 		}
 	}
 
+	@Test
+	public void getResultTest_resultCache() throws Exception
+	{
+		final AtomicInteger queryCount = new AtomicInteger(0);
+
+		List<DataSetProperty> dataSetProperties = Arrays.asList(
+				new DataSetProperty("ID", DataSetProperty.DataType.INTEGER),
+				new DataSetProperty("NAME", DataSetProperty.DataType.STRING));
+
+		SqlDataSet sqlDataSet = new SqlDataSet("1", "1", dataSetProperties, null, "SELECT ID, NAME FROM T_ACCOUNT")
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected RawResult resolveRawResult(Sql sql, DataSetQuery query, boolean resolveProperties)
+					throws DataSetException
+			{
+				queryCount.incrementAndGet();
+
+				ColumnarData data = new ColumnarData(new String[] { "ID", "NAME" });
+				int row = data.addRow();
+				data.setValue(row, 0, 1L);
+				data.setValue(row, 1, "aaa");
+
+				List<DataSetProperty> properties = new ArrayList<DataSetProperty>();
+				properties.add(new DataSetProperty("ID", DataSetProperty.DataType.INTEGER));
+				properties.add(new DataSetProperty("NAME", DataSetProperty.DataType.STRING));
+
+				@SuppressWarnings({ "unchecked", "rawtypes" })
+				List<Map<String, ?>> rawData = (List) data;
+
+				return new RawResult(rawData, properties);
+			}
+		};
+
+		CacheService cacheService = new CacheService(new ConcurrentMapCache(SqlDataSetTest.class.getSimpleName()));
+
+		// 未设置有效期，不缓存
+		{
+			sqlDataSet.setResultCacheService(cacheService);
+
+			sqlDataSet.getResult(DataSetQuery.valueOf());
+			sqlDataSet.getResult(DataSetQuery.valueOf());
+
+			Assert.assertEquals(2, queryCount.get());
+		}
+
+		// 缓存
+		{
+			queryCount.set(0);
+			sqlDataSet.setResultCacheTtl(60);
+
+			DataSetResult result0 = sqlDataSet.getResult(DataSetQuery.valueOf());
+			ResolvedDataSetResult result1 = sqlDataSet.resolve(DataSetQuery.valueOf());
+
+			Assert.assertEquals(1, queryCount.get());
+			Assert.assertEquals(1, ((List<?>) result0.getData()).size());
+			Assert.assertEquals(2, result1.getProperties().size());
+			Assert.assertEquals("aaa", ((Map<?, ?>) ((List<?>) result1.getResult().getData()).get(0)).get("NAME"));
+		}
+
+		// 删除缓存
+		{
+			queryCount.set(0);
+			SqlDataSet.evictResultCache(cacheService, "1");
+
+			sqlDataSet.getResult(DataSetQuery.valueOf());
+
+			Assert.assertEquals(1, queryCount.get());
+		}
+	}
+
+	@Test
+	public void getResultTest_planPushdown() throws Exception
+	{
+		final List<DataSetQuery> rawQueries = new ArrayList<DataSetQuery>();
+
+		List<DataSetProperty> dataSetProperties = new ArrayList<DataSetProperty>();
+		dataSetProperties.add(new DataSetProperty("REGION", DataSetProperty.DataType.STRING));
+		dataSetProperties.add(new DataSetProperty("AMOUNT", DataSetProperty.DataType.INTEGER));
+
+		SqlDataSet sqlDataSet = new SqlDataSet("1", "1", dataSetProperties, null, "SELECT REGION, AMOUNT FROM T_SALE")
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected RawResult resolveRawResult(Sql sql, DataSetQuery query, boolean resolveProperties)
+					throws DataSetException
+			{
+				rawQueries.add(query);
+
+				ColumnarData data = null;
+
+				if (query.hasPlan())
+				{
+					data = new ColumnarData(new String[] { "REGION", "TOTAL" });
+					int row = data.addRow();
+					data.setValue(row, 0, "north");
+					data.setValue(row, 1, 3L);
+				}
+				else
+				{
+					data = new ColumnarData(new String[] { "REGION", "AMOUNT" });
+
+					for (int i = 0; i < 3; i++)
+					{
+						int row = data.addRow();
+						data.setValue(row, 0, "north");
+						data.setValue(row, 1, (long) i);
+					}
+				}
+
+				@SuppressWarnings({ "unchecked", "rawtypes" })
+				List<Map<String, ?>> rawData = (List) data;
+
+				return new RawResult(rawData, new ArrayList<DataSetProperty>());
+			}
+		};
+
+		DataSetQueryPlan plan = new DataSetQueryPlan().groupBy("REGION")
+				.aggregate(DataSetQueryPlan.AggregateFunction.SUM, "AMOUNT", "TOTAL").limit(10);
+
+		// 下推
+		{
+			DataSetQuery query = DataSetQuery.valueOf();
+			query.setPlan(plan);
+			query.setResultFetchSize(5);
+
+			DataSetResult result = sqlDataSet.getResult(query);
+
+			Assert.assertTrue(rawQueries.get(0).hasPlan());
+			Assert.assertEquals(5, rawQueries.get(0).getResultFetchSize());
+			Assert.assertEquals(3, ((Number) ((Map<?, ?>) ((List<?>) result.getData()).get(0)).get("TOTAL")).intValue());
+		}
+
+		// 引用计算属性，不下推
+		{
+			rawQueries.clear();
+
+			DataSetProperty evaluated = new DataSetProperty("DOUBLE_AMOUNT", DataSetProperty.DataType.INTEGER);
+			evaluated.setEvaluated(true);
+			evaluated.setExpression("AMOUNT * 2");
+			dataSetProperties.add(evaluated);
+			sqlDataSet.setProperties(dataSetProperties);
+
+			DataSetQuery query = DataSetQuery.valueOf();
+			query.setPlan(new DataSetQueryPlan().groupBy("REGION")
+					.aggregate(DataSetQueryPlan.AggregateFunction.SUM, "DOUBLE_AMOUNT", "TOTAL"));
+
+			DataSetResult result = sqlDataSet.getResult(query);
+
+			Assert.assertFalse(rawQueries.get(0).hasPlan());
+			Assert.assertEquals(6, ((Number) ((Map<?, ?>) ((List<?>) result.getData()).get(0)).get("TOTAL")).intValue());
+		}
+	}
+
+	@Test
+	public void getResultTest_planPushdownFallback() throws Exception
+	{
+		final List<DataSetQuery> rawQueries = new ArrayList<DataSetQuery>();
+
+		List<DataSetProperty> dataSetProperties = new ArrayList<DataSetProperty>();
+		dataSetProperties.add(new DataSetProperty("REGION", DataSetProperty.DataType.STRING));
+		dataSetProperties.add(new DataSetProperty("AMOUNT", DataSetProperty.DataType.INTEGER));
+
+		SqlDataSet sqlDataSet = new SqlDataSet("1", "1", dataSetProperties, null, "SELECT REGION, AMOUNT FROM T_SALE")
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected RawResult resolveRawResult(Sql sql, DataSetQuery query, boolean resolveProperties)
+					throws DataSetException
+			{
+				rawQueries.add(query);
+
+				// 模拟数据库不支持计划SQL
+				if (query.hasPlan())
+					throw new SqlDataSetSqlExecutionException(sql.getSqlValue(),
+							new SQLSyntaxErrorException("syntax error", "42000"));
+
+				ColumnarData data = new ColumnarData(new String[] { "REGION", "AMOUNT" });
+
+				for (int i = 0; i < 3; i++)
+				{
+					int row = data.addRow();
+					data.setValue(row, 0, "north");
+					data.setValue(row, 1, (long) i);
+				}
+
+				@SuppressWarnings({ "unchecked", "rawtypes" })
+				List<Map<String, ?>> rawData = (List) data;
+
+				return new RawResult(rawData, new ArrayList<DataSetProperty>());
+			}
+		};
+
+		DataSetQuery query = DataSetQuery.valueOf();
+		query.setPlan(new DataSetQueryPlan().groupBy("REGION")
+				.aggregate(DataSetQueryPlan.AggregateFunction.SUM, "AMOUNT", "TOTAL"));
+
+		DataSetResult result = sqlDataSet.getResult(query);
+
+		Assert.assertEquals(2, rawQueries.size());
+		Assert.assertTrue(rawQueries.get(0).hasPlan());
+		Assert.assertFalse(rawQueries.get(1).hasPlan());
+		Assert.assertEquals(3, ((Number) ((Map<?, ?>) ((List<?>) result.getData()).get(0)).get("TOTAL")).intValue());
+	}
+
+	@Test
+	public void getResultTest_planPushdownNoFallback() throws Exception
+	{
+		final List<DataSetQuery> rawQueries = new ArrayList<DataSetQuery>();
+
+		List<DataSetProperty> dataSetProperties = new ArrayList<DataSetProperty>();
+		dataSetProperties.add(new DataSetProperty("REGION", DataSetProperty.DataType.STRING));
+		dataSetProperties.add(new DataSetProperty("AMOUNT", DataSetProperty.DataType.INTEGER));
+
+		SqlDataSet sqlDataSet = new SqlDataSet("1", "1", dataSetProperties, null, "SELECT REGION, AMOUNT FROM T_SALE")
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected RawResult resolveRawResult(Sql sql, DataSetQuery query, boolean resolveProperties)
+					throws DataSetException
+			{
+				rawQueries.add(query);
+
+				// 模拟查询超时
+				throw new SqlDataSetSqlExecutionException(sql.getSqlValue(),
+						new SQLTimeoutException("query timeout", "HYT00"));
+			}
+		};
+
+		DataSetQuery query = DataSetQuery.valueOf();
+		query.setPlan(new DataSetQueryPlan().groupBy("REGION")
+				.aggregate(DataSetQueryPlan.AggregateFunction.SUM, "AMOUNT", "TOTAL"));
+
+		try
+		{
+			sqlDataSet.getResult(query);
+			Assert.fail();
+		}
+		catch (SqlDataSetSqlExecutionException e)
+		{
+			// 非语法错误，不应回退重新执行
+			Assert.assertEquals(1, rawQueries.size());
+		}
+	}
+
+	@Test
+	public void trimSqlOrderByTest()
+	{
+		SqlDataSet sqlDataSet = new SqlDataSet();
+
+		Assert.assertEquals("SELECT * FROM T", sqlDataSet.trimSqlOrderBy("SELECT * FROM T ORDER BY ID DESC, NAME"));
+		Assert.assertEquals("SELECT * FROM T WHERE A IN (SELECT B FROM T2 ORDER BY B)",
+				sqlDataSet.trimSqlOrderBy("SELECT * FROM T WHERE A IN (SELECT B FROM T2 ORDER BY B) order by A"));
+		Assert.assertEquals("SELECT ROW_NUMBER() OVER (ORDER BY ID) AS RN FROM T",
+				sqlDataSet.trimSqlOrderBy("SELECT ROW_NUMBER() OVER (ORDER BY ID) AS RN FROM T"));
+		Assert.assertEquals("SELECT 'ORDER BY' AS A FROM T",
+				sqlDataSet.trimSqlOrderBy("SELECT 'ORDER BY' AS A FROM T"));
+		Assert.assertEquals("SELECT * FROM T -- ORDER BY ID",
+				sqlDataSet.trimSqlOrderBy("SELECT * FROM T -- ORDER BY ID"));
+
+		// 影响结果集内容，不能删除
+		Assert.assertEquals("SELECT * FROM T ORDER BY ID LIMIT 10",
+				sqlDataSet.trimSqlOrderBy("SELECT * FROM T ORDER BY ID LIMIT 10"));
+		Assert.assertEquals("SELECT * FROM T ORDER BY ID OFFSET 10 ROWS FETCH NEXT 10 ROWS ONLY",
+				sqlDataSet.trimSqlOrderBy("SELECT * FROM T ORDER BY ID OFFSET 10 ROWS FETCH NEXT 10 ROWS ONLY"));
+		Assert.assertEquals("SELECT TOP 10 * FROM T ORDER BY ID",
+				sqlDataSet.trimSqlOrderBy("SELECT TOP 10 * FROM T ORDER BY ID"));
+		Assert.assertEquals("SELECT * FROM T ORDER BY FIELD(ID, ?)",
+				sqlDataSet.trimSqlOrderBy("SELECT * FROM T ORDER BY FIELD(ID, ?)"));
+	}
+
+	@Test
+	public void isOrdinalOrderByTest()
+	{
+		SqlDataSet sqlDataSet = new SqlDataSet();
+
+		Assert.assertTrue(sqlDataSet.isOrdinalOrderBy("ORDER BY 2 DESC"));
+		Assert.assertTrue(sqlDataSet.isOrdinalOrderBy("order by NAME, 1"));
+		Assert.assertFalse(sqlDataSet.isOrdinalOrderBy("ORDER BY ID DESC, NAME"));
+		Assert.assertFalse(sqlDataSet.isOrdinalOrderBy("ORDER BY COALESCE(ID, 0), NAME"));
+		Assert.assertFalse(sqlDataSet.isOrdinalOrderBy("ORDER BY A1"));
+	}
+
+	@Test
+	public void getResultTest_sqlParam() throws Exception
+	{
+		final List<Sql> rawSqls = new ArrayList<Sql>();
+
+		List<DataSetProperty> dataSetProperties = Arrays.asList(
+				new DataSetProperty("ID", DataSetProperty.DataType.INTEGER),
+				new DataSetProperty("NAME", DataSetProperty.DataType.STRING));
+
+		SqlDataSet sqlDataSet = new SqlDataSet("1", "1", dataSetProperties, null,
+				"SELECT ID, NAME FROM T_ACCOUNT WHERE NAME = ${sqlParam(name)} AND ID IN (${sqlParam(ids)})")
+		{
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected RawResult resolveRawResult(Sql sql, DataSetQuery query, boolean resolveProperties)
+					throws DataSetException
+			{
+				rawSqls.add(sql);
+				return new RawResult(new ArrayList<Map<String, ?>>(), new ArrayList<DataSetProperty>());
+			}
+		};
+
+		Map<String, Object> paramValues = new HashMap<>();
+		paramValues.put("name", "aa'a");
+		paramValues.put("ids", Arrays.asList(1, 2));
+
+		TemplateResolvedDataSetResult result = sqlDataSet.resolve(DataSetQuery.valueOf(paramValues));
+
+		Sql sql = rawSqls.get(0);
+		Assert.assertEquals("SELECT ID, NAME FROM T_ACCOUNT WHERE NAME = ? AND ID IN (?, ?)", sql.getSqlValue());
+		Assert.assertEquals(3, sql.getParamValues().size());
+		Assert.assertEquals("aa'a", sql.getParamValues().get(0).getValue());
+		Assert.assertEquals(sql.getSqlValue(), result.getTemplateResult());
+
+		// 非数据集查询时输出字面值
+		Assert.assertEquals("NAME = 'aa''a' AND ID IN (1, 2)", DataSetFmkTemplateResolvers
+				.resolveSql("NAME = ${sqlParam(name)} AND ID IN (${sqlParam(ids)})", paramValues));
+
+		// 空集合输出NULL
+		{
+			rawSqls.clear();
+			paramValues.put("ids", new ArrayList<Object>());
+
+			sqlDataSet.resolve(DataSetQuery.valueOf(paramValues));
+
+			Sql emptySql = rawSqls.get(0);
+			Assert.assertEquals("SELECT ID, NAME FROM T_ACCOUNT WHERE NAME = ? AND ID IN (NULL)",
+					emptySql.getSqlValue());
+			Assert.assertEquals(1, emptySql.getParamValues().size());
+
+			Assert.assertEquals("ID IN (NULL)",
+					DataSetFmkTemplateResolvers.resolveSql("ID IN (${sqlParam(ids)})", paramValues));
+			Assert.assertEquals("ID IN (NULL)", DataSetFmkTemplateResolvers.resolveSql("ID IN (${sqlParam(ids)})",
+					Collections.<String, Object> singletonMap("ids", new Object[0])));
+		}
+	}
+
 	@Test
 	public void getResultTest_escape() throws Exception
 	{
@@ -30,9 +30,14 @@ import java.io.Writer;
 import java.sql.Driver;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -47,6 +52,11 @@ import org.slf4j.LoggerFactory;
  * <p>
  * 此类实例在使用前需要调用其{@linkplain #init()}方法，在弃用前，需要调用其{@linkplain #releaseAll()}方法。
  * </p>
+ * <p>
+ * {@linkplain #init()}后，驱动信息文件、驱动库文件的修改由后台线程定时检查（参考{@linkplain #setWatchInterval(long)}），
+ * {@linkplain #get(String)}、{@linkplain #getAll()}、{@linkplain #getDriver(DriverEntity)}仅读取当前快照，不会加锁，
+ * 修改操作则以写时复制方式更新快照。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -57,19 +67,28 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 
 	public static final String DEFAULT_DRIVER_ENTITY_FILE_ENCODING = "UTF-8";
 
+	/** 默认文件修改检查间隔毫秒数 */
+	public static final long DEFAULT_WATCH_INTERVAL = 5000;
+
 	private File rootDirectory;
 
 	private String driverEntityInfoFileName;
 
 	private String driverEntityFileEncoding = DEFAULT_DRIVER_ENTITY_FILE_ENCODING;
 
-	private transient Map<String, PathDriverFactoryInfo> pathDriverFactoryInfoMap = new HashMap<String, PathDriverFactoryInfo>();
+	/** 文件修改检查间隔毫秒数，小于等于0表示不使用后台线程检查，而在每次读取时检查 */
+	private long watchInterval = DEFAULT_WATCH_INTERVAL;
 
-	private transient List<DriverEntity> driverEntities = null;
+	private final transient ConcurrentMap<String, PathDriverFactoryInfo> pathDriverFactoryInfoMap = new ConcurrentHashMap<String, PathDriverFactoryInfo>();
+
+	/** 写时复制快照，修改时应替换为新列表，而不是修改原列表 */
+	private transient volatile List<DriverEntity> driverEntities = null;
 
 	private transient File driverEntityInfoFile = null;
 
-	private transient long driverEntityInfoFileLastModified = -1;
+	private transient volatile long driverEntityInfoFileLastModified = -1;
+
+	private transient volatile ScheduledExecutorService watcher = null;
 
 	public AbstractFileDriverEntityManager()
 	{
@@ -118,6 +137,24 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 		this.driverEntityFileEncoding = driverEntityFileEncoding;
 	}
 
+	public long getWatchInterval()
+	{
+		return watchInterval;
+	}
+
+	/**
+	 * 设置文件修改检查间隔毫秒数。
+	 * <p>
+	 * 应在{@linkplain #init()}前设置，小于等于0表示不使用后台线程检查，而在每次读取时检查。
+	 * </p>
+	 * 
+	 * @param watchInterval
+	 */
+	public void setWatchInterval(long watchInterval)
+	{
+		this.watchInterval = watchInterval;
+	}
+
 	public File getDriverEntityInfoFile()
 	{
 		return FileUtil.getFile(this.rootDirectory, this.driverEntityInfoFileName);
@@ -135,6 +172,8 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 
 		this.driverEntityInfoFile = getDriverEntityInfoFile();
 		readDriverEntities();
+
+		startWatcher();
 	}
 
 	@Override
@@ -145,17 +184,20 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 		for (DriverEntity driverEntity : driverEntities)
 			checkValidDriverEntity(driverEntity);
 
+		List<DriverEntity> newDriverEntities = new ArrayList<DriverEntity>(this.driverEntities);
+
 		for (DriverEntity driverEntity : driverEntities)
 		{
-			removeExists(this.driverEntities, driverEntity.getId());
-			this.driverEntities.add(driverEntity);
+			removeExists(newDriverEntities, driverEntity.getId());
+			newDriverEntities.add(driverEntity);
 		}
 
+		this.driverEntities = newDriverEntities;
 		writeDriverEntities();
 	}
 
 	@Override
-	public boolean[] update(DriverEntity... driverEntities) throws DriverEntityManagerException
+	public synchronized boolean[] update(DriverEntity... driverEntities) throws DriverEntityManagerException
 	{
 		reloadDriverEntityFileIfModified();
 
@@ -164,34 +206,37 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 
 		boolean[] updated = new boolean[driverEntities.length];
 
+		List<DriverEntity> newDriverEntities = new ArrayList<DriverEntity>(this.driverEntities);
+
 		for (int i = 0; i < driverEntities.length; i++)
 		{
 			DriverEntity driverEntity = driverEntities[i];
 
-			int index = findDriverEntityIndex(this.driverEntities, driverEntity.getId());
+			int index = findDriverEntityIndex(newDriverEntities, driverEntity.getId());
 
 			if (index >= 0)
 			{
-				this.driverEntities.set(index, driverEntity);
+				newDriverEntities.set(index, driverEntity);
 				updated[i] = true;
 			}
 			else
 				updated[i] = false;
 		}
 
+		this.driverEntities = newDriverEntities;
 		writeDriverEntities();
 
 		return updated;
 	}
 
 	@Override
-	public synchronized DriverEntity get(String id) throws DriverEntityManagerException
+	public DriverEntity get(String id) throws DriverEntityManagerException
 	{
-		reloadDriverEntityFileIfModified();
+		List<DriverEntity> driverEntities = getDriverEntitiesSnapshot();
 
-		int index = findDriverEntityIndex(this.driverEntities, id);
+		int index = findDriverEntityIndex(driverEntities, id);
 
-		return (index < 0 ? null : this.driverEntities.get(index));
+		return (index < 0 ? null : driverEntities.get(index));
 	}
 
 	@Override
@@ -199,23 +244,27 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 	{
 		int removeCount = 0;
 
+		List<DriverEntity> newDriverEntities = new ArrayList<DriverEntity>(this.driverEntities);
+
 		for (int i = 0; i < ids.length; i++)
 		{
-			removeCount += removeExists(driverEntities, ids[i]);
+			removeCount += removeExists(newDriverEntities, ids[i]);
 
+			removePathDriverFactory(ids[i]);
 			deleteDriverLibraryDirectory(ids[i]);
 		}
 
 		if (removeCount > 0)
+		{
+			this.driverEntities = newDriverEntities;
 			writeDriverEntities();
+		}
 	}
 
 	@Override
-	public synchronized List<DriverEntity> getAll() throws DriverEntityManagerException
+	public List<DriverEntity> getAll() throws DriverEntityManagerException
 	{
-		reloadDriverEntityFileIfModified();
-
-		return new ArrayList<DriverEntity>(this.driverEntities);
+		return new ArrayList<DriverEntity>(getDriverEntitiesSnapshot());
 	}
 
 	@Override
@@ -245,6 +294,8 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 		{
 			IOUtil.close(out);
 		}
+
+		removePathDriverFactory(driverEntity.getId());
 	}
 
 	@Override
@@ -269,6 +320,8 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 			deleted[i] = FileUtil.deleteFile(file);
 		}
 
+		removePathDriverFactory(driverEntity.getId());
+
 		return deleted;
 	}
 
@@ -277,7 +330,11 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 	{
 		File directory = getDriverLibraryDirectory(driverEntity.getId(), false);
 
-		return FileUtil.clearDirectory(directory);
+		boolean cleared = FileUtil.clearDirectory(directory);
+
+		removePathDriverFactory(driverEntity.getId());
+
+		return cleared;
 	}
 
 	@Override
@@ -356,17 +413,19 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 	@Override
 	public void release(DriverEntity driverEntity) throws DriverEntityManagerException
 	{
-		removePathDriverFactory(driverEntity);
+		removePathDriverFactory(driverEntity.getId());
 	}
 
 	@Override
 	public synchronized void releaseAll()
 	{
-		for (Map.Entry<String, PathDriverFactoryInfo> entry : this.pathDriverFactoryInfoMap.entrySet())
+		stopWatcher();
+
+		for (String driverEntityId : this.pathDriverFactoryInfoMap.keySet())
 		{
 			try
 			{
-				entry.getValue().getPathDriverFactory().release();
+				removePathDriverFactory(driverEntityId);
 			}
 			catch (Throwable t)
 			{
@@ -374,8 +433,6 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 					LOGGER.error("releaseAllDrivers", t);
 			}
 		}
-
-		this.pathDriverFactoryInfoMap = new HashMap<String, PathDriverFactoryInfo>();
 	}
 
 	@Override
@@ -447,15 +504,20 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 					try
 					{
 						List<DriverEntity> driverEntities = readDriverEntities(reader);
+						List<DriverEntity> newDriverEntities = new ArrayList<DriverEntity>(this.driverEntities);
 
 						for (DriverEntity driverEntity : driverEntities)
 						{
 							if (isValidDriverEntityForIdArray(driverEntity, ids))
 							{
-								removeExists(this.driverEntities, driverEntity.getId());
-								this.driverEntities.add(driverEntity);
+								removeExists(newDriverEntities, driverEntity.getId());
+								newDriverEntities.add(driverEntity);
+
+								removePathDriverFactory(driverEntity.getId());
 							}
 						}
+
+						this.driverEntities = newDriverEntities;
 					}
 					finally
 					{
@@ -605,51 +667,51 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 	 * @return
 	 * @throws PathDriverFactoryException
 	 */
-	protected synchronized PathDriverFactory getPathDriverFactoryNotNull(DriverEntity driverEntity)
+	protected PathDriverFactory getPathDriverFactoryNotNull(DriverEntity driverEntity)
 			throws PathDriverFactoryException
 	{
 		String driverEntityId = driverEntity.getId();
 
-		PathDriverFactory pathDriverFactory = null;
-
 		PathDriverFactoryInfo pathDriverFactoryInfo = this.pathDriverFactoryInfoMap.get(driverEntityId);
-		if (pathDriverFactoryInfo != null)
+
+		// 后台线程检查文件修改时，这里无需加锁，也无需读取文件修改时间
+		if (pathDriverFactoryInfo != null && (isWatching() || !pathDriverFactoryInfo.isModifiedAfterCreation()))
+			return pathDriverFactoryInfo.getPathDriverFactory();
+
+		synchronized (this.pathDriverFactoryInfoMap)
 		{
-			if (pathDriverFactoryInfo.isModifiedAfterCreation())
-			{
-				this.pathDriverFactoryInfoMap.remove(driverEntityId);
-				pathDriverFactoryInfo.getPathDriverFactory().release();
+			pathDriverFactoryInfo = this.pathDriverFactoryInfoMap.get(driverEntityId);
 
-				if (LOGGER.isDebugEnabled())
-					LOGGER.debug(" [" + pathDriverFactory + "] has been discarded for its path modification");
+			if (pathDriverFactoryInfo != null && pathDriverFactoryInfo.isModifiedAfterCreation())
+			{
+				removePathDriverFactory(driverEntityId, pathDriverFactoryInfo);
+				pathDriverFactoryInfo = null;
 			}
-			else
-				pathDriverFactory = pathDriverFactoryInfo.getPathDriverFactory();
-		}
 
-		if (pathDriverFactory == null)
-		{
-			pathDriverFactory = createPathDriverFactory(driverEntity);
-			pathDriverFactoryInfo = new PathDriverFactoryInfo(pathDriverFactory);
+			if (pathDriverFactoryInfo == null)
+			{
+				PathDriverFactory pathDriverFactory = createPathDriverFactory(driverEntity);
+				pathDriverFactoryInfo = new PathDriverFactoryInfo(pathDriverFactory);
 
-			this.pathDriverFactoryInfoMap.put(driverEntityId, pathDriverFactoryInfo);
+				this.pathDriverFactoryInfoMap.put(driverEntityId, pathDriverFactoryInfo);
 
-			if (LOGGER.isDebugEnabled())
-				LOGGER.debug(" [" + pathDriverFactory + "] is created for loading drivers.");
-		}
+				if (LOGGER.isDebugEnabled())
+					LOGGER.debug(" [" + pathDriverFactory + "] is created for loading drivers.");
+			}
 
-		return pathDriverFactory;
+			return pathDriverFactoryInfo.getPathDriverFactory();
+		}
 	}
 
 	/**
 	 * 移除{@linkplain PathDriverFactory}。
 	 * 
-	 * @param driverEntity
+	 * @param driverEntityId
 	 * @throws PathDriverFactoryException
 	 */
-	protected synchronized void removePathDriverFactory(DriverEntity driverEntity) throws PathDriverFactoryException
+	protected void removePathDriverFactory(String driverEntityId) throws PathDriverFactoryException
 	{
-		PathDriverFactoryInfo pathDriverFactoryInfo = this.pathDriverFactoryInfoMap.remove(driverEntity.getId());
+		PathDriverFactoryInfo pathDriverFactoryInfo = this.pathDriverFactoryInfoMap.remove(driverEntityId);
 
 		if (pathDriverFactoryInfo == null)
 			return;
@@ -657,6 +719,139 @@ public abstract class AbstractFileDriverEntityManager implements DriverEntityMan
 		pathDriverFactoryInfo.getPathDriverFactory().release();
 	}
 
+	/**
+	 * 移除指定的{@linkplain PathDriverFactoryInfo}，如果它已被替换，则不移除。
+	 * 
+	 * @param driverEntityId
+	 * @param pathDriverFactoryInfo
+	 * @return
+	 * @throws PathDriverFactoryException
+	 */
+	protected boolean removePathDriverFactory(String driverEntityId, PathDriverFactoryInfo pathDriverFactoryInfo)
+			throws PathDriverFactoryException
+	{
+		if (!this.pathDriverFactoryInfoMap.remove(driverEntityId, pathDriverFactoryInfo))
+			return false;
+
+		pathDriverFactoryInfo.getPathDriverFactory().release();
+
+		if (LOGGER.isDebugEnabled())
+			LOGGER.debug(" [" + pathDriverFactoryInfo.getPathDriverFactory()
+					+ "] has been discarded for its path modification");
+
+		return true;
+	}
+
+	/**
+	 * 获取{@linkplain #driverEntities}当前快照。
+	 * <p>
+	 * 未使用后台线程检查时，将先检查并重新加载已修改的驱动信息文件。
+	 * </p>
+	 * 
+	 * @return
+	 */
+	protected List<DriverEntity> getDriverEntitiesSnapshot()
+	{
+		if (!isWatching())
+		{
+			synchronized (this)
+			{
+				reloadDriverEntityFileIfModified();
+			}
+		}
+
+		return this.driverEntities;
+	}
+
+	/**
+	 * 是否正在使用后台线程检查文件修改。
+	 * 
+	 * @return
+	 */
+	protected boolean isWatching()
+	{
+		return (this.watcher != null);
+	}
+
+	/**
+	 * 启动文件修改检查后台线程。
+	 */
+	protected synchronized void startWatcher()
+	{
+		if (this.watchInterval <= 0 || this.watcher != null)
+			return;
+
+		ScheduledExecutorService watcher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory()
+		{
+			@Override
+			public Thread newThread(Runnable r)
+			{
+				Thread thread = new Thread(r, "datagear-driver-entity-watcher");
+				thread.setDaemon(true);
+
+				return thread;
+			}
+		});
+
+		watcher.scheduleWithFixedDelay(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				checkModified();
+			}
+		}, this.watchInterval, this.watchInterval, TimeUnit.MILLISECONDS);
+
+		this.watcher = watcher;
+	}
+
+	/**
+	 * 停止文件修改检查后台线程。
+	 */
+	protected synchronized void stopWatcher()
+	{
+		if (this.watcher == null)
+			return;
+
+		this.watcher.shutdownNow();
+		this.watcher = null;
+	}
+
+	/**
+	 * 检查驱动信息文件、驱动库文件是否已修改，并重新加载驱动信息、丢弃已修改的{@linkplain PathDriverFactory}。
+	 */
+	protected void checkModified()
+	{
+		try
+		{
+			synchronized (this)
+			{
+				reloadDriverEntityFileIfModified();
+			}
+		}
+		catch (Throwable t)
+		{
+			if (LOGGER.isErrorEnabled())
+				LOGGER.error("reload driver entity file error", t);
+		}
+
+		for (Map.Entry<String, PathDriverFactoryInfo> entry : this.pathDriverFactoryInfoMap.entrySet())
+		{
+			PathDriverFactoryInfo pathDriverFactoryInfo = entry.getValue();
+
+			try
+			{
+				if (pathDriverFactoryInfo.isModifiedAfterCreation())
+					removePathDriverFactory(entry.getKey(), pathDriverFactoryInfo);
+			}
+			catch (Throwable t)
+			{
+				if (LOGGER.isErrorEnabled())
+					LOGGER.error("discard [" + pathDriverFactoryInfo.getPathDriverFactory() + "] error", t);
+			}
+		}
+	}
+
 	/**
 	 * 创建{@linkplain PathDriverFactory}实例并对其进行初始化。
 	 * 
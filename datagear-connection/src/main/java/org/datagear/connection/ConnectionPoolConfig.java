@@ -0,0 +1,388 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.connection;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Properties;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.datagear.util.StringUtil;
+
+/**
+ * 连接池配置。
+ * <p>
+ * 各项配置为{@code null}表示使用连接池的默认值。
+ * </p>
+ * <p>
+ * 可以在连接属性中以{@linkplain #PROPERTY_PREFIX}为前缀单独配置连接池，比如：{@code datagear.pool.maxTotal=20}，
+ * 参考{@linkplain #valueOf(Properties)}。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class ConnectionPoolConfig implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 连接属性中的连接池配置名前缀 */
+	public static final String PROPERTY_PREFIX = "datagear.pool.";
+
+	public static final String PROPERTY_MAX_TOTAL = PROPERTY_PREFIX + "maxTotal";
+
+	public static final String PROPERTY_MAX_IDLE = PROPERTY_PREFIX + "maxIdle";
+
+	public static final String PROPERTY_MIN_IDLE = PROPERTY_PREFIX + "minIdle";
+
+	public static final String PROPERTY_MAX_WAIT_MILLIS = PROPERTY_PREFIX + "maxWaitMillis";
+
+	public static final String PROPERTY_VALIDATION_QUERY = PROPERTY_PREFIX + "validationQuery";
+
+	public static final String PROPERTY_TEST_ON_BORROW = PROPERTY_PREFIX + "testOnBorrow";
+
+	public static final String PROPERTY_TEST_WHILE_IDLE = PROPERTY_PREFIX + "testWhileIdle";
+
+	public static final String PROPERTY_TIME_BETWEEN_EVICTION_RUNS_MILLIS = PROPERTY_PREFIX
+			+ "timeBetweenEvictionRunsMillis";
+
+	public static final String PROPERTY_MIN_EVICTABLE_IDLE_TIME_MILLIS = PROPERTY_PREFIX + "minEvictableIdleTimeMillis";
+
+	public static final String PROPERTY_POOL_PREPARED_STATEMENTS = PROPERTY_PREFIX + "poolPreparedStatements";
+
+	public static final String PROPERTY_MAX_OPEN_PREPARED_STATEMENTS = PROPERTY_PREFIX + "maxOpenPreparedStatements";
+
+	/** 最大连接数 */
+	private Integer maxTotal = null;
+
+	/** 最大空闲连接数 */
+	private Integer maxIdle = null;
+
+	/** 最小空闲连接数 */
+	private Integer minIdle = null;
+
+	/** 获取连接的最大等待毫秒数 */
+	private Long maxWaitMillis = null;
+
+	/** 校验连接的SQL语句 */
+	private String validationQuery = null;
+
+	/** 获取连接时是否校验 */
+	private Boolean testOnBorrow = null;
+
+	/** 空闲时是否校验 */
+	private Boolean testWhileIdle = null;
+
+	/** 空闲连接回收的运行间隔毫秒数 */
+	private Long timeBetweenEvictionRunsMillis = null;
+
+	/** 连接空闲多少毫秒后可被回收 */
+	private Long minEvictableIdleTimeMillis = null;
+
+	/** 是否缓存连接的{@linkplain java.sql.PreparedStatement}，使重复执行的SQL可复用语句句柄和数据库端执行计划 */
+	private Boolean poolPreparedStatements = null;
+
+	/** 每个连接最多缓存的{@linkplain java.sql.PreparedStatement}数 */
+	private Integer maxOpenPreparedStatements = null;
+
+	public ConnectionPoolConfig()
+	{
+		super();
+	}
+
+	public Integer getMaxTotal()
+	{
+		return maxTotal;
+	}
+
+	public void setMaxTotal(Integer maxTotal)
+	{
+		this.maxTotal = maxTotal;
+	}
+
+	public Integer getMaxIdle()
+	{
+		return maxIdle;
+	}
+
+	public void setMaxIdle(Integer maxIdle)
+	{
+		this.maxIdle = maxIdle;
+	}
+
+	public Integer getMinIdle()
+	{
+		return minIdle;
+	}
+
+	public void setMinIdle(Integer minIdle)
+	{
+		this.minIdle = minIdle;
+	}
+
+	public Long getMaxWaitMillis()
+	{
+		return maxWaitMillis;
+	}
+
+	public void setMaxWaitMillis(Long maxWaitMillis)
+	{
+		this.maxWaitMillis = maxWaitMillis;
+	}
+
+	public String getValidationQuery()
+	{
+		return validationQuery;
+	}
+
+	public void setValidationQuery(String validationQuery)
+	{
+		this.validationQuery = validationQuery;
+	}
+
+	public Boolean getTestOnBorrow()
+	{
+		return testOnBorrow;
+	}
+
+	public void setTestOnBorrow(Boolean testOnBorrow)
+	{
+		this.testOnBorrow = testOnBorrow;
+	}
+
+	public Boolean getTestWhileIdle()
+	{
+		return testWhileIdle;
+	}
+
+	public void setTestWhileIdle(Boolean testWhileIdle)
+	{
+		this.testWhileIdle = testWhileIdle;
+	}
+
+	public Long getTimeBetweenEvictionRunsMillis()
+	{
+		return timeBetweenEvictionRunsMillis;
+	}
+
+	public void setTimeBetweenEvictionRunsMillis(Long timeBetweenEvictionRunsMillis)
+	{
+		this.timeBetweenEvictionRunsMillis = timeBetweenEvictionRunsMillis;
+	}
+
+	public Long getMinEvictableIdleTimeMillis()
+	{
+		return minEvictableIdleTimeMillis;
+	}
+
+	public void setMinEvictableIdleTimeMillis(Long minEvictableIdleTimeMillis)
+	{
+		this.minEvictableIdleTimeMillis = minEvictableIdleTimeMillis;
+	}
+
+	public Boolean getPoolPreparedStatements()
+	{
+		return poolPreparedStatements;
+	}
+
+	public void setPoolPreparedStatements(Boolean poolPreparedStatements)
+	{
+		this.poolPreparedStatements = poolPreparedStatements;
+	}
+
+	public Integer getMaxOpenPreparedStatements()
+	{
+		return maxOpenPreparedStatements;
+	}
+
+	public void setMaxOpenPreparedStatements(Integer maxOpenPreparedStatements)
+	{
+		this.maxOpenPreparedStatements = maxOpenPreparedStatements;
+	}
+
+	/**
+	 * 将配置应用于{@linkplain BasicDataSource}，为{@code null}的配置项将被忽略。
+	 * 
+	 * @param dataSource
+	 */
+	public void apply(BasicDataSource dataSource)
+	{
+		if (this.maxTotal != null)
+			dataSource.setMaxTotal(this.maxTotal);
+
+		if (this.maxIdle != null)
+			dataSource.setMaxIdle(this.maxIdle);
+
+		if (this.minIdle != null)
+			dataSource.setMinIdle(this.minIdle);
+
+		if (this.maxWaitMillis != null)
+			dataSource.setMaxWaitMillis(this.maxWaitMillis);
+
+		if (!StringUtil.isEmpty(this.validationQuery))
+			dataSource.setValidationQuery(this.validationQuery);
+
+		if (this.testOnBorrow != null)
+			dataSource.setTestOnBorrow(this.testOnBorrow);
+
+		if (this.testWhileIdle != null)
+			dataSource.setTestWhileIdle(this.testWhileIdle);
+
+		if (this.timeBetweenEvictionRunsMillis != null)
+			dataSource.setTimeBetweenEvictionRunsMillis(this.timeBetweenEvictionRunsMillis);
+
+		if (this.minEvictableIdleTimeMillis != null)
+			dataSource.setMinEvictableIdleTimeMillis(this.minEvictableIdleTimeMillis);
+
+		if (this.poolPreparedStatements != null)
+			dataSource.setPoolPreparedStatements(this.poolPreparedStatements);
+
+		if (this.maxOpenPreparedStatements != null)
+			dataSource.setMaxOpenPreparedStatements(this.maxOpenPreparedStatements);
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [maxTotal=" + maxTotal + ", maxIdle=" + maxIdle + ", minIdle=" + minIdle
+				+ ", maxWaitMillis=" + maxWaitMillis + ", validationQuery=" + validationQuery + ", testOnBorrow="
+				+ testOnBorrow + ", testWhileIdle=" + testWhileIdle + ", timeBetweenEvictionRunsMillis="
+				+ timeBetweenEvictionRunsMillis + ", minEvictableIdleTimeMillis=" + minEvictableIdleTimeMillis
+				+ ", poolPreparedStatements=" + poolPreparedStatements + ", maxOpenPreparedStatements="
+				+ maxOpenPreparedStatements + "]";
+	}
+
+	/**
+	 * 是否是连接池配置属性名。
+	 * 
+	 * @param name
+	 * @return
+	 */
+	public static boolean isPoolProperty(Object name)
+	{
+		return (name instanceof String && ((String) name).startsWith(PROPERTY_PREFIX));
+	}
+
+	/**
+	 * 从连接属性中读取连接池配置。
+	 * 
+	 * @param properties
+	 *            允许为{@code null}
+	 * @return 返回{@code null}表示没有连接池配置属性
+	 * @throws ConnectionPoolConfigException
+	 *             属性值不合法时
+	 */
+	public static ConnectionPoolConfig valueOf(Properties properties) throws ConnectionPoolConfigException
+	{
+		if (properties == null || properties.isEmpty())
+			return null;
+
+		boolean hasPoolProperty = false;
+
+		for (Object name : properties.keySet())
+		{
+			if (isPoolProperty(name))
+			{
+				hasPoolProperty = true;
+				break;
+			}
+		}
+
+		if (!hasPoolProperty)
+			return null;
+
+		ConnectionPoolConfig config = new ConnectionPoolConfig();
+
+		config.setMaxTotal(toInteger(properties, PROPERTY_MAX_TOTAL));
+		config.setMaxIdle(toInteger(properties, PROPERTY_MAX_IDLE));
+		config.setMinIdle(toInteger(properties, PROPERTY_MIN_IDLE));
+		config.setMaxWaitMillis(toLong(properties, PROPERTY_MAX_WAIT_MILLIS));
+		config.setValidationQuery(properties.getProperty(PROPERTY_VALIDATION_QUERY));
+		config.setTestOnBorrow(toBoolean(properties, PROPERTY_TEST_ON_BORROW));
+		config.setTestWhileIdle(toBoolean(properties, PROPERTY_TEST_WHILE_IDLE));
+		config.setTimeBetweenEvictionRunsMillis(
+				toLong(properties, PROPERTY_TIME_BETWEEN_EVICTION_RUNS_MILLIS));
+		config.setMinEvictableIdleTimeMillis(toLong(properties, PROPERTY_MIN_EVICTABLE_IDLE_TIME_MILLIS));
+		config.setPoolPreparedStatements(toBoolean(properties, PROPERTY_POOL_PREPARED_STATEMENTS));
+		config.setMaxOpenPreparedStatements(toInteger(properties, PROPERTY_MAX_OPEN_PREPARED_STATEMENTS));
+
+		return config;
+	}
+
+	/**
+	 * 移除连接属性中的连接池配置属性，它们不应传递给驱动程序。
+	 * 
+	 * @param properties
+	 */
+	public static void removePoolProperties(Properties properties)
+	{
+		Iterator<Object> names = properties.keySet().iterator();
+
+		while (names.hasNext())
+		{
+			if (isPoolProperty(names.next()))
+				names.remove();
+		}
+	}
+
+	protected static Integer toInteger(Properties properties, String name) throws ConnectionPoolConfigException
+	{
+		String value = properties.getProperty(name);
+
+		try
+		{
+			return (StringUtil.isBlank(value) ? null : Integer.valueOf(value.trim()));
+		}
+		catch (NumberFormatException e)
+		{
+			throw new ConnectionPoolConfigException(name, value, e);
+		}
+	}
+
+	protected static Long toLong(Properties properties, String name) throws ConnectionPoolConfigException
+	{
+		String value = properties.getProperty(name);
+
+		try
+		{
+			return (StringUtil.isBlank(value) ? null : Long.valueOf(value.trim()));
+		}
+		catch (NumberFormatException e)
+		{
+			throw new ConnectionPoolConfigException(name, value, e);
+		}
+	}
+
+	protected static Boolean toBoolean(Properties properties, String name) throws ConnectionPoolConfigException
+	{
+		String value = properties.getProperty(name);
+
+		if (StringUtil.isBlank(value))
+			return null;
+
+		value = value.trim();
+
+		// Boolean.valueOf()会将任意非"true"值转换为false，这里应严格校验
+		if ("true".equalsIgnoreCase(value))
+			return Boolean.TRUE;
+		else if ("false".equalsIgnoreCase(value))
+			return Boolean.FALSE;
+		else
+			throw new ConnectionPoolConfigException(name, value, null);
+	}
+}
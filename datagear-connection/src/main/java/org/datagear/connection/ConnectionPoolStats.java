@@ -0,0 +1,169 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.connection;
+
+import java.io.Serializable;
+
+/**
+ * 连接池统计信息。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class ConnectionPoolStats implements Serializable
+{
+	private static final long serialVersionUID = 1L;
+
+	/** 连接URL */
+	private String url;
+
+	/** 连接用户名 */
+	private String user;
+
+	/** 活跃连接数 */
+	private int active;
+
+	/** 空闲连接数 */
+	private int idle;
+
+	/** 最大连接数 */
+	private int maxTotal;
+
+	/** 等待获取连接的线程数 */
+	private int waiters;
+
+	/** 已获取连接的总次数 */
+	private long borrowedCount;
+
+	/** 获取连接的平均等待毫秒数 */
+	private long meanBorrowWaitMillis;
+
+	/** 获取连接的最大等待毫秒数 */
+	private long maxBorrowWaitMillis;
+
+	public ConnectionPoolStats()
+	{
+		super();
+	}
+
+	public ConnectionPoolStats(String url, String user)
+	{
+		super();
+		this.url = url;
+		this.user = user;
+	}
+
+	public String getUrl()
+	{
+		return url;
+	}
+
+	public void setUrl(String url)
+	{
+		this.url = url;
+	}
+
+	public String getUser()
+	{
+		return user;
+	}
+
+	public void setUser(String user)
+	{
+		this.user = user;
+	}
+
+	public int getActive()
+	{
+		return active;
+	}
+
+	public void setActive(int active)
+	{
+		this.active = active;
+	}
+
+	public int getIdle()
+	{
+		return idle;
+	}
+
+	public void setIdle(int idle)
+	{
+		this.idle = idle;
+	}
+
+	public int getMaxTotal()
+	{
+		return maxTotal;
+	}
+
+	public void setMaxTotal(int maxTotal)
+	{
+		this.maxTotal = maxTotal;
+	}
+
+	public int getWaiters()
+	{
+		return waiters;
+	}
+
+	public void setWaiters(int waiters)
+	{
+		this.waiters = waiters;
+	}
+
+	public long getBorrowedCount()
+	{
+		return borrowedCount;
+	}
+
+	public void setBorrowedCount(long borrowedCount)
+	{
+		this.borrowedCount = borrowedCount;
+	}
+
+	public long getMeanBorrowWaitMillis()
+	{
+		return meanBorrowWaitMillis;
+	}
+
+	public void setMeanBorrowWaitMillis(long meanBorrowWaitMillis)
+	{
+		this.meanBorrowWaitMillis = meanBorrowWaitMillis;
+	}
+
+	public long getMaxBorrowWaitMillis()
+	{
+		return maxBorrowWaitMillis;
+	}
+
+	public void setMaxBorrowWaitMillis(long maxBorrowWaitMillis)
+	{
+		this.maxBorrowWaitMillis = maxBorrowWaitMillis;
+	}
+
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + " [url=" + url + ", user=" + user + ", active=" + active + ", idle="
+				+ idle + ", maxTotal=" + maxTotal + ", waiters=" + waiters + ", borrowedCount=" + borrowedCount
+				+ ", meanBorrowWaitMillis=" + meanBorrowWaitMillis + ", maxBorrowWaitMillis=" + maxBorrowWaitMillis
+				+ "]";
+	}
+}
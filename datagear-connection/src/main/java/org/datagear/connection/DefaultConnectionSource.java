@@ -26,6 +26,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -38,15 +41,20 @@ import javax.sql.DataSource;
 import org.apache.commons.dbcp2.BasicDataSource;
 import org.apache.commons.dbcp2.ConnectionFactory;
 import org.apache.commons.dbcp2.DriverConnectionFactory;
+import org.apache.commons.dbcp2.PoolableConnection;
+import org.apache.commons.pool2.impl.GenericObjectPool;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.datagear.util.JDBCCompatiblity;
 import org.datagear.util.JdbcUtil;
+import org.datagear.util.StringUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy.Eviction;
+import com.github.benmanes.caffeine.cache.Policy.Expiration;
 import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.RemovalListener;
 
@@ -63,12 +71,27 @@ public class DefaultConnectionSource implements ConnectionSource
 {
 	private static Logger LOGGER = LoggerFactory.getLogger(DefaultConnectionSource.class);
 
+	/** 默认内置数据源最大数目 */
+	public static final int DEFAULT_MAX_POOL_COUNT = 50;
+
+	/** 默认内置数据源过期分钟数 */
+	public static final int DEFAULT_POOL_EXPIRE_MINUTES = 60 * 24;
+
 	private DriverEntityManager driverEntityManager;
 
 	private DriverChecker driverChecker = new SimpleDriverChecker();
 
 	private PropertiesProcessor propertiesProcessor = null;
 
+	/** 默认连接池配置，为{@code null}表示使用连接池的默认值，连接属性中的连接池配置优先于此 */
+	private ConnectionPoolConfig defaultPoolConfig = null;
+
+	/** 内置数据源最大数目，超过时最久未使用的内置数据源将被关闭 */
+	private int maxPoolCount = DEFAULT_MAX_POOL_COUNT;
+
+	/** 内置数据源过期分钟数，超过此时间未使用的内置数据源将被关闭 */
+	private int poolExpireMinutes = DEFAULT_POOL_EXPIRE_MINUTES;
+
 	private Cache<ConnectionIdentity, InternalDataSourceHolder> internalDataSourceCache;
 
 	private ConcurrentMap<String, PreferedDriverEntityResult> _urlPreferedDriverEntityMap = new ConcurrentHashMap<>();
@@ -84,8 +107,8 @@ public class DefaultConnectionSource implements ConnectionSource
 	{
 		super();
 		this.driverEntityManager = driverEntityManager;
-		this.internalDataSourceCache = Caffeine.newBuilder().maximumSize(50)
-				.expireAfterAccess(60 * 24, TimeUnit.MINUTES)
+		this.internalDataSourceCache = Caffeine.newBuilder().maximumSize(this.maxPoolCount)
+				.expireAfterAccess(this.poolExpireMinutes, TimeUnit.MINUTES)
 				.removalListener(new DriverBasicDataSourceRemovalListener()).build();
 	}
 
@@ -119,6 +142,56 @@ public class DefaultConnectionSource implements ConnectionSource
 		this.propertiesProcessor = propertiesProcessor;
 	}
 
+	public ConnectionPoolConfig getDefaultPoolConfig()
+	{
+		return defaultPoolConfig;
+	}
+
+	public void setDefaultPoolConfig(ConnectionPoolConfig defaultPoolConfig)
+	{
+		this.defaultPoolConfig = defaultPoolConfig;
+	}
+
+	public int getMaxPoolCount()
+	{
+		return maxPoolCount;
+	}
+
+	/**
+	 * 设置内置数据源最大数目。
+	 * <p>
+	 * 它应不小于数据源（{@linkplain ConnectionIdentity}）的数目，否则内置数据源将被频繁关闭、重建。
+	 * </p>
+	 * 
+	 * @param maxPoolCount
+	 */
+	public void setMaxPoolCount(int maxPoolCount)
+	{
+		this.maxPoolCount = maxPoolCount;
+
+		Optional<Eviction<ConnectionIdentity, InternalDataSourceHolder>> eviction = this.internalDataSourceCache
+				.policy().eviction();
+
+		if (eviction.isPresent())
+			eviction.get().setMaximum(maxPoolCount);
+	}
+
+	public int getPoolExpireMinutes()
+	{
+		return poolExpireMinutes;
+	}
+
+	public void setPoolExpireMinutes(int poolExpireMinutes)
+	{
+		this.poolExpireMinutes = poolExpireMinutes;
+
+		Optional<Expiration<ConnectionIdentity, InternalDataSourceHolder>> expiration = this.internalDataSourceCache
+				.policy().expireAfterAccess();
+
+		if (expiration.isPresent())
+			expiration.get().setExpiresAfter(poolExpireMinutes, TimeUnit.MINUTES);
+	}
+
 	protected Cache<ConnectionIdentity, InternalDataSourceHolder> getInternalDataSourceCache()
 	{
 		return this.internalDataSourceCache;
@@ -156,6 +229,48 @@ public class DefaultConnectionSource implements ConnectionSource
 		return getPreferredConnection(connectionOption);
 	}
 
+	/**
+	 * 获取所有内置数据源的连接池统计信息。
+	 * 
+	 * @return
+	 */
+	public List<ConnectionPoolStats> getPoolStats()
+	{
+		List<ConnectionPoolStats> re = new ArrayList<>();
+
+		for (Map.Entry<ConnectionIdentity, InternalDataSourceHolder> entry : this.internalDataSourceCache.asMap()
+				.entrySet())
+		{
+			DataSource dataSource = entry.getValue().getDataSource();
+
+			if (dataSource instanceof DriverBasicDataSource)
+				re.add(((DriverBasicDataSource) dataSource).getPoolStats(entry.getKey()));
+		}
+
+		return re;
+	}
+
+	/**
+	 * 获取指定连接URL、用户名的连接池统计信息。
+	 * 
+	 * @param url
+	 * @param user
+	 *            允许为{@code null}
+	 * @return 空列表表示没有，有多个时表示连接属性不同
+	 */
+	public List<ConnectionPoolStats> getPoolStats(String url, String user)
+	{
+		List<ConnectionPoolStats> re = new ArrayList<>();
+
+		for (ConnectionPoolStats stats : getPoolStats())
+		{
+			if (StringUtil.isEquals(stats.getUrl(), url) && StringUtil.isEquals(stats.getUser(), user))
+				re.add(stats);
+		}
+
+		return re;
+	}
+
 	/**
 	 * 关闭。
 	 */
@@ -394,6 +509,10 @@ public class DefaultConnectionSource implements ConnectionSource
 		{
 			throw new EstablishConnectionException(connectionOption, e);
 		}
+		catch (ConnectionSourceException e)
+		{
+			throw e;
+		}
 		catch (Throwable t)
 		{
 			throw new ConnectionSourceException(t);
@@ -403,8 +522,28 @@ public class DefaultConnectionSource implements ConnectionSource
 	protected Connection getConnection(Driver driver, String url, Properties properties)
 			throws ExecutionException, SQLException, Throwable
 	{
+		// 连接池配置属性也作为标识，使得修改连接池配置后，将使用新的内置数据源
 		ConnectionIdentity connectionIdentity = ConnectionIdentity.valueOf(url, properties);
 
+		ConnectionPoolConfig poolConfig = ConnectionPoolConfig.valueOf(properties);
+
+		if (poolConfig != null)
+		{
+			Properties driverProperties = new Properties();
+			driverProperties.putAll(properties);
+			ConnectionPoolConfig.removePoolProperties(driverProperties);
+
+			properties = driverProperties;
+		}
+
+		return getConnection(driver, url, properties, poolConfig, connectionIdentity);
+	}
+
+	protected Connection getConnection(Driver driver, String url, Properties properties,
+			ConnectionPoolConfig poolConfig, ConnectionIdentity connectionIdentity)
+			throws ExecutionException, SQLException, Throwable
+	{
+
 		Connection connection = null;
 		InternalDataSourceHolder dataSourceHolder = null;
 
@@ -416,7 +555,7 @@ public class DefaultConnectionSource implements ConnectionSource
 						@Override
 						public InternalDataSourceHolder apply(ConnectionIdentity key)
 						{
-							DataSource dataSource = createInternalDataSource(driver, url, properties);
+							DataSource dataSource = createInternalDataSource(driver, url, properties, poolConfig);
 							InternalDataSourceHolder holder = new InternalDataSourceHolder();
 							holder.setDataSource(dataSource);
 
@@ -456,6 +595,11 @@ public class DefaultConnectionSource implements ConnectionSource
 			{
 				throw t;
 			}
+			// 如果是连接池已满、等待超时，则不能降级，否则将绕过连接池的最大连接数限制，在数据库繁忙时加重其负担
+			else if (isPoolExhaustedCause(t))
+			{
+				throw t;
+			}
 			else
 			{
 				LOGGER.debug("Get connection from the internal DataSource failed for {}, "
@@ -518,16 +662,66 @@ public class DefaultConnectionSource implements ConnectionSource
 		return false;
 	}
 
+	/**
+	 * 指定异常链是否由连接池已满、等待空闲连接超时导致。
+	 * <p>
+	 * DBCP2在连接池已满且等待超时时，抛出以{@linkplain NoSuchElementException}为原因的{@linkplain SQLException}。
+	 * </p>
+	 * 
+	 * @param t
+	 * @return
+	 */
+	protected boolean isPoolExhaustedCause(Throwable t)
+	{
+		Throwable cause = t;
+
+		for (int i = 0; i < 10000; i++)
+		{
+			if (cause == null)
+				return false;
+
+			if (cause instanceof NoSuchElementException)
+				return true;
+
+			String message = cause.getMessage();
+
+			if (message != null && (message.contains("Timeout waiting for idle object")
+					|| message.contains("Pool exhausted")))
+				return true;
+
+			cause = cause.getCause();
+		}
+
+		return false;
+	}
+
 	protected Connection getConnectionWithoutInternalDataSource(Driver driver, String url, Properties properties)
 			throws Throwable
 	{
 		return driver.connect(url, properties);
 	}
 
-	protected DataSource createInternalDataSource(Driver driver, String url, Properties properties)
+	/**
+	 * 创建内置数据源。
+	 * 
+	 * @param driver
+	 * @param url
+	 * @param properties
+	 * @param poolConfig
+	 *            允许为{@code null}
+	 * @return
+	 */
+	protected DataSource createInternalDataSource(Driver driver, String url, Properties properties,
+			ConnectionPoolConfig poolConfig)
 	{
 		DriverBasicDataSource re = new DriverBasicDataSource(driver, url, properties);
 
+		if (this.defaultPoolConfig != null)
+			this.defaultPoolConfig.apply(re);
+
+		if (poolConfig != null)
+			poolConfig.apply(re);
+
 		LOGGER.debug("Create internal data source for {}", ConnectionIdentity.valueOf(url, properties));
 
 		return re;
@@ -691,6 +885,35 @@ public class DefaultConnectionSource implements ConnectionSource
 		{
 			return new DriverConnectionFactory(driver, getUrl(), this.connectionProperties);
 		}
+
+		/**
+		 * 获取连接池统计信息。
+		 * 
+		 * @param connectionIdentity
+		 * @return
+		 */
+		public ConnectionPoolStats getPoolStats(ConnectionIdentity connectionIdentity)
+		{
+			Object user = connectionIdentity.getProperties().get(ConnectionOption.PROPERTY_NAME_USER);
+
+			ConnectionPoolStats stats = new ConnectionPoolStats(getUrl(), (user == null ? null : user.toString()));
+			stats.setActive(getNumActive());
+			stats.setIdle(getNumIdle());
+			stats.setMaxTotal(getMaxTotal());
+
+			// 连接池在获取第一个连接时才会创建
+			GenericObjectPool<PoolableConnection> pool = getConnectionPool();
+
+			if (pool != null)
+			{
+				stats.setWaiters(pool.getNumWaiters());
+				stats.setBorrowedCount(pool.getBorrowedCount());
+				stats.setMeanBorrowWaitMillis(pool.getMeanBorrowWaitTimeMillis());
+				stats.setMaxBorrowWaitMillis(pool.getMaxBorrowWaitTimeMillis());
+			}
+
+			return stats;
+		}
 	}
 
 	/**
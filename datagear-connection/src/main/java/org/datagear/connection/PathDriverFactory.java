@@ -21,6 +21,8 @@ import java.io.File;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.Driver;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.datagear.util.FileUtil;
 import org.slf4j.Logger;
@@ -46,6 +48,9 @@ public class PathDriverFactory
 
 	private Object driverTool;
 
+	/** 已加载的驱动程序缓存，避免每次获取都加锁、反射查找 */
+	private final ConcurrentMap<String, Driver> drivers = new ConcurrentHashMap<String, Driver>();
+
 	public PathDriverFactory(String path)
 	{
 		this(FileUtil.getFile(path));
@@ -106,6 +111,7 @@ public class PathDriverFactory
 		}
 		finally
 		{
+			this.drivers.clear();
 		}
 	}
 
@@ -139,7 +145,35 @@ public class PathDriverFactory
 	 * @return
 	 * @throws PathDriverFactoryException
 	 */
-	public synchronized Driver getDriver(String driverClassName) throws PathDriverFactoryException
+	public Driver getDriver(String driverClassName) throws PathDriverFactoryException
+	{
+		Driver driver = this.drivers.get(driverClassName);
+
+		if (driver != null)
+			return driver;
+
+		synchronized (this)
+		{
+			driver = this.drivers.get(driverClassName);
+
+			if (driver == null)
+			{
+				driver = loadDriver(driverClassName);
+				this.drivers.put(driverClassName, driver);
+			}
+
+			return driver;
+		}
+	}
+
+	/**
+	 * 加载指定类名的JDBC驱动程序。
+	 * 
+	 * @param driverClassName
+	 * @return
+	 * @throws PathDriverFactoryException
+	 */
+	protected Driver loadDriver(String driverClassName) throws PathDriverFactoryException
 	{
 		try
 		{
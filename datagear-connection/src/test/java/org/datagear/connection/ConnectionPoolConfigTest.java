@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Properties;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain ConnectionPoolConfig}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class ConnectionPoolConfigTest
+{
+	public ConnectionPoolConfigTest()
+	{
+		super();
+	}
+
+	@Test
+	public void valueOfTest()
+	{
+		assertNull(ConnectionPoolConfig.valueOf(null));
+
+		{
+			Properties properties = new Properties();
+			properties.setProperty("user", "root");
+
+			assertNull(ConnectionPoolConfig.valueOf(properties));
+		}
+
+		{
+			Properties properties = new Properties();
+			properties.setProperty("user", "root");
+			properties.setProperty(ConnectionPoolConfig.PROPERTY_MAX_TOTAL, " 20 ");
+			properties.setProperty(ConnectionPoolConfig.PROPERTY_MAX_WAIT_MILLIS, "3000");
+			properties.setProperty(ConnectionPoolConfig.PROPERTY_TEST_ON_BORROW, "TRUE");
+			properties.setProperty(ConnectionPoolConfig.PROPERTY_VALIDATION_QUERY, "SELECT 1");
+
+			ConnectionPoolConfig config = ConnectionPoolConfig.valueOf(properties);
+
+			assertEquals(20, config.getMaxTotal().intValue());
+			assertEquals(3000L, config.getMaxWaitMillis().longValue());
+			assertTrue(config.getTestOnBorrow());
+			assertEquals("SELECT 1", config.getValidationQuery());
+			assertNull(config.getMaxIdle());
+			assertNull(config.getPoolPreparedStatements());
+		}
+	}
+
+	@Test
+	public void valueOfTest_illegalValue()
+	{
+		assertIllegalValue(ConnectionPoolConfig.PROPERTY_MAX_TOTAL, "abc");
+		assertIllegalValue(ConnectionPoolConfig.PROPERTY_MAX_WAIT_MILLIS, "3s");
+		assertIllegalValue(ConnectionPoolConfig.PROPERTY_TEST_WHILE_IDLE, "yes");
+	}
+
+	@Test
+	public void removePoolPropertiesTest()
+	{
+		Properties properties = new Properties();
+		properties.setProperty("user", "root");
+		properties.setProperty(ConnectionPoolConfig.PROPERTY_MAX_TOTAL, "20");
+		properties.setProperty(ConnectionPoolConfig.PROPERTY_PREFIX + "unknown", "a");
+
+		ConnectionPoolConfig.removePoolProperties(properties);
+
+		assertEquals(1, properties.size());
+		assertEquals("root", properties.getProperty("user"));
+		assertFalse(properties.containsKey(ConnectionPoolConfig.PROPERTY_MAX_TOTAL));
+	}
+
+	protected void assertIllegalValue(String name, String value)
+	{
+		Properties properties = new Properties();
+		properties.setProperty(name, value);
+
+		try
+		{
+			ConnectionPoolConfig.valueOf(properties);
+			fail();
+		}
+		catch (ConnectionPoolConfigException e)
+		{
+			assertEquals(name, e.getName());
+			assertEquals(value, e.getValue());
+			assertTrue(e.getMessage().contains(name));
+		}
+	}
+}
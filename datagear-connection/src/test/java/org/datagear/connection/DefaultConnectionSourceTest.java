@@ -0,0 +1,225 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.derby.jdbc.EmbeddedDriver;
+import org.datagear.util.JdbcUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * 基于内嵌Derby数据库的{@linkplain DefaultConnectionSource}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DefaultConnectionSourceTest
+{
+	private static final String DB_URL = "jdbc:derby:memory:DefaultConnectionSourceTest";
+
+	/** 驱动程序{@linkplain Driver#connect(String, Properties)}接收到的连接属性 */
+	private List<Properties> connectProperties = new ArrayList<Properties>();
+
+	public DefaultConnectionSourceTest()
+	{
+		super();
+	}
+
+	@BeforeClass
+	public static void initDatabase() throws Exception
+	{
+		// 避免在工作目录下生成derby.log
+		System.setProperty("derby.stream.error.file", "target/derby.log");
+
+		JdbcUtil.closeConnection(new EmbeddedDriver().connect(DB_URL + ";create=true", new Properties()));
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			new EmbeddedDriver().connect(DB_URL + ";drop=true", new Properties());
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库时总会抛出异常
+		}
+	}
+
+	@Test
+	public void getConnectionTest_poolConfig() throws Throwable
+	{
+		DefaultConnectionSource connectionSource = new DefaultConnectionSource();
+
+		Properties properties = new Properties();
+		properties.setProperty("user", "app");
+		properties.setProperty(ConnectionPoolConfig.PROPERTY_MAX_TOTAL, "2");
+		properties.setProperty(ConnectionPoolConfig.PROPERTY_MAX_WAIT_MILLIS, "100");
+
+		Connection cn0 = null;
+		Connection cn1 = null;
+
+		try
+		{
+			cn0 = connectionSource.getConnection(createDriver(), DB_URL, properties);
+			cn1 = connectionSource.getConnection(createDriver(), DB_URL, properties);
+
+			List<ConnectionPoolStats> statses = connectionSource.getPoolStats(DB_URL, "app");
+
+			assertEquals(1, statses.size());
+			assertEquals(2, statses.get(0).getMaxTotal());
+			assertEquals(2, statses.get(0).getActive());
+
+			// 连接池配置属性不应传递给驱动程序
+			assertFalse(this.connectProperties.isEmpty());
+
+			for (Properties connectProperty : this.connectProperties)
+			{
+				assertEquals("app", connectProperty.getProperty("user"));
+
+				for (Object name : connectProperty.keySet())
+					assertFalse(ConnectionPoolConfig.isPoolProperty(name));
+			}
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn0);
+			JdbcUtil.closeConnection(cn1);
+			connectionSource.close();
+		}
+	}
+
+	@Test
+	public void getConnectionTest_poolExhausted() throws Throwable
+	{
+		DefaultConnectionSource connectionSource = new DefaultConnectionSource();
+
+		Properties properties = new Properties();
+		properties.setProperty("user", "app");
+		properties.setProperty(ConnectionPoolConfig.PROPERTY_MAX_TOTAL, "1");
+		properties.setProperty(ConnectionPoolConfig.PROPERTY_MAX_WAIT_MILLIS, "100");
+
+		Connection cn0 = null;
+		Connection cn1 = null;
+
+		try
+		{
+			cn0 = connectionSource.getConnection(createDriver(), DB_URL, properties);
+			int connectCount = this.connectProperties.size();
+
+			try
+			{
+				cn1 = connectionSource.getConnection(createDriver(), DB_URL, properties);
+				fail();
+			}
+			catch (SQLException e)
+			{
+				assertTrue(connectionSource.isPoolExhaustedCause(e));
+			}
+
+			// 连接池已满时不应降级为直接新建连接，也不应抛弃连接池
+			assertEquals(connectCount, this.connectProperties.size());
+
+			List<ConnectionPoolStats> statses = connectionSource.getPoolStats(DB_URL, "app");
+
+			assertEquals(1, statses.size());
+			assertEquals(1, statses.get(0).getActive());
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn0);
+			JdbcUtil.closeConnection(cn1);
+			connectionSource.close();
+		}
+	}
+
+	@Test
+	public void getConnectionTest_illegalPoolConfig() throws Throwable
+	{
+		DefaultConnectionSource connectionSource = new DefaultConnectionSource();
+
+		Properties properties = new Properties();
+		properties.setProperty(ConnectionPoolConfig.PROPERTY_MAX_TOTAL, "abc");
+
+		try
+		{
+			connectionSource.getConnection(createDriver(), DB_URL, properties);
+			fail();
+		}
+		catch (ConnectionPoolConfigException e)
+		{
+			assertEquals(ConnectionPoolConfig.PROPERTY_MAX_TOTAL, e.getName());
+		}
+		finally
+		{
+			connectionSource.close();
+		}
+	}
+
+	/**
+	 * 创建记录连接属性的Derby驱动程序。
+	 * 
+	 * @return
+	 */
+	protected Driver createDriver()
+	{
+		final Driver driver = new EmbeddedDriver();
+
+		return (Driver) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Driver.class },
+				new InvocationHandler()
+				{
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+					{
+						if ("connect".equals(method.getName()))
+						{
+							Properties properties = new Properties();
+							properties.putAll((Properties) args[1]);
+							connectProperties.add(properties);
+						}
+
+						try
+						{
+							return method.invoke(driver, args);
+						}
+						catch (InvocationTargetException e)
+						{
+							throw e.getCause();
+						}
+					}
+				});
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.connection.support;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * 各数据库{@linkplain org.datagear.connection.URLSensor}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class URLSensorsTest
+{
+	public URLSensorsTest()
+	{
+		super();
+	}
+
+	@Test
+	public void db2URLSensorTest()
+	{
+		Db2URLSensor sensor = Db2URLSensor.INSTANCE;
+
+		assertTrue(sensor.supports("jdbc:db2://localhost:50000/test"));
+		assertTrue(sensor.supports("jdbc:db2:test"));
+		assertFalse(sensor.supports("jdbc:derby:test"));
+		assertFalse(sensor.supports("jdbc:mysql://localhost:3306/db2"));
+	}
+
+	@Test
+	public void h2URLSensorTest()
+	{
+		H2URLSensor sensor = H2URLSensor.INSTANCE;
+
+		assertTrue(sensor.supports("jdbc:h2:mem:test"));
+		assertTrue(sensor.supports("jdbc:h2:tcp://localhost/~/test"));
+		assertTrue(sensor.supports("jdbc:h2:~/test"));
+		assertFalse(sensor.supports("jdbc:hsqldb:mem:test"));
+		assertFalse(sensor.supports("jdbc:mysql://h2:3306/test"));
+	}
+
+	@Test
+	public void sqliteURLSensorTest()
+	{
+		SqliteURLSensor sensor = SqliteURLSensor.INSTANCE;
+
+		assertTrue(sensor.supports("jdbc:sqlite:test.db"));
+		assertTrue(sensor.supports("jdbc:sqlite::memory:"));
+		assertFalse(sensor.supports("jdbc:sqlserver://localhost:1433"));
+		assertFalse(sensor.supports("jdbc:mysql://localhost:3306/sqlite"));
+	}
+
+	@Test
+	public void derbyURLSensorTest()
+	{
+		DerbyURLSensor sensor = DerbyURLSensor.INSTANCE;
+
+		assertTrue(sensor.supports("jdbc:derby:memory:test;create=true"));
+		assertTrue(sensor.supports("jdbc:derby://localhost:1527/test"));
+		assertFalse(sensor.supports("jdbc:db2://localhost:50000/test"));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void setPrefixTest()
+	{
+		new H2URLSensor().setPrefix("jdbc:other");
+	}
+}
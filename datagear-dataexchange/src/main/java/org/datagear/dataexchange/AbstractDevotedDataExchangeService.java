@@ -21,6 +21,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.sql.BatchUpdateException;
 import java.sql.Blob;
 import java.sql.Clob;
 import java.sql.Connection;
@@ -31,6 +32,8 @@ import java.sql.ResultSetMetaData;
 import java.sql.RowId;
 import java.sql.SQLException;
 import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
@@ -45,6 +48,7 @@ import org.datagear.meta.Column;
 import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.persistence.support.PersistenceSupport;
 import org.datagear.util.IOUtil;
+import org.datagear.util.JDBCCompatiblity;
 import org.datagear.util.JdbcUtil;
 import org.datagear.util.NumberParserException;
 import org.datagear.util.SqlParamValue;
@@ -1120,6 +1124,327 @@ public abstract class AbstractDevotedDataExchangeService<T extends DataExchange>
 		}
 	}
 
+	/**
+	 * 创建{@linkplain ValueDataImportBatch}。
+	 * 
+	 * @param importOption
+	 * @param dataFormatContext
+	 * @param listener
+	 *            允许为{@code null}
+	 * @return
+	 */
+	protected ValueDataImportBatch createValueDataImportBatch(ValueDataImportOption importOption,
+			DataFormatContext dataFormatContext, ValueDataImportListener listener)
+	{
+		return new ValueDataImportBatch(importOption, dataFormatContext, listener);
+	}
+
+	/**
+	 * 设置{@linkplain ValueDataImportBatch}的导入{@linkplain PreparedStatement}，设置前将先执行已加入批处理的数据。
+	 * 
+	 * @param cn
+	 * @param batch
+	 * @param st
+	 * @param columns
+	 * @throws DataExchangeException
+	 */
+	protected void setValueDataImportStatement(Connection cn, ValueDataImportBatch batch, PreparedStatement st,
+			List<Column> columns) throws DataExchangeException
+	{
+		executeValueDataImportBatch(cn, batch);
+		batch.setStatement(st, columns);
+	}
+
+	/**
+	 * 导入一条值数据。
+	 * <p>
+	 * 如果{@linkplain ValueDataImportBatch#isBatch()}，数据将加入批处理，并在达到批处理数目时执行；否则，将立即导入。
+	 * </p>
+	 * <p>
+	 * 导入完成后，应调用{@linkplain #executeValueDataImportBatch(Connection, ValueDataImportBatch)}执行剩余的数据。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param batch
+	 * @param columnValues
+	 * @param dataIndex
+	 * @return {@code false}表示已忽略
+	 * @throws DataExchangeException
+	 */
+	protected boolean importValueData(Connection cn, ValueDataImportBatch batch, List<? extends Object> columnValues,
+			DataIndex dataIndex) throws DataExchangeException
+	{
+		ValueDataImportOption importOption = batch.getImportOption();
+		ExceptionResolve exceptionResolve = importOption.getExceptionResolve();
+		ValueDataImportListener listener = batch.getListener();
+
+		if (!batch.isBatch())
+		{
+			boolean imported = importValueData(cn, batch.getStatement(), batch.getColumns(), columnValues, dataIndex,
+					importOption.isNullForIllegalColumnValue(), exceptionResolve, batch.getDataFormatContext(),
+					listener);
+
+			if (imported)
+				commitIfReachInterval(cn, batch, 1);
+
+			return imported;
+		}
+
+		DataExchangeException exception = null;
+
+		try
+		{
+			setImportParamValues(cn, batch.getStatement(), batch.getColumns(), columnValues, dataIndex,
+					importOption.isNullForIllegalColumnValue(), batch.getDataFormatContext(), listener);
+
+			batch.getStatement().addBatch();
+		}
+		catch (Throwable t)
+		{
+			exception = wrapToDataExchangeException(t);
+		}
+
+		if (exception == null)
+		{
+			batch.add(dataIndex, columnValues);
+
+			if (batch.isFull())
+				executeValueDataImportBatch(cn, batch);
+
+			return true;
+		}
+		else
+		{
+			if (ExceptionResolve.IGNORE.equals(exceptionResolve))
+			{
+				if (listener != null)
+					listener.onIgnore(dataIndex, exception);
+
+				return false;
+			}
+			else
+			{
+				// 先执行之前加入批处理的数据，使其与逐条导入时的处理结果一致
+				executeValueDataImportBatch(cn, batch);
+				throw exception;
+			}
+		}
+	}
+
+	/**
+	 * 执行{@linkplain ValueDataImportBatch}中已加入批处理的数据。
+	 * <p>
+	 * 如果执行出错且为{@linkplain ExceptionResolve#IGNORE}，将回滚此批数据并逐条重新导入，以找出并忽略出错的数据；
+	 * 如果数据库不支持{@linkplain Savepoint}，将根据{@linkplain BatchUpdateException#getUpdateCounts()}确定需重新导入的数据，
+	 * 如果也无法确定，将抛出异常中止导入，而不是重新导入全部数据，因为那样可能产生重复数据。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param batch
+	 * @throws DataExchangeException
+	 */
+	protected void executeValueDataImportBatch(Connection cn, ValueDataImportBatch batch)
+			throws DataExchangeException
+	{
+		int size = batch.size();
+
+		if (size == 0)
+			return;
+
+		ValueDataImportOption importOption = batch.getImportOption();
+		ExceptionResolve exceptionResolve = importOption.getExceptionResolve();
+		ValueDataImportListener listener = batch.getListener();
+		PreparedStatement st = batch.getStatement();
+		boolean ignore = ExceptionResolve.IGNORE.equals(exceptionResolve);
+
+		try
+		{
+			Savepoint savepoint = (ignore ? setSavepointIfSupports(cn) : null);
+			SQLException exception = null;
+
+			try
+			{
+				st.executeBatch();
+			}
+			catch (SQLException e)
+			{
+				exception = e;
+			}
+
+			if (exception == null)
+			{
+				releaseSavepointSilently(cn, savepoint);
+
+				if (listener != null)
+				{
+					for (int i = 0; i < size; i++)
+						listener.onSuccess(batch.getDataIndex(i));
+				}
+			}
+			else
+			{
+				clearBatchSilently(st);
+
+				int[] updateCounts = (exception instanceof BatchUpdateException
+						? ((BatchUpdateException) exception).getUpdateCounts()
+						: null);
+
+				if (!ignore)
+				{
+					// 无法确定出错数据时，以此批的第一条数据作为出错数据
+					int failedIndex = getFailedBatchIndex(updateCounts, size);
+					DataIndex dataIndex = batch.getDataIndex(failedIndex < 0 ? 0 : failedIndex);
+					throw new ExecuteDataImportSqlException(dataIndex, exception);
+				}
+
+				int start = 0;
+
+				if (savepoint != null && rollbackSilently(cn, savepoint))
+					;
+				else if (updateCounts != null && updateCounts.length == size)
+				{
+					// 驱动程序已执行全部数据，仅需忽略出错的数据
+					for (int i = 0; i < size; i++)
+					{
+						if (listener == null)
+							continue;
+
+						if (updateCounts[i] == Statement.EXECUTE_FAILED)
+							listener.onIgnore(batch.getDataIndex(i),
+									new ExecuteDataImportSqlException(batch.getDataIndex(i), exception));
+						else
+							listener.onSuccess(batch.getDataIndex(i));
+					}
+
+					start = size;
+				}
+				else if (updateCounts != null)
+				{
+					// 驱动程序在出错数据处停止执行，之前的数据已导入
+					start = updateCounts.length;
+
+					if (listener != null)
+					{
+						for (int i = 0; i < start; i++)
+							listener.onSuccess(batch.getDataIndex(i));
+					}
+				}
+				else
+				{
+					// 无法确定哪些数据已导入，逐条重新导入可能产生重复数据，因此中止
+					throw new ExecuteDataImportSqlException(batch.getDataIndex(0), exception);
+				}
+
+				for (int i = start; i < size; i++)
+				{
+					importValueData(cn, st, batch.getColumns(), batch.getColumnValues(i), batch.getDataIndex(i),
+							importOption.isNullForIllegalColumnValue(), exceptionResolve,
+							batch.getDataFormatContext(), listener);
+				}
+			}
+		}
+		finally
+		{
+			batch.clear();
+		}
+
+		commitIfReachInterval(cn, batch, size);
+	}
+
+	/**
+	 * 增加{@linkplain ValueDataImportBatch}未提交数目，并在达到提交间隔时提交。
+	 * 
+	 * @param cn
+	 * @param batch
+	 * @param count
+	 * @throws DataExchangeException
+	 */
+	protected void commitIfReachInterval(Connection cn, ValueDataImportBatch batch, int count)
+			throws DataExchangeException
+	{
+		if (batch.addUncommittedCount(count))
+		{
+			commit(cn);
+			batch.resetUncommittedCount();
+		}
+	}
+
+	/**
+	 * 获取批处理出错数据的索引。
+	 * 
+	 * @param updateCounts
+	 *            允许为{@code null}
+	 * @param size
+	 * @return 小于{@code 0}表示无法确定
+	 */
+	protected int getFailedBatchIndex(int[] updateCounts, int size)
+	{
+		if (updateCounts == null)
+			return -1;
+
+		if (updateCounts.length < size)
+			return updateCounts.length;
+
+		for (int i = 0; i < updateCounts.length; i++)
+		{
+			if (updateCounts[i] == Statement.EXECUTE_FAILED)
+				return i;
+		}
+
+		return -1;
+	}
+
+	@JDBCCompatiblity("某些驱动程序不支持Savepoint")
+	protected Savepoint setSavepointIfSupports(Connection cn)
+	{
+		try
+		{
+			return cn.setSavepoint();
+		}
+		catch (Throwable t)
+		{
+			return null;
+		}
+	}
+
+	protected boolean rollbackSilently(Connection cn, Savepoint savepoint)
+	{
+		try
+		{
+			cn.rollback(savepoint);
+			return true;
+		}
+		catch (Throwable t)
+		{
+			return false;
+		}
+	}
+
+	protected void releaseSavepointSilently(Connection cn, Savepoint savepoint)
+	{
+		if (savepoint == null)
+			return;
+
+		try
+		{
+			cn.releaseSavepoint(savepoint);
+		}
+		catch (Throwable t)
+		{
+		}
+	}
+
+	protected void clearBatchSilently(Statement st)
+	{
+		try
+		{
+			st.clearBatch();
+		}
+		catch (Throwable t)
+		{
+		}
+	}
+
 	/**
 	 * 执行导入SQL。
 	 * 
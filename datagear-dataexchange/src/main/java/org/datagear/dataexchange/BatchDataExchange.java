@@ -36,6 +36,9 @@ public abstract class BatchDataExchange extends DataExchange
 
 	private BatchDataExchangeResult result;
 
+	/** 连接标识，允许为{@code null} */
+	private String connectionKey = null;
+
 	public BatchDataExchange()
 	{
 		super();
@@ -67,6 +70,24 @@ public abstract class BatchDataExchange extends DataExchange
 		this.result = result;
 	}
 
+	public String getConnectionKey()
+	{
+		return connectionKey;
+	}
+
+	/**
+	 * 设置连接标识。
+	 * <p>
+	 * 连接标识相同（比如同一数据源）的批量数据交换将共享最大并发连接数限制，为{@code null}时仅限制此批量数据交换自身。
+	 * </p>
+	 * 
+	 * @param connectionKey
+	 */
+	public void setConnectionKey(String connectionKey)
+	{
+		this.connectionKey = connectionKey;
+	}
+
 	/**
 	 * 获取子数据交换集合。
 	 * 
@@ -18,8 +18,12 @@
 package org.datagear.dataexchange;
 
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 批量数据交换服务。
@@ -30,9 +34,26 @@ import java.util.concurrent.Executors;
  */
 public class BatchDataExchangeService<T extends BatchDataExchange> extends AbstractDevotedDataExchangeService<T>
 {
+	/** 默认工作线程数 */
+	public static final int DEFAULT_WORKER_COUNT = 20;
+
+	/** 默认单个批量数据交换的并发子数据交换数 */
+	public static final int DEFAULT_MAX_CONCURRENCY = 5;
+
+	/** 默认相同连接标识的最大并发连接数 */
+	public static final int DEFAULT_MAX_CONNECTIONS = 10;
+
 	private DataExchangeService<?> subDataExchangeService;
 
-	private ExecutorService executorService = Executors.newCachedThreadPool();
+	private ExecutorService executorService = createDefaultExecutorService(DEFAULT_WORKER_COUNT);
+
+	/** 单个批量数据交换的并发子数据交换数，小于等于{@code 0}表示不限制 */
+	private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+
+	/** 相同连接标识的最大并发连接数，小于等于{@code 0}表示不限制 */
+	private int maxConnections = DEFAULT_MAX_CONNECTIONS;
+
+	private ConcurrentMap<String, ConnectionPermits> connectionPermitsMap = new ConcurrentHashMap<String, ConnectionPermits>();
 
 	public BatchDataExchangeService()
 	{
@@ -65,6 +86,34 @@ public class BatchDataExchangeService<T extends BatchDataExchange> extends Abstr
 		this.executorService = executorService;
 	}
 
+	public int getMaxConcurrency()
+	{
+		return maxConcurrency;
+	}
+
+	public void setMaxConcurrency(int maxConcurrency)
+	{
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	public int getMaxConnections()
+	{
+		return maxConnections;
+	}
+
+	/**
+	 * 设置相同连接标识（参考{@linkplain BatchDataExchange#getConnectionKey()}）的最大并发连接数。
+	 * <p>
+	 * 它限制所有批量数据交换中使用同一数据源同时执行的子数据交换数，避免大量子数据交换同时占用数据源连接。
+	 * </p>
+	 * 
+	 * @param maxConnections
+	 */
+	public void setMaxConnections(int maxConnections)
+	{
+		this.maxConnections = maxConnections;
+	}
+
 	@Override
 	protected void exchange(T dataExchange, DataExchangeContext context) throws Throwable
 	{
@@ -118,10 +167,75 @@ public class BatchDataExchangeService<T extends BatchDataExchange> extends Abstr
 		DefaultBatchDataExchangeResult result = new DefaultBatchDataExchangeResult(subDataExchanges,
 				this.subDataExchangeService, this.executorService);
 		result.setListener(dataExchange.getListener());
+		result.setMaxConcurrency(this.maxConcurrency);
+		result.setConnectionPermits(getConnectionPermits(dataExchange));
 
 		return result;
 	}
 
+	/**
+	 * 获取批量数据交换的连接许可，没有限制时返回{@code null}。
+	 * 
+	 * @param dataExchange
+	 * @return
+	 */
+	protected ConnectionPermits getConnectionPermits(T dataExchange)
+	{
+		if (this.maxConnections <= 0)
+			return null;
+
+		String key = dataExchange.getConnectionKey();
+
+		// 没有连接标识时，仅限制此批量数据交换自身
+		if (key == null)
+			return new ConnectionPermits(this.maxConnections);
+
+		return getConnectionPermits(key);
+	}
+
+	/**
+	 * 获取指定连接标识的连接许可，没有限制时返回{@code null}。
+	 * <p>
+	 * 非批量执行的数据交换（比如流式导出）也可使用它，与批量数据交换共同遵守{@linkplain #getMaxConnections()}限制。
+	 * </p>
+	 * 
+	 * @param connectionKey
+	 * @return
+	 */
+	public ConnectionPermits getConnectionPermits(String connectionKey)
+	{
+		if (this.maxConnections <= 0)
+			return null;
+
+		ConnectionPermits permits = this.connectionPermitsMap.get(connectionKey);
+
+		if (permits == null)
+		{
+			permits = new ConnectionPermits(this.maxConnections);
+			ConnectionPermits old = this.connectionPermitsMap.putIfAbsent(connectionKey, permits);
+
+			if (old != null)
+				permits = old;
+		}
+
+		return permits;
+	}
+
+	/**
+	 * 创建默认工作线程池。
+	 * 
+	 * @param workerCount
+	 * @return
+	 */
+	protected static ExecutorService createDefaultExecutorService(int workerCount)
+	{
+		ThreadPoolExecutor executorService = new ThreadPoolExecutor(workerCount, workerCount, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>());
+		executorService.allowCoreThreadTimeOut(true);
+
+		return executorService;
+	}
+
 	protected Set<SubDataExchange> getSubDataExchanges(T dataExchange) throws DataExchangeException
 	{
 		return dataExchange.getSubDataExchanges();
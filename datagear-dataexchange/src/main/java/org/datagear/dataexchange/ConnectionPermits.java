@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.dataexchange;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接许可。
+ * <p>
+ * 它用于限制使用同一数据源同时执行的数据交换数。与{@linkplain java.util.concurrent.Semaphore}不同，
+ * 获取许可的操作都不会无限阻塞：{@linkplain #tryAcquire(Runnable)}在没有可用许可时仅登记等待者，
+ * 并在有许可释放时回调它，使得调用者无需占用工作线程等待许可。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class ConnectionPermits
+{
+	private final int permits;
+
+	private int available;
+
+	private final Set<Runnable> waiters = new LinkedHashSet<Runnable>();
+
+	public ConnectionPermits(int permits)
+	{
+		super();
+		this.permits = permits;
+		this.available = permits;
+	}
+
+	public int getPermits()
+	{
+		return permits;
+	}
+
+	/**
+	 * 获取当前可用许可数。
+	 * 
+	 * @return
+	 */
+	public synchronized int getAvailable()
+	{
+		return this.available;
+	}
+
+	/**
+	 * 尝试获取一个许可。
+	 * 
+	 * @return
+	 */
+	public synchronized boolean tryAcquire()
+	{
+		if (this.available <= 0)
+			return false;
+
+		this.available--;
+
+		return true;
+	}
+
+	/**
+	 * 尝试获取一个许可，没有可用许可时登记{@code waiter}，并在下次有许可释放时回调它（仅回调一次）。
+	 * <p>
+	 * 获取失败与登记是原子的，因此不会错过两者之间的许可释放。
+	 * </p>
+	 * 
+	 * @param waiter
+	 * @return
+	 */
+	public synchronized boolean tryAcquire(Runnable waiter)
+	{
+		if (tryAcquire())
+			return true;
+
+		this.waiters.add(waiter);
+
+		return false;
+	}
+
+	/**
+	 * 尝试在指定时间内获取一个许可。
+	 * 
+	 * @param timeout
+	 * @param unit
+	 * @return
+	 * @throws InterruptedException
+	 */
+	public synchronized boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException
+	{
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+		while (this.available <= 0)
+		{
+			long remaining = deadline - System.nanoTime();
+
+			if (remaining <= 0)
+				return false;
+
+			TimeUnit.NANOSECONDS.timedWait(this, remaining);
+		}
+
+		this.available--;
+
+		return true;
+	}
+
+	/**
+	 * 释放一个许可，并回调所有已登记的等待者。
+	 */
+	public void release()
+	{
+		List<Runnable> myWaiters = null;
+
+		synchronized (this)
+		{
+			this.available++;
+			notifyAll();
+
+			if (!this.waiters.isEmpty())
+			{
+				myWaiters = new ArrayList<Runnable>(this.waiters);
+				this.waiters.clear();
+			}
+		}
+
+		// 在锁外回调，避免与等待者自身的锁形成死锁
+		if (myWaiters != null)
+		{
+			for (Runnable waiter : myWaiters)
+				waiter.run();
+		}
+	}
+}
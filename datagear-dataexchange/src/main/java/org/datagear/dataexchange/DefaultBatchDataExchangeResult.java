@@ -17,8 +17,13 @@
 
 package org.datagear.dataexchange;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
@@ -30,6 +35,14 @@ import org.slf4j.LoggerFactory;
 
 /**
  * 默认{@linkplain BatchDataExchangeResult}实现类。
+ * <p>
+ * 它仅提交依赖都已完成的子数据交换，并按照{@linkplain SubDataExchange#getEstimatedSize()}从大到小的顺序提交，
+ * 同时执行的子数据交换数不超过{@linkplain #getMaxConcurrency()}，其余的将在有子数据交换完成后再提交。
+ * </p>
+ * <p>
+ * 如果设置了{@linkplain #getConnectionPermits()}，子数据交换在提交前需先获取一个许可，用于限制同一数据源的并发连接数。
+ * 没有可用许可时，子数据交换将保持未提交（可取消），直到有许可释放时再提交，因此不会占用工作线程等待许可。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -43,6 +56,12 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 	private final ExecutorService executorService;
 	private BatchDataExchangeListener listener;
 
+	/** 同时执行的子数据交换数，小于等于{@code 0}表示不限制 */
+	private int maxConcurrency = 0;
+
+	/** 连接许可，允许为{@code null} */
+	private ConnectionPermits connectionPermits = null;
+
 	private Set<SubDataExchange> _unsubmits = new HashSet<SubDataExchange>();
 	private Set<SubDataExchange> _submitFails = new HashSet<SubDataExchange>();
 	private Set<SubDataExchange> _cancelleds = new HashSet<SubDataExchange>();
@@ -50,11 +69,24 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 
 	private Set<SubDataExchangeFutureTask> _submitSuccesses = new HashSet<SubDataExchangeFutureTask>();
 
+	/** 已提交且未完成的子数据交换数 */
+	private int _runningCount = 0;
+
 	private final AtomicBoolean _finishFlag = new AtomicBoolean(false);
 	private final CountDownLatch _finishCountDownLatch = new CountDownLatch(1);
 
 	private final Object _subLock = new Object();
 
+	/** 等待连接许可时登记的回调 */
+	private final Runnable _permitWaiter = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			submit();
+		}
+	};
+
 	public DefaultBatchDataExchangeResult(Set<SubDataExchange> subDataExchanges,
 			DataExchangeService<?> subDataExchangeService, ExecutorService executorService)
 	{
@@ -90,6 +122,26 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 		this.listener = listener;
 	}
 
+	public int getMaxConcurrency()
+	{
+		return maxConcurrency;
+	}
+
+	public void setMaxConcurrency(int maxConcurrency)
+	{
+		this.maxConcurrency = maxConcurrency;
+	}
+
+	public ConnectionPermits getConnectionPermits()
+	{
+		return connectionPermits;
+	}
+
+	public void setConnectionPermits(ConnectionPermits connectionPermits)
+	{
+		this.connectionPermits = connectionPermits;
+	}
+
 	@Override
 	public void waitForFinish() throws InterruptedException
 	{
@@ -174,10 +226,13 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 	@Override
 	public Set<SubDataExchange> submit()
 	{
-		Set<SubDataExchange> submits = new HashSet<SubDataExchange>();
+		// 保持优先级顺序
+		Set<SubDataExchange> submits = new LinkedHashSet<SubDataExchange>();
 
 		synchronized (this._subLock)
 		{
+			List<SubDataExchange> readys = new ArrayList<SubDataExchange>();
+
 			for (SubDataExchange unsubmit : this._unsubmits)
 			{
 				boolean canSubmit = false;
@@ -200,11 +255,27 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 				}
 
 				if (canSubmit)
-					submits.add(unsubmit);
+					readys.add(unsubmit);
+			}
+
+			sortByPriority(readys);
+
+			int available = (this.maxConcurrency > 0 ? this.maxConcurrency - this._runningCount : readys.size());
+
+			for (int i = 0, len = readys.size(); i < len && i < available; i++)
+			{
+				// 没有可用许可时，保持优先级顺序，等待许可释放后再提交
+				if (this.connectionPermits != null && !this.connectionPermits.tryAcquire(this._permitWaiter))
+					break;
+
+				submits.add(readys.get(i));
 			}
 
 			for (SubDataExchange submit : submits)
 				this._unsubmits.remove(submit);
+
+			// 在此预先计数，避免并发调用此方法时超出并发数
+			this._runningCount += submits.size();
 		}
 
 		submitAll(submits);
@@ -262,8 +333,12 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 	{
 		Set<SubDataExchange> cancelleds = new HashSet<SubDataExchange>();
 
+		releaseConnectionPermit();
+
 		synchronized (this._subLock)
 		{
+			this._runningCount--;
+
 			cancelleds.add(subDataExchange);
 			removeDescendants(this._unsubmits, subDataExchange, cancelleds);
 
@@ -277,6 +352,8 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 		}
 
 		postProcessIfFinish();
+
+		submit();
 	}
 
 	/**
@@ -288,6 +365,7 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 	{
 		synchronized (this._subLock)
 		{
+			this._runningCount--;
 			this._finishes.add(subDataExchange);
 		}
 
@@ -312,7 +390,7 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 
 	protected void submitAll(Set<SubDataExchange> subDataExchanges)
 	{
-		Set<SubDataExchange> submitSuccesses = new HashSet<SubDataExchange>();
+		Set<SubDataExchange> submitSuccesses = new LinkedHashSet<SubDataExchange>();
 		Set<SubDataExchange> submitFails = new HashSet<SubDataExchange>();
 
 		synchronized (this._subLock)
@@ -329,6 +407,8 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 				}
 				else
 				{
+					releaseConnectionPermit();
+					this._runningCount--;
 					submitFails.add(subDataExchange);
 					removeDescendants(this._unsubmits, subDataExchange, submitFails);
 				}
@@ -367,6 +447,43 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 		}
 	}
 
+	/**
+	 * 释放一个已在{@linkplain #submit()}中获取的连接许可。
+	 */
+	protected void releaseConnectionPermit()
+	{
+		if (this.connectionPermits != null)
+			this.connectionPermits.release();
+	}
+
+	/**
+	 * 按照优先级排序，{@linkplain SubDataExchange#getEstimatedSize()}大的在前。
+	 * 
+	 * @param subDataExchanges
+	 */
+	protected void sortByPriority(List<SubDataExchange> subDataExchanges)
+	{
+		Collections.sort(subDataExchanges, new Comparator<SubDataExchange>()
+		{
+			@Override
+			public int compare(SubDataExchange o1, SubDataExchange o2)
+			{
+				int re = Long.compare(o2.getEstimatedSize(), o1.getEstimatedSize());
+
+				if (re == 0)
+				{
+					String id1 = o1.getId();
+					String id2 = o2.getId();
+
+					if (id1 != null && id2 != null)
+						re = id1.compareTo(id2);
+				}
+
+				return re;
+			}
+		});
+	}
+
 	protected SubDataExchangeFutureTask buildSubDataExchangeFutureTask(SubDataExchange subDataExchange)
 	{
 		SubDataExchangeFutureTask subDataExchangeFutureTask = new SubDataExchangeFutureTask(subDataExchange);
@@ -559,6 +676,7 @@ public class DefaultBatchDataExchangeResult implements BatchDataExchangeResult
 			}
 			finally
 			{
+				DefaultBatchDataExchangeResult.this.releaseConnectionPermit();
 				DefaultBatchDataExchangeResult.this.forFinish(this.subDataExchange);
 			}
 		}
@@ -35,6 +35,9 @@ public class SubDataExchange
 
 	private Set<SubDataExchange> dependencies;
 
+	/** 预估数据量，比如导入文件大小、导出表行数，用于确定执行优先级 */
+	private long estimatedSize = 0;
+
 	public SubDataExchange()
 	{
 		super();
@@ -102,6 +105,24 @@ public class SubDataExchange
 		this.dependencies = (Set<SubDataExchange>) dependencies;
 	}
 
+	public long getEstimatedSize()
+	{
+		return estimatedSize;
+	}
+
+	/**
+	 * 设置预估数据量。
+	 * <p>
+	 * 在依赖都已完成的子数据交换中，预估数据量大的将优先执行。
+	 * </p>
+	 * 
+	 * @param estimatedSize
+	 */
+	public void setEstimatedSize(long estimatedSize)
+	{
+		this.estimatedSize = estimatedSize;
+	}
+
 	@Override
 	public String toString()
 	{
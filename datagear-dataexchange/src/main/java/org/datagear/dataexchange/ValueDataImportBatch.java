@@ -0,0 +1,216 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.dataexchange;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.datagear.meta.Column;
+
+/**
+ * 值数据导入批处理。
+ * <p>
+ * 它记录当前导入{@linkplain PreparedStatement}已加入批处理的数据，以及距上次提交已导入的数目。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class ValueDataImportBatch
+{
+	private ValueDataImportOption importOption;
+
+	private DataFormatContext dataFormatContext;
+
+	/** 允许为{@code null} */
+	private ValueDataImportListener listener;
+
+	private PreparedStatement statement = null;
+
+	private List<Column> columns = null;
+
+	private List<DataIndex> dataIndexes = new ArrayList<>();
+
+	private List<List<? extends Object>> columnValuess = new ArrayList<>();
+
+	/** 距上次提交已导入的数目 */
+	private int uncommittedCount = 0;
+
+	public ValueDataImportBatch()
+	{
+		super();
+	}
+
+	public ValueDataImportBatch(ValueDataImportOption importOption, DataFormatContext dataFormatContext,
+			ValueDataImportListener listener)
+	{
+		super();
+		this.importOption = importOption;
+		this.dataFormatContext = dataFormatContext;
+		this.listener = listener;
+	}
+
+	public ValueDataImportOption getImportOption()
+	{
+		return importOption;
+	}
+
+	public void setImportOption(ValueDataImportOption importOption)
+	{
+		this.importOption = importOption;
+	}
+
+	public DataFormatContext getDataFormatContext()
+	{
+		return dataFormatContext;
+	}
+
+	public void setDataFormatContext(DataFormatContext dataFormatContext)
+	{
+		this.dataFormatContext = dataFormatContext;
+	}
+
+	public ValueDataImportListener getListener()
+	{
+		return listener;
+	}
+
+	public void setListener(ValueDataImportListener listener)
+	{
+		this.listener = listener;
+	}
+
+	public PreparedStatement getStatement()
+	{
+		return statement;
+	}
+
+	public List<Column> getColumns()
+	{
+		return columns;
+	}
+
+	/**
+	 * 设置导入{@linkplain PreparedStatement}及其对应的列信息。
+	 * <p>
+	 * 调用此方法前，应先执行已加入批处理的数据。
+	 * </p>
+	 * 
+	 * @param statement
+	 * @param columns
+	 */
+	public void setStatement(PreparedStatement statement, List<Column> columns)
+	{
+		if (!this.dataIndexes.isEmpty())
+			throw new IllegalStateException("Batch must be executed before changing statement");
+
+		this.statement = statement;
+		this.columns = columns;
+	}
+
+	/**
+	 * 是否批量导入。
+	 * 
+	 * @return
+	 */
+	public boolean isBatch()
+	{
+		return this.importOption.isBatchImport();
+	}
+
+	/**
+	 * 添加一条已加入{@linkplain PreparedStatement#addBatch()}的数据。
+	 * <p>
+	 * {@code columnValues}将被复制后保存，因为调用者可能会复用它读取下一行数据（比如xlsx的SAX读取），
+	 * 而批处理执行失败时需使用它们逐条重新导入。
+	 * </p>
+	 * 
+	 * @param dataIndex
+	 * @param columnValues
+	 */
+	public void add(DataIndex dataIndex, List<? extends Object> columnValues)
+	{
+		this.dataIndexes.add(dataIndex);
+		this.columnValuess.add(new ArrayList<Object>(columnValues));
+	}
+
+	/**
+	 * 获取已加入批处理的数目。
+	 * 
+	 * @return
+	 */
+	public int size()
+	{
+		return this.dataIndexes.size();
+	}
+
+	/**
+	 * 是否已达到批处理数目。
+	 * 
+	 * @return
+	 */
+	public boolean isFull()
+	{
+		return (this.dataIndexes.size() >= this.importOption.getBatchSize());
+	}
+
+	public DataIndex getDataIndex(int index)
+	{
+		return this.dataIndexes.get(index);
+	}
+
+	public List<? extends Object> getColumnValues(int index)
+	{
+		return this.columnValuess.get(index);
+	}
+
+	/**
+	 * 清空已加入批处理的数据。
+	 */
+	public void clear()
+	{
+		this.dataIndexes.clear();
+		this.columnValuess.clear();
+	}
+
+	public int getUncommittedCount()
+	{
+		return uncommittedCount;
+	}
+
+	/**
+	 * 增加距上次提交已导入的数目。
+	 * 
+	 * @param count
+	 * @return 是否已达到{@linkplain ValueDataImportOption#getCommitInterval()}
+	 */
+	public boolean addUncommittedCount(int count)
+	{
+		this.uncommittedCount += count;
+
+		int commitInterval = this.importOption.getCommitInterval();
+
+		return (commitInterval > 0 && this.uncommittedCount >= commitInterval);
+	}
+
+	public void resetUncommittedCount()
+	{
+		this.uncommittedCount = 0;
+	}
+}
@@ -27,12 +27,21 @@ public class ValueDataImportOption extends DataImportOption
 {
 	private static final long serialVersionUID = 1L;
 
+	/** 默认批处理数目：逐条导入，使出错、忽略的处理以每条数据为单位 */
+	public static final int DEFAULT_BATCH_SIZE = 1;
+
 	/** 是否忽略不存在的列 */
 	private boolean ignoreInexistentColumn;
 
 	/** 当列值非法时设置为null */
 	private boolean nullForIllegalColumnValue;
 
+	/** 批处理数目，小于等于{@code 1}表示逐条导入 */
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
+	/** 提交间隔数目，小于等于{@code 0}表示仅在导入完成时提交 */
+	private int commitInterval = 0;
+
 	public ValueDataImportOption()
 	{
 		super();
@@ -66,11 +75,58 @@ public class ValueDataImportOption extends DataImportOption
 		this.nullForIllegalColumnValue = nullForIllegalColumnValue;
 	}
 
+	/**
+	 * 获取批处理数目。
+	 * <p>
+	 * 默认为{@linkplain #DEFAULT_BATCH_SIZE}，即逐条导入。
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public int getBatchSize()
+	{
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize)
+	{
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * 是否批量导入。
+	 * 
+	 * @return
+	 */
+	public boolean isBatchImport()
+	{
+		return (this.batchSize > 1);
+	}
+
+	public int getCommitInterval()
+	{
+		return commitInterval;
+	}
+
+	/**
+	 * 设置提交间隔数目。
+	 * <p>
+	 * 设置后，每导入此数目的数据将提交一次，{@linkplain ExceptionResolve#ROLLBACK}将只能回滚未提交的数据。
+	 * </p>
+	 * 
+	 * @param commitInterval
+	 */
+	public void setCommitInterval(int commitInterval)
+	{
+		this.commitInterval = commitInterval;
+	}
+
 	@Override
 	public String toString()
 	{
 		return getClass().getSimpleName() + " [exceptionResolve=" + getExceptionResolve() + ", ignoreInexistentColumn="
-				+ ignoreInexistentColumn + ", nullForIllegalColumnValue=" + nullForIllegalColumnValue + "]";
+				+ ignoreInexistentColumn + ", nullForIllegalColumnValue=" + nullForIllegalColumnValue
+				+ ", batchSize=" + batchSize + ", commitInterval=" + commitInterval + "]";
 	}
 
 }
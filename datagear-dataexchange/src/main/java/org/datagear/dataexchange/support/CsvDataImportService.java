@@ -32,6 +32,7 @@ import org.datagear.dataexchange.DataExchangeContext;
 import org.datagear.dataexchange.DataExchangeException;
 import org.datagear.dataexchange.IndexFormatDataExchangeContext;
 import org.datagear.dataexchange.RowDataIndex;
+import org.datagear.dataexchange.ValueDataImportBatch;
 import org.datagear.dataexchange.ValueDataImportOption;
 import org.datagear.meta.Column;
 import org.datagear.meta.resolver.DBMetaResolver;
@@ -73,7 +74,8 @@ public class CsvDataImportService extends AbstractDevotedDBMetaDataExchangeServi
 		JdbcUtil.setAutoCommitIfSupports(cn, false);
 		JdbcUtil.setReadonlyIfSupports(cn, false);
 
-		PreparedStatement st = null;
+		ValueDataImportBatch batch = createValueDataImportBatch(importOption, importContext.getDataFormatContext(),
+				dataExchange.getListener());
 
 		List<Column> rawColumns = null;
 		List<Column> noNullColumns = null;
@@ -96,20 +98,20 @@ public class CsvDataImportService extends AbstractDevotedDBMetaDataExchangeServi
 					throw new TableMismatchException(dataExchange.getTable());
 
 				String sql = buildInsertPreparedSql(cn, dataExchange.getTable(), noNullColumns);
-				st = cn.prepareStatement(sql);
+				PreparedStatement st = cn.prepareStatement(sql);
+				setValueDataImportStatement(cn, batch, st, noNullColumns);
 			}
 			else
 			{
 				List<String> columnValues = resolveCSVRecordValues(dataExchange, csvRecord, rawColumns, noNullColumns);
 
-				importValueData(cn, st, noNullColumns, columnValues, importContext.getDataIndex(),
-						importOption.isNullForIllegalColumnValue(), importOption.getExceptionResolve(),
-						importContext.getDataFormatContext(), dataExchange.getListener());
+				importValueData(cn, batch, columnValues, importContext.getDataIndex());
 			}
 
 			row++;
 		}
 
+		executeValueDataImportBatch(cn, batch);
 		commit(cn);
 	}
 
@@ -55,6 +55,7 @@ import org.datagear.dataexchange.AbstractDevotedDBMetaDataExchangeService;
 import org.datagear.dataexchange.DataExchangeContext;
 import org.datagear.dataexchange.DataExchangeException;
 import org.datagear.dataexchange.IndexFormatDataExchangeContext;
+import org.datagear.dataexchange.ValueDataImportBatch;
 import org.datagear.meta.Column;
 import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.util.IOUtil;
@@ -100,11 +101,15 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		JdbcUtil.setAutoCommitIfSupports(cn, false);
 		JdbcUtil.setReadonlyIfSupports(cn, false);
 
+		ValueDataImportBatch batch = createValueDataImportBatch(dataExchange.getImportOption(),
+				importContext.getDataFormatContext(), dataExchange.getListener());
+
 		if (dataExchange.isXls())
-			importXls(dataExchange, importContext, cn);
+			importXls(dataExchange, importContext, cn, batch);
 		else
-			importXlsx(dataExchange, importContext, cn);
+			importXlsx(dataExchange, importContext, cn, batch);
 
+		executeValueDataImportBatch(cn, batch);
 		commit(cn);
 	}
 
@@ -123,16 +128,17 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 	 * @param dataExchange
 	 * @param importContext
 	 * @param cn
+	 * @param batch
 	 * @throws Throwable
 	 */
-	protected void importXls(ExcelDataImport dataExchange, IndexFormatDataExchangeContext importContext, Connection cn)
-			throws Throwable
+	protected void importXls(ExcelDataImport dataExchange, IndexFormatDataExchangeContext importContext, Connection cn,
+			ValueDataImportBatch batch) throws Throwable
 	{
 		POIFSFileSystem poifs = new POIFSFileSystem(dataExchange.getFile(), true);
 
 		HSSFRequest req = new HSSFRequest();
 		req.addListenerForAllRecords(
-				new MissingRecordAwareHSSFListener(new XlsEventListener(dataExchange, importContext, cn)));
+				new MissingRecordAwareHSSFListener(new XlsEventListener(dataExchange, importContext, cn, batch)));
 
 		HSSFEventFactory factory = new HSSFEventFactory();
 		factory.processWorkbookEvents(req, poifs);
@@ -144,10 +150,11 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 	 * @param dataExchange
 	 * @param importContext
 	 * @param cn
+	 * @param batch
 	 * @throws Throwable
 	 */
-	protected void importXlsx(ExcelDataImport dataExchange, IndexFormatDataExchangeContext importContext, Connection cn)
-			throws Throwable
+	protected void importXlsx(ExcelDataImport dataExchange, IndexFormatDataExchangeContext importContext, Connection cn,
+			ValueDataImportBatch batch) throws Throwable
 	{
 		OPCPackage opcPackage = OPCPackage.open(dataExchange.getFile(), PackageAccess.READ);
 		importContext.addContextCloseable(opcPackage);
@@ -168,7 +175,7 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 				in = iter.next();
 
 				String sheetName = iter.getSheetName();
-				importXlsxSheet(dataExchange, importContext, cn, strings, styles, sheetName, index, in);
+				importXlsxSheet(dataExchange, importContext, cn, batch, strings, styles, sheetName, index, in);
 			}
 			finally
 			{
@@ -185,6 +192,7 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 	 * @param dataExchange
 	 * @param importContext
 	 * @param cn
+	 * @param batch
 	 * @param sharedStringsTable
 	 * @param stylesTable
 	 * @param sheetName
@@ -193,14 +201,14 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 	 * @throws Throwable
 	 */
 	public void importXlsxSheet(ExcelDataImport dataExchange, IndexFormatDataExchangeContext importContext,
-			Connection cn, ReadOnlySharedStringsTable sharedStringsTable, StylesTable stylesTable, String sheetName,
-			int sheetIndex, InputStream sheetInputStream) throws Throwable
+			Connection cn, ValueDataImportBatch batch, ReadOnlySharedStringsTable sharedStringsTable,
+			StylesTable stylesTable, String sheetName, int sheetIndex, InputStream sheetInputStream) throws Throwable
 	{
 		InputSource sheetSource = new InputSource(sheetInputStream);
 
 		XMLReader sheetParser = XMLHelper.newXMLReader();
-		ContentHandler handler = new XlsxSheetHandler(dataExchange, importContext, cn, stylesTable, sharedStringsTable,
-				sheetName, sheetIndex);
+		ContentHandler handler = new XlsxSheetHandler(dataExchange, importContext, cn, batch, stylesTable,
+				sharedStringsTable, sheetName, sheetIndex);
 		sheetParser.setContentHandler(handler);
 		sheetParser.parse(sheetSource);
 	}
@@ -249,6 +257,7 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		private ExcelDataImport excelDataImport;
 		private IndexFormatDataExchangeContext importContext;
 		private Connection connection;
+		private ValueDataImportBatch batch;
 
 		// 存储所有sheet列表，因为processRecord先处理完所有BoundSheetRecord，再处理其他
 		private List<String> _sheetNames = new ArrayList<>();
@@ -261,7 +270,6 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		private List<Object> _columnValues = null;
 		private List<Column> _columns = null;
 		private List<Column> _noNullColumns = null;
-		private PreparedStatement _statement = null;
 
 		public XlsEventListener()
 		{
@@ -269,12 +277,13 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		}
 
 		public XlsEventListener(ExcelDataImport excelDataImport, IndexFormatDataExchangeContext importContext,
-				Connection connection)
+				Connection connection, ValueDataImportBatch batch)
 		{
 			super();
 			this.excelDataImport = excelDataImport;
 			this.importContext = importContext;
 			this.connection = connection;
+			this.batch = batch;
 		}
 
 		public ExcelDataImport getExcelDataImport()
@@ -307,6 +316,16 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 			this.connection = connection;
 		}
 
+		public ValueDataImportBatch getBatch()
+		{
+			return batch;
+		}
+
+		public void setBatch(ValueDataImportBatch batch)
+		{
+			this.batch = batch;
+		}
+
 		@Override
 		public void processRecord(Record record)
 		{
@@ -471,7 +490,8 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 						throw new TableMismatchException(tableName);
 
 					String sql = buildInsertPreparedSqlUnchecked(this.connection, tableName, this._noNullColumns);
-					this._statement = createPreparedStatementUnchecked(this.connection, sql);
+					PreparedStatement statement = createPreparedStatementUnchecked(this.connection, sql);
+					setValueDataImportStatement(this.connection, this.batch, statement, this._noNullColumns);
 				}
 				// 导入数据
 				else
@@ -486,11 +506,8 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 
 						this.importContext.setDataIndex(ExcelDataIndex.valueOf(this._sheetIndex, this._rowIndex));
 
-						ExcelDataImportService.this.importValueData(this.connection, this._statement,
-								this._noNullColumns, columnValues, this.importContext.getDataIndex(),
-								this.excelDataImport.getImportOption().isNullForIllegalColumnValue(),
-								this.excelDataImport.getImportOption().getExceptionResolve(),
-								this.importContext.getDataFormatContext(), this.excelDataImport.getListener());
+						ExcelDataImportService.this.importValueData(this.connection, this.batch, columnValues,
+								this.importContext.getDataIndex());
 					}
 				}
 
@@ -518,6 +535,7 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		private ExcelDataImport excelDataImport;
 		private IndexFormatDataExchangeContext importContext;
 		private Connection connection;
+		private ValueDataImportBatch batch;
 
 		private StylesTable stylesTable;
 		private ReadOnlySharedStringsTable sharedStringsTable;
@@ -546,7 +564,6 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		private List<Object> _columnValues = new ArrayList<>();
 		private List<Column> _columns = null;
 		private List<Column> _noNullColumns = null;
-		private PreparedStatement _statement = null;
 
 		public XlsxSheetHandler()
 		{
@@ -554,13 +571,14 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 		}
 
 		public XlsxSheetHandler(ExcelDataImport excelDataImport, IndexFormatDataExchangeContext importContext,
-				Connection connection, StylesTable stylesTable, ReadOnlySharedStringsTable sharedStringsTable,
-				String sheetName, int sheetIndex)
+				Connection connection, ValueDataImportBatch batch, StylesTable stylesTable,
+				ReadOnlySharedStringsTable sharedStringsTable, String sheetName, int sheetIndex)
 		{
 			super();
 			this.excelDataImport = excelDataImport;
 			this.importContext = importContext;
 			this.connection = connection;
+			this.batch = batch;
 			this.stylesTable = stylesTable;
 			this.sharedStringsTable = sharedStringsTable;
 			this.sheetName = sheetName;
@@ -597,6 +615,16 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 			this.connection = connection;
 		}
 
+		public ValueDataImportBatch getBatch()
+		{
+			return batch;
+		}
+
+		public void setBatch(ValueDataImportBatch batch)
+		{
+			this.batch = batch;
+		}
+
 		public StylesTable getStylesTable()
 		{
 			return stylesTable;
@@ -785,7 +813,8 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 						throw new TableMismatchException(tableName);
 
 					String sql = buildInsertPreparedSqlUnchecked(this.connection, tableName, this._noNullColumns);
-					this._statement = createPreparedStatementUnchecked(this.connection, sql);
+					PreparedStatement statement = createPreparedStatementUnchecked(this.connection, sql);
+					setValueDataImportStatement(this.connection, this.batch, statement, this._noNullColumns);
 				}
 				// 导入数据
 				else
@@ -800,11 +829,8 @@ public class ExcelDataImportService extends AbstractDevotedDBMetaDataExchangeSer
 
 						this.importContext.setDataIndex(ExcelDataIndex.valueOf(this.sheetIndex, this._rowIndex));
 
-						ExcelDataImportService.this.importValueData(this.connection, this._statement,
-								this._noNullColumns, columnValues, this.importContext.getDataIndex(),
-								this.excelDataImport.getImportOption().isNullForIllegalColumnValue(),
-								this.excelDataImport.getImportOption().getExceptionResolve(),
-								this.importContext.getDataFormatContext(), this.excelDataImport.getListener());
+						ExcelDataImportService.this.importValueData(this.connection, this.batch, columnValues,
+								this.importContext.getDataIndex());
 					}
 				}
 
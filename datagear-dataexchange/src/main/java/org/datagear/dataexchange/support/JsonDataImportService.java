@@ -37,6 +37,7 @@ import org.datagear.dataexchange.DataExchangeContext;
 import org.datagear.dataexchange.DataExchangeException;
 import org.datagear.dataexchange.IndexFormatDataExchangeContext;
 import org.datagear.dataexchange.RowColumnDataIndex;
+import org.datagear.dataexchange.ValueDataImportBatch;
 import org.datagear.meta.Column;
 import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.util.JdbcUtil;
@@ -98,6 +99,8 @@ public class JsonDataImportService extends AbstractDevotedDBMetaDataExchangeServ
 		JdbcUtil.setReadonlyIfSupports(cn, false);
 
 		JsonParser p = Json.createParser(jsonReader);
+		ValueDataImportBatch batch = createValueDataImportBatch(dataExchange.getImportOption(),
+				importContext.getDataFormatContext(), dataExchange.getListener());
 
 		if (p.hasNext())
 		{
@@ -124,7 +127,7 @@ public class JsonDataImportService extends AbstractDevotedDBMetaDataExchangeServ
 					if (table == null)
 						throw new IllegalJsonDataFormatException(p.getLocation(), true, Event.KEY_NAME);
 
-					importJsonArray(dataExchange, importContext, cn, p, table);
+					importJsonArray(dataExchange, importContext, cn, p, table, batch);
 					table = null;
 				}
 				else
@@ -157,6 +160,8 @@ public class JsonDataImportService extends AbstractDevotedDBMetaDataExchangeServ
 		JdbcUtil.setAutoCommitIfSupports(cn, false);
 
 		JsonParser p = Json.createParser(jsonReader);
+		ValueDataImportBatch batch = createValueDataImportBatch(dataExchange.getImportOption(),
+				importContext.getDataFormatContext(), dataExchange.getListener());
 
 		if (p.hasNext())
 		{
@@ -165,7 +170,7 @@ public class JsonDataImportService extends AbstractDevotedDBMetaDataExchangeServ
 			if (!Event.START_ARRAY.equals(event))
 				throw new IllegalJsonDataFormatException(p.getLocation(), true, Event.START_ARRAY);
 
-			importJsonArray(dataExchange, importContext, cn, p, table);
+			importJsonArray(dataExchange, importContext, cn, p, table, batch);
 		}
 
 		commit(cn);
@@ -179,14 +184,13 @@ public class JsonDataImportService extends AbstractDevotedDBMetaDataExchangeServ
 	 * @param cn
 	 * @param p
 	 * @param table
+	 * @param batch
 	 * @throws Throwable
 	 */
 	@SuppressWarnings("unchecked")
 	protected void importJsonArray(JsonDataImport dataExchange, IndexFormatDataExchangeContext context, Connection cn,
-			JsonParser p, String table) throws Throwable
+			JsonParser p, String table, ValueDataImportBatch batch) throws Throwable
 	{
-		JsonDataImportOption importOption = dataExchange.getImportOption();
-
 		List<Column> totalColumns = getColumns(cn, table);
 
 		PreparedStatement prevSt = null;
@@ -225,20 +229,22 @@ public class JsonDataImportService extends AbstractDevotedDBMetaDataExchangeServ
 
 				if (newSql)
 				{
+					executeValueDataImportBatch(cn, batch);
 					JdbcUtil.closeStatement(prevSt);
 
 					String sql = buildInsertPreparedSql(cn, table, myColumns);
 
 					prevSt = cn.prepareStatement(sql);
 					prevColumns = myColumns;
+
+					setValueDataImportStatement(cn, batch, prevSt, prevColumns);
 				}
 
-				importValueData(cn, prevSt, prevColumns, myColumnValues, context.getDataIndex(),
-						importOption.isNullForIllegalColumnValue(), importOption.getExceptionResolve(),
-						context.getDataFormatContext(), dataExchange.getListener());
+				importValueData(cn, batch, myColumnValues, context.getDataIndex());
 			}
 		}
 
+		executeValueDataImportBatch(cn, batch);
 		JdbcUtil.closeStatement(prevSt);
 	}
 
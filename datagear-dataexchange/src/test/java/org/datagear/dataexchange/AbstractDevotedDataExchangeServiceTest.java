@@ -0,0 +1,178 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.dataexchange;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.datagear.meta.Column;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@linkplain AbstractDevotedDataExchangeService}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class AbstractDevotedDataExchangeServiceTest
+{
+	private AbstractDevotedDataExchangeService<DataExchange> service = new AbstractDevotedDataExchangeService<DataExchange>()
+	{
+		@Override
+		protected void exchange(DataExchange dataExchange, DataExchangeContext context) throws Throwable
+		{
+		}
+	};
+
+	@Test
+	public void getFailedBatchIndexTest()
+	{
+		Assert.assertEquals(-1, service.getFailedBatchIndex(null, 3));
+		Assert.assertEquals(1, service.getFailedBatchIndex(new int[] { 1 }, 3));
+		Assert.assertEquals(2, service.getFailedBatchIndex(new int[] { 1, 1, Statement.EXECUTE_FAILED }, 3));
+		Assert.assertEquals(-1, service.getFailedBatchIndex(new int[] { 1, 1, 1 }, 3));
+	}
+
+	@Test
+	public void executeValueDataImportBatchTest_ignoreWithoutSavepoint()
+	{
+		AtomicInteger executeUpdateCount = new AtomicInteger(0);
+
+		// 不支持Savepoint、且没有更新数目时，无法确定已导入的数据，应中止而不是逐条重新导入全部数据
+		ValueDataImportBatch batch = createBatch(new SQLException("error"), executeUpdateCount);
+
+		try
+		{
+			service.executeValueDataImportBatch(connection(false), batch);
+			Assert.fail();
+		}
+		catch (ExecuteDataImportSqlException e)
+		{
+			Assert.assertEquals(0, ((RowDataIndex) e.getDataIndex()).getRow());
+		}
+
+		Assert.assertEquals(0, executeUpdateCount.get());
+		Assert.assertEquals(0, batch.size());
+	}
+
+	@Test
+	public void executeValueDataImportBatchTest_ignoreWithUpdateCounts()
+	{
+		AtomicInteger executeUpdateCount = new AtomicInteger(0);
+
+		// 驱动程序在第二条数据处停止执行，仅需重新导入之后的数据
+		ValueDataImportBatch batch = createBatch(new BatchUpdateException("error", new int[] { 1 }),
+				executeUpdateCount);
+
+		service.executeValueDataImportBatch(connection(false), batch);
+
+		Assert.assertEquals(2, executeUpdateCount.get());
+	}
+
+	@Test
+	public void executeValueDataImportBatchTest_ignoreWithSavepoint()
+	{
+		AtomicInteger executeUpdateCount = new AtomicInteger(0);
+
+		// 回滚至Savepoint后，逐条重新导入全部数据
+		ValueDataImportBatch batch = createBatch(new SQLException("error"), executeUpdateCount);
+
+		service.executeValueDataImportBatch(connection(true), batch);
+
+		Assert.assertEquals(3, executeUpdateCount.get());
+	}
+
+	protected ValueDataImportBatch createBatch(final SQLException executeBatchException,
+			final AtomicInteger executeUpdateCount)
+	{
+		ValueDataImportOption option = new ValueDataImportOption(ExceptionResolve.IGNORE, true, true);
+		option.setBatchSize(3);
+
+		PreparedStatement st = proxy(PreparedStatement.class, new InvocationHandler()
+		{
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+			{
+				if ("executeBatch".equals(method.getName()))
+					throw executeBatchException;
+				else if ("executeUpdate".equals(method.getName()))
+				{
+					executeUpdateCount.incrementAndGet();
+					return 1;
+				}
+				else
+					return null;
+			}
+		});
+
+		ValueDataImportBatch batch = new ValueDataImportBatch(option, null, null);
+		batch.setStatement(st, new ArrayList<Column>());
+
+		for (int i = 0; i < 3; i++)
+			batch.add(RowDataIndex.valueOf(i), Collections.emptyList());
+
+		return batch;
+	}
+
+	protected Connection connection(final boolean supportsSavepoint)
+	{
+		final Savepoint savepoint = proxy(Savepoint.class, new InvocationHandler()
+		{
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+			{
+				return null;
+			}
+		});
+
+		return proxy(Connection.class, new InvocationHandler()
+		{
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+			{
+				if ("setSavepoint".equals(method.getName()))
+				{
+					if (supportsSavepoint)
+						return savepoint;
+					else
+						throw new SQLFeatureNotSupportedException();
+				}
+				else
+					return null;
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <T> T proxy(Class<T> type, InvocationHandler handler)
+	{
+		return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type }, handler);
+	}
+}
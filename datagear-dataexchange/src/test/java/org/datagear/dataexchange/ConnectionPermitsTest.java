@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.dataexchange;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@linkplain ConnectionPermits}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class ConnectionPermitsTest
+{
+	@Test
+	public void tryAcquireTest()
+	{
+		ConnectionPermits permits = new ConnectionPermits(2);
+
+		Assert.assertTrue(permits.tryAcquire());
+		Assert.assertTrue(permits.tryAcquire());
+		Assert.assertFalse(permits.tryAcquire());
+		Assert.assertEquals(0, permits.getAvailable());
+
+		permits.release();
+		Assert.assertEquals(1, permits.getAvailable());
+		Assert.assertTrue(permits.tryAcquire());
+	}
+
+	@Test
+	public void tryAcquireTest_waiter()
+	{
+		ConnectionPermits permits = new ConnectionPermits(1);
+		final AtomicInteger callCount = new AtomicInteger(0);
+
+		Runnable waiter = new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				callCount.incrementAndGet();
+			}
+		};
+
+		Assert.assertTrue(permits.tryAcquire(waiter));
+		Assert.assertFalse(permits.tryAcquire(waiter));
+		Assert.assertFalse(permits.tryAcquire(waiter));
+		Assert.assertEquals(0, callCount.get());
+
+		// 重复登记的等待者仅回调一次
+		permits.release();
+		Assert.assertEquals(1, callCount.get());
+
+		// 已回调的等待者不再保留
+		Assert.assertTrue(permits.tryAcquire());
+		permits.release();
+		Assert.assertEquals(1, callCount.get());
+	}
+
+	@Test
+	public void tryAcquireTest_timeout() throws Exception
+	{
+		final ConnectionPermits permits = new ConnectionPermits(1);
+
+		Assert.assertTrue(permits.tryAcquire(10, TimeUnit.MILLISECONDS));
+		Assert.assertFalse(permits.tryAcquire(10, TimeUnit.MILLISECONDS));
+
+		Thread releaser = new Thread(() ->
+		{
+			try
+			{
+				Thread.sleep(50);
+			}
+			catch (InterruptedException e)
+			{
+			}
+
+			permits.release();
+		});
+		releaser.start();
+
+		Assert.assertTrue(permits.tryAcquire(5, TimeUnit.SECONDS));
+		Assert.assertEquals(0, permits.getAvailable());
+
+		releaser.join();
+	}
+}
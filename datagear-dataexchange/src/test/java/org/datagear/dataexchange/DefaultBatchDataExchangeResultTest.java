@@ -0,0 +1,351 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.dataexchange;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@linkplain DefaultBatchDataExchangeResult}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DefaultBatchDataExchangeResultTest
+{
+	@Test
+	public void submitTest_maxConcurrency() throws Throwable
+	{
+		ExecutorService executorService = Executors.newCachedThreadPool();
+
+		try
+		{
+			TestDataExchangeService service = new TestDataExchangeService(50);
+
+			Set<SubDataExchange> subDataExchanges = new HashSet<>();
+
+			for (int i = 0; i < 10; i++)
+			{
+				SubDataExchange sub = new SubDataExchange("sub-" + i, new TestDataExchange("sub-" + i));
+				sub.setEstimatedSize(i);
+				subDataExchanges.add(sub);
+			}
+
+			DefaultBatchDataExchangeResult result = new DefaultBatchDataExchangeResult(subDataExchanges, service,
+					executorService);
+			result.setMaxConcurrency(3);
+
+			Set<SubDataExchange> submits = result.submit();
+
+			Assert.assertEquals(3, submits.size());
+
+			result.waitForFinish();
+
+			Assert.assertEquals(10, result.getFinishes().size());
+			Assert.assertTrue(service.getMaxRunning() <= 3);
+
+			// 预估数据量大的优先执行
+			List<String> executeds = service.getExecuteds();
+			Set<String> firsts = new HashSet<>(executeds.subList(0, 3));
+			Assert.assertTrue(firsts.contains("sub-9"));
+			Assert.assertTrue(firsts.contains("sub-8"));
+			Assert.assertTrue(firsts.contains("sub-7"));
+			Assert.assertTrue(executeds.indexOf("sub-0") >= 7);
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+
+	@Test
+	public void submitTest_connectionPermits() throws Throwable
+	{
+		ExecutorService executorService = Executors.newCachedThreadPool();
+
+		try
+		{
+			TestDataExchangeService service = new TestDataExchangeService(50);
+
+			Set<SubDataExchange> subDataExchanges = new HashSet<>();
+
+			for (int i = 0; i < 6; i++)
+				subDataExchanges.add(new SubDataExchange("sub-" + i, new TestDataExchange("sub-" + i)));
+
+			DefaultBatchDataExchangeResult result = new DefaultBatchDataExchangeResult(subDataExchanges, service,
+					executorService);
+			result.setConnectionPermits(new ConnectionPermits(2));
+
+			result.submit();
+			result.waitForFinish();
+
+			Assert.assertEquals(6, result.getFinishes().size());
+			Assert.assertTrue(service.getMaxRunning() <= 2);
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+
+	@Test
+	public void submitTest_connectionPermits_notOccupyWorkers() throws Throwable
+	{
+		ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+		try
+		{
+			TestDataExchangeService service = new TestDataExchangeService(100);
+
+			Set<SubDataExchange> subDataExchanges0 = new HashSet<>();
+			for (int i = 0; i < 4; i++)
+				subDataExchanges0.add(new SubDataExchange("sub0-" + i, new TestDataExchange("sub0-" + i)));
+
+			DefaultBatchDataExchangeResult result0 = new DefaultBatchDataExchangeResult(subDataExchanges0, service,
+					executorService);
+			result0.setConnectionPermits(new ConnectionPermits(1));
+
+			Set<SubDataExchange> subDataExchanges1 = new HashSet<>();
+			subDataExchanges1.add(new SubDataExchange("sub1-0", new TestDataExchange("sub1-0")));
+
+			DefaultBatchDataExchangeResult result1 = new DefaultBatchDataExchangeResult(subDataExchanges1, service,
+					executorService);
+
+			// 没有许可的子数据交换不应提交，也就不会占用工作线程等待许可
+			Assert.assertEquals(1, result0.submit().size());
+			Assert.assertEquals(3, result0.getUnsubmits().size());
+
+			result1.submit();
+			result1.waitForFinish();
+
+			Assert.assertTrue(result0.getFinishes().size() < 4);
+
+			result0.waitForFinish();
+
+			Assert.assertEquals(4, result0.getFinishes().size());
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+
+	@Test
+	public void submitTest_connectionPermits_sharedByResults() throws Throwable
+	{
+		ExecutorService executorService = Executors.newCachedThreadPool();
+
+		try
+		{
+			TestDataExchangeService service = new TestDataExchangeService(30);
+			ConnectionPermits permits = new ConnectionPermits(1);
+
+			List<DefaultBatchDataExchangeResult> results = new ArrayList<>();
+
+			for (int i = 0; i < 3; i++)
+			{
+				Set<SubDataExchange> subDataExchanges = new HashSet<>();
+
+				for (int j = 0; j < 3; j++)
+				{
+					String id = "sub" + i + "-" + j;
+					subDataExchanges.add(new SubDataExchange(id, new TestDataExchange(id)));
+				}
+
+				DefaultBatchDataExchangeResult result = new DefaultBatchDataExchangeResult(subDataExchanges, service,
+						executorService);
+				result.setConnectionPermits(permits);
+				results.add(result);
+			}
+
+			for (DefaultBatchDataExchangeResult result : results)
+				result.submit();
+
+			// 其他批量数据交换释放许可后，等待中的应被唤醒提交
+			for (DefaultBatchDataExchangeResult result : results)
+			{
+				result.waitForFinish();
+				Assert.assertEquals(3, result.getFinishes().size());
+			}
+
+			Assert.assertEquals(1, service.getMaxRunning());
+			Assert.assertEquals(1, permits.getAvailable());
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+
+	@Test
+	public void cancelTest_waitingConnectionPermit() throws Throwable
+	{
+		ExecutorService executorService = Executors.newCachedThreadPool();
+
+		try
+		{
+			TestDataExchangeService service = new TestDataExchangeService(100);
+
+			SubDataExchange sub0 = new SubDataExchange("sub-0", new TestDataExchange("sub-0"));
+			SubDataExchange sub1 = new SubDataExchange("sub-1", new TestDataExchange("sub-1"));
+			sub0.setEstimatedSize(1);
+
+			Set<SubDataExchange> subDataExchanges = new HashSet<>();
+			subDataExchanges.add(sub0);
+			subDataExchanges.add(sub1);
+
+			DefaultBatchDataExchangeResult result = new DefaultBatchDataExchangeResult(subDataExchanges, service,
+					executorService);
+			ConnectionPermits permits = new ConnectionPermits(1);
+			result.setConnectionPermits(permits);
+
+			result.submit();
+
+			// 等待许可的子数据交换可以取消
+			result.cancel("sub-1");
+			result.waitForFinish();
+
+			Assert.assertEquals(Collections.singleton(sub0), result.getFinishes());
+			Assert.assertEquals(Collections.singleton(sub1), result.getCancelleds());
+			Assert.assertEquals(1, permits.getAvailable());
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+
+	@Test
+	public void submitTest_dependency() throws Throwable
+	{
+		ExecutorService executorService = Executors.newCachedThreadPool();
+
+		try
+		{
+			TestDataExchangeService service = new TestDataExchangeService(20);
+
+			SubDataExchange sub0 = new SubDataExchange("sub-0", new TestDataExchange("sub-0"));
+			SubDataExchange sub1 = new SubDataExchange("sub-1", new TestDataExchange("sub-1"));
+			SubDataExchange sub2 = new SubDataExchange("sub-2", new TestDataExchange("sub-2"));
+
+			// 依赖优先于预估数据量
+			sub1.setEstimatedSize(100);
+			sub1.setDependencies(Collections.singleton(sub0));
+
+			Set<SubDataExchange> subDataExchanges = new HashSet<>();
+			subDataExchanges.add(sub0);
+			subDataExchanges.add(sub1);
+			subDataExchanges.add(sub2);
+
+			DefaultBatchDataExchangeResult result = new DefaultBatchDataExchangeResult(subDataExchanges, service,
+					executorService);
+			result.setMaxConcurrency(1);
+
+			result.submit();
+			result.waitForFinish();
+
+			List<String> executeds = service.getExecuteds();
+
+			Assert.assertEquals(3, executeds.size());
+			Assert.assertTrue(executeds.indexOf("sub-0") < executeds.indexOf("sub-1"));
+		}
+		finally
+		{
+			executorService.shutdown();
+		}
+	}
+
+	protected static class TestDataExchange extends DataExchange
+	{
+		private final String id;
+
+		public TestDataExchange(String id)
+		{
+			super();
+			this.id = id;
+		}
+
+		public String getId()
+		{
+			return id;
+		}
+	}
+
+	protected static class TestDataExchangeService implements DataExchangeService<DataExchange>
+	{
+		private final long sleep;
+
+		private final AtomicInteger running = new AtomicInteger(0);
+
+		private final AtomicInteger maxRunning = new AtomicInteger(0);
+
+		private final List<String> executeds = Collections.synchronizedList(new ArrayList<String>());
+
+		public TestDataExchangeService(long sleep)
+		{
+			super();
+			this.sleep = sleep;
+		}
+
+		public int getMaxRunning()
+		{
+			return maxRunning.get();
+		}
+
+		public List<String> getExecuteds()
+		{
+			return new ArrayList<String>(executeds);
+		}
+
+		@Override
+		public void exchange(DataExchange dataExchange) throws DataExchangeException
+		{
+			executeds.add(((TestDataExchange) dataExchange).getId());
+
+			int now = running.incrementAndGet();
+
+			synchronized (maxRunning)
+			{
+				if (now > maxRunning.get())
+					maxRunning.set(now);
+			}
+
+			try
+			{
+				Thread.sleep(sleep);
+			}
+			catch (InterruptedException e)
+			{
+				throw new DataExchangeException(e);
+			}
+			finally
+			{
+				running.decrementAndGet();
+			}
+		}
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.dataexchange;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@linkplain ValueDataImportBatch}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class ValueDataImportBatchTest
+{
+	@Test
+	public void addTest_reuseColumnValues()
+	{
+		ValueDataImportOption option = new ValueDataImportOption(ExceptionResolve.IGNORE, true, true);
+		option.setBatchSize(3);
+
+		ValueDataImportBatch batch = new ValueDataImportBatch(option, null, null);
+
+		// 模拟xlsx读取时复用同一个列值列表
+		List<Object> columnValues = new ArrayList<>();
+
+		for (int i = 0; i < 3; i++)
+		{
+			columnValues.clear();
+			columnValues.add(i);
+			columnValues.add("NAME-" + i);
+
+			Assert.assertFalse(batch.isFull());
+			batch.add(RowDataIndex.valueOf(i), columnValues);
+		}
+
+		Assert.assertTrue(batch.isFull());
+		Assert.assertEquals(3, batch.size());
+
+		for (int i = 0; i < 3; i++)
+		{
+			Assert.assertEquals(i, ((RowDataIndex) batch.getDataIndex(i)).getRow());
+			Assert.assertEquals(Arrays.asList(i, "NAME-" + i), batch.getColumnValues(i));
+		}
+
+		batch.clear();
+		Assert.assertEquals(0, batch.size());
+	}
+
+	@Test
+	public void addUncommittedCountTest()
+	{
+		ValueDataImportOption option = new ValueDataImportOption(ExceptionResolve.ABORT, true, true);
+
+		ValueDataImportBatch batch = new ValueDataImportBatch(option, null, null);
+
+		Assert.assertFalse(batch.addUncommittedCount(1000));
+
+		option.setCommitInterval(5);
+		batch.resetUncommittedCount();
+
+		Assert.assertFalse(batch.addUncommittedCount(2));
+		Assert.assertFalse(batch.addUncommittedCount(2));
+		Assert.assertTrue(batch.addUncommittedCount(2));
+		Assert.assertEquals(6, batch.getUncommittedCount());
+
+		batch.resetUncommittedCount();
+		Assert.assertEquals(0, batch.getUncommittedCount());
+		Assert.assertTrue(batch.addUncommittedCount(5));
+	}
+}
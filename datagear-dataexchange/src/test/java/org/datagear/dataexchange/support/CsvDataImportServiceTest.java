@@ -19,6 +19,12 @@ package org.datagear.dataexchange.support;
 
 import java.io.Reader;
 import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.datagear.dataexchange.ColumnNotFoundException;
@@ -224,6 +230,172 @@ public class CsvDataImportServiceTest extends DataexchangeTestSupport
 		});
 	}
 
+	@Test
+	public void exchangeTest_batch() throws Exception
+	{
+		DataFormat dataFormat = new DataFormat();
+
+		Connection cn = null;
+
+		try
+		{
+			cn = getConnection();
+
+			ResourceFactory<Reader> readerFactory = getTestReaderResourceFactory(
+					"support/CsvDataImportServiceTest_batch.csv");
+
+			final AtomicInteger successCount = new AtomicInteger(0);
+
+			ValueDataImportOption valueDataImportOption = new ValueDataImportOption(ExceptionResolve.ABORT, true,
+					true);
+			valueDataImportOption.setBatchSize(2);
+
+			CsvDataImport impt = new CsvDataImport(new SimpleConnectionFactory(cn, false), dataFormat,
+					valueDataImportOption, TABLE_NAME_DATA_IMPORT, readerFactory);
+
+			impt.setListener(new MockValueDataImportListener()
+			{
+				@Override
+				public void onSuccess(DataIndex dataIndex)
+				{
+					super.onSuccess(dataIndex);
+					successCount.incrementAndGet();
+				}
+			});
+
+			clearTable(cn, TABLE_NAME_DATA_IMPORT);
+
+			this.csvDataImportService.exchange(impt);
+
+			Assert.assertEquals(5, getCount(cn, TABLE_NAME_DATA_IMPORT));
+			Assert.assertEquals(5, successCount.intValue());
+			Assert.assertEquals(Arrays.asList("NAME-1", "NAME-2", "NAME-3", "NAME-4", "NAME-5"), getImportNames(cn));
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@Test
+	public void exchangeTest_batch_ExceptionResolve_ignore() throws Exception
+	{
+		DataFormat dataFormat = new DataFormat();
+
+		Connection cn = null;
+
+		try
+		{
+			cn = getConnection();
+
+			// 第三行主键重复，批处理执行出错后应逐条重新导入并仅忽略此行
+			ResourceFactory<Reader> readerFactory = getTestReaderResourceFactory(
+					"support/CsvDataImportServiceTest_batch_duplicateKey.csv");
+
+			final AtomicInteger successCount = new AtomicInteger(0);
+			final List<DataIndex> ignoreIndexes = new ArrayList<>();
+
+			ValueDataImportOption valueDataImportOption = new ValueDataImportOption(ExceptionResolve.IGNORE, true,
+					true);
+			valueDataImportOption.setBatchSize(10);
+
+			CsvDataImport impt = new CsvDataImport(new SimpleConnectionFactory(cn, false), dataFormat,
+					valueDataImportOption, TABLE_NAME_DATA_IMPORT, readerFactory);
+
+			impt.setListener(new MockValueDataImportListener()
+			{
+				@Override
+				public void onSuccess(DataIndex dataIndex)
+				{
+					super.onSuccess(dataIndex);
+					successCount.incrementAndGet();
+				}
+
+				@Override
+				public void onIgnore(DataIndex dataIndex, DataExchangeException e)
+				{
+					super.onIgnore(dataIndex, e);
+					ignoreIndexes.add(dataIndex);
+				}
+			});
+
+			clearTable(cn, TABLE_NAME_DATA_IMPORT);
+
+			this.csvDataImportService.exchange(impt);
+
+			Assert.assertEquals(4, getCount(cn, TABLE_NAME_DATA_IMPORT));
+			Assert.assertEquals(4, successCount.intValue());
+			Assert.assertEquals(1, ignoreIndexes.size());
+			Assert.assertEquals(Arrays.asList("NAME-1", "NAME-2", "NAME-4", "NAME-5"), getImportNames(cn));
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@Test
+	public void exchangeTest_commitInterval() throws Exception
+	{
+		DataFormat dataFormat = new DataFormat();
+
+		Connection cn = null;
+		Connection readCn = null;
+
+		try
+		{
+			cn = getConnection();
+			cn.setAutoCommit(false);
+
+			clearTable(cn, TABLE_NAME_DATA_IMPORT);
+			cn.commit();
+
+			ResourceFactory<Reader> readerFactory = getTestReaderResourceFactory(
+					"support/CsvDataImportServiceTest_batch.csv");
+
+			ValueDataImportOption valueDataImportOption = new ValueDataImportOption(ExceptionResolve.ABORT, true,
+					true);
+			valueDataImportOption.setBatchSize(1);
+			valueDataImportOption.setCommitInterval(2);
+
+			// 使用不提交的连接工厂，仅达到提交间隔的数据对其他连接可见
+			CsvDataImport impt = new CsvDataImport(new SimpleConnectionFactory(cn, false), dataFormat,
+					valueDataImportOption, TABLE_NAME_DATA_IMPORT, readerFactory);
+
+			readCn = getConnection();
+			final Connection countCn = readCn;
+			final List<Integer> committedCounts = new ArrayList<>();
+
+			impt.setListener(new MockValueDataImportListener()
+			{
+				@Override
+				public void onSuccess(DataIndex dataIndex)
+				{
+					super.onSuccess(dataIndex);
+
+					try
+					{
+						committedCounts.add(getCount(countCn, TABLE_NAME_DATA_IMPORT));
+					}
+					catch (SQLException e)
+					{
+						throw new RuntimeException(e);
+					}
+				}
+			});
+
+			this.csvDataImportService.exchange(impt);
+
+			// 第n条导入成功回调时，仅之前已达到提交间隔的数据可见
+			Assert.assertEquals(Arrays.asList(0, 0, 2, 2, 4), committedCounts);
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(readCn);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
 	@Test
 	public void exchangeTest_unsigned_number() throws Exception
 	{
@@ -279,4 +451,28 @@ public class CsvDataImportServiceTest extends DataexchangeTestSupport
 			IOUtil.close(reader);
 		}
 	}
+
+	protected List<String> getImportNames(Connection cn) throws SQLException
+	{
+		Statement st = null;
+		ResultSet rs = null;
+
+		try
+		{
+			st = cn.createStatement();
+			rs = st.executeQuery("select NAME from " + TABLE_NAME_DATA_IMPORT + " order by ID");
+
+			List<String> names = new ArrayList<>();
+
+			while (rs.next())
+				names.add(rs.getString(1));
+
+			return names;
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(st);
+		}
+	}
 }
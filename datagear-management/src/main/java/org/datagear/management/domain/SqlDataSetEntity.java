@@ -110,6 +110,18 @@ public class SqlDataSetEntity extends SqlDataSet implements DataSetEntity, Clone
 		setConnectionFactory(schemaConnectionFactory);
 	}
 
+	/**
+	 * 返回数据源ID，使得数据源连接工厂对象的不同实例也可共享结果缓存。
+	 */
+	@Override
+	protected Object getResultCacheConnectionKey()
+	{
+		SchemaConnectionFactory connectionFactory = getConnectionFactory();
+		Schema schema = (connectionFactory == null ? null : connectionFactory.getSchema());
+
+		return (schema == null ? null : schema.getId());
+	}
+
 	@Override
 	public String getDataSetType()
 	{
@@ -25,6 +25,7 @@ import org.datagear.analysis.support.ProfileDataSet;
 import org.datagear.analysis.support.SqlDataSet;
 import org.datagear.management.domain.DataSetEntity;
 import org.datagear.management.domain.User;
+import org.datagear.util.JdbcSupport;
 import org.datagear.util.sqlvalidator.SqlValidator;
 
 /**
@@ -44,6 +45,15 @@ public interface DataSetEntityService extends DataPermissionEntityService<String
 	 */
 	DataSet getDataSet(String id);
 
+	/**
+	 * 删除指定ID的{@linkplain SqlDataSet}结果缓存。
+	 * 
+	 * @param user
+	 * @param id
+	 * @throws PermissionDeniedException
+	 */
+	void evictResultCache(User user, String id) throws PermissionDeniedException;
+
 	/**
 	 * 获取指定ID的{@linkplain ProfileDataSet}。
 	 * 
@@ -74,4 +84,11 @@ public interface DataSetEntityService extends DataPermissionEntityService<String
 	 * @return {@code null}表示没有
 	 */
 	SqlValidator getSqlDataSetSqlValidator();
+
+	/**
+	 * 获取{@linkplain SqlDataSet}执行SQL的{@linkplain JdbcSupport}。
+	 * 
+	 * @return {@code null}表示使用默认的
+	 */
+	JdbcSupport getSqlDataSetJdbcSupport();
 }
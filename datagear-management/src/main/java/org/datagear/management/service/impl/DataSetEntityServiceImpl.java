@@ -29,9 +29,11 @@ import org.datagear.analysis.DataSetParam;
 import org.datagear.analysis.DataSetProperty;
 import org.datagear.analysis.support.AbstractResolvableResourceDataSet;
 import org.datagear.analysis.support.ProfileDataSet;
+import org.datagear.analysis.support.SqlDataSet;
 import org.datagear.connection.ConnectionSource;
 import org.datagear.management.domain.AnalysisProject;
 import org.datagear.management.domain.AnalysisProjectAwareEntity;
+import org.datagear.management.domain.Authorization;
 import org.datagear.management.domain.CsvFileDataSetEntity;
 import org.datagear.management.domain.CsvValueDataSetEntity;
 import org.datagear.management.domain.DataSetEntity;
@@ -57,6 +59,7 @@ import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.util.CacheService;
 import org.datagear.util.FileUtil;
+import org.datagear.util.JdbcSupport;
 import org.datagear.util.StringUtil;
 import org.datagear.util.sqlvalidator.SqlValidator;
 import org.mybatis.spring.SqlSessionTemplate;
@@ -89,8 +92,14 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 
 	private CacheService dataSetResourceDataCacheService = null;
 
+	private CacheService dataSetResultCacheService = null;
+
+	private CacheService sqlDataSetResultCacheService = null;
+
 	private SqlValidator sqlDataSetSqlValidator;
 
+	private JdbcSupport sqlDataSetJdbcSupport = null;
+
 	public DataSetEntityServiceImpl()
 	{
 		super();
@@ -211,6 +220,26 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 		this.dataSetResourceDataCacheService = dataSetResourceDataCacheService;
 	}
 
+	public CacheService getDataSetResultCacheService()
+	{
+		return dataSetResultCacheService;
+	}
+
+	public void setDataSetResultCacheService(CacheService dataSetResultCacheService)
+	{
+		this.dataSetResultCacheService = dataSetResultCacheService;
+	}
+
+	public CacheService getSqlDataSetResultCacheService()
+	{
+		return sqlDataSetResultCacheService;
+	}
+
+	public void setSqlDataSetResultCacheService(CacheService sqlDataSetResultCacheService)
+	{
+		this.sqlDataSetResultCacheService = sqlDataSetResultCacheService;
+	}
+
 	@Override
 	public SqlValidator getSqlDataSetSqlValidator()
 	{
@@ -222,6 +251,17 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 		this.sqlDataSetSqlValidator = sqlDataSetSqlValidator;
 	}
 
+	@Override
+	public JdbcSupport getSqlDataSetJdbcSupport()
+	{
+		return sqlDataSetJdbcSupport;
+	}
+
+	public void setSqlDataSetJdbcSupport(JdbcSupport sqlDataSetJdbcSupport)
+	{
+		this.sqlDataSetJdbcSupport = sqlDataSetJdbcSupport;
+	}
+
 	@Override
 	public File getDataSetDirectory(String dataSetId)
 	{
@@ -245,14 +285,31 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 			}
 
 			sqlDataSetEntity.setSqlValidator(this.sqlDataSetSqlValidator);
+			sqlDataSetEntity.setResultCacheService(this.sqlDataSetResultCacheService);
+			sqlDataSetEntity.setJdbcSupport(this.sqlDataSetJdbcSupport);
 		}
 
 		if (entity instanceof AbstractResolvableResourceDataSet<?>)
-			((AbstractResolvableResourceDataSet<?>) entity).setCacheService(getDataSetResourceDataCacheService());
+		{
+			AbstractResolvableResourceDataSet<?> resourceDataSet = (AbstractResolvableResourceDataSet<?>) entity;
+			resourceDataSet.setCacheService(getDataSetResourceDataCacheService());
+			resourceDataSet.setResultCacheService(getDataSetResultCacheService());
+		}
 
 		return entity;
 	}
 	
+	@Override
+	public void evictResultCache(User user, String id) throws PermissionDeniedException
+	{
+		int permission = getPermission(user, id);
+
+		if (!Authorization.canEdit(permission))
+			throw new PermissionDeniedException();
+
+		SqlDataSet.evictResultCache(this.sqlDataSetResultCacheService, id);
+	}
+
 	@Override
 	public ProfileDataSet getProfileDataSet(User user, String id)
 	{
@@ -401,6 +458,9 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 		if (success)
 			saveDataSetChildren(entity);
 
+		if (entity instanceof SqlDataSetEntity)
+			SqlDataSet.evictResultCache(this.sqlDataSetResultCacheService, entity.getId());
+
 		return success;
 	}
 
@@ -460,6 +520,17 @@ public class DataSetEntityServiceImpl extends AbstractMybatisDataPermissionEntit
 		return (updateMybatis("updateHttpDataSetEntity", params) > 0);
 	}
 
+	@Override
+	protected boolean deleteById(String id, Map<String, Object> params)
+	{
+		boolean deleted = super.deleteById(id, params);
+
+		if (deleted)
+			SqlDataSet.evictResultCache(this.sqlDataSetResultCacheService, id);
+
+		return deleted;
+	}
+
 	@Override
 	public String getResourceType()
 	{
@@ -505,3 +505,15 @@ ALTER TABLE DATAGEAR_DATA_SET_PROP ADD COLUMN PROP_EXPRESSION VARCHAR(1000);
 --version[4.5.1], DO NOT EDIT THIS LINE!
 -----------------------------------------
 
+
+
+-----------------------------------------
+--version[4.6.0], DO NOT EDIT THIS LINE!
+-----------------------------------------
+
+--2026-10-17
+--SQL数据集结果缓存有效期
+ALTER TABLE DATAGEAR_DATA_SET_SQL ADD COLUMN DS_RESULT_CACHE_TTL INTEGER;
+
+--HTTP数据集超时秒数
+ALTER TABLE DATAGEAR_DATA_SET_HTTP ADD COLUMN DS_TIMEOUT INTEGER;
@@ -28,8 +28,10 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.datagear.connection.ConnectionOption;
 import org.datagear.meta.Column;
@@ -64,11 +66,49 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 
 	protected static final String[] EMPTY_STRING_ARRAY = new String[0];
 
+	/** 默认批量加载表数阈值 */
+	public static final int DEFAULT_BULK_LOAD_THRESHOLD = 10;
+
+	/**
+	 * 批量加载表数阈值，{@linkplain #getTables(Connection, String...)}的表数达到此值时，
+	 * 将一次性读取所有表元信息，而不是逐表读取
+	 */
+	private int bulkLoadThreshold = DEFAULT_BULK_LOAD_THRESHOLD;
+
+	/** 默认批量加载列元信息的表数比例 */
+	public static final double DEFAULT_BULK_LOAD_RATIO = 0.3;
+
+	/**
+	 * 批量加载列元信息的表数比例，批量加载时，要读取的表数占所有表数的比例达到此值，才一次性读取所有列元信息，
+	 * 否则逐表读取列元信息，避免为少数几个表读取大库的所有列
+	 */
+	private double bulkLoadRatio = DEFAULT_BULK_LOAD_RATIO;
+
 	public AbstractDevotedDBMetaResolver()
 	{
 		super();
 	}
 
+	public int getBulkLoadThreshold()
+	{
+		return bulkLoadThreshold;
+	}
+
+	public void setBulkLoadThreshold(int bulkLoadThreshold)
+	{
+		this.bulkLoadThreshold = bulkLoadThreshold;
+	}
+
+	public double getBulkLoadRatio()
+	{
+		return bulkLoadRatio;
+	}
+
+	public void setBulkLoadRatio(double bulkLoadRatio)
+	{
+		this.bulkLoadRatio = bulkLoadRatio;
+	}
+
 	@Override
 	public Database getDatabase(Connection cn) throws DBMetaResolverException
 	{
@@ -172,6 +212,18 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		return getTable(cn, metaData, catalog, schema, tableName);
 	}
 
+	@Override
+	public List<Table> getTables(Connection cn, String... tableNames) throws DBMetaResolverException
+	{
+		boolean readonly = resolveTableReadonly(cn);
+
+		String catalog = getCatalog(cn);
+		DatabaseMetaData metaData = getDatabaseMetaData(cn);
+		String schema = getSchema(cn, metaData);
+
+		return getTables(cn, metaData, catalog, schema, tableNames, readonly);
+	}
+
 	@Override
 	public Column[] getColumns(Connection cn, String tableName) throws DBMetaResolverException
 	{
@@ -243,7 +295,7 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 			else
 			{
 				// 处理重复表
-				for (int k = 0; i < i; k++)
+				for (int k = 0; k < i; k++)
 				{
 					if (tableNames[k].equals(tableNames[i]))
 					{
@@ -447,12 +499,173 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 			throw new TableNotFoundException(tableName);
 
 		SimpleTable simpleTable = simpleTables.get(0);
+		Column[] columns = getColumns(cn, metaData, catalog, schema, tableName, null);
+
+		return createTable(cn, metaData, catalog, schema, tableName, simpleTable, columns, readonly);
+	}
+
+	/**
+	 * 批量获取{@linkplain Table}。
+	 * <p>
+	 * 表数达到{@linkplain #getBulkLoadThreshold()}时，将只执行一次表元信息查询；
+	 * 如果表数占所有表数的比例还达到了{@linkplain #getBulkLoadRatio()}，也只执行一次列元信息查询，否则逐表读取列元信息。
+	 * 而主键、唯一键、导入键因为JDBC规范要求精确的表名，仍然逐表读取。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @param readonly
+	 * @return 与{@code tableNames}一一对应的列表，表不存在时对应元素为{@code null}
+	 * @throws DBMetaResolverException
+	 */
+	protected List<Table> getTables(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
+			String[] tableNames, boolean readonly) throws DBMetaResolverException
+	{
+		List<Table> tables = new ArrayList<>(tableNames.length);
+
+		if (tableNames.length < this.bulkLoadThreshold)
+		{
+			for (String tableName : tableNames)
+				tables.add(getTableOrNull(cn, metaData, catalog, schema, tableName));
+
+			return tables;
+		}
+
+		Set<String> tableNameSet = new HashSet<>();
+		for (String tableName : tableNames)
+		{
+			if (!StringUtil.isEmpty(tableName))
+				tableNameSet.add(tableName);
+		}
+
+		List<SimpleTable> allSimpleTables = getSimpleTables(cn, metaData, catalog, schema, null);
+
+		Map<String, SimpleTable> simpleTables = new HashMap<>();
+		for (SimpleTable simpleTable : allSimpleTables)
+		{
+			if (tableNameSet.contains(simpleTable.getName()) && !simpleTables.containsKey(simpleTable.getName()))
+				simpleTables.put(simpleTable.getName(), simpleTable);
+		}
+
+		boolean bulkLoadColumns = isBulkLoadColumns(simpleTables.size(), allSimpleTables.size());
+
+		Map<String, List<Column>> columnss = (bulkLoadColumns
+				? getColumns(cn, metaData, catalog, schema, simpleTables.keySet())
+				: Collections.<String, List<Column>> emptyMap());
+
+		Map<String, Table> resolveds = new HashMap<>();
+
+		for (String tableName : tableNames)
+		{
+			if (StringUtil.isEmpty(tableName))
+			{
+				tables.add(null);
+				continue;
+			}
+
+			if (resolveds.containsKey(tableName))
+			{
+				tables.add(resolveds.get(tableName));
+				continue;
+			}
+
+			Table table = null;
+			SimpleTable simpleTable = simpleTables.get(tableName);
+
+			// 名称与元信息不完全一致（比如大小写），则逐表读取
+			if (simpleTable == null)
+				table = getTableOrNull(cn, metaData, catalog, schema, tableName);
+			else
+			{
+				List<Column> columnList = columnss.get(tableName);
+				Column[] columns = null;
+
+				// 未批量读取列，或者元信息中没有列的表（比如Oracle的同义词）需逐表读取
+				if (columnList == null || columnList.isEmpty())
+					columns = getColumns(cn, metaData, catalog, schema, tableName, null);
+				else
+					columns = columnList.toArray(new Column[columnList.size()]);
+
+				table = createTable(cn, metaData, catalog, schema, tableName, simpleTable, columns, readonly);
+			}
+
+			resolveds.put(tableName, table);
+			tables.add(table);
+		}
+
+		return tables;
+	}
+
+	/**
+	 * 是否一次性读取所有列元信息。
+	 * 
+	 * @param loadCount
+	 *            要读取的表数
+	 * @param totalCount
+	 *            所有表数
+	 * @return
+	 */
+	protected boolean isBulkLoadColumns(int loadCount, int totalCount)
+	{
+		if (loadCount <= 0 || loadCount < this.bulkLoadThreshold)
+			return false;
+
+		return ((double) loadCount >= totalCount * this.bulkLoadRatio);
+	}
 
+	/**
+	 * 获取{@linkplain Table}，表不存在时返回{@code null}。
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @param tableName
+	 * @return
+	 * @throws DBMetaResolverException
+	 */
+	protected Table getTableOrNull(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
+			String tableName) throws DBMetaResolverException
+	{
+		if (StringUtil.isEmpty(tableName))
+			return null;
+
+		try
+		{
+			return getTable(cn, metaData, catalog, schema, tableName);
+		}
+		catch (TableNotFoundException e)
+		{
+			return null;
+		}
+	}
+
+	/**
+	 * 由已读取的{@linkplain SimpleTable}、{@linkplain Column}创建{@linkplain Table}，并读取其主键、唯一键、导入键。
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @param tableName
+	 * @param simpleTable
+	 * @param columns
+	 * @param readonly
+	 * @return
+	 * @throws DBMetaResolverException
+	 */
+	protected Table createTable(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
+			String tableName, SimpleTable simpleTable, Column[] columns, boolean readonly)
+			throws DBMetaResolverException
+	{
 		Table table = new Table();
 		table.setName(simpleTable.getName());
 		table.setType(simpleTable.getType());
 		table.setComment(simpleTable.getComment());
-		table.setColumns(getColumns(cn, metaData, catalog, schema, tableName, null));
+		table.setColumns(columns);
 		table.setPrimaryKey(getPrimaryKey(cn, metaData, catalog, schema, tableName));
 		table.setUniqueKeys(getUniqueKeys(cn, metaData, catalog, schema, tableName));
 		table.setImportKeys(getImportKeys(cn, metaData, catalog, schema, tableName));
@@ -576,6 +789,66 @@ public abstract class AbstractDevotedDBMetaResolver extends JdbcSupport implemen
 		}
 	}
 	
+	/**
+	 * 使用一次列元信息查询读取多个表的列。
+	 * 
+	 * @param cn
+	 * @param metaData
+	 * @param catalog
+	 * @param schema
+	 * @param tableNames
+	 * @return 表名 -&gt; 已排序的列表，没有读取到列的表将不包含在内
+	 * @throws DBMetaResolverException
+	 */
+	protected Map<String, List<Column>> getColumns(Connection cn, DatabaseMetaData metaData, String catalog,
+			String schema, Set<String> tableNames) throws DBMetaResolverException
+	{
+		Map<String, List<Column>> columnss = new HashMap<>();
+
+		if (tableNames.isEmpty())
+			return columnss;
+
+		ResultSet rs = null;
+
+		try
+		{
+			rs = getColumnResulSet(cn, metaData, catalog, schema, "%");
+			MetaResultSet mrs = MetaResultSet.valueOf(rs);
+
+			while (rs.next())
+			{
+				String tableName = mrs.getString("TABLE_NAME", null);
+
+				if (tableName == null || !tableNames.contains(tableName))
+					continue;
+
+				List<Column> columns = columnss.get(tableName);
+				if (columns == null)
+				{
+					columns = new ArrayList<>();
+					columnss.put(tableName, columns);
+				}
+
+				Column column = readColumn(cn, metaData, schema, tableName, mrs);
+				column = postProcessColumn(cn, metaData, schema, tableName, column);
+				addValidColumn(columns, column);
+			}
+		}
+		catch (SQLException e)
+		{
+			throw new DBMetaResolverException(e);
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+		}
+
+		for (List<Column> columns : columnss.values())
+			sortColumns(columns);
+
+		return columnss;
+	}
+
 	protected List<Column> getColumnsByQuery(Connection cn, DatabaseMetaData metaData, String catalog, String schema,
 			String tableName) throws SQLException
 	{
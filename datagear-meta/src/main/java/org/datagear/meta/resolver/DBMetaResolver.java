@@ -102,6 +102,19 @@ public interface DBMetaResolver
 	 */
 	Table getTable(Connection cn, String tableName) throws DBMetaResolverException;
 
+	/**
+	 * 批量获取指定名称的{@linkplain Table}。
+	 * <p>
+	 * 与多次调用{@linkplain #getTable(Connection, String)}相比，它会尽量合并元信息查询，适用于一次处理很多表的场景。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param tableNames
+	 * @return 与{@code tableNames}一一对应的列表，表不存在时对应元素为{@code null}
+	 * @throws DBMetaResolverException
+	 */
+	List<Table> getTables(Connection cn, String... tableNames) throws DBMetaResolverException;
+
 	/**
 	 * 获取指定表的所有{@linkplain Column}。
 	 * 
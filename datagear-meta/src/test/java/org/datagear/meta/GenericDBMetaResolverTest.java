@@ -24,10 +24,13 @@ import static org.hamcrest.collection.ArrayMatching.hasItemInArray;
 import static org.hamcrest.core.IsIterableContaining.hasItem;
 import static org.hamcrest.text.IsEqualIgnoringCase.equalToIgnoringCase;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import java.sql.Connection;
 import java.util.List;
 
+import org.datagear.meta.resolver.AbstractDevotedDBMetaResolver;
+import org.datagear.meta.resolver.DevotedDBMetaResolver;
 import org.datagear.meta.resolver.GenericDBMetaResolver;
 import org.datagear.util.JdbcUtil;
 import org.datagear.util.test.DBTestSupport;
@@ -93,6 +96,67 @@ public class GenericDBMetaResolverTest extends DBTestSupport
 		}
 	}
 
+	@Test
+	public void getTablesTest() throws Exception
+	{
+		String[] tableNames = new String[] { "T_ACCOUNT", "T_ADDRESS", "NOT_EXISTS_TABLE", "T_ACCOUNT" };
+
+		List<Table> tables = this.genericDBMetaResolver.getTables(this.connection, tableNames);
+
+		assertEquals(tableNames.length, tables.size());
+		assertThat(tables.get(0), hasProperty("name", equalToIgnoringCase("T_ACCOUNT")));
+		assertThat(tables.get(0).getPrimaryKey(), hasProperty("columnNames", hasItemInArray(equalToIgnoringCase("ID"))));
+		assertThat(tables.get(1).getColumns(), hasItemInArray(hasProperty("name", equalToIgnoringCase("ACCOUNT_ID"))));
+		assertNull(tables.get(2));
+		assertThat(tables.get(3), hasProperty("name", equalToIgnoringCase("T_ACCOUNT")));
+	}
+
+	@Test
+	public void getTablesTest_bulkLoad() throws Exception
+	{
+		String[] tableNames = new String[] { "T_ACCOUNT", "T_ADDRESS", "NOT_EXISTS_TABLE", "T_ACCOUNT" };
+
+		// 一次性读取表、列元信息
+		{
+			GenericDBMetaResolver resolver = createBulkLoadResolver(0);
+			assertGetTables(resolver.getTables(this.connection, tableNames), tableNames);
+		}
+
+		// 一次性读取表元信息，逐表读取列元信息
+		{
+			GenericDBMetaResolver resolver = createBulkLoadResolver(2);
+			assertGetTables(resolver.getTables(this.connection, tableNames), tableNames);
+		}
+	}
+
+	protected void assertGetTables(List<Table> tables, String[] tableNames)
+	{
+		assertEquals(tableNames.length, tables.size());
+		assertThat(tables.get(0), hasProperty("name", equalToIgnoringCase("T_ACCOUNT")));
+		assertEquals(4, tables.get(0).getColumns().length);
+		assertThat(tables.get(0).getColumns()[0].getName(), equalToIgnoringCase("ID"));
+		assertThat(tables.get(0).getPrimaryKey(), hasProperty("columnNames", hasItemInArray(equalToIgnoringCase("ID"))));
+		assertThat(tables.get(1).getColumns(), hasItemInArray(hasProperty("name", equalToIgnoringCase("ACCOUNT_ID"))));
+		assertNull(tables.get(2));
+		assertThat(tables.get(3), hasProperty("name", equalToIgnoringCase("T_ACCOUNT")));
+	}
+
+	protected GenericDBMetaResolver createBulkLoadResolver(double bulkLoadRatio)
+	{
+		GenericDBMetaResolver resolver = new GenericDBMetaResolver();
+
+		for (DevotedDBMetaResolver devotedResolver : resolver.getDevotedDBMetaResolvers())
+		{
+			if (devotedResolver instanceof AbstractDevotedDBMetaResolver)
+			{
+				((AbstractDevotedDBMetaResolver) devotedResolver).setBulkLoadThreshold(1);
+				((AbstractDevotedDBMetaResolver) devotedResolver).setBulkLoadRatio(bulkLoadRatio);
+			}
+		}
+
+		return resolver;
+	}
+
 	@Test
 	public void getColumnsTest() throws Exception
 	{
@@ -31,6 +31,9 @@ public class PagingData<T>
 	/** 默认显示的页码链接数 */
 	public static final int DEFAULT_PAGE_SPAN_NUM = 5;
 
+	/** 未知总记录数 */
+	public static final long TOTAL_UNKNOWN = -1;
+
 	/** 总记录数 */
 	private long total = 0;
 
@@ -43,6 +46,15 @@ public class PagingData<T>
 	/** 分页信息 */
 	private Paging paging = new Paging();
 
+	/** 总记录数是否是估算值 */
+	private boolean totalApproximate = false;
+
+	/** 是否有下一页 */
+	private boolean hasNext = false;
+
+	/** 下一页的键集分页起始键集，为{@code null}表示不支持键集分页或者没有下一页 */
+	private Row nextKeyset = null;
+
 	public PagingData()
 	{
 		this(1, 0);
@@ -53,16 +65,30 @@ public class PagingData<T>
 		this(page, total, Paging.DEFAULT_PAGE_SIZE);
 	}
 
+	/**
+	 * 
+	 * @param page
+	 * @param total
+	 *            为{@linkplain #TOTAL_UNKNOWN}时，{@linkplain #getPages()}也将为{@linkplain #TOTAL_UNKNOWN}
+	 * @param pageSize
+	 */
 	public PagingData(int page, long total, int pageSize)
 	{
 		this.total = total;
 
-		this.pages = (int) (this.total / pageSize);
-		if (this.total % pageSize > 0)
-			this.pages += 1;
+		if (this.total < 0)
+		{
+			this.total = TOTAL_UNKNOWN;
+			this.pages = (int) TOTAL_UNKNOWN;
+		}
+		else
+		{
+			this.pages = calculatePages(this.total, pageSize);
+
+			if (page > this.pages)
+				page = this.pages;
+		}
 
-		if (page > this.pages)
-			page = this.pages;
 		if (page < 1)
 			page = 1;
 
@@ -70,6 +96,26 @@ public class PagingData<T>
 		this.paging.setPageSize(pageSize);
 	}
 
+	/**
+	 * 计算总页数。
+	 * 
+	 * @param total
+	 *            小于{@code 0}时返回{@linkplain #TOTAL_UNKNOWN}
+	 * @param pageSize
+	 * @return
+	 */
+	public static int calculatePages(long total, int pageSize)
+	{
+		if (total < 0)
+			return (int) TOTAL_UNKNOWN;
+
+		int pages = (int) (total / pageSize);
+		if (total % pageSize > 0)
+			pages += 1;
+
+		return pages;
+	}
+
 	public long getTotal()
 	{
 		return total;
@@ -100,6 +146,56 @@ public class PagingData<T>
 		this.pages = pages;
 	}
 
+	/**
+	 * 是否未知总记录数。
+	 * 
+	 * @return
+	 */
+	public boolean isTotalUnknown()
+	{
+		return (this.total < 0);
+	}
+
+	/**
+	 * 总记录数是否是估算值。
+	 * 
+	 * @return
+	 */
+	public boolean isTotalApproximate()
+	{
+		return totalApproximate;
+	}
+
+	public void setTotalApproximate(boolean totalApproximate)
+	{
+		this.totalApproximate = totalApproximate;
+	}
+
+	public boolean isHasNext()
+	{
+		return hasNext;
+	}
+
+	public void setHasNext(boolean hasNext)
+	{
+		this.hasNext = hasNext;
+	}
+
+	/**
+	 * 获取下一页的键集分页起始键集，可用于{@linkplain PagingQuery#setKeyset(Row)}。
+	 * 
+	 * @return 为{@code null}表示不支持键集分页或者没有下一页
+	 */
+	public Row getNextKeyset()
+	{
+		return nextKeyset;
+	}
+
+	public void setNextKeyset(Row nextKeyset)
+	{
+		this.nextKeyset = nextKeyset;
+	}
+
 	public int getPage()
 	{
 		return this.paging.getPage();
@@ -154,7 +250,7 @@ public class PagingData<T>
 		int startIndex = getStartIndex();
 		int endIndex = startIndex + getPageSize();
 
-		if (endIndex > (int) this.total)
+		if (this.total >= 0 && endIndex > (int) this.total)
 			endIndex = (int) this.total;
 
 		return endIndex;
@@ -21,6 +21,10 @@ import java.util.Arrays;
 
 /**
  * 分页查询。
+ * <p>
+ * 默认使用页码分页，如果设置了{@linkplain #getKeyset()}，则使用键集分页：从此键集对应的记录之后开始查询，而不是跳过前面所有页的记录，
+ * 通常由上一页返回的{@linkplain PagingData#getNextKeyset()}而得。
+ * </p>
  *
  * @author datagear@163.com
  *
@@ -32,6 +36,15 @@ public class PagingQuery extends Query
 	/** 分页信息 */
 	private Paging paging = new Paging();
 
+	/** 键集分页的起始键集，为{@code null}表示使用页码分页 */
+	private Row keyset = null;
+
+	/** 是否查询总记录数 */
+	private boolean countTotal = true;
+
+	/** 是否允许使用估算的总记录数 */
+	private boolean approximateTotal = false;
+
 	public PagingQuery()
 	{
 		super();
@@ -84,12 +97,81 @@ public class PagingQuery extends Query
 		this.paging.setPageSize(pageSize);
 	}
 
+	/**
+	 * 获取键集分页的起始键集。
+	 * 
+	 * @return 为{@code null}表示使用页码分页
+	 */
+	public Row getKeyset()
+	{
+		return keyset;
+	}
+
+	/**
+	 * 设置键集分页的起始键集。
+	 * 
+	 * @param keyset
+	 *            允许为{@code null}
+	 */
+	public void setKeyset(Row keyset)
+	{
+		this.keyset = keyset;
+	}
+
+	/**
+	 * 是否使用键集分页。
+	 * 
+	 * @return
+	 */
+	public boolean hasKeyset()
+	{
+		return (this.keyset != null && !this.keyset.isEmpty());
+	}
+
+	/**
+	 * 是否查询总记录数。
+	 * <p>
+	 * 对于大表，查询总记录数（{@code COUNT(*)}）开销很大，设置为{@code false}后，{@linkplain PagingData#getTotal()}将为{@linkplain PagingData#TOTAL_UNKNOWN}。
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public boolean isCountTotal()
+	{
+		return countTotal;
+	}
+
+	public void setCountTotal(boolean countTotal)
+	{
+		this.countTotal = countTotal;
+	}
+
+	/**
+	 * 是否允许使用估算的总记录数。
+	 * <p>
+	 * 设置为{@code true}后，对于无查询条件的大表，将使用数据库统计信息估算总记录数，而不是执行{@code COUNT(*)}，
+	 * 此时{@linkplain PagingData#isTotalApproximate()}将为{@code true}。
+	 * </p>
+	 * 
+	 * @return
+	 */
+	public boolean isApproximateTotal()
+	{
+		return approximateTotal;
+	}
+
+	public void setApproximateTotal(boolean approximateTotal)
+	{
+		this.approximateTotal = approximateTotal;
+	}
+
 	@Override
 	public String toString()
 	{
 		return getClass().getSimpleName() + " [page=" + getPage() + ", pageSize=" + getPageSize() + ", notLike="
 				+ isNotLike() + ", keyword=" + getKeyword() + ", condition=" + getCondition() + ", orders="
-				+ Arrays.toString(getOrders()) + "]";
+				+ Arrays.toString(getOrders()) + ", keyset=" + keyset + ", countTotal=" + countTotal
+				+ ", approximateTotal=" + approximateTotal + "]";
 	}
 
 	@Override
@@ -98,6 +180,9 @@ public class PagingQuery extends Query
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((paging == null) ? 0 : paging.hashCode());
+		result = prime * result + ((keyset == null) ? 0 : keyset.hashCode());
+		result = prime * result + (countTotal ? 1231 : 1237);
+		result = prime * result + (approximateTotal ? 1231 : 1237);
 		return result;
 	}
 
@@ -118,6 +203,17 @@ public class PagingQuery extends Query
 		}
 		else if (!paging.equals(other.paging))
 			return false;
+		if (keyset == null)
+		{
+			if (other.keyset != null)
+				return false;
+		}
+		else if (!keyset.equals(other.keyset))
+			return false;
+		if (countTotal != other.countTotal)
+			return false;
+		if (approximateTotal != other.approximateTotal)
+			return false;
 		return true;
 	}
 }
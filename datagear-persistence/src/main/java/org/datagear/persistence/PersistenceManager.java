@@ -250,6 +250,32 @@ public interface PersistenceManager
 	PagingData<Row> pagingQuery(Connection cn, Dialect dialect, Table table, PagingQuery pagingQuery, RowMapper mapper)
 			throws PersistenceException;
 
+	/**
+	 * 查询精确的记录数。
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param query
+	 *            为{@code null}表示查询全部
+	 * @return
+	 * @throws PersistenceException
+	 */
+	long count(Connection cn, Table table, Query query) throws PersistenceException;
+
+	/**
+	 * 查询精确的记录数。
+	 * 
+	 * @param cn
+	 * @param dialect
+	 *            允许为{@code null}
+	 * @param table
+	 * @param query
+	 *            为{@code null}表示查询全部
+	 * @return
+	 * @throws PersistenceException
+	 */
+	long count(Connection cn, Dialect dialect, Table table, Query query) throws PersistenceException;
+
 	/**
 	 * 获取查询SQL语句。
 	 * 
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.persistence;
+
+import java.sql.Connection;
+
+import org.datagear.meta.Table;
+
+/**
+ * 表记录数估算器。
+ * <p>
+ * 它通常使用数据库的统计信息获取表记录数，而不必执行开销很大的{@code COUNT(*)}查询，因此返回的记录数可能不准确。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public interface RowCountEstimator
+{
+	/**
+	 * 估算表记录数。
+	 * 
+	 * @param cn
+	 * @param table
+	 * @return 返回{@code -1}表示无法估算
+	 */
+	long estimate(Connection cn, Table table);
+}
@@ -37,14 +37,28 @@ import org.datagear.persistence.DialectBuilder;
 import org.datagear.persistence.DialectException;
 import org.datagear.persistence.DialectSource;
 import org.datagear.persistence.Order;
+import org.datagear.persistence.support.dialect.AnsiDialectBuilder;
+import org.datagear.persistence.support.dialect.Db2DialectBuilder;
+import org.datagear.persistence.support.dialect.DerbyDialectBuilder;
+import org.datagear.persistence.support.dialect.H2DialectBuilder;
 import org.datagear.persistence.support.dialect.MysqlDialectBuilder;
 import org.datagear.persistence.support.dialect.OracleDialectBuilder;
 import org.datagear.persistence.support.dialect.PostgresqlDialectBuilder;
+import org.datagear.persistence.support.dialect.SqliteDialectBuilder;
 import org.datagear.persistence.support.dialect.SqlServerDialectBuilder;
+import org.datagear.util.QueryResultSet;
 import org.datagear.util.Sql;
+import org.datagear.util.StringUtil;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 
 /**
  * 默认{@linkplain DialectSource}。
+ * <p>
+ * 它会按照{@linkplain ConnectionIdentity}缓存已解析的{@linkplain Dialect}，使同一连接源的后续获取不必再遍历{@linkplain DialectBuilder}。
+ * 当连接源的URL、驱动等变更时，应调用{@linkplain #invalidateDialect(String)}清除缓存。
+ * </p>
  * 
  * @author datagear@163.com
  *
@@ -57,8 +71,14 @@ public class DefaultDialectSource extends PersistenceSupport implements DialectS
 
 	private boolean detection = true;
 
+	/** 默认{@linkplain Dialect}缓存最大数 */
+	public static final int DEFAULT_DIALECT_CACHE_MAXIMUM_SIZE = 500;
+
 	private ConcurrentMap<Object, DialectBuilder> dialectBuilderCache = new ConcurrentHashMap<>();
 
+	private Cache<ConnectionIdentity, Dialect> _dialectCache = Caffeine.newBuilder()
+			.maximumSize(DEFAULT_DIALECT_CACHE_MAXIMUM_SIZE).build();
+
 	public DefaultDialectSource()
 	{
 		this(null);
@@ -74,6 +94,13 @@ public class DefaultDialectSource extends PersistenceSupport implements DialectS
 		this.dialectBuilders.add(new PostgresqlDialectBuilder());
 		this.dialectBuilders.add(new OracleDialectBuilder());
 		this.dialectBuilders.add(new SqlServerDialectBuilder());
+		this.dialectBuilders.add(new DerbyDialectBuilder());
+		this.dialectBuilders.add(new H2DialectBuilder());
+		this.dialectBuilders.add(new Db2DialectBuilder());
+		this.dialectBuilders.add(new SqliteDialectBuilder());
+
+		// 不支持任何连接，仅用于试探未知数据库的标准分页语法
+		this.dialectBuilders.add(new AnsiDialectBuilder());
 	}
 
 	public DBMetaResolver getDbMetaResolver()
@@ -108,6 +135,68 @@ public class DefaultDialectSource extends PersistenceSupport implements DialectS
 
 	@Override
 	public Dialect getDialect(Connection cn) throws DialectException
+	{
+		ConnectionIdentity cacheKey = getDialectCacheKey(cn);
+
+		Dialect dialect = (cacheKey == null ? null : this._dialectCache.getIfPresent(cacheKey));
+
+		if (dialect == null)
+		{
+			dialect = resolveDialect(cn);
+
+			if (cacheKey != null)
+				this._dialectCache.put(cacheKey, dialect);
+		}
+
+		return dialect;
+	}
+
+	/**
+	 * 清除指定URL的{@linkplain Dialect}缓存。
+	 * <p>
+	 * 连接源的URL、驱动变更时，应调用此方法。
+	 * </p>
+	 * 
+	 * @param url
+	 */
+	public void invalidateDialect(String url)
+	{
+		for (ConnectionIdentity key : this._dialectCache.asMap().keySet())
+		{
+			if (StringUtil.isEquals(url, key.getUrl()))
+				this._dialectCache.invalidate(key);
+		}
+	}
+
+	/**
+	 * 清除所有{@linkplain Dialect}缓存。
+	 */
+	public void invalidateAllDialects()
+	{
+		this._dialectCache.invalidateAll();
+		this.dialectBuilderCache.clear();
+	}
+
+	/**
+	 * 获取{@linkplain Dialect}缓存关键字。
+	 * 
+	 * @param cn
+	 * @return 返回{@code null}表示无法构建，不缓存
+	 */
+	protected ConnectionIdentity getDialectCacheKey(Connection cn)
+	{
+		ConnectionOption connectionOption = ConnectionOption.valueOf(cn);
+		return (connectionOption == null ? null : ConnectionIdentity.valueOf(connectionOption));
+	}
+
+	/**
+	 * 解析{@linkplain Dialect}。
+	 * 
+	 * @param cn
+	 * @return
+	 * @throws DialectException
+	 */
+	protected Dialect resolveDialect(Connection cn) throws DialectException
 	{
 		if (this.dialectBuilders != null)
 		{
@@ -266,7 +355,16 @@ public class DefaultDialectSource extends PersistenceSupport implements DialectS
 
 		Sql pagingQuerySql = dialect.toPagingQuerySql(query, orders, 1, 5);
 
-		executeQuery(cn, pagingQuerySql, ResultSet.TYPE_FORWARD_ONLY);
+		QueryResultSet qrs = null;
+
+		try
+		{
+			qrs = executeQuery(cn, pagingQuerySql, ResultSet.TYPE_FORWARD_ONLY);
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+		}
 
 		return true;
 	}
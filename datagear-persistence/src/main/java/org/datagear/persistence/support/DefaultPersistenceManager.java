@@ -22,26 +22,32 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.datagear.connection.ConnectionOption;
 import org.datagear.meta.Column;
 import org.datagear.meta.PrimaryKey;
 import org.datagear.meta.Table;
+import org.datagear.meta.UniqueKey;
 import org.datagear.persistence.Dialect;
 import org.datagear.persistence.DialectSource;
 import org.datagear.persistence.LiteralSqlParamValue;
 import org.datagear.persistence.NonUniqueResultException;
+import org.datagear.persistence.Order;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.persistence.PersistenceException;
 import org.datagear.persistence.PersistenceManager;
 import org.datagear.persistence.Query;
 import org.datagear.persistence.Row;
+import org.datagear.persistence.RowCountEstimator;
 import org.datagear.persistence.RowMapper;
 import org.datagear.persistence.SqlParamValueMapper;
+import org.datagear.persistence.support.RowCountCache.RowCount;
 import org.datagear.util.JDBCCompatiblity;
 import org.datagear.util.Sql;
 import org.datagear.util.SqlParamValue;
@@ -66,6 +72,15 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 
 	private SqlValidator querySqlValidator = null;
 
+	/** 表记录数估算器，为{@code null}表示不估算 */
+	private RowCountEstimator rowCountEstimator = new DefaultRowCountEstimator();
+
+	/** 估算记录数不小于此值时，才使用估算记录数，因为小表的统计信息可能不准确，而且执行{@code COUNT(*)}的开销不大 */
+	private long approximateCountThreshold = 100000;
+
+	/** 表记录数缓存，为{@code null}表示不缓存 */
+	private RowCountCache rowCountCache = null;
+
 	public DefaultPersistenceManager()
 	{
 		super();
@@ -98,6 +113,36 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 		this.querySqlValidator = querySqlValidator;
 	}
 
+	public RowCountEstimator getRowCountEstimator()
+	{
+		return rowCountEstimator;
+	}
+
+	public void setRowCountEstimator(RowCountEstimator rowCountEstimator)
+	{
+		this.rowCountEstimator = rowCountEstimator;
+	}
+
+	public long getApproximateCountThreshold()
+	{
+		return approximateCountThreshold;
+	}
+
+	public void setApproximateCountThreshold(long approximateCountThreshold)
+	{
+		this.approximateCountThreshold = approximateCountThreshold;
+	}
+
+	public RowCountCache getRowCountCache()
+	{
+		return rowCountCache;
+	}
+
+	public void setRowCountCache(RowCountCache rowCountCache)
+	{
+		this.rowCountCache = rowCountCache;
+	}
+
 	@Override
 	public Row insert(Connection cn, Table table, Row row) throws PersistenceException
 	{
@@ -172,6 +217,7 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 			sql.sql(valueSql);
 
 			generatedResult = executeUpdateWrap(cn, sql, autoGeneratedColumns);
+			invalidateRowCountCache(cn, table);
 		}
 		finally
 		{
@@ -256,7 +302,10 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 
 			if (updateColumnCount > 0)
 			{
-				return executeUpdateWrap(cn, sql);
+				int count = executeUpdateWrap(cn, sql);
+				invalidateRowCountCache(cn, table);
+
+				return count;
 			}
 			else
 			{
@@ -309,6 +358,8 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 				releasableRegistry.releaseClear();
 			}
 
+			invalidateRowCountCache(cn, table);
+
 			return count;
 		}
 		catch (SQLException e)
@@ -408,18 +459,187 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 
 		Sql queryView = buildQuerySql(cn, dialect, table, pagingQuery, true);
 
-		long total = executeCountQueryForQueryViewValidation(cn, queryView);
+		long total = PagingData.TOTAL_UNKNOWN;
+		boolean totalApproximate = false;
 
-		PagingData<Row> pagingData = new PagingData<>(pagingQuery.getPage(), total, pagingQuery.getPageSize());
+		if (pagingQuery.isCountTotal())
+		{
+			RowCount rowCount = getRowCount(cn, table, queryView, pagingQuery);
+			total = rowCount.getCount();
+			totalApproximate = rowCount.isApproximate();
+		}
 
-		Sql query = null;
-		List<Row> rows = null;
+		Order[] keysetOrders = getKeysetOrders(table, pagingQuery.getOrders());
+		boolean keysetPaging = (keysetOrders != null && pagingQuery.hasKeyset());
+
+		PagingData<Row> pagingData = null;
+
+		// 估算的总记录数可能小于实际记录数，键集分页也不依赖总记录数定位，因此都不能将页码限定在总页数内
+		if (totalApproximate || keysetPaging)
+		{
+			pagingData = new PagingData<>(pagingQuery.getPage(), PagingData.TOTAL_UNKNOWN, pagingQuery.getPageSize());
+			pagingData.setTotal(total);
+			pagingData.setPages(PagingData.calculatePages(total, pagingQuery.getPageSize()));
+		}
+		else
+			pagingData = new PagingData<>(pagingQuery.getPage(), total, pagingQuery.getPageSize());
+
+		pagingData.setTotalApproximate(totalApproximate);
+
+		Order[] orders = pagingQuery.getOrders();
 		int startRow = pagingData.getStartRow();
-		int count = pagingData.getPageSize();
+		int pageSize = pagingData.getPageSize();
+
+		// 未知或者估算总记录数时，多查询一条以确定是否有下一页
+		int count = (pagingData.isTotalUnknown() || totalApproximate || keysetPaging ? pageSize + 1 : pageSize);
+
+		if (keysetOrders != null)
+			orders = keysetOrders;
+
+		if (keysetPaging)
+		{
+			Sql keysetCondition = buildKeysetCondition(dialect, table, keysetOrders, pagingQuery.getKeyset());
+			queryView = buildQuerySql(cn, dialect, table, pagingQuery, keysetCondition, true);
+			startRow = 1;
+		}
+
+		List<Row> rows = executePagingQuery(cn, dialect, table, queryView, orders, startRow, count, mapper);
+
+		boolean hasNext = false;
+
+		if (count > pageSize)
+		{
+			hasNext = (rows.size() > pageSize);
+
+			if (hasNext)
+				rows = new ArrayList<>(rows.subList(0, pageSize));
+		}
+		else
+			hasNext = (pagingData.getPage() < pagingData.getPages());
+
+		// 估算的总记录数小于已读取到的记录数时，应修正
+		if (totalApproximate && !keysetPaging)
+		{
+			long minTotal = (long) pagingData.getStartIndex() + rows.size() + (hasNext ? 1 : 0);
+
+			if (minTotal > pagingData.getTotal())
+			{
+				pagingData.setTotal(minTotal);
+				pagingData.setPages(PagingData.calculatePages(minTotal, pageSize));
+			}
+		}
+
+		pagingData.setItems(rows);
+		pagingData.setHasNext(hasNext);
+
+		if (keysetOrders != null && hasNext && !rows.isEmpty())
+			pagingData.setNextKeyset(getKeyset(rows.get(rows.size() - 1), keysetOrders));
+
+		return pagingData;
+	}
+
+	@Override
+	public long count(Connection cn, Table table, Query query) throws PersistenceException
+	{
+		return count(cn, null, table, query);
+	}
+
+	@Override
+	public long count(Connection cn, Dialect dialect, Table table, Query query) throws PersistenceException
+	{
+		checkValidTable(table);
+
+		dialect = getDialect(cn, dialect);
+
+		Sql queryView = buildQuerySql(cn, dialect, table, query, true);
+		long count = executeCountQueryForQueryViewValidation(cn, queryView);
+
+		if (this.rowCountCache != null)
+			this.rowCountCache.put(cn, table, query, new RowCount(count, false));
+
+		return count;
+	}
+
+	/**
+	 * 获取分页查询的总记录数。
+	 * <p>
+	 * 优先使用{@linkplain #getRowCountCache()}中的缓存，
+	 * 其次，如果{@linkplain PagingQuery#isApproximateTotal()}为{@code true}且没有查询条件，使用{@linkplain #getRowCountEstimator()}估算，
+	 * 最后，执行{@code COUNT(*)}查询。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param queryView
+	 * @param pagingQuery
+	 * @return
+	 * @throws PersistenceException
+	 */
+	protected RowCount getRowCount(Connection cn, Table table, Sql queryView, PagingQuery pagingQuery)
+			throws PersistenceException
+	{
+		RowCount rowCount = (this.rowCountCache == null ? null : this.rowCountCache.get(cn, table, pagingQuery));
+
+		if (rowCount != null && (!rowCount.isApproximate() || pagingQuery.isApproximateTotal()))
+			return rowCount;
+
+		rowCount = null;
+
+		if (pagingQuery.isApproximateTotal() && this.rowCountEstimator != null && !pagingQuery.hasKeyword()
+				&& !pagingQuery.hasCondition())
+		{
+			long estimate = this.rowCountEstimator.estimate(cn, table);
+
+			if (estimate >= 0 && estimate >= this.approximateCountThreshold)
+				rowCount = new RowCount(estimate, true);
+		}
+
+		if (rowCount == null)
+			rowCount = new RowCount(executeCountQueryForQueryViewValidation(cn, queryView), false);
+
+		if (this.rowCountCache != null)
+			this.rowCountCache.put(cn, table, pagingQuery, rowCount);
+
+		return rowCount;
+	}
+
+	/**
+	 * 清除表记录数缓存。
+	 * 
+	 * @param cn
+	 * @param table
+	 */
+	protected void invalidateRowCountCache(Connection cn, Table table)
+	{
+		if (this.rowCountCache != null)
+			this.rowCountCache.invalidate(cn, table);
+	}
+
+	/**
+	 * 执行分页查询。
+	 * 
+	 * @param cn
+	 * @param dialect
+	 * @param table
+	 * @param queryView
+	 * @param orders
+	 *            允许为{@code null}
+	 * @param startRow
+	 *            起始行号，以{@code 1}开始计数
+	 * @param count
+	 * @param mapper
+	 *            允许为{@code null}
+	 * @return
+	 * @throws PersistenceException
+	 */
+	protected List<Row> executePagingQuery(Connection cn, Dialect dialect, Table table, Sql queryView, Order[] orders,
+			int startRow, int count, RowMapper mapper) throws PersistenceException
+	{
+		Sql query = null;
 
 		if (dialect.supportsPagingSql())
 		{
-			query = dialect.toPagingQuerySql(queryView, pagingQuery.getOrders(), startRow, count);
+			query = dialect.toPagingQuerySql(queryView, orders, startRow, count);
 
 			// 数据库分页
 			if (query != null)
@@ -435,14 +655,171 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 			if (LOGGER.isWarnEnabled())
 				LOGGER.warn("memory pagination will be used for [{}]", ConnectionOption.valueOfNonNull(cn));
 
-			query = dialect.toOrderSql(queryView, pagingQuery.getOrders());
+			query = dialect.toOrderSql(queryView, orders);
 		}
 
-		rows = executeListQueryValidation(cn, table, query, ResultSet.TYPE_SCROLL_INSENSITIVE, startRow, count, mapper);
+		return executeListQueryValidation(cn, table, query, ResultSet.TYPE_SCROLL_INSENSITIVE, startRow, count,
+				mapper);
+	}
 
-		pagingData.setItems(rows);
+	/**
+	 * 获取键集分页所需的排序数组。
+	 * <p>
+	 * 它由给定排序和主键（没有时使用第一个列都不可为{@code null}的唯一键）组成，以确保排序结果的唯一性，
+	 * 如果表没有这样的主键和唯一键，或者给定排序中包含可为{@code null}、不可排序的列，键集分页将无法保证正确性，返回{@code null}。
+	 * </p>
+	 * <p>
+	 * 唯一键列可为{@code null}时，多行{@code null}值并不违反唯一约束，且{@code null}无法参与键集比较，所以不能作为唯一排序依据。
+	 * </p>
+	 * 
+	 * @param table
+	 * @param orders
+	 *            允许为{@code null}
+	 * @return 返回{@code null}表示不支持键集分页
+	 */
+	protected Order[] getKeysetOrders(Table table, Order[] orders)
+	{
+		String[] keyColumnNames = null;
 
-		return pagingData;
+		if (table.hasPrimaryKey())
+			keyColumnNames = table.getPrimaryKey().getColumnNames();
+		else if (table.hasUniqueKey())
+		{
+			for (UniqueKey uniqueKey : table.getUniqueKeys())
+			{
+				if (isKeysetKeyColumns(table, uniqueKey.getColumnNames()))
+				{
+					keyColumnNames = uniqueKey.getColumnNames();
+					break;
+				}
+			}
+		}
+
+		if (keyColumnNames == null || keyColumnNames.length == 0)
+			return null;
+
+		List<Order> re = new ArrayList<>();
+		Set<String> names = new HashSet<>();
+
+		if (orders != null)
+		{
+			for (Order order : orders)
+			{
+				Column column = table.getColumn(order.getName());
+
+				if (column == null || column.isNullable() || !column.isSortable())
+					return null;
+
+				if (names.add(column.getName()))
+					re.add(new Order(column.getName(), (order.isDesc() ? Order.DESC : Order.ASC)));
+			}
+		}
+
+		String keyOrderType = (re.isEmpty() ? Order.ASC : re.get(re.size() - 1).getType());
+
+		for (String name : keyColumnNames)
+		{
+			Column column = table.getColumn(name);
+
+			if (column == null || column.isNullable() || !column.isSortable())
+				return null;
+
+			if (names.add(column.getName()))
+				re.add(new Order(column.getName(), keyOrderType));
+		}
+
+		return re.toArray(new Order[re.size()]);
+	}
+
+	/**
+	 * 给定键列是否都存在、不可为{@code null}且可排序，可作为键集分页的唯一排序依据。
+	 * 
+	 * @param table
+	 * @param columnNames
+	 * @return
+	 */
+	protected boolean isKeysetKeyColumns(Table table, String[] columnNames)
+	{
+		if (columnNames == null || columnNames.length == 0)
+			return false;
+
+		for (String name : columnNames)
+		{
+			Column column = table.getColumn(name);
+
+			if (column == null || column.isNullable() || !column.isSortable())
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * 构建键集分页条件，比如对于排序{@code A ASC, B DESC}，条件为：
+	 * <p>
+	 * {@code (A > ?) OR (A = ? AND B < ?)}
+	 * </p>
+	 * <p>
+	 * {@code keyset}的值可以是已转换的{@linkplain SqlParamValue}（不支持{@linkplain LiteralSqlParamValue}），比如由界面传回的键集。
+	 * </p>
+	 * 
+	 * @param dialect
+	 * @param table
+	 * @param keysetOrders
+	 * @param keyset
+	 * @return
+	 * @throws PersistenceException
+	 */
+	protected Sql buildKeysetCondition(Dialect dialect, Table table, Order[] keysetOrders, Row keyset)
+			throws PersistenceException
+	{
+		Sql sql = Sql.valueOf().delimit(" OR ");
+
+		for (int i = 0; i < keysetOrders.length; i++)
+		{
+			Sql item = Sql.valueOf().delimit(" AND ");
+
+			for (int j = 0; j <= i; j++)
+			{
+				Order order = keysetOrders[j];
+				Column column = table.getColumn(order.getName());
+
+				if (!keyset.containsKey(column.getName()))
+					throw new PersistenceException("Keyset value for column [" + column.getName() + "] required");
+
+				String operator = (j < i ? "=" : (order.isDesc() ? "<" : ">"));
+
+				Object value = keyset.get(column.getName());
+
+				if (value instanceof LiteralSqlParamValue)
+					throw new PersistenceException("Literal keyset value for column [" + column.getName()
+							+ "] is not allowed");
+
+				item.sqld(quote(dialect, column.getName()) + operator + "?");
+				item.param(value instanceof SqlParamValue ? (SqlParamValue) value : createSqlParamValue(column, value));
+			}
+
+			sql.sqld(Sql.valueOf().sql("(").sql(item).sql(")"));
+		}
+
+		return sql;
+	}
+
+	/**
+	 * 获取行的键集。
+	 * 
+	 * @param row
+	 * @param keysetOrders
+	 * @return
+	 */
+	protected Row getKeyset(Row row, Order[] keysetOrders)
+	{
+		Row keyset = new Row();
+
+		for (Order order : keysetOrders)
+			keyset.put(order.getName(), row.get(order.getName()));
+
+		return keyset;
 	}
 
 	@Override
@@ -465,6 +842,24 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 	}
 
 	protected Sql buildQuerySql(Connection cn, Dialect dialect, Table table, Query query, boolean parameterized)
+	{
+		return buildQuerySql(cn, dialect, table, query, null, parameterized);
+	}
+
+	/**
+	 * 构建查询SQL。
+	 * 
+	 * @param cn
+	 * @param dialect
+	 * @param table
+	 * @param query
+	 * @param extraCondition
+	 *            附加查询条件，允许为{@code null}
+	 * @param parameterized
+	 * @return
+	 */
+	protected Sql buildQuerySql(Connection cn, Dialect dialect, Table table, Query query, Sql extraCondition,
+			boolean parameterized)
 	{
 		Sql sql = Sql.valueOf().sql("SELECT ").delimit(",");
 
@@ -476,6 +871,14 @@ public class DefaultPersistenceManager extends PersistenceSupport implements Per
 		sql.sql(quote(dialect, table.getName()));
 		Sql condition = buildQueryCondition(cn, dialect, table, query, parameterized);
 
+		if (!Sql.isEmpty(extraCondition))
+		{
+			if (Sql.isEmpty(condition))
+				condition = extraCondition;
+			else
+				condition = Sql.valueOf().sql("(").sql(condition).sql(") AND (").sql(extraCondition).sql(")");
+		}
+
 		if (!Sql.isEmpty(condition))
 		{
 			sql.sql(" WHERE ");
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.persistence.support;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Types;
+
+import org.datagear.connection.support.MySqlURLSensor;
+import org.datagear.connection.support.OracleURLSensor;
+import org.datagear.connection.support.PostgresqlURLSensor;
+import org.datagear.connection.support.SqlServerURLSensor;
+import org.datagear.meta.Table;
+import org.datagear.persistence.RowCountEstimator;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.QueryResultSet;
+import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 默认{@linkplain RowCountEstimator}。
+ * <p>
+ * 它使用如下数据库统计信息估算表记录数，其他数据库将返回{@code -1}：
+ * </p>
+ * <ul>
+ * <li>MySQL：{@code information_schema.TABLES.TABLE_ROWS}</li>
+ * <li>PostgreSQL：{@code pg_class.reltuples}</li>
+ * <li>Oracle：{@code ALL_TABLES.NUM_ROWS}</li>
+ * <li>SqlServer：{@code sys.partitions.rows}</li>
+ * </ul>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DefaultRowCountEstimator extends PersistenceSupport implements RowCountEstimator
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(DefaultRowCountEstimator.class);
+
+	public DefaultRowCountEstimator()
+	{
+		super();
+	}
+
+	@Override
+	public long estimate(Connection cn, Table table)
+	{
+		Sql sql = buildEstimateSql(cn, table);
+
+		if (sql == null)
+			return -1;
+
+		try
+		{
+			return executeEstimateQuery(cn, sql);
+		}
+		catch (Throwable t)
+		{
+			// 没有统计信息的访问权限时，也不应影响查询
+			if (LOGGER.isDebugEnabled())
+				LOGGER.debug("estimate row count for table [" + table.getName() + "] failed", t);
+
+			return -1;
+		}
+	}
+
+	/**
+	 * 构建估算SQL。
+	 * 
+	 * @param cn
+	 * @param table
+	 * @return 返回{@code null}表示不支持
+	 */
+	protected Sql buildEstimateSql(Connection cn, Table table)
+	{
+		String url = JdbcUtil.getURLIfSupports(cn);
+
+		if (url == null)
+			return null;
+
+		SqlParamValue tableName = new SqlParamValue(table.getName(), Types.VARCHAR);
+
+		if (MySqlURLSensor.INSTANCE.supports(url))
+		{
+			return Sql.valueOf(
+					"SELECT TABLE_ROWS FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")
+					.param(tableName);
+		}
+		else if (PostgresqlURLSensor.INSTANCE.supports(url))
+		{
+			return Sql.valueOf(
+					"SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE relname = ? AND pg_table_is_visible(oid)")
+					.param(tableName);
+		}
+		else if (OracleURLSensor.INSTANCE.supports(url))
+		{
+			return Sql.valueOf("SELECT NUM_ROWS FROM ALL_TABLES WHERE OWNER = SYS_CONTEXT('USERENV', 'CURRENT_SCHEMA')"
+					+ " AND TABLE_NAME = ?").param(tableName);
+		}
+		else if (SqlServerURLSensor.INSTANCE.supports(url))
+		{
+			return Sql.valueOf("SELECT SUM(rows) FROM sys.partitions WHERE object_id = OBJECT_ID(?) AND index_id IN (0, 1)")
+					.param(tableName);
+		}
+
+		return null;
+	}
+
+	/**
+	 * 执行估算查询。
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @return 返回{@code -1}表示没有统计信息
+	 * @throws Exception
+	 */
+	protected long executeEstimateQuery(Connection cn, Sql sql) throws Exception
+	{
+		QueryResultSet qrs = null;
+
+		try
+		{
+			qrs = executeQuery(cn, sql, ResultSet.TYPE_FORWARD_ONLY);
+
+			ResultSet rs = qrs.getResultSet();
+
+			if (!rs.next())
+				return -1;
+
+			long count = rs.getLong(1);
+
+			// 没有统计信息时，Oracle为NULL，PostgreSQL为-1
+			if (rs.wasNull() || count < 0)
+				return -1;
+
+			return count;
+		}
+		finally
+		{
+			QueryResultSet.close(qrs);
+		}
+	}
+}
@@ -206,7 +206,9 @@ public class PersistenceSupport extends JdbcSupport
 
 		try
 		{
-			qrs = executeQuery(cn, sql, resultSetType);
+			int maxRows = (count >= 0 ? Math.max(startRow, 1) - 1 + count : 0);
+
+			qrs = executeQuery(cn, sql, resultSetType, maxRows);
 			ResultSet rs = qrs.getResultSet();
 
 			return mapToRows(cn, table, rs, startRow, count, mapper);
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.persistence.support;
+
+import java.io.Serializable;
+import java.sql.Connection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.datagear.connection.ConnectionIdentity;
+import org.datagear.connection.ConnectionOption;
+import org.datagear.meta.Table;
+import org.datagear.persistence.Query;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * 表记录数缓存。
+ * <p>
+ * 它以连接标识、表名、查询条件为关键字，短时缓存表记录数，避免翻页时每次都执行{@code COUNT(*)}查询。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class RowCountCache
+{
+	/** 缓存值的最大数 */
+	private int maximumSize = 1000;
+
+	/** 缓存过期秒数 */
+	private int expireAfterWriteSeconds = 60;
+
+	private Cache<RowCountCacheKey, RowCount> _cache = null;
+
+	public RowCountCache()
+	{
+		super();
+	}
+
+	public int getMaximumSize()
+	{
+		return maximumSize;
+	}
+
+	public void setMaximumSize(int maximumSize)
+	{
+		this.maximumSize = maximumSize;
+	}
+
+	public int getExpireAfterWriteSeconds()
+	{
+		return expireAfterWriteSeconds;
+	}
+
+	public void setExpireAfterWriteSeconds(int expireAfterWriteSeconds)
+	{
+		this.expireAfterWriteSeconds = expireAfterWriteSeconds;
+	}
+
+	/**
+	 * 初始化。
+	 */
+	public void init()
+	{
+		this._cache = Caffeine.newBuilder().maximumSize(this.maximumSize)
+				.expireAfterWrite(this.expireAfterWriteSeconds, TimeUnit.SECONDS).build();
+	}
+
+	/**
+	 * 获取记录数。
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param query
+	 *            允许为{@code null}
+	 * @return 返回{@code null}表示没有缓存
+	 */
+	public RowCount get(Connection cn, Table table, Query query)
+	{
+		RowCountCacheKey key = toCacheKey(cn, table.getName(), query);
+		return (key == null ? null : this._cache.getIfPresent(key));
+	}
+
+	/**
+	 * 将记录数添加至缓存。
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param query
+	 *            允许为{@code null}
+	 * @param rowCount
+	 */
+	public void put(Connection cn, Table table, Query query, RowCount rowCount)
+	{
+		RowCountCacheKey key = toCacheKey(cn, table.getName(), query);
+
+		if (key != null)
+			this._cache.put(key, rowCount);
+	}
+
+	/**
+	 * 清除指定表的所有记录数缓存。
+	 * 
+	 * @param cn
+	 * @param table
+	 */
+	public void invalidate(Connection cn, Table table)
+	{
+		ConnectionIdentity connectionIdentity = toConnectionIdentity(cn);
+
+		if (connectionIdentity == null)
+			return;
+
+		Set<RowCountCacheKey> myKeys = new HashSet<>();
+
+		for (RowCountCacheKey key : this._cache.asMap().keySet())
+		{
+			if (key.getConnectionIdentity().equals(connectionIdentity) && key.getTableName().equals(table.getName()))
+				myKeys.add(key);
+		}
+
+		if (!myKeys.isEmpty())
+			this._cache.invalidateAll(myKeys);
+	}
+
+	protected RowCountCacheKey toCacheKey(Connection cn, String tableName, Query query)
+	{
+		ConnectionIdentity connectionIdentity = toConnectionIdentity(cn);
+
+		if (connectionIdentity == null)
+			return null;
+
+		if (query == null)
+			return new RowCountCacheKey(connectionIdentity, tableName, null, false, null);
+		else
+			return new RowCountCacheKey(connectionIdentity, tableName, query.getKeyword(), query.isNotLike(),
+					query.getCondition());
+	}
+
+	protected ConnectionIdentity toConnectionIdentity(Connection cn)
+	{
+		ConnectionOption connectionOption = ConnectionOption.valueOf(cn);
+		return (connectionOption == null ? null : ConnectionIdentity.valueOf(connectionOption));
+	}
+
+	/**
+	 * 记录数。
+	 * 
+	 * @author datagear@163.com
+	 * 
+	 */
+	public static class RowCount implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final long count;
+
+		/** 是否是估算值 */
+		private final boolean approximate;
+
+		public RowCount(long count, boolean approximate)
+		{
+			super();
+			this.count = count;
+			this.approximate = approximate;
+		}
+
+		public long getCount()
+		{
+			return count;
+		}
+
+		public boolean isApproximate()
+		{
+			return approximate;
+		}
+
+		@Override
+		public String toString()
+		{
+			return getClass().getSimpleName() + " [count=" + count + ", approximate=" + approximate + "]";
+		}
+	}
+
+	protected static class RowCountCacheKey implements Serializable
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final ConnectionIdentity connectionIdentity;
+
+		private final String tableName;
+
+		private final String keyword;
+
+		private final boolean notLike;
+
+		private final String condition;
+
+		public RowCountCacheKey(ConnectionIdentity connectionIdentity, String tableName, String keyword,
+				boolean notLike, String condition)
+		{
+			super();
+			this.connectionIdentity = connectionIdentity;
+			this.tableName = tableName;
+			this.keyword = keyword;
+			this.notLike = notLike;
+			this.condition = condition;
+		}
+
+		public ConnectionIdentity getConnectionIdentity()
+		{
+			return connectionIdentity;
+		}
+
+		public String getTableName()
+		{
+			return tableName;
+		}
+
+		public String getKeyword()
+		{
+			return keyword;
+		}
+
+		public boolean isNotLike()
+		{
+			return notLike;
+		}
+
+		public String getCondition()
+		{
+			return condition;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((condition == null) ? 0 : condition.hashCode());
+			result = prime * result + ((connectionIdentity == null) ? 0 : connectionIdentity.hashCode());
+			result = prime * result + ((keyword == null) ? 0 : keyword.hashCode());
+			result = prime * result + (notLike ? 1231 : 1237);
+			result = prime * result + ((tableName == null) ? 0 : tableName.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			RowCountCacheKey other = (RowCountCacheKey) obj;
+			if (condition == null)
+			{
+				if (other.condition != null)
+					return false;
+			}
+			else if (!condition.equals(other.condition))
+				return false;
+			if (connectionIdentity == null)
+			{
+				if (other.connectionIdentity != null)
+					return false;
+			}
+			else if (!connectionIdentity.equals(other.connectionIdentity))
+				return false;
+			if (keyword == null)
+			{
+				if (other.keyword != null)
+					return false;
+			}
+			else if (!keyword.equals(other.keyword))
+				return false;
+			if (notLike != other.notLike)
+				return false;
+			if (tableName == null)
+			{
+				if (other.tableName != null)
+					return false;
+			}
+			else if (!tableName.equals(other.tableName))
+				return false;
+			return true;
+		}
+	}
+}
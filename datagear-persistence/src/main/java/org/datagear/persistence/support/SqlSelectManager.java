@@ -103,7 +103,9 @@ public class SqlSelectManager extends PersistenceSupport
 
 		try
 		{
-			qrs = executeQuery(cn, sqlo, ResultSet.TYPE_FORWARD_ONLY);
+			int maxRows = (fetchSize >= 0 ? Math.max(startRow, 1) - 1 + fetchSize : 0);
+
+			qrs = executeQuery(cn, sqlo, ResultSet.TYPE_FORWARD_ONLY, maxRows);
 			ResultSet rs = qrs.getResultSet();
 			Table table = buildTable(cn, rs);
 
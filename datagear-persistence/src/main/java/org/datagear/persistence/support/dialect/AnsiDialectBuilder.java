@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.persistence.support.dialect;
+
+import java.sql.Connection;
+
+import org.datagear.persistence.Dialect;
+import org.datagear.persistence.DialectBuilder;
+import org.datagear.persistence.support.AbstractDialectBuilder;
+
+/**
+ * SQL:2008标准的{@linkplain DialectBuilder}。
+ * <p>
+ * 它不支持任何连接，仅用于{@linkplain org.datagear.persistence.support.DefaultDialectSource}试探未知数据库的分页实现。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class AnsiDialectBuilder extends AbstractDialectBuilder
+{
+	public AnsiDialectBuilder()
+	{
+		super();
+	}
+
+	@Override
+	public boolean supports(Connection cn)
+	{
+		return false;
+	}
+
+	@Override
+	public Dialect build(Connection cn)
+	{
+		return new AnsiDialect(getIdentifierQuote(cn));
+	}
+}
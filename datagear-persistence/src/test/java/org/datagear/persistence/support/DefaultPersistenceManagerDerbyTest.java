@@ -0,0 +1,220 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.persistence.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.datagear.meta.Table;
+import org.datagear.meta.resolver.GenericDBMetaResolver;
+import org.datagear.persistence.Order;
+import org.datagear.persistence.PagingData;
+import org.datagear.persistence.PagingQuery;
+import org.datagear.persistence.Row;
+import org.datagear.persistence.RowCountEstimator;
+import org.datagear.util.JdbcUtil;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * 基于内嵌Derby数据库的{@linkplain DefaultPersistenceManager}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DefaultPersistenceManagerDerbyTest
+{
+	private static final String DB_URL = "jdbc:derby:memory:DefaultPersistenceManagerDerbyTest";
+
+	private static final String TABLE_NAME = "T_PAGING";
+
+	private static final int ROW_COUNT = 10;
+
+	private GenericDBMetaResolver genericDBMetaResolver;
+
+	private DefaultPersistenceManager defaultPersistenceManager;
+
+	private Connection connection;
+
+	public DefaultPersistenceManagerDerbyTest()
+	{
+		super();
+		this.genericDBMetaResolver = new GenericDBMetaResolver();
+		this.defaultPersistenceManager = new DefaultPersistenceManager(
+				new DefaultDialectSource(this.genericDBMetaResolver));
+	}
+
+	@BeforeClass
+	public static void initDatabase() throws Exception
+	{
+		// 避免在工作目录下生成derby.log
+		System.setProperty("derby.stream.error.file", "target/derby.log");
+
+		Connection cn = null;
+		Statement st = null;
+
+		try
+		{
+			cn = DriverManager.getConnection(DB_URL + ";create=true");
+			st = cn.createStatement();
+			st.executeUpdate("CREATE TABLE " + TABLE_NAME + " (ID INTEGER NOT NULL PRIMARY KEY, NAME VARCHAR(50))");
+
+			for (int i = 1; i <= ROW_COUNT; i++)
+				st.executeUpdate("INSERT INTO " + TABLE_NAME + " (ID, NAME) VALUES (" + i + ", 'NAME-" + i + "')");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection(DB_URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库时总会抛出异常
+		}
+	}
+
+	@Before
+	public void init() throws Exception
+	{
+		this.connection = DriverManager.getConnection(DB_URL);
+	}
+
+	@After
+	public void destroy()
+	{
+		JdbcUtil.closeConnection(this.connection);
+	}
+
+	@Test
+	public void pagingQueryTest_approximateTotalLessThanActual()
+	{
+		Table table = this.genericDBMetaResolver.getTable(this.connection, TABLE_NAME);
+
+		// 估算记录数比实际记录数少
+		this.defaultPersistenceManager.setRowCountEstimator(new RowCountEstimator()
+		{
+			@Override
+			public long estimate(Connection cn, Table table)
+			{
+				return 3;
+			}
+		});
+		this.defaultPersistenceManager.setApproximateCountThreshold(0);
+
+		{
+			PagingData<Row> pagingData = this.defaultPersistenceManager.pagingQuery(this.connection, null, table,
+					createApproximatePagingQuery(4, 2), null);
+
+			// 不应被限定为估算总记录数的最后一页
+			assertTrue(pagingData.isTotalApproximate());
+			assertEquals(4, pagingData.getPage());
+			assertEquals(toIds(7, 8), getIds(pagingData));
+			assertTrue(pagingData.isHasNext());
+			assertEquals(9, pagingData.getTotal());
+			assertEquals(5, pagingData.getPages());
+		}
+
+		{
+			PagingData<Row> pagingData = this.defaultPersistenceManager.pagingQuery(this.connection, null, table,
+					createApproximatePagingQuery(5, 2), null);
+
+			assertEquals(5, pagingData.getPage());
+			assertEquals(toIds(9, 10), getIds(pagingData));
+			assertFalse(pagingData.isHasNext());
+			assertEquals(ROW_COUNT, pagingData.getTotal());
+		}
+
+		{
+			PagingData<Row> pagingData = this.defaultPersistenceManager.pagingQuery(this.connection, null, table,
+					createApproximatePagingQuery(1, 2), null);
+
+			assertEquals(1, pagingData.getPage());
+			assertEquals(toIds(1, 2), getIds(pagingData));
+			assertTrue(pagingData.isHasNext());
+			assertEquals(3, pagingData.getTotal());
+		}
+	}
+
+	@Test
+	public void pagingQueryTest_exactTotal()
+	{
+		Table table = this.genericDBMetaResolver.getTable(this.connection, TABLE_NAME);
+
+		PagingQuery pagingQuery = new PagingQuery(6, 2);
+		pagingQuery.setOrders(Order.valueOf("ID", Order.ASC));
+
+		// 精确总记录数时，超出总页数的页码仍限定为最后一页
+		PagingData<Row> pagingData = this.defaultPersistenceManager.pagingQuery(this.connection, null, table,
+				pagingQuery, null);
+
+		assertFalse(pagingData.isTotalApproximate());
+		assertEquals(ROW_COUNT, pagingData.getTotal());
+		assertEquals(5, pagingData.getPage());
+		assertEquals(toIds(9, 10), getIds(pagingData));
+		assertFalse(pagingData.isHasNext());
+	}
+
+	protected PagingQuery createApproximatePagingQuery(int page, int pageSize)
+	{
+		PagingQuery pagingQuery = new PagingQuery(page, pageSize);
+		pagingQuery.setOrders(Order.valueOf("ID", Order.ASC));
+		pagingQuery.setApproximateTotal(true);
+
+		return pagingQuery;
+	}
+
+	protected List<Integer> getIds(PagingData<Row> pagingData)
+	{
+		List<Integer> ids = new ArrayList<>();
+
+		for (Row row : pagingData.getItems())
+			ids.add(((Number) row.get("ID")).intValue());
+
+		return ids;
+	}
+
+	protected List<Integer> toIds(int... ids)
+	{
+		List<Integer> re = new ArrayList<>();
+
+		for (int id : ids)
+			re.add(id);
+
+		return re;
+	}
+}
@@ -19,14 +19,22 @@ package org.datagear.persistence.support;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.sql.Types;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
 
+import org.datagear.meta.Column;
+import org.datagear.meta.PrimaryKey;
 import org.datagear.meta.Table;
+import org.datagear.meta.TableType;
+import org.datagear.meta.UniqueKey;
+import org.datagear.persistence.Order;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.persistence.PersistenceTestSupport;
@@ -104,4 +112,103 @@ public class DefaultPersistenceManagerTest extends PersistenceTestSupport
 
 		assertTrue(rows.size() <= 1);
 	}
+
+	@Test
+	public void pagingQueryTest_keyset() throws Exception
+	{
+		Table table = this.genericDBMetaResolver.getTable(this.connection, "T_ACCOUNT");
+
+		int[] ids = { 999999901, 999999902, 999999903 };
+		Row[] rows = new Row[ids.length];
+
+		for (int i = 0; i < ids.length; i++)
+		{
+			rows[i] = new Row();
+			rows[i].put("ID", ids[i]);
+			rows[i].put("NAME", "NAME-FOR-KEYSET-" + i);
+		}
+
+		try
+		{
+			for (Row row : rows)
+			{
+				this.defaultPersistenceManager.delete(connection, table, row);
+				this.defaultPersistenceManager.insert(connection, null, table, row, new ConversionSqlParamValueMapper());
+			}
+
+			PagingQuery pagingQuery = new PagingQuery(1, 1);
+			pagingQuery.setCountTotal(false);
+
+			// 从测试数据之前开始，确保结果仅包含测试数据
+			Row keyset = new Row();
+			keyset.put("ID", ids[0] - 1);
+			pagingQuery.setKeyset(keyset);
+
+			for (int i = 0; i < ids.length; i++)
+			{
+				PagingData<Row> pagingData = this.defaultPersistenceManager.pagingQuery(connection, table,
+						pagingQuery);
+
+				assertTrue(pagingData.isTotalUnknown());
+				assertEquals(1, pagingData.getItems().size());
+				assertEquals(ids[i], ((Number) pagingData.getItems().get(0).get("ID")).intValue());
+
+				if (i < ids.length - 1)
+				{
+					assertTrue(pagingData.isHasNext());
+					assertEquals(ids[i], ((Number) pagingData.getNextKeyset().get("ID")).intValue());
+
+					pagingQuery.setPage(i + 2);
+					pagingQuery.setKeyset(pagingData.getNextKeyset());
+				}
+				else
+					assertFalse(pagingData.isHasNext());
+			}
+		}
+		finally
+		{
+			for (Row row : rows)
+				this.defaultPersistenceManager.delete(connection, table, row);
+		}
+	}
+
+	@Test
+	public void getKeysetOrdersTest()
+	{
+		Column id = new Column("ID", Types.INTEGER);
+		id.setNullable(true);
+		id.setSortable(true);
+
+		Column code = new Column("CODE", Types.VARCHAR);
+		code.setNullable(false);
+		code.setSortable(true);
+
+		Column name = new Column("NAME", Types.VARCHAR);
+		name.setNullable(true);
+		name.setSortable(true);
+
+		Table table = new Table("T_KEYSET", TableType.TABLE, new Column[] { id, code, name });
+
+		// 没有主键和唯一键
+		assertNull(this.defaultPersistenceManager.getKeysetOrders(table, null));
+
+		// 唯一键列可为null，不能作为唯一排序依据
+		table.setUniqueKeys(new UniqueKey[] { new UniqueKey(new String[] { "ID" }) });
+		assertNull(this.defaultPersistenceManager.getKeysetOrders(table, null));
+
+		// 跳过可为null的唯一键，使用下一个列都不可为null的唯一键
+		table.setUniqueKeys(new UniqueKey[] { new UniqueKey(new String[] { "ID" }),
+				new UniqueKey(new String[] { "CODE" }) });
+		Order[] orders = this.defaultPersistenceManager.getKeysetOrders(table, null);
+		assertEquals(1, orders.length);
+		assertEquals("CODE", orders[0].getName());
+
+		// 排序列可为null
+		assertNull(this.defaultPersistenceManager.getKeysetOrders(table,
+				new Order[] { Order.valueOf("NAME", Order.ASC) }));
+
+		// 主键列可为null
+		table.setPrimaryKey(new PrimaryKey(new String[] { "ID" }));
+		assertNull(this.defaultPersistenceManager.getKeysetOrders(table, null));
+	}
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.persistence.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.datagear.meta.Table;
+import org.datagear.meta.TableType;
+import org.datagear.util.Sql;
+import org.junit.Test;
+
+/**
+ * {@linkplain DefaultRowCountEstimator}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DefaultRowCountEstimatorTest
+{
+	private static final Table TABLE = new Table("T_ACCOUNT", TableType.TABLE);
+
+	private static final String URL_MYSQL = "jdbc:mysql://localhost:3306/test";
+
+	private static final String URL_POSTGRESQL = "jdbc:postgresql://localhost:5432/test";
+
+	private static final String URL_ORACLE = "jdbc:oracle:thin:@localhost:1521:orcl";
+
+	private static final String URL_SQLSERVER = "jdbc:sqlserver://localhost:1433;databaseName=test";
+
+	private static final String URL_DERBY = "jdbc:derby:test";
+
+	public DefaultRowCountEstimatorTest()
+	{
+		super();
+	}
+
+	@Test
+	public void buildEstimateSqlTest()
+	{
+		DefaultRowCountEstimator estimator = new DefaultRowCountEstimator();
+
+		{
+			Sql sql = estimator.buildEstimateSql(connection(URL_MYSQL, null), TABLE);
+			assertNotNull(sql);
+			assertTrue(sql.getSqlValue().contains("information_schema.TABLES"));
+			assertEquals(TABLE.getName(), sql.getParamValues().get(0).getValue());
+		}
+
+		{
+			Sql sql = estimator.buildEstimateSql(connection(URL_POSTGRESQL, null), TABLE);
+			assertNotNull(sql);
+			assertTrue(sql.getSqlValue().contains("pg_class"));
+			assertEquals(TABLE.getName(), sql.getParamValues().get(0).getValue());
+		}
+
+		{
+			Sql sql = estimator.buildEstimateSql(connection(URL_ORACLE, null), TABLE);
+			assertNotNull(sql);
+			assertTrue(sql.getSqlValue().contains("ALL_TABLES"));
+			assertEquals(TABLE.getName(), sql.getParamValues().get(0).getValue());
+		}
+
+		{
+			Sql sql = estimator.buildEstimateSql(connection(URL_SQLSERVER, null), TABLE);
+			assertNotNull(sql);
+			assertTrue(sql.getSqlValue().contains("sys.partitions"));
+			assertEquals(TABLE.getName(), sql.getParamValues().get(0).getValue());
+		}
+
+		assertNull(estimator.buildEstimateSql(connection(URL_DERBY, null), TABLE));
+		assertNull(estimator.buildEstimateSql(connection(null, null), TABLE));
+	}
+
+	@Test
+	public void estimateTest()
+	{
+		DefaultRowCountEstimator estimator = new DefaultRowCountEstimator();
+
+		assertEquals(12345L, estimator.estimate(connection(URL_MYSQL, resultSet(true, 12345L, false)), TABLE));
+		assertEquals(0L, estimator.estimate(connection(URL_ORACLE, resultSet(true, 0L, false)), TABLE));
+	}
+
+	@Test
+	public void estimateTest_noStatistics()
+	{
+		DefaultRowCountEstimator estimator = new DefaultRowCountEstimator();
+
+		// 没有统计信息的表
+		assertEquals(-1L, estimator.estimate(connection(URL_MYSQL, resultSet(false, 0L, false)), TABLE));
+		// Oracle未收集统计信息时为NULL
+		assertEquals(-1L, estimator.estimate(connection(URL_ORACLE, resultSet(true, 0L, true)), TABLE));
+		// PostgreSQL未收集统计信息时为-1
+		assertEquals(-1L, estimator.estimate(connection(URL_POSTGRESQL, resultSet(true, -1L, false)), TABLE));
+	}
+
+	@Test
+	public void estimateTest_unsupported()
+	{
+		DefaultRowCountEstimator estimator = new DefaultRowCountEstimator();
+
+		assertEquals(-1L, estimator.estimate(connection(URL_DERBY, resultSet(true, 100L, false)), TABLE));
+	}
+
+	@Test
+	public void estimateTest_queryError()
+	{
+		DefaultRowCountEstimator estimator = new DefaultRowCountEstimator();
+
+		Map<String, Object> cnReturns = new HashMap<>();
+		cnReturns.put("getMetaData", metaData(URL_MYSQL));
+		cnReturns.put("prepareStatement", new SQLException("access denied"));
+
+		assertEquals(-1L, estimator.estimate(proxy(Connection.class, cnReturns), TABLE));
+	}
+
+	protected Connection connection(String url, ResultSet rs)
+	{
+		Map<String, Object> pstReturns = new HashMap<>();
+		pstReturns.put("executeQuery", rs);
+		pstReturns.put("getResultSetType", ResultSet.TYPE_FORWARD_ONLY);
+
+		Map<String, Object> cnReturns = new HashMap<>();
+		cnReturns.put("getMetaData", metaData(url));
+		cnReturns.put("prepareStatement", proxy(PreparedStatement.class, pstReturns));
+
+		return proxy(Connection.class, cnReturns);
+	}
+
+	protected DatabaseMetaData metaData(String url)
+	{
+		Map<String, Object> returns = new HashMap<>();
+		returns.put("getURL", url);
+
+		return proxy(DatabaseMetaData.class, returns);
+	}
+
+	protected ResultSet resultSet(boolean next, long count, boolean wasNull)
+	{
+		Map<String, Object> returns = new HashMap<>();
+		returns.put("next", next);
+		returns.put("getLong", count);
+		returns.put("wasNull", wasNull);
+
+		return proxy(ResultSet.class, returns);
+	}
+
+	/**
+	 * 创建代理对象：方法名在{@code returns}中时返回对应值（异常时抛出），否则返回默认值。
+	 * 
+	 * @param type
+	 * @param returns
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> T proxy(Class<T> type, final Map<String, Object> returns)
+	{
+		InvocationHandler handler = new InvocationHandler()
+		{
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+			{
+				Object value = returns.get(method.getName());
+
+				if (value instanceof Throwable)
+					throw (Throwable) value;
+
+				if (value != null)
+					return value;
+
+				Class<?> returnType = method.getReturnType();
+
+				if (returnType == boolean.class)
+					return false;
+				else if (returnType == int.class)
+					return 0;
+				else if (returnType == long.class)
+					return 0L;
+				else
+					return null;
+			}
+		};
+
+		return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type }, handler);
+	}
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.persistence.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+
+import org.datagear.meta.Table;
+import org.datagear.meta.TableType;
+import org.datagear.persistence.Query;
+import org.datagear.persistence.support.RowCountCache.RowCount;
+import org.junit.Test;
+
+/**
+ * {@linkplain RowCountCache}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class RowCountCacheTest
+{
+	private static final Table TABLE_0 = new Table("T_0", TableType.TABLE);
+
+	private static final Table TABLE_1 = new Table("T_1", TableType.TABLE);
+
+	public RowCountCacheTest()
+	{
+		super();
+	}
+
+	@Test
+	public void getTest()
+	{
+		RowCountCache cache = createCache();
+		Connection cn = connection("jdbc:mysql://localhost:3306/test", "root");
+
+		assertNull(cache.get(cn, TABLE_0, null));
+
+		cache.put(cn, TABLE_0, null, new RowCount(100, false));
+
+		{
+			RowCount rowCount = cache.get(cn, TABLE_0, null);
+			assertEquals(100, rowCount.getCount());
+			assertFalse(rowCount.isApproximate());
+		}
+
+		// 没有关键字、条件的查询与null查询使用同一缓存
+		{
+			RowCount rowCount = cache.get(cn, TABLE_0, new Query());
+			assertEquals(100, rowCount.getCount());
+		}
+
+		// 同一连接标识的其他连接共享缓存
+		{
+			RowCount rowCount = cache.get(connection("jdbc:mysql://localhost:3306/test", "root"), TABLE_0, null);
+			assertEquals(100, rowCount.getCount());
+		}
+
+		assertNull(cache.get(cn, TABLE_1, null));
+		assertNull(cache.get(connection("jdbc:mysql://localhost:3306/test", "other"), TABLE_0, null));
+		assertNull(cache.get(connection("jdbc:mysql://localhost:3306/other", "root"), TABLE_0, null));
+	}
+
+	@Test
+	public void getTest_query()
+	{
+		RowCountCache cache = createCache();
+		Connection cn = connection("jdbc:mysql://localhost:3306/test", "root");
+
+		cache.put(cn, TABLE_0, null, new RowCount(100, true));
+		cache.put(cn, TABLE_0, new Query("a"), new RowCount(10, false));
+
+		{
+			Query query = new Query("a");
+			query.setNotLike(true);
+			cache.put(cn, TABLE_0, query, new RowCount(90, false));
+		}
+
+		cache.put(cn, TABLE_0, new Query(null, "ID > 5"), new RowCount(5, false));
+
+		assertTrue(cache.get(cn, TABLE_0, null).isApproximate());
+		assertEquals(100, cache.get(cn, TABLE_0, null).getCount());
+		assertEquals(10, cache.get(cn, TABLE_0, new Query("a")).getCount());
+		assertEquals(5, cache.get(cn, TABLE_0, new Query(null, "ID > 5")).getCount());
+
+		{
+			Query query = new Query("a");
+			query.setNotLike(true);
+			assertEquals(90, cache.get(cn, TABLE_0, query).getCount());
+		}
+
+		assertNull(cache.get(cn, TABLE_0, new Query("b")));
+		assertNull(cache.get(cn, TABLE_0, new Query("a", "ID > 5")));
+	}
+
+	@Test
+	public void putTest_connectionWithoutURL()
+	{
+		RowCountCache cache = createCache();
+		Connection cn = connection(null, "root");
+
+		cache.put(cn, TABLE_0, null, new RowCount(100, false));
+
+		assertNull(cache.get(cn, TABLE_0, null));
+	}
+
+	@Test
+	public void invalidateTest()
+	{
+		RowCountCache cache = createCache();
+		Connection cn = connection("jdbc:mysql://localhost:3306/test", "root");
+		Connection cnOther = connection("jdbc:mysql://localhost:3306/other", "root");
+
+		cache.put(cn, TABLE_0, null, new RowCount(100, false));
+		cache.put(cn, TABLE_0, new Query("a"), new RowCount(10, false));
+		cache.put(cn, TABLE_1, null, new RowCount(200, false));
+		cache.put(cnOther, TABLE_0, null, new RowCount(300, false));
+
+		cache.invalidate(cn, TABLE_0);
+
+		assertNull(cache.get(cn, TABLE_0, null));
+		assertNull(cache.get(cn, TABLE_0, new Query("a")));
+		assertEquals(200, cache.get(cn, TABLE_1, null).getCount());
+		assertEquals(300, cache.get(cnOther, TABLE_0, null).getCount());
+	}
+
+	protected RowCountCache createCache()
+	{
+		RowCountCache cache = new RowCountCache();
+		cache.init();
+
+		return cache;
+	}
+
+	protected Connection connection(final String url, final String userName)
+	{
+		final DatabaseMetaData metaData = proxy(DatabaseMetaData.class, new InvocationHandler()
+		{
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+			{
+				if ("getURL".equals(method.getName()))
+					return url;
+				else if ("getUserName".equals(method.getName()))
+					return userName;
+				else
+					return null;
+			}
+		});
+
+		return proxy(Connection.class, new InvocationHandler()
+		{
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+			{
+				return ("getMetaData".equals(method.getName()) ? metaData : null);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <T> T proxy(Class<T> type, InvocationHandler handler)
+	{
+		return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type }, handler);
+	}
+}
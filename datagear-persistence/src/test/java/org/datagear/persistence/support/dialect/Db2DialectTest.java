@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.persistence.support.dialect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.datagear.util.Sql;
+import org.junit.Test;
+
+/**
+ * {@linkplain Db2Dialect}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class Db2DialectTest extends DialectTestSupport
+{
+	public Db2DialectTest()
+	{
+		super();
+	}
+
+	@Test
+	public void toPagingQuerySqlTest_firstPage()
+	{
+		Db2Dialect dialect = new Db2Dialect("\"");
+
+		assertTrue(dialect.supportsPagingSql());
+
+		// 首页使用FETCH FIRST
+		{
+			Sql sql = dialect.toPagingQuerySql(createQuery(), createOrders(), 1, 5);
+
+			assertEquals("SELECT * FROM (SELECT * FROM T_ACCOUNT WHERE NAME <> ?) T  ORDER BY \"ID\" DESC, \"NAME\" ASC"
+					+ " FETCH FIRST 5 ROWS ONLY", sql.getSqlValue());
+			assertEquals(1, sql.getParamValues().size());
+		}
+
+		{
+			Sql sql = dialect.toPagingQuerySql(createQuery(), null, 1, 5);
+
+			assertEquals("SELECT * FROM (SELECT * FROM T_ACCOUNT WHERE NAME <> ?) T  FETCH FIRST 5 ROWS ONLY",
+					sql.getSqlValue());
+			assertEquals(1, sql.getParamValues().size());
+		}
+	}
+
+	@Test
+	public void toPagingQuerySqlTest_otherPage()
+	{
+		Db2Dialect dialect = new Db2Dialect("\"");
+
+		// 非首页使用ROW_NUMBER()
+		{
+			Sql sql = dialect.toPagingQuerySql(createQuery(), createOrders(), 11, 5);
+
+			assertEquals("SELECT T1.* FROM (SELECT ROW_NUMBER() OVER (ORDER BY \"ID\" DESC, \"NAME\" ASC)"
+					+ " AS ROWNUM_____, T0.*  FROM (SELECT * FROM T_ACCOUNT WHERE NAME <> ?) T0 ) T1"
+					+ " WHERE (T1.ROWNUM_____ >= 11 AND T1.ROWNUM_____ < 16) ORDER BY T1.ROWNUM_____",
+					sql.getSqlValue());
+			assertEquals(1, sql.getParamValues().size());
+		}
+
+		{
+			Sql sql = dialect.toPagingQuerySql(createQuery(), null, 11, 5);
+
+			assertEquals("SELECT T1.* FROM (SELECT ROW_NUMBER() OVER () AS ROWNUM_____, T0.* "
+					+ " FROM (SELECT * FROM T_ACCOUNT WHERE NAME <> ?) T0 ) T1"
+					+ " WHERE (T1.ROWNUM_____ >= 11 AND T1.ROWNUM_____ < 16) ORDER BY T1.ROWNUM_____",
+					sql.getSqlValue());
+			assertEquals(1, sql.getParamValues().size());
+		}
+	}
+
+	@Test
+	public void builderTest()
+	{
+		Db2DialectBuilder builder = new Db2DialectBuilder();
+
+		assertTrue(builder.supports(connection("jdbc:db2://localhost:50000/test")));
+		assertFalse(builder.supports(connection("jdbc:derby:test")));
+		assertTrue(builder.build(connection("jdbc:db2://localhost:50000/test")) instanceof Db2Dialect);
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.persistence.support.dialect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.datagear.meta.resolver.GenericDBMetaResolver;
+import org.datagear.persistence.Dialect;
+import org.datagear.persistence.Order;
+import org.datagear.persistence.support.DefaultDialectSource;
+import org.datagear.util.JdbcUtil;
+import org.datagear.util.Sql;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * {@linkplain DerbyDialect}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DerbyDialectTest extends DialectTestSupport
+{
+	private static final String DB_URL = "jdbc:derby:memory:DerbyDialectTest";
+
+	public DerbyDialectTest()
+	{
+		super();
+	}
+
+	@BeforeClass
+	public static void initDatabase() throws Exception
+	{
+		// 避免在工作目录下生成derby.log
+		System.setProperty("derby.stream.error.file", "target/derby.log");
+
+		Connection cn = null;
+		Statement st = null;
+
+		try
+		{
+			cn = DriverManager.getConnection(DB_URL + ";create=true");
+			st = cn.createStatement();
+			st.executeUpdate("CREATE TABLE T_ACCOUNT (ID INTEGER NOT NULL PRIMARY KEY, NAME VARCHAR(50))");
+
+			for (int i = 1; i <= 10; i++)
+				st.executeUpdate("INSERT INTO T_ACCOUNT (ID, NAME) VALUES (" + i + ", 'NAME-" + (i % 3) + "')");
+
+			st.executeUpdate("INSERT INTO T_ACCOUNT (ID, NAME) VALUES (11, 'test')");
+		}
+		finally
+		{
+			JdbcUtil.closeStatement(st);
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	@AfterClass
+	public static void dropDatabase()
+	{
+		try
+		{
+			DriverManager.getConnection(DB_URL + ";drop=true");
+		}
+		catch (SQLException e)
+		{
+			// 删除内存数据库时总会抛出异常
+		}
+	}
+
+	@Test
+	public void toPagingQuerySqlTest()
+	{
+		DerbyDialect dialect = new DerbyDialect("\"");
+
+		assertTrue(dialect.supportsPagingSql());
+
+		Sql sql = dialect.toPagingQuerySql(createQuery(), createOrders(), 11, 5);
+
+		assertEquals("SELECT * FROM (SELECT * FROM T_ACCOUNT WHERE NAME <> ?) T  ORDER BY \"ID\" DESC, \"NAME\" ASC"
+				+ " OFFSET 10 ROWS FETCH NEXT 5 ROWS ONLY", sql.getSqlValue());
+		assertEquals(1, sql.getParamValues().size());
+	}
+
+	@Test
+	public void builderTest()
+	{
+		DerbyDialectBuilder builder = new DerbyDialectBuilder();
+
+		assertTrue(builder.supports(connection("jdbc:derby:memory:test")));
+		assertFalse(builder.supports(connection("jdbc:db2://localhost:50000/test")));
+		assertTrue(builder.build(connection("jdbc:derby:memory:test")) instanceof DerbyDialect);
+	}
+
+	@Test
+	public void toPagingQuerySqlTest_execute() throws Exception
+	{
+		Connection cn = null;
+
+		try
+		{
+			cn = DriverManager.getConnection(DB_URL);
+
+			Dialect dialect = new DefaultDialectSource(new GenericDBMetaResolver()).getDialect(cn);
+			assertTrue(dialect instanceof DerbyDialect);
+
+			Order[] orders = new Order[] { Order.valueOf("ID", Order.DESC) };
+
+			assertEquals(Arrays.asList(10, 9, 8, 7), queryIds(cn, dialect.toPagingQuerySql(createQuery(), orders, 1, 4)));
+			assertEquals(Arrays.asList(6, 5, 4, 3), queryIds(cn, dialect.toPagingQuerySql(createQuery(), orders, 5, 4)));
+			assertEquals(Arrays.asList(2, 1), queryIds(cn, dialect.toPagingQuerySql(createQuery(), orders, 9, 4)));
+			assertEquals(Arrays.asList(), queryIds(cn, dialect.toPagingQuerySql(createQuery(), orders, 13, 4)));
+
+			// 多列排序
+			Order[] multipleOrders = new Order[] { Order.valueOf("NAME", Order.ASC), Order.valueOf("ID", Order.DESC) };
+			assertEquals(Arrays.asList(9, 6, 3, 10),
+					queryIds(cn, dialect.toPagingQuerySql(createQuery(), multipleOrders, 1, 4)));
+		}
+		finally
+		{
+			JdbcUtil.closeConnection(cn);
+		}
+	}
+
+	protected List<Integer> queryIds(Connection cn, Sql sql) throws SQLException
+	{
+		List<Integer> ids = new ArrayList<>();
+
+		PreparedStatement pst = null;
+		ResultSet rs = null;
+
+		try
+		{
+			pst = cn.prepareStatement(sql.getSqlValue());
+			pst.setString(1, (String) sql.getParamValues().get(0).getValue());
+			rs = pst.executeQuery();
+
+			while (rs.next())
+				ids.add(rs.getInt("ID"));
+		}
+		finally
+		{
+			JdbcUtil.closeResultSet(rs);
+			JdbcUtil.closeStatement(pst);
+		}
+
+		return ids;
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.persistence.support.dialect;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Types;
+
+import org.datagear.persistence.Order;
+import org.datagear.util.Sql;
+import org.datagear.util.SqlParamValue;
+
+/**
+ * 方言单元测试支持类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DialectTestSupport
+{
+	public DialectTestSupport()
+	{
+		super();
+	}
+
+	/**
+	 * 创建带有一个参数的查询SQL。
+	 * 
+	 * @return
+	 */
+	protected Sql createQuery()
+	{
+		return Sql.valueOf("SELECT * FROM T_ACCOUNT WHERE NAME <> ?")
+				.param(new SqlParamValue("test", Types.VARCHAR));
+	}
+
+	protected Order[] createOrders()
+	{
+		return new Order[] { Order.valueOf("ID", Order.DESC), Order.valueOf("NAME", Order.ASC) };
+	}
+
+	/**
+	 * 创建仅支持{@linkplain Connection#getMetaData()}的连接。
+	 * 
+	 * @param url
+	 * @return
+	 */
+	protected Connection connection(final String url)
+	{
+		final DatabaseMetaData metaData = proxy(DatabaseMetaData.class, new InvocationHandler()
+		{
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+			{
+				if ("getURL".equals(method.getName()))
+					return url;
+				else if ("getIdentifierQuoteString".equals(method.getName()))
+					return "\"";
+				else
+					return null;
+			}
+		});
+
+		return proxy(Connection.class, new InvocationHandler()
+		{
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+			{
+				return ("getMetaData".equals(method.getName()) ? metaData : null);
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <T> T proxy(Class<T> type, InvocationHandler handler)
+	{
+		return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type }, handler);
+	}
+}
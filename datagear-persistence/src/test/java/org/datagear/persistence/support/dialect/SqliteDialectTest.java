@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.persistence.support.dialect;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.datagear.util.Sql;
+import org.junit.Test;
+
+/**
+ * {@linkplain SqliteDialect}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class SqliteDialectTest extends DialectTestSupport
+{
+	public SqliteDialectTest()
+	{
+		super();
+	}
+
+	@Test
+	public void toPagingQuerySqlTest()
+	{
+		SqliteDialect dialect = new SqliteDialect("\"");
+
+		assertTrue(dialect.supportsPagingSql());
+
+		{
+			Sql sql = dialect.toPagingQuerySql(createQuery(), createOrders(), 11, 5);
+
+			assertEquals("SELECT * FROM (SELECT * FROM T_ACCOUNT WHERE NAME <> ?) T  ORDER BY \"ID\" DESC, \"NAME\" ASC"
+					+ " LIMIT 5 OFFSET 10", sql.getSqlValue());
+			assertEquals(1, sql.getParamValues().size());
+		}
+
+		{
+			Sql sql = dialect.toPagingQuerySql(createQuery(), null, 1, 5);
+
+			assertEquals("SELECT * FROM T_ACCOUNT WHERE NAME <> ? LIMIT 5 OFFSET 0", sql.getSqlValue());
+			assertEquals(1, sql.getParamValues().size());
+		}
+	}
+
+	@Test
+	public void builderTest()
+	{
+		SqliteDialectBuilder builder = new SqliteDialectBuilder();
+
+		assertTrue(builder.supports(connection("jdbc:sqlite:test.db")));
+		assertTrue(builder.supports(connection("jdbc:sqlite::memory:")));
+		assertFalse(builder.supports(connection("jdbc:mysql://localhost:3306/test")));
+		assertTrue(builder.build(connection("jdbc:sqlite:test.db")) instanceof SqliteDialect);
+	}
+}
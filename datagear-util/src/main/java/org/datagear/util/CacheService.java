@@ -17,6 +17,9 @@
 
 package org.datagear.util;
 
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+
 import org.springframework.cache.Cache;
 import org.springframework.cache.Cache.ValueWrapper;
 
@@ -206,6 +209,33 @@ public class CacheService
 		this.cache.evictIfPresent(key);
 	}
 
+	/**
+	 * 删除所有关键字符合条件的缓存。
+	 * <p>
+	 * 如果{@linkplain #isEnabled()}为{@code false}，将不执行任何操作。
+	 * </p>
+	 * <p>
+	 * 如果底层缓存不支持遍历关键字，将清空缓存。
+	 * </p>
+	 * 
+	 * @param keyPredicate
+	 */
+	@SuppressWarnings("unchecked")
+	public void evictIf(Predicate<Object> keyPredicate)
+	{
+		if (!isEnabled())
+			return;
+
+		Object nativeCache = this.cache.getNativeCache();
+
+		if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?>)
+			((com.github.benmanes.caffeine.cache.Cache<Object, ?>) nativeCache).asMap().keySet().removeIf(keyPredicate);
+		else if (nativeCache instanceof ConcurrentMap<?, ?>)
+			((ConcurrentMap<Object, ?>) nativeCache).keySet().removeIf(keyPredicate);
+		else
+			this.cache.invalidate();
+	}
+
 	/**
 	 * 清空缓存。
 	 * <p>
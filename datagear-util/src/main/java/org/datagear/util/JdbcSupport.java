@@ -63,6 +63,24 @@ public class JdbcSupport
 {
 	private static final Logger LOGGER = LoggerFactory.getLogger(JdbcSupport.class);
 
+	/** 查询获取数目策略，为{@code null}表示不设置 */
+	private QueryFetchSizeStrategy queryFetchSizeStrategy = new QueryFetchSizeStrategy();
+
+	public JdbcSupport()
+	{
+		super();
+	}
+
+	public QueryFetchSizeStrategy getQueryFetchSizeStrategy()
+	{
+		return queryFetchSizeStrategy;
+	}
+
+	public void setQueryFetchSizeStrategy(QueryFetchSizeStrategy queryFetchSizeStrategy)
+	{
+		this.queryFetchSizeStrategy = queryFetchSizeStrategy;
+	}
+
 	/**
 	 * 执行数目查询。
 	 * 
@@ -84,7 +102,7 @@ public class JdbcSupport
 			ResultSet rs = qrs.getResultSet();
 
 			if (rs.next())
-				count = rs.getInt(1);
+				count = rs.getLong(1);
 
 			return count;
 		}
@@ -106,12 +124,34 @@ public class JdbcSupport
 	 */
 	public QueryResultSet executeQuery(Connection cn, Sql sql, int resultSetType) throws SQLException
 	{
-		LOGGER.debug("execute {}, resultSetType={}", sql, resultSetType);
+		return executeQuery(cn, sql, resultSetType, 0);
+	}
+
+	/**
+	 * 执行查询。
+	 * <p>
+	 * 对于{@linkplain ResultSet#TYPE_FORWARD_ONLY}查询，将根据{@linkplain #getQueryFetchSizeStrategy()}流式读取结果集，
+	 * 此时应设置{@code maxRows}，避免关闭未读完的流式结果集时仍需读取剩余数据（比如MySQL）。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param sql
+	 * @param resultSetType
+	 *            {@code ResultSet.TYPE_*}
+	 * @param maxRows
+	 *            最多读取行数，小于等于{@code 0}表示不限定
+	 * @return
+	 * @throws SQLException
+	 */
+	public QueryResultSet executeQuery(Connection cn, Sql sql, int resultSetType, int maxRows) throws SQLException
+	{
+		LOGGER.debug("execute {}, resultSetType={}, maxRows={}", sql, resultSetType, maxRows);
 
 		Statement st = null;
 		ResultSet rs = null;
 		@SuppressWarnings("unchecked")
 		List<Object> setParams = Collections.EMPTY_LIST;
+		boolean restoreAutoCommit = false;
 
 		try
 		{
@@ -122,22 +162,38 @@ public class JdbcSupport
 			{
 				PreparedStatement pst = createQueryPreparedStatement(cn, sql.getSqlValue(), resultSetType);
 				st = pst;
+				restoreAutoCommit = prepareQueryStatement(cn, st, maxRows);
 				setParams = setParamValues(cn, pst, sql);
+				StatementCanceler.registerCurrent(st);
 				rs = pst.executeQuery();
 			}
 			else
 			{
 				Statement stt = createQueryStatement(cn, resultSetType);
 				st = stt;
+				restoreAutoCommit = prepareQueryStatement(cn, st, maxRows);
+				StatementCanceler.registerCurrent(st);
 				rs = stt.executeQuery(sql.getSqlValue());
 			}
 
-			return new QueryResultSet(st, rs, setParams);
+			QueryResultSet qrs = new QueryResultSet(st, rs, setParams);
+
+			if (restoreAutoCommit)
+				qrs.setRestoreAutoCommitConnection(cn);
+
+			return qrs;
 		}
 		catch (SQLSyntaxErrorException | SQLDataException | SQLTimeoutException | SQLWarning e)
 		{
 			@JDBCCompatiblity("这些异常必定不是驱动程序的ResultSet.TYPE_SCROLL_*支持与否问题，不需要再降级处理")
 			SQLException e1 = e;
+
+			IOUtil.closeIf(setParams);
+			JdbcUtil.closeResultSet(rs);
+			StatementCanceler.unregisterCurrent(st);
+			JdbcUtil.closeStatement(st);
+			restoreAutoCommitIf(cn, restoreAutoCommit);
+
 			throw e1;
 		}
 		catch (SQLException e)
@@ -152,24 +208,53 @@ public class JdbcSupport
 			{
 				IOUtil.closeIf(setParams);
 				JdbcUtil.closeResultSet(rs);
+				StatementCanceler.unregisterCurrent(st);
 				JdbcUtil.closeStatement(st);
+				restoreAutoCommitIf(cn, restoreAutoCommit);
 
 				throw e;
 			}
 			else
 			{
 				JdbcUtil.closeResultSet(rs);
+				StatementCanceler.unregisterCurrent(st);
 				JdbcUtil.closeStatement(st);
+				restoreAutoCommitIf(cn, restoreAutoCommit);
 
 				LOGGER.debug("query is downgraded to [ResultSet.TYPE_FORWARD_ONLY] for exception :", e);
 
 				@JDBCCompatiblity("降级为ResultSet.TYPE_FORWARD_ONLY重新执行")
-				QueryResultSet qrs = executeQuery(cn, sql, ResultSet.TYPE_FORWARD_ONLY);
+				QueryResultSet qrs = executeQuery(cn, sql, ResultSet.TYPE_FORWARD_ONLY, maxRows);
 				return qrs;
 			}
 		}
 	}
 
+	/**
+	 * 为查询{@linkplain Statement}设置获取数目、最多读取行数。
+	 * 
+	 * @param cn
+	 * @param st
+	 * @param maxRows
+	 * @return 是否关闭了{@code cn}的自动提交，为{@code true}时，应在查询结束后恢复
+	 */
+	protected boolean prepareQueryStatement(Connection cn, Statement st, int maxRows)
+	{
+		// 连接池缓存的语句会保留上次设置的最多行数，因此这里总是设置
+		JdbcUtil.setMaxRowsIfSupports(st, (maxRows > 0 ? maxRows : 0));
+
+		if (this.queryFetchSizeStrategy == null)
+			return false;
+
+		return this.queryFetchSizeStrategy.apply(cn, st);
+	}
+
+	protected void restoreAutoCommitIf(Connection cn, boolean restoreAutoCommit)
+	{
+		if (restoreAutoCommit)
+			JdbcUtil.setAutoCommitIfSupports(cn, true);
+	}
+
 	/**
 	 * 执行更新。
 	 * 
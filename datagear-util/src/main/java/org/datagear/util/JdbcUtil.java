@@ -377,6 +377,27 @@ public class JdbcUtil
 		}
 	}
 
+	/**
+	 * 设置{@linkplain Statement#setMaxRows(int)}。
+	 * 
+	 * @param st
+	 * @param maxRows
+	 * @return
+	 */
+	@JDBCCompatiblity("避免有驱动程序不支持此方法而抛出异常")
+	public static boolean setMaxRowsIfSupports(Statement st, int maxRows)
+	{
+		try
+		{
+			st.setMaxRows(maxRows);
+			return true;
+		}
+		catch(Throwable e)
+		{
+			return false;
+		}
+	}
+
 	/**
 	 * 获取{@linkplain DatabaseMetaData#getDatabaseProductName()}。
 	 * 
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.util;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * 查询获取数目策略。
+ * <p>
+ * 它根据连接URL对应的驱动程序设置{@linkplain Statement#setFetchSize(int)}，使{@linkplain ResultSet#TYPE_FORWARD_ONLY}查询可以流式读取结果集，而不是一次性加载至内存：
+ * </p>
+ * <ul>
+ * <li>MySQL：连接URL包含{@code useCursorFetch=true}时使用{@linkplain #getFetchSize()}游标读取；否则，仅当{@linkplain #isMysqlStreaming()}时使用{@linkplain Integer#MIN_VALUE}流式读取，
+ * 此模式下在读完结果集之前，同一连接上不能执行其他语句（否则驱动将报错：{@code Streaming result set ... is still active}），因此默认不启用；</li>
+ * <li>PostgreSQL：需关闭自动提交才能使用游标读取，{@linkplain #apply(Connection, Statement)}返回{@code true}时，调用者应在查询结束后恢复自动提交；</li>
+ * <li>其他：使用{@linkplain #getFetchSize()}。</li>
+ * </ul>
+ * <p>
+ * 如果连接URL中已设置了获取数目参数（比如PostgreSQL的{@code defaultRowFetchSize}、MySQL的{@code defaultFetchSize}），将不再设置获取数目，
+ * 因此可以在数据源的连接URL中单独配置，比如：为MySQL数据源的连接URL添加{@code useCursorFetch=true}以单独启用游标读取。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class QueryFetchSizeStrategy
+{
+	/** 默认获取数目 */
+	public static final int DEFAULT_FETCH_SIZE = 500;
+
+	protected static final String URL_PREFIX_MYSQL = "jdbc:mysql:";
+
+	protected static final String URL_PREFIX_POSTGRESQL = "jdbc:postgresql:";
+
+	/** 获取数目，小于等于0表示不设置 */
+	private int fetchSize = DEFAULT_FETCH_SIZE;
+
+	/** 是否为MySQL、PostgreSQL启用流式读取 */
+	private boolean streaming = true;
+
+	/** 是否为未启用游标读取的MySQL连接使用{@linkplain Integer#MIN_VALUE}流式读取 */
+	private boolean mysqlStreaming = false;
+
+	public QueryFetchSizeStrategy()
+	{
+		super();
+	}
+
+	public QueryFetchSizeStrategy(int fetchSize, boolean streaming)
+	{
+		super();
+		this.fetchSize = fetchSize;
+		this.streaming = streaming;
+	}
+
+	public int getFetchSize()
+	{
+		return fetchSize;
+	}
+
+	public void setFetchSize(int fetchSize)
+	{
+		this.fetchSize = fetchSize;
+	}
+
+	public boolean isStreaming()
+	{
+		return streaming;
+	}
+
+	public void setStreaming(boolean streaming)
+	{
+		this.streaming = streaming;
+	}
+
+	public boolean isMysqlStreaming()
+	{
+		return mysqlStreaming;
+	}
+
+	/**
+	 * 设置是否为未启用游标读取的MySQL连接使用{@linkplain Integer#MIN_VALUE}流式读取。
+	 * <p>
+	 * 启用后，读完结果集之前不能在同一连接上执行其他语句，仅当确定调用者都满足此条件时才应启用。
+	 * </p>
+	 * 
+	 * @param mysqlStreaming
+	 */
+	public void setMysqlStreaming(boolean mysqlStreaming)
+	{
+		this.mysqlStreaming = mysqlStreaming;
+	}
+
+	/**
+	 * 为查询{@linkplain Statement}应用获取数目。
+	 * 
+	 * @param cn
+	 * @param st
+	 * @return 是否关闭了{@code cn}的自动提交，为{@code true}时，调用者应在查询结束后恢复自动提交
+	 */
+	public boolean apply(Connection cn, Statement st)
+	{
+		if (this.fetchSize <= 0)
+			return false;
+
+		String url = JdbcUtil.getURLIfSupports(cn);
+		url = (url == null ? "" : url.toLowerCase());
+
+		boolean forwardOnly = isForwardOnly(st);
+
+		if (url.startsWith(URL_PREFIX_MYSQL))
+		{
+			@JDBCCompatiblity("MySQL驱动仅在TYPE_FORWARD_ONLY、CONCUR_READ_ONLY且获取数目为Integer.MIN_VALUE时才流式读取，"
+					+ "或者在连接URL中设置useCursorFetch=true后使用游标读取")
+			boolean mysqlStreaming = (this.streaming && forwardOnly && !url.contains("defaultfetchsize="));
+
+			if (mysqlStreaming)
+			{
+				if (url.contains("usecursorfetch=true"))
+					JdbcUtil.setFetchSizeIfSupports(st, this.fetchSize);
+				else if (this.mysqlStreaming)
+					JdbcUtil.setFetchSizeIfSupports(st, Integer.MIN_VALUE);
+			}
+
+			return false;
+		}
+		else if (url.startsWith(URL_PREFIX_POSTGRESQL))
+		{
+			boolean disableAutoCommit = false;
+
+			@JDBCCompatiblity("PostgreSQL驱动仅在关闭自动提交且TYPE_FORWARD_ONLY时才使用游标读取，否则总是加载全部结果集")
+			boolean pgStreaming = (this.streaming && forwardOnly);
+
+			if (pgStreaming && isAutoCommit(cn))
+				disableAutoCommit = JdbcUtil.setAutoCommitIfSupports(cn, false);
+
+			if (!url.contains("defaultrowfetchsize="))
+				JdbcUtil.setFetchSizeIfSupports(st, this.fetchSize);
+
+			return disableAutoCommit;
+		}
+		else
+		{
+			JdbcUtil.setFetchSizeIfSupports(st, this.fetchSize);
+			return false;
+		}
+	}
+
+	protected boolean isForwardOnly(Statement st)
+	{
+		try
+		{
+			return (st.getResultSetType() == ResultSet.TYPE_FORWARD_ONLY);
+		}
+		catch (Throwable t)
+		{
+			return false;
+		}
+	}
+
+	protected boolean isAutoCommit(Connection cn)
+	{
+		try
+		{
+			return cn.getAutoCommit();
+		}
+		catch (Throwable t)
+		{
+			return false;
+		}
+	}
+}
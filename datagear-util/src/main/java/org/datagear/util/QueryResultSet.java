@@ -18,6 +18,7 @@
 package org.datagear.util;
 
 import java.io.Closeable;
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.Statement;
@@ -37,6 +38,9 @@ public class QueryResultSet implements Closeable
 
 	private List<Object> params;
 
+	/** 关闭时需恢复自动提交的连接 */
+	private Connection restoreAutoCommitConnection = null;
+
 	public QueryResultSet()
 	{
 		super();
@@ -92,6 +96,24 @@ public class QueryResultSet implements Closeable
 		this.params = params;
 	}
 
+	public Connection getRestoreAutoCommitConnection()
+	{
+		return restoreAutoCommitConnection;
+	}
+
+	/**
+	 * 设置关闭时需恢复自动提交的连接。
+	 * <p>
+	 * 为了流式读取结果集，某些驱动程序需要在查询前关闭自动提交（比如PostgreSQL）。
+	 * </p>
+	 * 
+	 * @param restoreAutoCommitConnection
+	 */
+	public void setRestoreAutoCommitConnection(Connection restoreAutoCommitConnection)
+	{
+		this.restoreAutoCommitConnection = restoreAutoCommitConnection;
+	}
+
 	public boolean isPreparedStatement()
 	{
 		return (this.statement instanceof PreparedStatement);
@@ -115,7 +137,11 @@ public class QueryResultSet implements Closeable
 			IOUtil.closeIf(this.params);
 
 		JdbcUtil.closeResultSet(this.resultSet);
+		StatementCanceler.unregisterCurrent(this.statement);
 		JdbcUtil.closeStatement(this.statement);
+
+		if (this.restoreAutoCommitConnection != null)
+			JdbcUtil.setAutoCommitIfSupports(this.restoreAutoCommitConnection, true);
 	}
 
 	/**
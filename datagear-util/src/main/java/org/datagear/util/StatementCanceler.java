@@ -0,0 +1,173 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.util;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@linkplain Statement}取消器。
+ * <p>
+ * 在执行查询的线程中调用{@linkplain #bind()}后，{@linkplain JdbcSupport#executeQuery(java.sql.Connection, Sql, int, int)}
+ * 将把执行查询的{@linkplain Statement}注册至此，之后在其他线程中调用{@linkplain #cancel()}，
+ * 即可通过{@linkplain Statement#cancel()}取消数据库端正在执行的查询。
+ * </p>
+ * <p>
+ * 已关闭的{@linkplain Statement}应调用{@linkplain #unregisterCurrent(Statement)}注销，避免取消连接池复用它执行的其他查询。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class StatementCanceler
+{
+	private static final Logger LOGGER = LoggerFactory.getLogger(StatementCanceler.class);
+
+	private static final ThreadLocal<StatementCanceler> CURRENT = new ThreadLocal<StatementCanceler>();
+
+	private final List<Statement> statements = new ArrayList<Statement>(1);
+
+	private boolean canceled = false;
+
+	public StatementCanceler()
+	{
+		super();
+	}
+
+	/**
+	 * 绑定至当前线程。
+	 */
+	public void bind()
+	{
+		CURRENT.set(this);
+	}
+
+	/**
+	 * 从当前线程解绑，并注销所有{@linkplain Statement}。
+	 */
+	public synchronized void unbind()
+	{
+		if (CURRENT.get() == this)
+			CURRENT.remove();
+
+		this.statements.clear();
+	}
+
+	/**
+	 * 是否已取消。
+	 * 
+	 * @return
+	 */
+	public synchronized boolean isCanceled()
+	{
+		return canceled;
+	}
+
+	/**
+	 * 注册{@linkplain Statement}。
+	 * 
+	 * @param st
+	 * @throws SQLException
+	 *             如果已经取消
+	 */
+	public synchronized void register(Statement st) throws SQLException
+	{
+		if (this.canceled)
+			throw new SQLException("Statement has been canceled");
+
+		this.statements.add(st);
+	}
+
+	/**
+	 * 注销{@linkplain Statement}。
+	 * 
+	 * @param st
+	 */
+	public synchronized void unregister(Statement st)
+	{
+		this.statements.remove(st);
+	}
+
+	/**
+	 * 取消所有已注册的{@linkplain Statement}，之后的注册都将抛出{@linkplain SQLException}。
+	 * <p>
+	 * 此方法不会抛出任何{@linkplain Throwable}。
+	 * </p>
+	 */
+	public synchronized void cancel()
+	{
+		this.canceled = true;
+
+		for (Statement st : this.statements)
+		{
+			try
+			{
+				st.cancel();
+			}
+			catch (Throwable t)
+			{
+				LOGGER.warn("Cancel statement error", t);
+			}
+		}
+
+		this.statements.clear();
+	}
+
+	/**
+	 * 获取绑定至当前线程的{@linkplain StatementCanceler}。
+	 * 
+	 * @return 为{@code null}表示没有
+	 */
+	public static StatementCanceler current()
+	{
+		return CURRENT.get();
+	}
+
+	/**
+	 * 将{@linkplain Statement}注册至当前线程的{@linkplain StatementCanceler}，没有则什么也不做。
+	 * 
+	 * @param st
+	 * @throws SQLException
+	 *             如果已经取消
+	 */
+	public static void registerCurrent(Statement st) throws SQLException
+	{
+		StatementCanceler canceler = CURRENT.get();
+
+		if (canceler != null && st != null)
+			canceler.register(st);
+	}
+
+	/**
+	 * 从当前线程的{@linkplain StatementCanceler}注销{@linkplain Statement}，没有则什么也不做。
+	 * 
+	 * @param st
+	 */
+	public static void unregisterCurrent(Statement st)
+	{
+		StatementCanceler canceler = CURRENT.get();
+
+		if (canceler != null && st != null)
+			canceler.unregister(st);
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.util.resource;
+
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+/**
+ * 字节输出流字符输出流{@linkplain ResourceFactory}。
+ * <p>
+ * 它将给定的字节输出流（比如HTTP响应输出流）包装为字符输出流，释放资源时将关闭此字节输出流。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class OutputStreamWriterResourceFactory extends AbstractWriterResourceFactory
+{
+	private OutputStream outputStream;
+
+	public OutputStreamWriterResourceFactory()
+	{
+		super();
+	}
+
+	public OutputStreamWriterResourceFactory(OutputStream outputStream)
+	{
+		super();
+		this.outputStream = outputStream;
+	}
+
+	public void setOutputStream(OutputStream outputStream)
+	{
+		this.outputStream = outputStream;
+	}
+
+	@Override
+	protected OutputStream getOutputStream() throws Exception
+	{
+		return this.outputStream;
+	}
+
+	/**
+	 * 构建{@linkplain OutputStreamWriterResourceFactory}。
+	 * 
+	 * @param outputStream
+	 * @param charset
+	 *            允许为{@code null}
+	 * @return
+	 */
+	public static OutputStreamWriterResourceFactory valueOf(OutputStream outputStream, Charset charset)
+	{
+		OutputStreamWriterResourceFactory resourceFactory = new OutputStreamWriterResourceFactory(outputStream);
+		resourceFactory.setCharset(charset);
+
+		return resourceFactory;
+	}
+}
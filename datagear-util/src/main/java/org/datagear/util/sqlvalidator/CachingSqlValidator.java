@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.util.sqlvalidator;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * 缓存校验结果的{@linkplain SqlValidator}。
+ * <p>
+ * 它将{@code (sql, profile)}的校验结果缓存在有界的LRU缓存中，相同SQL语句重复校验时（比如频繁执行的SQL数据集），
+ * 不必再次执行{@linkplain SqlReplacer}替换、正则匹配等操作。
+ * </p>
+ * <p>
+ * 被代理的{@linkplain SqlValidator}的校验结果应只由{@code (sql, profile)}决定。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class CachingSqlValidator implements SqlValidator
+{
+	/** 默认缓存最大数 */
+	public static final int DEFAULT_MAXIMUM_SIZE = 500;
+
+	/** 默认可缓存的SQL语句最大长度 */
+	public static final int DEFAULT_MAX_SQL_LENGTH = 10000;
+
+	private final SqlValidator sqlValidator;
+
+	/** 可缓存的SQL语句最大长度，超过此长度的不缓存，避免占用过多内存 */
+	private final int maxSqlLength;
+
+	private final Cache<ValidationKey, SqlValidation> _cache;
+
+	public CachingSqlValidator(SqlValidator sqlValidator)
+	{
+		this(sqlValidator, DEFAULT_MAXIMUM_SIZE, DEFAULT_MAX_SQL_LENGTH);
+	}
+
+	public CachingSqlValidator(SqlValidator sqlValidator, int maximumSize, int maxSqlLength)
+	{
+		super();
+		this.sqlValidator = sqlValidator;
+		this.maxSqlLength = maxSqlLength;
+		this._cache = Caffeine.newBuilder().maximumSize(maximumSize).build();
+	}
+
+	public SqlValidator getSqlValidator()
+	{
+		return sqlValidator;
+	}
+
+	public int getMaxSqlLength()
+	{
+		return maxSqlLength;
+	}
+
+	@Override
+	public SqlValidation validate(String sql, DatabaseProfile profile)
+	{
+		if (sql == null || sql.length() > this.maxSqlLength)
+			return this.sqlValidator.validate(sql, profile);
+
+		ValidationKey key = new ValidationKey(sql, profile);
+		SqlValidation validation = this._cache.getIfPresent(key);
+
+		if (validation == null)
+		{
+			validation = this.sqlValidator.validate(sql, profile);
+			this._cache.put(key, validation);
+		}
+
+		return validation;
+	}
+
+	/**
+	 * 清除缓存。
+	 */
+	public void invalidateAll()
+	{
+		this._cache.invalidateAll();
+	}
+
+	protected static class ValidationKey
+	{
+		private final String sql;
+
+		private final DatabaseProfile profile;
+
+		public ValidationKey(String sql, DatabaseProfile profile)
+		{
+			super();
+			this.sql = sql;
+			this.profile = profile;
+		}
+
+		public String getSql()
+		{
+			return sql;
+		}
+
+		public DatabaseProfile getProfile()
+		{
+			return profile;
+		}
+
+		@Override
+		public int hashCode()
+		{
+			final int prime = 31;
+			int result = 1;
+			result = prime * result + ((profile == null) ? 0 : profile.hashCode());
+			result = prime * result + ((sql == null) ? 0 : sql.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (this == obj)
+				return true;
+			if (obj == null)
+				return false;
+			if (getClass() != obj.getClass())
+				return false;
+			ValidationKey other = (ValidationKey) obj;
+			if (profile == null)
+			{
+				if (other.profile != null)
+					return false;
+			}
+			else if (!profile.equals(other.profile))
+				return false;
+			if (sql == null)
+			{
+				if (other.sql != null)
+					return false;
+			}
+			else if (!sql.equals(other.sql))
+				return false;
+			return true;
+		}
+	}
+}
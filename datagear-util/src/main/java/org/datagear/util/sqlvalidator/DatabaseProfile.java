@@ -18,10 +18,14 @@
 package org.datagear.util.sqlvalidator;
 
 import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
 
 import org.datagear.util.JdbcUtil;
 import org.datagear.util.StringUtil;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 /**
  * SQL校验数据库信息。
  * 
@@ -30,6 +34,10 @@ import org.datagear.util.StringUtil;
  */
 public class DatabaseProfile
 {
+	/** 连接URL -&gt; {@linkplain DatabaseProfile}缓存，相同连接URL的数据库名称、标识引用符是相同的 */
+	private static final Cache<String, DatabaseProfile> URL_PROFILE_CACHE = Caffeine.newBuilder().maximumSize(500)
+			.expireAfterWrite(60, TimeUnit.MINUTES).build();
+
 	/** 名称 */
 	private String name = null;
 
@@ -151,18 +159,30 @@ public class DatabaseProfile
 
 	/**
 	 * 由数据库连接构建{@linkplain DatabaseProfile}。
+	 * <p>
+	 * 数据库名称、标识引用符将按照连接URL缓存，因此，对于已缓存的连接URL，只需读取一次连接元信息。
+	 * </p>
 	 * 
 	 * @param cn
 	 * @return
 	 */
 	public static DatabaseProfile valueOf(Connection cn)
 	{
+		String url = JdbcUtil.getURLIfSupports(cn);
+		DatabaseProfile cached = (StringUtil.isEmpty(url) ? null : URL_PROFILE_CACHE.getIfPresent(url));
+
+		if (cached != null)
+			return new DatabaseProfile(cached.getName(), cached.getUrl(), cached.getIdentifierQuote());
+
 		DatabaseProfile p = new DatabaseProfile();
 
 		p.setName(JdbcUtil.getDatabaseProductNameIfSupports(cn));
-		p.setUrl(JdbcUtil.getURLIfSupports(cn));
+		p.setUrl(url);
 		p.setIdentifierQuote(JdbcUtil.getIdentifierQuote(cn));
 
+		if (!StringUtil.isEmpty(url))
+			URL_PROFILE_CACHE.put(url, new DatabaseProfile(p.getName(), p.getUrl(), p.getIdentifierQuote()));
+
 		return p;
 	}
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain QueryFetchSizeStrategy}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class QueryFetchSizeStrategyTest
+{
+	@Test
+	public void applyTest_mysql()
+	{
+		QueryFetchSizeStrategy strategy = new QueryFetchSizeStrategy(100, true);
+
+		// 默认不使用Integer.MIN_VALUE流式读取
+		assertNull(apply(strategy, "jdbc:mysql://localhost:3306/test"));
+		assertEquals(Integer.valueOf(100), apply(strategy, "jdbc:mysql://localhost:3306/test?useCursorFetch=true"));
+		assertNull(apply(strategy, "jdbc:mysql://localhost:3306/test?useCursorFetch=true&defaultFetchSize=10"));
+
+		strategy.setMysqlStreaming(true);
+
+		assertEquals(Integer.valueOf(Integer.MIN_VALUE), apply(strategy, "jdbc:mysql://localhost:3306/test"));
+		assertEquals(Integer.valueOf(100), apply(strategy, "jdbc:mysql://localhost:3306/test?useCursorFetch=true"));
+
+		strategy.setStreaming(false);
+
+		assertNull(apply(strategy, "jdbc:mysql://localhost:3306/test"));
+	}
+
+	@Test
+	public void applyTest_other()
+	{
+		QueryFetchSizeStrategy strategy = new QueryFetchSizeStrategy(100, true);
+
+		assertEquals(Integer.valueOf(100), apply(strategy, "jdbc:oracle:thin:@localhost:1521:orcl"));
+
+		strategy.setFetchSize(0);
+
+		assertNull(apply(strategy, "jdbc:oracle:thin:@localhost:1521:orcl"));
+	}
+
+	/**
+	 * 为给定连接URL的只进查询应用策略。
+	 * 
+	 * @param strategy
+	 * @param url
+	 * @return 设置的获取数目，{@code null}表示未设置
+	 */
+	protected Integer apply(QueryFetchSizeStrategy strategy, final String url)
+	{
+		final Integer[] fetchSize = new Integer[1];
+
+		final DatabaseMetaData metaData = proxy(DatabaseMetaData.class, new InvocationHandler()
+		{
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+			{
+				return ("getURL".equals(method.getName()) ? url : null);
+			}
+		});
+
+		Connection cn = proxy(Connection.class, new InvocationHandler()
+		{
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+			{
+				if ("getMetaData".equals(method.getName()))
+					return metaData;
+				else if ("getAutoCommit".equals(method.getName()))
+					return false;
+				else
+					return null;
+			}
+		});
+
+		Statement st = proxy(Statement.class, new InvocationHandler()
+		{
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+			{
+				if ("getResultSetType".equals(method.getName()))
+					return ResultSet.TYPE_FORWARD_ONLY;
+				else if ("setFetchSize".equals(method.getName()))
+					fetchSize[0] = (Integer) args[0];
+
+				return null;
+			}
+		});
+
+		strategy.apply(cn, st);
+
+		return fetchSize[0];
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <T> T proxy(Class<T> type, InvocationHandler handler)
+	{
+		return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { type }, handler);
+	}
+}
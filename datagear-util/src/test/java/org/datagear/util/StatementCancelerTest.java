@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain StatementCanceler}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class StatementCancelerTest
+{
+	@Test
+	public void cancelTest() throws Exception
+	{
+		AtomicInteger cancelCount0 = new AtomicInteger(0);
+		AtomicInteger cancelCount1 = new AtomicInteger(0);
+		Statement st0 = statement(cancelCount0);
+		Statement st1 = statement(cancelCount1);
+
+		StatementCanceler canceler = new StatementCanceler();
+		canceler.bind();
+
+		try
+		{
+			assertSame(canceler, StatementCanceler.current());
+
+			StatementCanceler.registerCurrent(st0);
+			StatementCanceler.registerCurrent(st1);
+
+			// 已关闭的不应被取消
+			StatementCanceler.unregisterCurrent(st1);
+
+			canceler.cancel();
+
+			assertTrue(canceler.isCanceled());
+			assertEquals(1, cancelCount0.get());
+			assertEquals(0, cancelCount1.get());
+
+			try
+			{
+				StatementCanceler.registerCurrent(st1);
+				throw new AssertionError();
+			}
+			catch (SQLException e)
+			{
+			}
+		}
+		finally
+		{
+			canceler.unbind();
+		}
+
+		assertNull(StatementCanceler.current());
+
+		// 没有绑定时什么也不做
+		StatementCanceler.registerCurrent(st0);
+		canceler.cancel();
+		assertEquals(1, cancelCount0.get());
+	}
+
+	protected Statement statement(final AtomicInteger cancelCount)
+	{
+		return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Statement.class },
+				new InvocationHandler()
+				{
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+					{
+						if ("cancel".equals(method.getName()))
+							cancelCount.incrementAndGet();
+						else if ("equals".equals(method.getName()))
+							return (proxy == args[0]);
+						else if ("hashCode".equals(method.getName()))
+							return System.identityHashCode(proxy);
+
+						return null;
+					}
+				});
+	}
+}
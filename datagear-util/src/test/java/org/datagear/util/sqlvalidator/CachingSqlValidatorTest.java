@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.util.sqlvalidator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * {@linkplain CachingSqlValidator}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class CachingSqlValidatorTest
+{
+	public CachingSqlValidatorTest()
+	{
+		super();
+	}
+
+	@Test
+	public void validateTest()
+	{
+		Map<String, Pattern> patterns = new HashMap<String, Pattern>();
+		patterns.put(InvalidPatternSqlValidator.DEFAULT_PATTERN_KEY,
+				InvalidPatternSqlValidator.toKeywordPattern("DELETE"));
+		patterns.put("mysql", InvalidPatternSqlValidator.toKeywordPattern("use"));
+
+		final int[] count = { 0 };
+		final InvalidPatternSqlValidator target = new InvalidPatternSqlValidator(patterns);
+
+		CachingSqlValidator validator = new CachingSqlValidator(new SqlValidator()
+		{
+			@Override
+			public SqlValidation validate(String sql, DatabaseProfile profile)
+			{
+				count[0]++;
+				return target.validate(sql, profile);
+			}
+		}, 10, 20);
+
+		DatabaseProfile mysqlProfile = new DatabaseProfile("mysql", "", "`");
+		DatabaseProfile pgProfile = new DatabaseProfile("postgres", "", "\"");
+
+		{
+			SqlValidation v0 = validator.validate("SELECT * FROM T", mysqlProfile);
+			SqlValidation v1 = validator.validate("SELECT * FROM T", new DatabaseProfile("mysql", "", "`"));
+
+			assertTrue(v0.isValid());
+			assertSame(v0, v1);
+			assertEquals(1, count[0]);
+		}
+
+		{
+			assertFalse(validator.validate("USE DB", mysqlProfile).isValid());
+			assertTrue(validator.validate("USE DB", pgProfile).isValid());
+			assertEquals(3, count[0]);
+		}
+
+		// 超过最大长度不缓存
+		{
+			String sql = "SELECT * FROM T WHERE ID = 1";
+
+			validator.validate(sql, mysqlProfile);
+			validator.validate(sql, mysqlProfile);
+			assertEquals(5, count[0]);
+		}
+	}
+}
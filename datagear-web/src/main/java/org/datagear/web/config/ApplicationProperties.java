@@ -144,6 +144,14 @@ public abstract class ApplicationProperties implements Serializable
 	@Value("${cacheService.spec}")
 	private String cacheServiceSpec;
 
+	/** 数据集资源数据缓存最大内存占用（MB） */
+	@Value("${cacheService.dataSetResourceDataMaxMegabytes}")
+	private int cacheServiceDataSetResourceDataMaxMegabytes;
+
+	/** 数据集最终结果缓存最大内存占用（MB） */
+	@Value("${cacheService.dataSetResultMaxMegabytes}")
+	private int cacheServiceDataSetResultMaxMegabytes;
+
 	/** 看板分享密码加密是否禁用 */
 	@Value("${dashboardSharePassword.crypto.disabled}")
 	private boolean dashboardSharePasswordCryptoDisabled;
@@ -164,6 +172,102 @@ public abstract class ApplicationProperties implements Serializable
 	@Value("${dashboardSharePassword.authFailPastMinutes}")
 	private int dashboardSharePasswordAuthFailPastMinutes;
 
+	/** 看板数据查询-全局并发线程数，0表示不并发执行 */
+	@Value("${dashboardQuery.threads}")
+	private int dashboardQueryThreads;
+
+	/** 看板数据查询-单次请求内的并发查询数 */
+	@Value("${dashboardQuery.concurrency}")
+	private int dashboardQueryConcurrency;
+
+	/** 看板数据查询-单个数据集查询超时毫秒数 */
+	@Value("${dashboardQuery.timeout}")
+	private long dashboardQueryTimeout;
+
+	/** 数据导入/导出-全局工作线程数 */
+	@Value("${dataExchange.threads}")
+	private int dataExchangeThreads;
+
+	/** 数据导入/导出-单次导入/导出内同时执行的子任务数 */
+	@Value("${dataExchange.concurrency}")
+	private int dataExchangeConcurrency;
+
+	/** 数据导入/导出-单个数据源的最大并发连接数 */
+	@Value("${dataExchange.maxConnectionsPerSchema}")
+	private int dataExchangeMaxConnectionsPerSchema;
+
+	/** 数据源连接池-最大连接池数 */
+	@Value("${connectionPool.maxCount}")
+	private int connectionPoolMaxCount;
+
+	/** 数据源连接池-闲置过期分钟数 */
+	@Value("${connectionPool.expireMinutes}")
+	private int connectionPoolExpireMinutes;
+
+	/** 数据源连接池-默认最大连接数 */
+	@Value("${connectionPool.maxTotal}")
+	private int connectionPoolMaxTotal;
+
+	/** 数据源连接池-默认最大空闲连接数 */
+	@Value("${connectionPool.maxIdle}")
+	private int connectionPoolMaxIdle;
+
+	/** 数据源连接池-默认最小空闲连接数 */
+	@Value("${connectionPool.minIdle}")
+	private int connectionPoolMinIdle;
+
+	/** 数据源连接池-默认获取连接最大等待毫秒数 */
+	@Value("${connectionPool.maxWaitMillis}")
+	private long connectionPoolMaxWaitMillis;
+
+	/** 数据源连接池-默认是否缓存预编译语句 */
+	@Value("${connectionPool.poolPreparedStatements}")
+	private boolean connectionPoolPoolPreparedStatements;
+
+	/** 数据源连接池-默认单个连接最多缓存的预编译语句数 */
+	@Value("${connectionPool.maxOpenPreparedStatements}")
+	private int connectionPoolMaxOpenPreparedStatements;
+
+	/** 数据源查询-只进查询获取行数 */
+	@Value("${jdbcQuery.fetchSize}")
+	private int jdbcQueryFetchSize;
+
+	/** 数据源查询-是否启用流式读取 */
+	@Value("${jdbcQuery.streaming}")
+	private boolean jdbcQueryStreaming;
+
+	/** 数据源查询-是否为MySQL使用驱动程序的流式读取模式 */
+	@Value("${jdbcQuery.mysqlStreaming}")
+	private boolean jdbcQueryMysqlStreaming;
+
+	/** HTTP客户端-最大连接数 */
+	@Value("${httpClient.maxConnTotal}")
+	private int httpClientMaxConnTotal;
+
+	/** HTTP客户端-单个目标主机最大连接数 */
+	@Value("${httpClient.maxConnPerRoute}")
+	private int httpClientMaxConnPerRoute;
+
+	/** HTTP客户端-建立连接超时毫秒数 */
+	@Value("${httpClient.connectTimeout}")
+	private long httpClientConnectTimeout;
+
+	/** HTTP客户端-等待响应超时毫秒数 */
+	@Value("${httpClient.responseTimeout}")
+	private long httpClientResponseTimeout;
+
+	/** HTTP客户端-从连接池获取连接超时毫秒数 */
+	@Value("${httpClient.connectionRequestTimeout}")
+	private long httpClientConnectionRequestTimeout;
+
+	/** HTTP客户端-默认连接保持毫秒数 */
+	@Value("${httpClient.keepAlive}")
+	private long httpClientKeepAlive;
+
+	/** HTTP客户端-是否启用响应压缩 */
+	@Value("${httpClient.contentCompression}")
+	private boolean httpClientContentCompression;
+
 	/** IP登录错误秒数限定 */
 	@Value("${ipLoginLatch.seconds}")
 	private int ipLoginLatchSeconds;
@@ -487,6 +591,26 @@ public abstract class ApplicationProperties implements Serializable
 		this.cacheServiceSpec = cacheServiceSpec;
 	}
 
+	public int getCacheServiceDataSetResourceDataMaxMegabytes()
+	{
+		return cacheServiceDataSetResourceDataMaxMegabytes;
+	}
+
+	public void setCacheServiceDataSetResourceDataMaxMegabytes(int cacheServiceDataSetResourceDataMaxMegabytes)
+	{
+		this.cacheServiceDataSetResourceDataMaxMegabytes = cacheServiceDataSetResourceDataMaxMegabytes;
+	}
+
+	public int getCacheServiceDataSetResultMaxMegabytes()
+	{
+		return cacheServiceDataSetResultMaxMegabytes;
+	}
+
+	public void setCacheServiceDataSetResultMaxMegabytes(int cacheServiceDataSetResultMaxMegabytes)
+	{
+		this.cacheServiceDataSetResultMaxMegabytes = cacheServiceDataSetResultMaxMegabytes;
+	}
+
 	public boolean isDashboardSharePasswordCryptoDisabled()
 	{
 		return dashboardSharePasswordCryptoDisabled;
@@ -537,6 +661,246 @@ public abstract class ApplicationProperties implements Serializable
 		this.dashboardSharePasswordAuthFailPastMinutes = dashboardSharePasswordAuthFailPastMinutes;
 	}
 
+	public int getDashboardQueryThreads()
+	{
+		return dashboardQueryThreads;
+	}
+
+	public void setDashboardQueryThreads(int dashboardQueryThreads)
+	{
+		this.dashboardQueryThreads = dashboardQueryThreads;
+	}
+
+	public int getDashboardQueryConcurrency()
+	{
+		return dashboardQueryConcurrency;
+	}
+
+	public void setDashboardQueryConcurrency(int dashboardQueryConcurrency)
+	{
+		this.dashboardQueryConcurrency = dashboardQueryConcurrency;
+	}
+
+	public long getDashboardQueryTimeout()
+	{
+		return dashboardQueryTimeout;
+	}
+
+	public void setDashboardQueryTimeout(long dashboardQueryTimeout)
+	{
+		this.dashboardQueryTimeout = dashboardQueryTimeout;
+	}
+
+	public int getDataExchangeThreads()
+	{
+		return dataExchangeThreads;
+	}
+
+	public void setDataExchangeThreads(int dataExchangeThreads)
+	{
+		this.dataExchangeThreads = dataExchangeThreads;
+	}
+
+	public int getDataExchangeConcurrency()
+	{
+		return dataExchangeConcurrency;
+	}
+
+	public void setDataExchangeConcurrency(int dataExchangeConcurrency)
+	{
+		this.dataExchangeConcurrency = dataExchangeConcurrency;
+	}
+
+	public int getDataExchangeMaxConnectionsPerSchema()
+	{
+		return dataExchangeMaxConnectionsPerSchema;
+	}
+
+	public void setDataExchangeMaxConnectionsPerSchema(int dataExchangeMaxConnectionsPerSchema)
+	{
+		this.dataExchangeMaxConnectionsPerSchema = dataExchangeMaxConnectionsPerSchema;
+	}
+
+	public int getConnectionPoolMaxCount()
+	{
+		return connectionPoolMaxCount;
+	}
+
+	public void setConnectionPoolMaxCount(int connectionPoolMaxCount)
+	{
+		this.connectionPoolMaxCount = connectionPoolMaxCount;
+	}
+
+	public int getConnectionPoolExpireMinutes()
+	{
+		return connectionPoolExpireMinutes;
+	}
+
+	public void setConnectionPoolExpireMinutes(int connectionPoolExpireMinutes)
+	{
+		this.connectionPoolExpireMinutes = connectionPoolExpireMinutes;
+	}
+
+	public int getConnectionPoolMaxTotal()
+	{
+		return connectionPoolMaxTotal;
+	}
+
+	public void setConnectionPoolMaxTotal(int connectionPoolMaxTotal)
+	{
+		this.connectionPoolMaxTotal = connectionPoolMaxTotal;
+	}
+
+	public int getConnectionPoolMaxIdle()
+	{
+		return connectionPoolMaxIdle;
+	}
+
+	public void setConnectionPoolMaxIdle(int connectionPoolMaxIdle)
+	{
+		this.connectionPoolMaxIdle = connectionPoolMaxIdle;
+	}
+
+	public int getConnectionPoolMinIdle()
+	{
+		return connectionPoolMinIdle;
+	}
+
+	public void setConnectionPoolMinIdle(int connectionPoolMinIdle)
+	{
+		this.connectionPoolMinIdle = connectionPoolMinIdle;
+	}
+
+	public long getConnectionPoolMaxWaitMillis()
+	{
+		return connectionPoolMaxWaitMillis;
+	}
+
+	public void setConnectionPoolMaxWaitMillis(long connectionPoolMaxWaitMillis)
+	{
+		this.connectionPoolMaxWaitMillis = connectionPoolMaxWaitMillis;
+	}
+
+	public boolean isConnectionPoolPoolPreparedStatements()
+	{
+		return connectionPoolPoolPreparedStatements;
+	}
+
+	public void setConnectionPoolPoolPreparedStatements(boolean connectionPoolPoolPreparedStatements)
+	{
+		this.connectionPoolPoolPreparedStatements = connectionPoolPoolPreparedStatements;
+	}
+
+	public int getConnectionPoolMaxOpenPreparedStatements()
+	{
+		return connectionPoolMaxOpenPreparedStatements;
+	}
+
+	public void setConnectionPoolMaxOpenPreparedStatements(int connectionPoolMaxOpenPreparedStatements)
+	{
+		this.connectionPoolMaxOpenPreparedStatements = connectionPoolMaxOpenPreparedStatements;
+	}
+
+	public int getJdbcQueryFetchSize()
+	{
+		return jdbcQueryFetchSize;
+	}
+
+	public void setJdbcQueryFetchSize(int jdbcQueryFetchSize)
+	{
+		this.jdbcQueryFetchSize = jdbcQueryFetchSize;
+	}
+
+	public boolean isJdbcQueryStreaming()
+	{
+		return jdbcQueryStreaming;
+	}
+
+	public void setJdbcQueryStreaming(boolean jdbcQueryStreaming)
+	{
+		this.jdbcQueryStreaming = jdbcQueryStreaming;
+	}
+
+	public boolean isJdbcQueryMysqlStreaming()
+	{
+		return jdbcQueryMysqlStreaming;
+	}
+
+	public void setJdbcQueryMysqlStreaming(boolean jdbcQueryMysqlStreaming)
+	{
+		this.jdbcQueryMysqlStreaming = jdbcQueryMysqlStreaming;
+	}
+
+	public int getHttpClientMaxConnTotal()
+	{
+		return httpClientMaxConnTotal;
+	}
+
+	public void setHttpClientMaxConnTotal(int httpClientMaxConnTotal)
+	{
+		this.httpClientMaxConnTotal = httpClientMaxConnTotal;
+	}
+
+	public int getHttpClientMaxConnPerRoute()
+	{
+		return httpClientMaxConnPerRoute;
+	}
+
+	public void setHttpClientMaxConnPerRoute(int httpClientMaxConnPerRoute)
+	{
+		this.httpClientMaxConnPerRoute = httpClientMaxConnPerRoute;
+	}
+
+	public long getHttpClientConnectTimeout()
+	{
+		return httpClientConnectTimeout;
+	}
+
+	public void setHttpClientConnectTimeout(long httpClientConnectTimeout)
+	{
+		this.httpClientConnectTimeout = httpClientConnectTimeout;
+	}
+
+	public long getHttpClientResponseTimeout()
+	{
+		return httpClientResponseTimeout;
+	}
+
+	public void setHttpClientResponseTimeout(long httpClientResponseTimeout)
+	{
+		this.httpClientResponseTimeout = httpClientResponseTimeout;
+	}
+
+	public long getHttpClientConnectionRequestTimeout()
+	{
+		return httpClientConnectionRequestTimeout;
+	}
+
+	public void setHttpClientConnectionRequestTimeout(long httpClientConnectionRequestTimeout)
+	{
+		this.httpClientConnectionRequestTimeout = httpClientConnectionRequestTimeout;
+	}
+
+	public long getHttpClientKeepAlive()
+	{
+		return httpClientKeepAlive;
+	}
+
+	public void setHttpClientKeepAlive(long httpClientKeepAlive)
+	{
+		this.httpClientKeepAlive = httpClientKeepAlive;
+	}
+
+	public boolean isHttpClientContentCompression()
+	{
+		return httpClientContentCompression;
+	}
+
+	public void setHttpClientContentCompression(boolean httpClientContentCompression)
+	{
+		this.httpClientContentCompression = httpClientContentCompression;
+	}
+
 	public int getIpLoginLatchSeconds()
 	{
 		return ipLoginLatchSeconds;
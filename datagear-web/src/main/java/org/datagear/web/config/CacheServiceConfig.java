@@ -21,10 +21,14 @@ import org.datagear.util.CacheService;
 import org.datagear.util.StringUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+
 /**
  * 缓存服务配置。
  * 
@@ -80,6 +84,58 @@ public class CacheServiceConfig
 		return cacheService;
 	}
 
+	/**
+	 * 创建按权重限定容量的{@linkplain CacheService}。
+	 * <p>
+	 * 它沿用{@linkplain ApplicationProperties#getCacheServiceSpec()}中除{@code maximumSize}以外的配置项（比如过期时间），
+	 * 并使用{@code maximumWeight}替代{@code maximumSize}。
+	 * </p>
+	 * 
+	 * @param name
+	 * @param maximumWeight
+	 * @param weigher
+	 * @return
+	 */
+	public CacheService createWeighedCacheService(String name, long maximumWeight, Weigher<Object, Object> weigher)
+	{
+		CacheService cacheService = new CacheService();
+		ApplicationProperties applicationProperties = getApplicationProperties();
+
+		cacheService.setDisabled(applicationProperties.isCacheServiceDisabled());
+		cacheService.setSerialized(false);
+		cacheService.setShared(false);
+
+		if (!applicationProperties.isCacheServiceDisabled())
+		{
+			String spec = toWeighedCacheSpec(applicationProperties.getCacheServiceSpec(), maximumWeight);
+			cacheService.setCache(new CaffeineCache(name, Caffeine.from(spec).weigher(weigher).build()));
+		}
+
+		return cacheService;
+	}
+
+	protected String toWeighedCacheSpec(String spec, long maximumWeight)
+	{
+		StringBuilder sb = new StringBuilder();
+
+		if (!StringUtil.isEmpty(spec))
+		{
+			for (String option : spec.split(","))
+			{
+				option = option.trim();
+
+				if (option.isEmpty() || option.startsWith("maximumSize") || option.startsWith("maximumWeight"))
+					continue;
+
+				sb.append(option).append(',');
+			}
+		}
+
+		sb.append("maximumWeight=").append(maximumWeight);
+
+		return sb.toString();
+	}
+
 	protected ApplicationProperties getApplicationProperties()
 	{
 		return this.applicationPropertiesConfig.applicationProperties();
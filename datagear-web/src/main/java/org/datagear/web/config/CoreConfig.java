@@ -25,22 +25,36 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 
+import org.apache.hc.client5.http.config.RequestConfig;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.type.TypeHandler;
 import org.apache.poi.openxml4j.util.ZipSecureFile;
+import org.datagear.analysis.DataSetResultLoader;
 import org.datagear.analysis.TplDashboardWidgetResManager;
+import org.datagear.analysis.support.DataSetCacheWeigher;
 import org.datagear.analysis.support.DataSetFmkTemplateResolver.NameTemplateLoader;
 import org.datagear.analysis.support.DataSetFmkTemplateResolvers;
 import org.datagear.analysis.support.FileTplDashboardWidgetResManager;
+import org.datagear.analysis.support.SingleFlightDataSetResultLoader;
 import org.datagear.analysis.support.html.DirectoryHtmlChartPluginManager;
 import org.datagear.analysis.support.html.HtmlChartPluginLoader;
 import org.datagear.analysis.support.html.HtmlChartWidgetJsonRenderer;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetHtmlRenderer;
 import org.datagear.analysis.support.html.HtmlTplDashboardWidgetRenderer.IdJsonImportHtmlChartPluginVarNameResolver;
+import org.datagear.connection.ConnectionPoolConfig;
 import org.datagear.connection.ConnectionSource;
 import org.datagear.connection.DefaultConnectionSource;
 import org.datagear.connection.GenericPropertiesProcessor;
@@ -105,13 +119,19 @@ import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.meta.resolver.GenericDBMetaResolver;
 import org.datagear.persistence.DialectSource;
 import org.datagear.persistence.PersistenceManager;
+import org.datagear.persistence.RowCountEstimator;
 import org.datagear.persistence.support.DefaultDialectSource;
 import org.datagear.persistence.support.DefaultPersistenceManager;
+import org.datagear.persistence.support.DefaultRowCountEstimator;
+import org.datagear.persistence.support.RowCountCache;
 import org.datagear.persistence.support.SqlSelectManager;
 import org.datagear.util.FileUtil;
 import org.datagear.util.IOUtil;
+import org.datagear.util.JdbcSupport;
+import org.datagear.util.QueryFetchSizeStrategy;
 import org.datagear.util.StringUtil;
 import org.datagear.util.html.HtmlFilter;
+import org.datagear.util.sqlvalidator.CachingSqlValidator;
 import org.datagear.util.sqlvalidator.InvalidPatternSqlValidator;
 import org.datagear.util.sqlvalidator.SqlValidator;
 import org.datagear.web.controller.LoginController;
@@ -134,6 +154,7 @@ import org.datagear.web.util.DirectoryFactory;
 import org.datagear.web.util.DirectoryHtmlChartPluginManagerInitializer;
 import org.datagear.web.util.SqlDriverChecker;
 import org.datagear.web.util.TableCache;
+import org.datagear.web.util.TableListCache;
 import org.datagear.web.util.XmlDriverEntityManagerInitializer;
 import org.datagear.web.util.accesslatch.AccessLatch;
 import org.datagear.web.util.accesslatch.IpLoginLatch;
@@ -165,6 +186,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 {
 	public static final String NAME_DASHBOARD_GLOBAL_RES_ROOT_DIRECTORY = "dashboardGlobalResRootDirectory";
+
+	public static final String NAME_DASHBOARD_QUERY_EXECUTOR = "dashboardQueryExecutor";
 	
 	public static final String INVALID_SQL_KEYWORDS_PREFIX_REGEX="regex:";
 
@@ -360,7 +383,31 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 	@Bean
 	public CloseableHttpClient httpClient()
 	{
-		return HttpClients.createDefault();
+		ApplicationProperties properties = getApplicationProperties();
+
+		PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(properties.getHttpClientMaxConnTotal())
+				.setMaxConnPerRoute(properties.getHttpClientMaxConnPerRoute()).build();
+
+		// 超时时长为0表示不限制
+		RequestConfig requestConfig = RequestConfig.custom()
+				.setConnectTimeout(Timeout.ofMilliseconds(properties.getHttpClientConnectTimeout()))
+				.setResponseTimeout(Timeout.ofMilliseconds(properties.getHttpClientResponseTimeout()))
+				.setConnectionRequestTimeout(
+						Timeout.ofMilliseconds(properties.getHttpClientConnectionRequestTimeout()))
+				.setDefaultKeepAlive(properties.getHttpClientKeepAlive(), TimeUnit.MILLISECONDS)
+				.setContentCompressionEnabled(properties.isHttpClientContentCompression()).build();
+
+		HttpClientBuilder builder = HttpClients.custom().setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(requestConfig).evictExpiredConnections();
+
+		if (properties.getHttpClientKeepAlive() > 0)
+			builder.evictIdleConnections(TimeValue.ofMilliseconds(properties.getHttpClientKeepAlive()));
+
+		if (!properties.isHttpClientContentCompression())
+			builder.disableContentCompression();
+
+		return builder.build();
 	}
 
 	protected File createDirectory(String directoryName, boolean createIfInexistence)
@@ -483,6 +530,20 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 		DefaultConnectionSource bean = new DefaultConnectionSource(this.driverEntityManager());
 		bean.setDriverChecker(new SqlDriverChecker(this.dbMetaResolver()));
 
+		ApplicationProperties properties = getApplicationProperties();
+
+		ConnectionPoolConfig defaultPoolConfig = new ConnectionPoolConfig();
+		defaultPoolConfig.setMaxTotal(properties.getConnectionPoolMaxTotal());
+		defaultPoolConfig.setMaxIdle(properties.getConnectionPoolMaxIdle());
+		defaultPoolConfig.setMinIdle(properties.getConnectionPoolMinIdle());
+		defaultPoolConfig.setMaxWaitMillis(properties.getConnectionPoolMaxWaitMillis());
+		defaultPoolConfig.setPoolPreparedStatements(properties.isConnectionPoolPoolPreparedStatements());
+		defaultPoolConfig.setMaxOpenPreparedStatements(properties.getConnectionPoolMaxOpenPreparedStatements());
+
+		bean.setDefaultPoolConfig(defaultPoolConfig);
+		bean.setMaxPoolCount(properties.getConnectionPoolMaxCount());
+		bean.setPoolExpireMinutes(properties.getConnectionPoolExpireMinutes());
+
 		GenericPropertiesProcessor genericPropertiesProcessor = new GenericPropertiesProcessor();
 		genericPropertiesProcessor.setDevotedPropertiesProcessors(
 				Arrays.asList(new MySqlDevotedPropertiesProcessor(), new OracleDevotedPropertiesProcessor()));
@@ -496,6 +557,28 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 	public TableCache tableCache()
 	{
 		TableCache bean = new TableCache();
+		bean.setTableListCache(this.tableListCache());
+		return bean;
+	}
+
+	@Bean(initMethod = "init")
+	public TableListCache tableListCache()
+	{
+		TableListCache bean = new TableListCache();
+		return bean;
+	}
+
+	@Bean(initMethod = "init")
+	public RowCountCache rowCountCache()
+	{
+		RowCountCache bean = new RowCountCache();
+		return bean;
+	}
+
+	@Bean
+	public RowCountEstimator rowCountEstimator()
+	{
+		DefaultRowCountEstimator bean = new DefaultRowCountEstimator();
 		return bean;
 	}
 
@@ -506,11 +589,26 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 		return bean;
 	}
 
+	@Bean
+	public QueryFetchSizeStrategy queryFetchSizeStrategy()
+	{
+		ApplicationProperties properties = getApplicationProperties();
+
+		QueryFetchSizeStrategy bean = new QueryFetchSizeStrategy(properties.getJdbcQueryFetchSize(),
+				properties.isJdbcQueryStreaming());
+		bean.setMysqlStreaming(properties.isJdbcQueryMysqlStreaming());
+
+		return bean;
+	}
+
 	@Bean
 	public PersistenceManager persistenceManager()
 	{
 		DefaultPersistenceManager bean = new DefaultPersistenceManager(this.dialectSource());
 		bean.setQuerySqlValidator(this.dsmanagerQuerySqlValidator());
+		bean.setQueryFetchSizeStrategy(this.queryFetchSizeStrategy());
+		bean.setRowCountCache(this.rowCountCache());
+		bean.setRowCountEstimator(this.rowCountEstimator());
 
 		return bean;
 	}
@@ -597,11 +695,27 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 				this.dataSetRootDirectory(),
 				this.httpClient());
 
-		bean.setDataSetResourceDataCacheService(this.cacheServiceConfig
-				.createCacheService(DataSetEntityService.class.getName() + ".dataSetResourceDataCacheService"));
+		ApplicationProperties properties = getApplicationProperties();
+		DataSetCacheWeigher dataSetCacheWeigher = new DataSetCacheWeigher();
+
+		// 权重单位是KB
+		bean.setDataSetResourceDataCacheService(this.cacheServiceConfig.createWeighedCacheService(
+				DataSetEntityService.class.getName() + ".dataSetResourceDataCacheService",
+				properties.getCacheServiceDataSetResourceDataMaxMegabytes() * 1024L, dataSetCacheWeigher));
+
+		bean.setDataSetResultCacheService(this.cacheServiceConfig.createWeighedCacheService(
+				DataSetEntityService.class.getName() + ".dataSetResultCacheService",
+				properties.getCacheServiceDataSetResultMaxMegabytes() * 1024L, dataSetCacheWeigher));
+
+		bean.setSqlDataSetResultCacheService(this.cacheServiceConfig
+				.createCacheService(DataSetEntityService.class.getName() + ".sqlDataSetResultCacheService"));
 
 		bean.setSqlDataSetSqlValidator(this.sqlDataSetSqlValidator());
 
+		JdbcSupport sqlDataSetJdbcSupport = new JdbcSupport();
+		sqlDataSetJdbcSupport.setQueryFetchSizeStrategy(this.queryFetchSizeStrategy());
+		bean.setSqlDataSetJdbcSupport(sqlDataSetJdbcSupport);
+
 		return bean;
 	}
 
@@ -678,6 +792,25 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 		return bean;
 	}
 
+	@Bean
+	public DataSetResultLoader dataSetResultLoader()
+	{
+		SingleFlightDataSetResultLoader bean = new SingleFlightDataSetResultLoader();
+		return bean;
+	}
+
+	@Bean(name = NAME_DASHBOARD_QUERY_EXECUTOR, destroyMethod = "shutdown")
+	public ExecutorService dashboardQueryExecutor()
+	{
+		int threads = Math.max(getApplicationProperties().getDashboardQueryThreads(), 1);
+
+		ThreadPoolExecutor bean = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>());
+		bean.allowCoreThreadTimeOut(true);
+
+		return bean;
+	}
+
 	@Bean
 	public HtmlTplDashboardWidgetEntityService htmlTplDashboardWidgetEntityService()
 	{
@@ -742,6 +875,7 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 	public SqlSelectManager sqlSelectManager()
 	{
 		SqlSelectManager bean = new SqlSelectManager(this.dbMetaResolver());
+		bean.setQueryFetchSizeStrategy(this.queryFetchSizeStrategy());
 		return bean;
 	}
 
@@ -789,8 +923,18 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 	@Bean(destroyMethod = "shutdown")
 	public BatchDataExchangeService<BatchDataExchange> batchDataExchangeService()
 	{
+		ApplicationProperties properties = getApplicationProperties();
+		int threads = Math.max(properties.getDataExchangeThreads(), 1);
+
+		ThreadPoolExecutor executorService = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>());
+		executorService.allowCoreThreadTimeOut(true);
+
 		BatchDataExchangeService<BatchDataExchange> bean = new BatchDataExchangeService<>();
 		bean.setSubDataExchangeService(this.dataExchangeService());
+		bean.setExecutorService(executorService);
+		bean.setMaxConcurrency(properties.getDataExchangeConcurrency());
+		bean.setMaxConnections(properties.getDataExchangeMaxConnectionsPerSchema());
 		return bean;
 	}
 
@@ -840,7 +984,7 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 		InvalidPatternSqlValidator bean = buildInvalidPatternSqlValidator(
 				getApplicationProperties().getSqlDataSetInvalidSqlKeywords());
 
-		return bean;
+		return new CachingSqlValidator(bean);
 	}
 
 	@Bean
@@ -849,7 +993,7 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 		InvalidPatternSqlValidator bean = buildInvalidPatternSqlValidator(
 				getApplicationProperties().getDsmanagerQueryInvalidSqlKeywords());
 
-		return bean;
+		return new CachingSqlValidator(bean);
 	}
 
 	@Bean
@@ -858,7 +1002,7 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 		InvalidPatternSqlValidator bean = buildInvalidPatternSqlValidator(
 				getApplicationProperties().getDsmanagerImptsqlInvalidSqlKeywords());
 
-		return bean;
+		return new CachingSqlValidator(bean);
 	}
 
 	@Bean
@@ -867,7 +1011,7 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 		InvalidPatternSqlValidator bean = buildInvalidPatternSqlValidator(
 				getApplicationProperties().getDsmanagerSqlpadReadInvalidSqlKeywords());
 
-		return bean;
+		return new CachingSqlValidator(bean);
 	}
 
 	@Bean
@@ -876,7 +1020,7 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 		InvalidPatternSqlValidator bean = buildInvalidPatternSqlValidator(
 				getApplicationProperties().getDsmanagerSqlpadEditInvalidSqlKeywords());
 
-		return bean;
+		return new CachingSqlValidator(bean);
 	}
 
 	@Bean
@@ -885,7 +1029,7 @@ public class CoreConfig implements ApplicationListener<ContextRefreshedEvent>
 		InvalidPatternSqlValidator bean = buildInvalidPatternSqlValidator(
 				getApplicationProperties().getDsmanagerSqlpadDeleteInvalidSqlKeywords());
 
-		return bean;
+		return new CachingSqlValidator(bean);
 	}
 
 	@Override
@@ -26,6 +26,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -42,6 +43,7 @@ import org.datagear.analysis.DashboardTheme;
 import org.datagear.analysis.DashboardThemeSource;
 import org.datagear.analysis.DataSet;
 import org.datagear.analysis.DataSetQuery;
+import org.datagear.analysis.DataSetResultLoader;
 import org.datagear.analysis.RenderContext;
 import org.datagear.analysis.SimpleDashboardQueryHandler;
 import org.datagear.analysis.support.ChartWidget;
@@ -59,8 +61,12 @@ import org.datagear.management.domain.Role;
 import org.datagear.management.domain.User;
 import org.datagear.util.Global;
 import org.datagear.util.StringUtil;
+import org.datagear.web.config.ApplicationProperties;
+import org.datagear.web.config.CoreConfig;
 import org.datagear.web.util.Themes;
 import org.datagear.web.util.WebUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 
 /**
  * 抽象数据分析控制器。
@@ -172,6 +178,16 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 
 	private DashboardThemeSource dashboardThemeSource = new SimpleDashboardThemeSource();
 
+	@Autowired
+	private DataSetResultLoader dataSetResultLoader;
+
+	@Autowired
+	@Qualifier(CoreConfig.NAME_DASHBOARD_QUERY_EXECUTOR)
+	private ExecutorService dashboardQueryExecutor;
+
+	@Autowired
+	private ApplicationProperties applicationProperties;
+
 	public AbstractDataAnalysisController()
 	{
 		super();
@@ -197,6 +213,36 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 		this.dashboardThemeSource = dashboardThemeSource;
 	}
 
+	public ExecutorService getDashboardQueryExecutor()
+	{
+		return dashboardQueryExecutor;
+	}
+
+	public void setDashboardQueryExecutor(ExecutorService dashboardQueryExecutor)
+	{
+		this.dashboardQueryExecutor = dashboardQueryExecutor;
+	}
+
+	public ApplicationProperties getApplicationProperties()
+	{
+		return applicationProperties;
+	}
+
+	public void setApplicationProperties(ApplicationProperties applicationProperties)
+	{
+		this.applicationProperties = applicationProperties;
+	}
+
+	public DataSetResultLoader getDataSetResultLoader()
+	{
+		return dataSetResultLoader;
+	}
+
+	public void setDataSetResultLoader(DataSetResultLoader dataSetResultLoader)
+	{
+		this.dataSetResultLoader = dataSetResultLoader;
+	}
+
 	protected HtmlTplDashboardRenderContext createRenderContext(HttpServletRequest request, HttpServletResponse response,
 			String template, Writer responseWriter, WebContext webContext, List<HtmlTplDashboardImport> importList,
 			HtmlTitleHandler htmlTitleHandler) throws IOException
@@ -429,6 +475,14 @@ public abstract class AbstractDataAnalysisController extends AbstractController
 		DashboardQuery queriesConverted = convertDashboardQuery(dashboardQuery, chartWidgets, analysisUser);
 
 		SimpleDashboardQueryHandler dqh = new SimpleDashboardQueryHandler(chartWidgets);
+		dqh.setDataSetResultLoader(this.dataSetResultLoader);
+
+		if (this.applicationProperties.getDashboardQueryThreads() > 0)
+		{
+			dqh.setQueryExecutor(this.dashboardQueryExecutor);
+			dqh.setQueryConcurrency(this.applicationProperties.getDashboardQueryConcurrency());
+			dqh.setQueryTimeout(this.applicationProperties.getDashboardQueryTimeout());
+		}
 
 		return dqh.getResult(queriesConverted);
 	}
@@ -17,14 +17,23 @@
 
 package org.datagear.web.controller;
 
+import java.sql.Connection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.datagear.management.domain.Schema;
+import org.datagear.meta.SimpleTable;
 import org.datagear.meta.Table;
+import org.datagear.meta.TableType;
 import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.persistence.support.NoColumnDefinedException;
 import org.datagear.web.util.TableCache;
+import org.datagear.web.util.TableListCache;
+import org.datagear.web.util.TableListCache.TableList;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -41,6 +50,9 @@ public abstract class AbstractSchemaConnTableController extends AbstractSchemaCo
 	@Autowired
 	private TableCache tableCache;
 
+	@Autowired
+	private TableListCache tableListCache;
+
 	public AbstractSchemaConnTableController()
 	{
 		super();
@@ -66,6 +78,56 @@ public abstract class AbstractSchemaConnTableController extends AbstractSchemaCo
 		this.tableCache = tableCache;
 	}
 
+	public TableListCache getTableListCache()
+	{
+		return tableListCache;
+	}
+
+	public void setTableListCache(TableListCache tableListCache)
+	{
+		this.tableListCache = tableListCache;
+	}
+
+	/**
+	 * 获取{@linkplain Schema}的用户数据表列表，优先从{@linkplain #getTableListCache()}中获取。
+	 * <p>
+	 * 重新加载时，对于已不存在的表，将一并清除其{@linkplain #getTableCache()}缓存。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param schema
+	 * @param reload
+	 *            是否忽略缓存重新加载
+	 * @return
+	 */
+	protected TableList getTableList(Connection cn, Schema schema, boolean reload)
+	{
+		TableList prev = getTableListCache().get(schema.getId());
+
+		if (prev != null && !reload)
+			return prev;
+
+		List<SimpleTable> tables = getDbMetaResolver().getSimpleTables(cn);
+		tables = TableType.filterUserDataTables(cn, getDbMetaResolver(), tables);
+
+		TableList tableList = getTableListCache().put(schema.getId(), tables);
+
+		if (prev != null)
+		{
+			Set<String> names = new HashSet<>();
+			for (SimpleTable table : tables)
+				names.add(table.getName());
+
+			for (SimpleTable table : prev.getTables())
+			{
+				if (!names.contains(table.getName()))
+					getTableCache().invalidate(schema.getId(), table.getName());
+			}
+		}
+
+		return tableList;
+	}
+
 	/**
 	 * 抽象数据库表执行器。
 	 * 
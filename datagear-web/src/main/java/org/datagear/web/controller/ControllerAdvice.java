@@ -37,6 +37,7 @@ import org.datagear.analysis.support.SqlDataSetUnsupportedSqlTypeException;
 import org.datagear.analysis.support.TemplateResolverException;
 import org.datagear.analysis.support.UnsupportedJsonResultDataException;
 import org.datagear.analysis.support.UnsupportedResultDataException;
+import org.datagear.connection.ConnectionPoolConfigException;
 import org.datagear.connection.ConnectionSourceException;
 import org.datagear.connection.DriverClassFormatErrorException;
 import org.datagear.connection.DriverEntityManagerException;
@@ -151,6 +152,15 @@ public class ControllerAdvice extends AbstractController
 		return getErrorView(request, response);
 	}
 
+	@ExceptionHandler(DataExchangeBusyException.class)
+	@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+	public String handleControllerDataExchangeBusyException(HttpServletRequest request,
+			HttpServletResponse response, DataExchangeBusyException exception)
+	{
+		setOptMsgForThrowable(request, exception);
+		return getErrorView(request, response);
+	}
+
 	@ExceptionHandler(SchemaNotFoundException.class)
 	@ResponseStatus(HttpStatus.NOT_FOUND)
 	public String handleControllerSchemaNotFoundException(HttpServletRequest request, HttpServletResponse response,
@@ -371,6 +381,15 @@ public class ControllerAdvice extends AbstractController
 		return getErrorView(request, response);
 	}
 
+	@ExceptionHandler(ConnectionPoolConfigException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public String handleConnectionConnectionPoolConfigException(HttpServletRequest request,
+			HttpServletResponse response, ConnectionPoolConfigException exception)
+	{
+		setOptMsgForThrowable(request, exception, exception.getName(), exception.getValue());
+		return getErrorView(request, response);
+	}
+
 	@ExceptionHandler(UnsupportedGetConnectionException.class)
 	@ResponseStatus(HttpStatus.BAD_REQUEST)
 	public String handleConnectionUnsupportedGetConnectionException(HttpServletRequest request,
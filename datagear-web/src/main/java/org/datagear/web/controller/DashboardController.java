@@ -167,9 +167,6 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 
 	private ServletContext servletContext;
 
-	@Autowired
-	private ApplicationProperties applicationProperties;
-
 	@Autowired
 	private HtmlFilter htmlFilter;
 
@@ -250,15 +247,6 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 		this.servletContext = servletContext;
 	}
 
-	public ApplicationProperties getApplicationProperties()
-	{
-		return applicationProperties;
-	}
-
-	public void setApplicationProperties(ApplicationProperties applicationProperties)
-	{
-		this.applicationProperties = applicationProperties;
-	}
 
 	public HtmlFilter getHtmlFilter()
 	{
@@ -1200,8 +1188,8 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 			if (manager == null)
 			{
 				manager = new DashboardShowAuthCheckManager(
-						this.applicationProperties.getDashboardSharePasswordAuthFailThreshold(),
-						this.applicationProperties.getDashboardSharePasswordAuthFailPastMinutes() * 60 * 1000);
+						getApplicationProperties().getDashboardSharePasswordAuthFailThreshold(),
+						getApplicationProperties().getDashboardSharePasswordAuthFailPastMinutes() * 60 * 1000);
 				session.setAttribute(DashboardShowAuthCheckManager.class.getName(), manager);
 			}
 		}
@@ -1321,10 +1309,10 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 			// 其次全局资源
 			else
 			{
-				if (!StringUtil.isEmpty(this.applicationProperties.getDashboardGlobalResUrlPrefix())
-						&& resName.startsWith(this.applicationProperties.getDashboardGlobalResUrlPrefix()))
+				if (!StringUtil.isEmpty(getApplicationProperties().getDashboardGlobalResUrlPrefix())
+						&& resName.startsWith(getApplicationProperties().getDashboardGlobalResUrlPrefix()))
 				{
-					resName = resName.substring(this.applicationProperties.getDashboardGlobalResUrlPrefix().length());
+					resName = resName.substring(getApplicationProperties().getDashboardGlobalResUrlPrefix().length());
 				}
 
 				File globalRes = FileUtil.getFile(dashboardGlobalResRootDirectory, resName);
@@ -1384,7 +1372,7 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 			throws Exception
 	{
 		String resName = resolvePathAfter(request,
-				"/show/" + this.applicationProperties.getDashboardGlobalResUrlPrefixName() + "/");
+				"/show/" + getApplicationProperties().getDashboardGlobalResUrlPrefixName() + "/");
 
 		if (StringUtil.isEmpty(resName))
 			throw new FileNotFoundException(resName);
@@ -1839,8 +1827,8 @@ public class DashboardController extends AbstractDataAnalysisController implemen
 	protected void setFormPageAttributes(org.springframework.ui.Model model)
 	{
 		model.addAttribute("dashboardGlobalResUrlPrefix",
-				(StringUtil.isEmpty(this.applicationProperties.getDashboardGlobalResUrlPrefix()) ? ""
-						: this.applicationProperties.getDashboardGlobalResUrlPrefix()));
+				(StringUtil.isEmpty(getApplicationProperties().getDashboardGlobalResUrlPrefix()) ? ""
+						: getApplicationProperties().getDashboardGlobalResUrlPrefix()));
 		model.addAttribute("defaultTempalteName", HtmlTplDashboardWidgetEntity.DEFAULT_TEMPLATES[0]);
 
 		addAttributeForWriteJson(model, "availableCharsetNames", getAvailableCharsetNames());
@@ -38,6 +38,7 @@ import org.datagear.management.domain.User;
 import org.datagear.meta.Column;
 import org.datagear.meta.Table;
 import org.datagear.persistence.Dialect;
+import org.datagear.persistence.LiteralSqlParamValue;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
 import org.datagear.persistence.PersistenceManager;
@@ -50,6 +51,7 @@ import org.datagear.persistence.support.DefaultLOBRowMapper;
 import org.datagear.util.FileInfo;
 import org.datagear.util.FileUtil;
 import org.datagear.util.IOUtil;
+import org.datagear.util.SqlParamValue;
 import org.datagear.util.StringUtil;
 import org.datagear.web.format.DateFormatter;
 import org.datagear.web.format.SqlDateFormatter;
@@ -254,6 +256,9 @@ public class DataController extends AbstractSchemaConnTableController
 		final User user = WebUtils.getUser();
 		final PagingQuery pagingQuery = inflatePagingQuery(request, paramData);
 
+		// 浏览大表时，无需每次翻页都执行COUNT(*)，精确记录数可通过countQueryData另行获取
+		pagingQuery.setApproximateTotal(true);
+
 		final DefaultLOBRowMapper rowMapper = buildQueryDefaultLOBRowMapper();
 
 		ReturnSchemaConnTableExecutor<PagingData<Row>> executor = new ReturnSchemaConnTableExecutor<PagingData<Row>>(
@@ -265,6 +270,9 @@ public class DataController extends AbstractSchemaConnTableController
 			{
 				checkReadTableDataPermission(schema, user);
 
+				if (pagingQuery.hasKeyset())
+					pagingQuery.setKeyset(convertKeyset(getConnection(), table, pagingQuery.getKeyset()));
+
 				PagingData<Row> pagingData = persistenceManager.pagingQuery(getConnection(), null, table, pagingQuery,
 						rowMapper);
 				return pagingData;
@@ -279,6 +287,35 @@ public class DataController extends AbstractSchemaConnTableController
 		this._objectMapperForBigNumberToString.writeValue(out, pagingData);
 	}
 
+	@RequestMapping(value = "/{schemaId}/{tableName}/countQueryData", produces = CONTENT_TYPE_JSON)
+	@ResponseBody
+	public Map<String, ?> countQueryData(HttpServletRequest request, HttpServletResponse response,
+			final org.springframework.ui.Model springModel, @PathVariable("schemaId") String schemaId,
+			@PathVariable("tableName") String tableName, @RequestBody(required = false) Query paramData)
+			throws Throwable
+	{
+		final User user = WebUtils.getUser();
+		final Query query = (paramData == null ? new Query() : paramData);
+
+		Long total = new ReturnSchemaConnTableExecutor<Long>(request, response, springModel, schemaId, tableName,
+				true)
+		{
+			@Override
+			protected Long execute(HttpServletRequest request, HttpServletResponse response,
+					org.springframework.ui.Model springModel, Schema schema, Table table) throws Throwable
+			{
+				checkReadTableDataPermission(schema, user);
+
+				return persistenceManager.count(getConnection(), table, query);
+			}
+		}.execute();
+
+		Map<String, Object> map = new HashMap<>();
+		map.put("total", total);
+
+		return map;
+	}
+
 	@RequestMapping(value = "/{schemaId}/{tableName}/getQuerySql", produces = CONTENT_TYPE_JSON)
 	@ResponseBody
 	public Map<String, ?> getQuerySql(HttpServletRequest request, HttpServletResponse response,
@@ -845,6 +882,42 @@ public class DataController extends AbstractSchemaConnTableController
 		return mapper;
 	}
 
+	/**
+	 * 将界面传回的键集（参考{@linkplain PagingData#getNextKeyset()}）值转换为对应列类型的{@linkplain SqlParamValue}。
+	 * <p>
+	 * 键集值经过了JSON序列化（比如大数值、日期被转换为字符串），应使用与记录条件相同的方式转换。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param table
+	 * @param keyset
+	 * @return
+	 */
+	protected Row convertKeyset(Connection cn, Table table, Row keyset)
+	{
+		ConversionSqlParamValueMapper mapper = buildConditionSqlParamValueMapper();
+		Row re = new Row();
+
+		for (Map.Entry<String, Object> entry : keyset.entrySet())
+		{
+			Column column = table.getColumn(entry.getKey());
+			Object value = entry.getValue();
+
+			if (column != null)
+			{
+				SqlParamValue sqlParamValue = mapper.map(cn, table, column, value);
+
+				// 键集值不应是SQL表达式
+				if (!(sqlParamValue instanceof LiteralSqlParamValue))
+					value = sqlParamValue;
+			}
+
+			re.put(entry.getKey(), value);
+		}
+
+		return re;
+	}
+
 	protected File getDataBinaryTmpDirectory()
 	{
 		return FileUtil.getDirectory(this.tempDirectory, "data", true);
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ *
+ * This file is part of DataGear.
+ *
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ *
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.web.controller;
+
+/**
+ * 数据交换繁忙异常。
+ * <p>
+ * 同一数据源正在执行的数据交换已达到并发上限，且在等待时间内未能获取连接许可时抛出。
+ * </p>
+ * 
+ * @author datagear@163.com
+ *
+ */
+public class DataExchangeBusyException extends ControllerException
+{
+	private static final long serialVersionUID = 1L;
+
+	public DataExchangeBusyException()
+	{
+		super();
+	}
+
+	public DataExchangeBusyException(String message)
+	{
+		super(message);
+	}
+
+	public DataExchangeBusyException(Throwable cause)
+	{
+		super(cause);
+	}
+
+	public DataExchangeBusyException(String message, Throwable cause)
+	{
+		super(message, cause);
+	}
+}
@@ -32,6 +32,7 @@ import java.io.Writer;
 import java.nio.charset.Charset;
 import java.sql.Connection;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -40,7 +41,10 @@ import java.util.Locale;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
 
@@ -51,6 +55,8 @@ import javax.servlet.http.HttpSession;
 import org.datagear.dataexchange.AbstractQuery;
 import org.datagear.dataexchange.BatchDataExchange;
 import org.datagear.dataexchange.BatchDataExchangeResult;
+import org.datagear.dataexchange.BatchDataExchangeService;
+import org.datagear.dataexchange.ConnectionPermits;
 import org.datagear.dataexchange.DataExchange;
 import org.datagear.dataexchange.DataExchangeService;
 import org.datagear.dataexchange.DataFormat;
@@ -58,6 +64,7 @@ import org.datagear.dataexchange.DataFormatContext;
 import org.datagear.dataexchange.DataImportOption;
 import org.datagear.dataexchange.ExceptionResolve;
 import org.datagear.dataexchange.Query;
+import org.datagear.dataexchange.QueryTextDataExport;
 import org.datagear.dataexchange.SimpleBatchDataExchange;
 import org.datagear.dataexchange.SqlQuery;
 import org.datagear.dataexchange.SubDataExchange;
@@ -78,15 +85,19 @@ import org.datagear.dataexchange.support.SqlDataExportOption;
 import org.datagear.dataexchange.support.SqlDataImport;
 import org.datagear.management.domain.Schema;
 import org.datagear.management.domain.User;
+import org.datagear.meta.ImportKey;
 import org.datagear.meta.SimpleTable;
+import org.datagear.meta.Table;
 import org.datagear.meta.TableType;
 import org.datagear.meta.resolver.DBMetaResolver;
 import org.datagear.persistence.Dialect;
 import org.datagear.persistence.PersistenceManager;
+import org.datagear.persistence.RowCountEstimator;
 import org.datagear.util.FileInfo;
 import org.datagear.util.FileUtil;
 import org.datagear.util.IDUtil;
 import org.datagear.util.IOUtil;
+import org.datagear.util.QueryFetchSizeStrategy;
 import org.datagear.util.SqlScriptParser;
 import org.datagear.util.SqlScriptParser.SqlStatement;
 import org.datagear.util.StringUtil;
@@ -95,6 +106,7 @@ import org.datagear.util.resource.DataSourceConnectionFactory;
 import org.datagear.util.resource.FileOutputStreamResourceFactory;
 import org.datagear.util.resource.FileReaderResourceFactory;
 import org.datagear.util.resource.FileWriterResourceFactory;
+import org.datagear.util.resource.OutputStreamWriterResourceFactory;
 import org.datagear.util.resource.ResourceFactory;
 import org.datagear.util.sqlvalidator.SqlValidator;
 import org.datagear.web.dataexchange.MessageBatchDataExchangeListener;
@@ -103,6 +115,7 @@ import org.datagear.web.dataexchange.MessageSubTextDataExportListener;
 import org.datagear.web.dataexchange.MessageSubTextValueDataImportListener;
 import org.datagear.web.util.MessageChannel;
 import org.datagear.web.util.OperationMessage;
+import org.datagear.web.util.TableCache;
 import org.datagear.web.util.WebUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -127,24 +140,49 @@ public class DataExchangeController extends AbstractSchemaConnController
 {
 	public static final Pattern TABLE_NAME_QUERY_PATTERN = Pattern.compile("^\\s*\\S+\\s*$", Pattern.CASE_INSENSITIVE);
 
+	public static final String STREAM_EXPORT_DATA_TYPE_CSV = "csv";
+
+	public static final String STREAM_EXPORT_DATA_TYPE_JSON = "json";
+
+	public static final String STREAM_EXPORT_DATA_TYPE_SQL = "sql";
+
+	public static final String STREAM_EXPORT_COMPRESS_ZIP = "zip";
+
+	public static final String STREAM_EXPORT_COMPRESS_GZIP = "gzip";
+
+	/** 流式导出等待连接许可的秒数 */
+	public static final int STREAM_EXPORT_PERMIT_WAIT_SECONDS = 10;
+
 	protected static final String KEY_SESSION_BatchDataExchangeInfoMap = DataExchangeController.class.getName()
 			+ ".BatchDataExchangeInfoMap";
 
 	@Autowired
 	private DataExchangeService<DataExchange> dataExchangeService;
 
+	@Autowired
+	private BatchDataExchangeService<BatchDataExchange> batchDataExchangeService;
+
 	@Autowired
 	private DBMetaResolver dbMetaResolver;
 
 	@Autowired
 	private SqlValidator dsmanagerQuerySqlValidator;
 
+	@Autowired
+	private QueryFetchSizeStrategy queryFetchSizeStrategy;
+
 	@Autowired
 	private File tempDirectory;
 	
 	@Autowired
 	private PersistenceManager persistenceManager;
 
+	@Autowired
+	private TableCache tableCache;
+
+	@Autowired
+	private RowCountEstimator rowCountEstimator;
+
 	private MessageChannel messageChannel = new MessageChannel();
 
 	public DataExchangeController()
@@ -162,6 +200,16 @@ public class DataExchangeController extends AbstractSchemaConnController
 		this.dataExchangeService = dataExchangeService;
 	}
 
+	public BatchDataExchangeService<BatchDataExchange> getBatchDataExchangeService()
+	{
+		return batchDataExchangeService;
+	}
+
+	public void setBatchDataExchangeService(BatchDataExchangeService<BatchDataExchange> batchDataExchangeService)
+	{
+		this.batchDataExchangeService = batchDataExchangeService;
+	}
+
 	public MessageChannel getMessageChannel()
 	{
 		return messageChannel;
@@ -192,6 +240,16 @@ public class DataExchangeController extends AbstractSchemaConnController
 		this.dsmanagerQuerySqlValidator = dsmanagerQuerySqlValidator;
 	}
 
+	public QueryFetchSizeStrategy getQueryFetchSizeStrategy()
+	{
+		return queryFetchSizeStrategy;
+	}
+
+	public void setQueryFetchSizeStrategy(QueryFetchSizeStrategy queryFetchSizeStrategy)
+	{
+		this.queryFetchSizeStrategy = queryFetchSizeStrategy;
+	}
+
 	public File getTempDirectory()
 	{
 		return tempDirectory;
@@ -212,6 +270,26 @@ public class DataExchangeController extends AbstractSchemaConnController
 		this.persistenceManager = persistenceManager;
 	}
 
+	public TableCache getTableCache()
+	{
+		return tableCache;
+	}
+
+	public void setTableCache(TableCache tableCache)
+	{
+		this.tableCache = tableCache;
+	}
+
+	public RowCountEstimator getRowCountEstimator()
+	{
+		return rowCountEstimator;
+	}
+
+	public void setRowCountEstimator(RowCountEstimator rowCountEstimator)
+	{
+		this.rowCountEstimator = rowCountEstimator;
+	}
+
 	@RequestMapping("/{schemaId}/import")
 	public String impt(HttpServletRequest request, HttpServletResponse response,
 			org.springframework.ui.Model springModel, @PathVariable("schemaId") String schemaId) throws Throwable
@@ -321,6 +399,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 			csvDataImport.setListener(listener);
 
 			SubDataExchange subDataExchange = new SubDataExchange(subForm.getId(), subForm.getNumber(), csvDataImport);
+			subDataExchange.setEstimatedSize(file.length());
 			subDataExchanges.add(subDataExchange);
 		}
 
@@ -331,7 +410,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 					Schema schema) throws Throwable
 			{
 				Connection cn = getConnection();
-				inflateDependentNumbers(cn, subDataExchangeForms, form.getDependentNumberAuto());
+				inflateDependentNumbers(cn, schema, subDataExchangeForms, form.getDependentNumberAuto());
 			}
 		}.execute();
 
@@ -339,7 +418,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 		Set<SubDataExchange> subDataExchangeSet = new HashSet<>(subDataExchanges);
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchangeSet,
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(schema, connectionFactory, subDataExchangeSet,
 				dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
@@ -435,6 +514,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 			sqlDataImport.setListener(listener);
 
 			SubDataExchange subDataExchange = new SubDataExchange(subForm.getId(), subForm.getNumber(), sqlDataImport);
+			subDataExchange.setEstimatedSize(file.length());
 			subDataExchanges.add(subDataExchange);
 		}
 
@@ -442,7 +522,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 		Set<SubDataExchange> subDataExchangeSet = new HashSet<>(subDataExchanges);
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchangeSet,
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(schema, connectionFactory, subDataExchangeSet,
 				dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
@@ -545,6 +625,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 			jsonDataImport.setListener(listener);
 
 			SubDataExchange subDataExchange = new SubDataExchange(subForm.getId(), subForm.getNumber(), jsonDataImport);
+			subDataExchange.setEstimatedSize(file.length());
 			subDataExchanges.add(subDataExchange);
 		}
 
@@ -558,7 +639,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 				{
 					Connection cn = getConnection();
 
-					inflateDependentNumbers(cn, subDataExchangeForms, form.getDependentNumberAuto());
+					inflateDependentNumbers(cn, schema, subDataExchangeForms, form.getDependentNumberAuto());
 				}
 			}.execute();
 		}
@@ -567,7 +648,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 		Set<SubDataExchange> subDataExchangeSet = new HashSet<>(subDataExchanges);
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchangeSet,
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(schema, connectionFactory, subDataExchangeSet,
 				dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
@@ -666,6 +747,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 			excelDataImport.setListener(listener);
 
 			SubDataExchange subDataExchange = new SubDataExchange(subForm.getId(), subForm.getNumber(), excelDataImport);
+			subDataExchange.setEstimatedSize(file.length());
 			subDataExchanges.add(subDataExchange);
 		}
 
@@ -677,7 +759,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 			{
 				Connection cn = getConnection();
 
-				inflateDependentNumbers(cn, subDataExchangeForms, form.getDependentNumberAuto());
+				inflateDependentNumbers(cn, schema, subDataExchangeForms, form.getDependentNumberAuto());
 			}
 		}.execute();
 
@@ -685,7 +767,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 
 		Set<SubDataExchange> subDataExchangeSet = new HashSet<>(subDataExchanges);
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchangeSet,
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(schema, connectionFactory, subDataExchangeSet,
 				dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
@@ -905,7 +987,9 @@ public class DataExchangeController extends AbstractSchemaConnController
 			subDataExchanges.add(subDataExchange);
 		}
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchanges,
+		inflateExportEstimatedSizes(connectionFactory, subDataExchanges);
+
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(schema, connectionFactory, subDataExchanges,
 				dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
@@ -1007,7 +1091,9 @@ public class DataExchangeController extends AbstractSchemaConnController
 			subDataExchanges.add(subDataExchange);
 		}
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchanges,
+		inflateExportEstimatedSizes(connectionFactory, subDataExchanges);
+
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(schema, connectionFactory, subDataExchanges,
 				dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
@@ -1113,7 +1199,9 @@ public class DataExchangeController extends AbstractSchemaConnController
 			subDataExchanges.add(subDataExchange);
 		}
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchanges,
+		inflateExportEstimatedSizes(connectionFactory, subDataExchanges);
+
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(schema, connectionFactory, subDataExchanges,
 				dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
@@ -1217,7 +1305,9 @@ public class DataExchangeController extends AbstractSchemaConnController
 			subDataExchanges.add(subDataExchange);
 		}
 
-		BatchDataExchange batchDataExchange = buildBatchDataExchange(connectionFactory, subDataExchanges,
+		inflateExportEstimatedSizes(connectionFactory, subDataExchanges);
+
+		BatchDataExchange batchDataExchange = buildBatchDataExchange(schema, connectionFactory, subDataExchanges,
 				dataExchangeId, locale);
 
 		this.dataExchangeService.exchange(batchDataExchange);
@@ -1278,6 +1368,183 @@ public class DataExchangeController extends AbstractSchemaConnController
 		}
 	}
 
+	/**
+	 * 流式导出单个查询的数据。
+	 * <p>
+	 * 导出数据将在读取时直接写入响应输出流（可选ZIP、GZIP压缩），而不会先写入临时目录再下载。
+	 * </p>
+	 * <p>
+	 * 它与批量数据交换共用同一数据源的连接许可（参考{@linkplain BatchDataExchangeService#getConnectionPermits(String)}），
+	 * 在{@linkplain #STREAM_EXPORT_PERMIT_WAIT_SECONDS}秒内未获取到许可时将抛出{@linkplain DataExchangeBusyException}。
+	 * </p>
+	 * 
+	 * @param request
+	 * @param response
+	 * @param schemaId
+	 * @param dataType
+	 *            {@linkplain #STREAM_EXPORT_DATA_TYPE_CSV}、{@linkplain #STREAM_EXPORT_DATA_TYPE_JSON}、{@linkplain #STREAM_EXPORT_DATA_TYPE_SQL}
+	 * @param query
+	 *            表名或者查询SQL
+	 * @param tableName
+	 *            导出SQL、JSON的表名，为空时，如果{@code query}是表名则使用它
+	 * @param fileName
+	 * @param fileEncoding
+	 * @param compress
+	 *            {@linkplain #STREAM_EXPORT_COMPRESS_ZIP}、{@linkplain #STREAM_EXPORT_COMPRESS_GZIP}，为空表示不压缩
+	 * @throws Exception
+	 */
+	@RequestMapping(value = "/{schemaId}/export/stream")
+	@ResponseBody
+	public void exptStream(HttpServletRequest request, HttpServletResponse response,
+			@PathVariable("schemaId") String schemaId, @RequestParam("dataType") String dataType,
+			@RequestParam("query") String query,
+			@RequestParam(value = "tableName", required = false) String tableName,
+			@RequestParam(value = "fileName", required = false) String fileName,
+			@RequestParam(value = "fileEncoding", required = false) String fileEncoding,
+			@RequestParam(value = "compress", required = false) String compress) throws Exception
+	{
+		if (!STREAM_EXPORT_DATA_TYPE_CSV.equals(dataType) && !STREAM_EXPORT_DATA_TYPE_JSON.equals(dataType)
+				&& !STREAM_EXPORT_DATA_TYPE_SQL.equals(dataType))
+			throw new IllegalInputException();
+
+		if (isEmpty(query))
+			throw new IllegalInputException();
+
+		if (isEmpty(tableName) && isTableNameQueryString(query))
+			tableName = query.trim();
+
+		if (STREAM_EXPORT_DATA_TYPE_SQL.equals(dataType) && isEmpty(tableName))
+			throw new IllegalInputException();
+
+		if (isEmpty(fileName))
+			fileName = (isEmpty(tableName) ? "export" : tableName) + "." + dataType;
+
+		Charset charset = toStreamExportCharset(fileEncoding);
+
+		final User user = WebUtils.getUser();
+
+		Schema schema = getSchemaForUserNotNull(user, schemaId);
+
+		checkReadTableDataPermission(schema, user);
+
+		ConnectionFactory connectionFactory = new DataSourceConnectionFactory(new SchemaDataSource(schema));
+		Query exportQuery = toQuery(query);
+
+		String responseFileName = fileName;
+
+		if (STREAM_EXPORT_COMPRESS_ZIP.equals(compress))
+			responseFileName = fileName + ".zip";
+		else if (STREAM_EXPORT_COMPRESS_GZIP.equals(compress))
+			responseFileName = fileName + ".gz";
+
+		ConnectionPermits permits = this.batchDataExchangeService.getConnectionPermits(schema.getId());
+
+		if (permits != null && !permits.tryAcquire(STREAM_EXPORT_PERMIT_WAIT_SECONDS, TimeUnit.SECONDS))
+			throw new DataExchangeBusyException();
+
+		OutputStream out = null;
+
+		try
+		{
+			response.setContentType(getStreamExportContentType(dataType, compress, charset));
+			response.setHeader("Content-Disposition",
+					"attachment; filename=" + toResponseAttachmentFileName(request, response, responseFileName));
+
+			out = response.getOutputStream();
+
+			if (STREAM_EXPORT_COMPRESS_ZIP.equals(compress))
+			{
+				ZipOutputStream zout = new ZipOutputStream(out);
+				zout.putNextEntry(new ZipEntry(fileName));
+				out = zout;
+			}
+			else if (STREAM_EXPORT_COMPRESS_GZIP.equals(compress))
+				out = new GZIPOutputStream(out);
+
+			ResourceFactory<Writer> writerFactory = OutputStreamWriterResourceFactory.valueOf(out, charset);
+			DataFormat dataFormat = new DataFormat();
+			DataExchange dataExchange = null;
+
+			if (STREAM_EXPORT_DATA_TYPE_CSV.equals(dataType))
+			{
+				dataExchange = new CsvDataExport(connectionFactory, dataFormat, new TextDataExportOption(false),
+						exportQuery, writerFactory);
+			}
+			else if (STREAM_EXPORT_DATA_TYPE_JSON.equals(dataType))
+			{
+				JsonDataExportOption exportOption = new JsonDataExportOption(false,
+						(isEmpty(tableName) ? JsonDataFormat.ROW_ARRAY : JsonDataFormat.TABLE_OBJECT));
+				dataExchange = new JsonDataExport(connectionFactory, dataFormat, exportOption, exportQuery,
+						writerFactory, tableName);
+			}
+			else
+			{
+				dataExchange = new SqlDataExport(connectionFactory, dataFormat, new SqlDataExportOption(false, false),
+						exportQuery, tableName, writerFactory);
+			}
+
+			// 未设置监听器，出错时将直接抛出异常
+			this.dataExchangeService.exchange(dataExchange);
+		}
+		finally
+		{
+			IOUtil.close(out);
+
+			if (permits != null)
+				permits.release();
+		}
+	}
+
+	/**
+	 * 获取流式导出的字符集，为空时返回{@linkplain Charset#defaultCharset()}。
+	 * 
+	 * @param fileEncoding
+	 * @return
+	 * @throws IllegalInputException
+	 *             字符集名称非法或者不支持时
+	 */
+	protected Charset toStreamExportCharset(String fileEncoding) throws IllegalInputException
+	{
+		if (isEmpty(fileEncoding))
+			return Charset.defaultCharset();
+
+		try
+		{
+			return Charset.forName(fileEncoding);
+		}
+		catch (IllegalArgumentException e)
+		{
+			throw new IllegalInputException(e);
+		}
+	}
+
+	/**
+	 * 获取流式导出的响应内容类型。
+	 * 
+	 * @param dataType
+	 * @param compress
+	 * @param charset
+	 * @return
+	 */
+	protected String getStreamExportContentType(String dataType, String compress, Charset charset)
+	{
+		if (STREAM_EXPORT_COMPRESS_ZIP.equals(compress))
+			return "application/zip";
+		else if (STREAM_EXPORT_COMPRESS_GZIP.equals(compress))
+			return "application/gzip";
+
+		String mimeType = null;
+
+		if (STREAM_EXPORT_DATA_TYPE_CSV.equals(dataType))
+			mimeType = "text/csv";
+		else if (STREAM_EXPORT_DATA_TYPE_JSON.equals(dataType))
+			mimeType = "application/json";
+		else
+			mimeType = "text/plain";
+
+		return mimeType + ";charset=" + charset.name();
+	}
+
 	@RequestMapping(value = "/{schemaId}/message", produces = CONTENT_TYPE_JSON)
 	@ResponseBody
 	public List<Object> message(HttpServletRequest request, HttpServletResponse response,
@@ -1297,10 +1564,12 @@ public class DataExchangeController extends AbstractSchemaConnController
 	 * 根据表依赖关系填充依赖编号。
 	 * 
 	 * @param cn
+	 * @param schema
 	 * @param subForms
 	 * @param inflateFlag 允许{@code null}
 	 */
-	protected void inflateDependentNumbers(Connection cn, List<? extends TextValueFileSubDataImportForm> subForms, String inflateFlag)
+	protected void inflateDependentNumbers(Connection cn, Schema schema,
+			List<? extends TextValueFileSubDataImportForm> subForms, String inflateFlag)
 	{
 		if (subForms == null || subForms.isEmpty())
 			return;
@@ -1312,7 +1581,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 			tableNames[i] = subForm.getTableName();
 		}
 
-		List<String[]> importTabless = this.dbMetaResolver.getImportTables(cn, tableNames);
+		List<String[]> importTabless = getImportTables(cn, schema, tableNames);
 
 		for(int i=0, len=subForms.size(); i<len; i++)
 		{
@@ -1348,6 +1617,48 @@ public class DataExchangeController extends AbstractSchemaConnController
 		}
 	}
 
+	/**
+	 * 获取导入键表名列表。
+	 * <p>
+	 * 表元信息从{@linkplain TableCache}中获取，没有缓存的将批量加载并缓存，
+	 * 从而避免逐表读取导入键元信息。
+	 * </p>
+	 * 
+	 * @param cn
+	 * @param schema
+	 * @param tableNames
+	 * @return 与{@code tableNames}一一对应的列表
+	 */
+	protected List<String[]> getImportTables(Connection cn, Schema schema, String[] tableNames)
+	{
+		String[] loadNames = new String[tableNames.length];
+		for (int i = 0; i < tableNames.length; i++)
+			loadNames[i] = (StringUtil.isEmpty(tableNames[i]) ? null : tableNames[i]);
+
+		List<Table> tables = this.tableCache.getTables(cn, this.dbMetaResolver, schema.getId(), loadNames);
+
+		List<String[]> importTabless = new ArrayList<>(tables.size());
+
+		for (Table table : tables)
+		{
+			List<String> importTables = new ArrayList<>(2);
+			ImportKey[] importKeys = (table == null ? null : table.getImportKeys());
+
+			if (importKeys != null)
+			{
+				for (ImportKey importKey : importKeys)
+				{
+					if (!importTables.contains(importKey.getPrimaryTableName()))
+						importTables.add(importKey.getPrimaryTableName());
+				}
+			}
+
+			importTabless.add(importTables.toArray(new String[importTables.size()]));
+		}
+
+		return importTabless;
+	}
+
 	/**
 	 * 处理{@linkplain SubDataExchange}依赖。
 	 * 
@@ -1456,10 +1767,71 @@ public class DataExchangeController extends AbstractSchemaConnController
 		return fileInfos;
 	}
 
-	protected BatchDataExchange buildBatchDataExchange(ConnectionFactory connectionFactory,
+	/**
+	 * 设置导出子数据交换的预估数据量（参考{@linkplain SubDataExchange#getEstimatedSize()}），用于确定执行优先级。
+	 * <p>
+	 * 仅对表名查询使用{@linkplain #getRowCountEstimator()}估算表记录数，其他查询保持为{@code 0}。
+	 * </p>
+	 * 
+	 * @param connectionFactory
+	 * @param subDataExchanges
+	 */
+	protected void inflateExportEstimatedSizes(ConnectionFactory connectionFactory,
+			Collection<SubDataExchange> subDataExchanges)
+	{
+		// 只有一个时无需确定优先级
+		if (this.rowCountEstimator == null || subDataExchanges.size() < 2)
+			return;
+
+		Connection cn = null;
+
+		try
+		{
+			cn = connectionFactory.get();
+
+			for (SubDataExchange subDataExchange : subDataExchanges)
+			{
+				DataExchange dataExchange = subDataExchange.getDataExchange();
+
+				if (!(dataExchange instanceof QueryTextDataExport))
+					continue;
+
+				Query query = ((QueryTextDataExport) dataExchange).getQuery();
+
+				if (!(query instanceof TableQuery))
+					continue;
+
+				Table table = new Table(((TableQuery) query).getTable(), TableType.TABLE);
+				long estimate = this.rowCountEstimator.estimate(cn, table);
+
+				if (estimate > 0)
+					subDataExchange.setEstimatedSize(estimate);
+			}
+		}
+		catch (Throwable t)
+		{
+			// 预估数据量仅用于确定优先级，出错时不应影响导出
+		}
+		finally
+		{
+			if (cn != null)
+			{
+				try
+				{
+					connectionFactory.release(cn);
+				}
+				catch (Throwable t)
+				{
+				}
+			}
+		}
+	}
+
+	protected BatchDataExchange buildBatchDataExchange(Schema schema, ConnectionFactory connectionFactory,
 			Set<SubDataExchange> subDataExchanges, String channel, Locale locale)
 	{
 		BatchDataExchange batchDataExchange = new SimpleBatchDataExchange(connectionFactory, subDataExchanges);
+		batchDataExchange.setConnectionKey(schema.getId());
 
 		MessageBatchDataExchangeListener listener = new MessageBatchDataExchangeListener(this.messageChannel, channel,
 				getMessageSource(), locale);
@@ -1472,6 +1844,7 @@ public class DataExchangeController extends AbstractSchemaConnController
 	{
 		AbstractQuery re = (isTableNameQueryString(query) ? new TableQuery(query) : new SqlQuery(query));
 		re.setSqlValidator(this.dsmanagerQuerySqlValidator);
+		re.setQueryFetchSizeStrategy(this.queryFetchSizeStrategy);
 		return re;
 	}
 
@@ -791,6 +791,19 @@ public class DataSetController extends AbstractSchemaConnController
 		return optSuccessResponseEntity(request);
 	}
 
+	@RequestMapping(value = "/evictResultCache", produces = CONTENT_TYPE_JSON)
+	@ResponseBody
+	public ResponseEntity<OperationMessage> evictResultCache(HttpServletRequest request, HttpServletResponse response,
+			@RequestBody String[] ids)
+	{
+		User user = WebUtils.getUser();
+
+		for (int i = 0; i < ids.length; i++)
+			this.dataSetEntityService.evictResultCache(user, ids[i]);
+
+		return optSuccessResponseEntity(request);
+	}
+
 	@RequestMapping("/pagingQuery")
 	public String pagingQuery(HttpServletRequest request, HttpServletResponse response,
 			org.springframework.ui.Model model)
@@ -851,6 +864,7 @@ public class DataSetController extends AbstractSchemaConnController
 		SchemaConnectionFactory connectionFactory = new SchemaConnectionFactory(getConnectionSource(), schema);
 		dataSet.setConnectionFactory(connectionFactory);
 		dataSet.setSqlValidator(this.dataSetEntityService.getSqlDataSetSqlValidator());
+		dataSet.setJdbcSupport(this.dataSetEntityService.getSqlDataSetJdbcSupport());
 
 		DataSetQuery query = convertDataSetQuery(request, response, preview.getQuery(), dataSet);
 
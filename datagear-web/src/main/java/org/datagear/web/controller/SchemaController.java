@@ -19,13 +19,15 @@ package org.datagear.web.controller;
 
 import java.sql.Connection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.datagear.connection.ConnectionPoolStats;
+import org.datagear.connection.ConnectionSource;
+import org.datagear.connection.DefaultConnectionSource;
 import org.datagear.connection.DriverEntity;
 import org.datagear.connection.DriverEntityManager;
 import org.datagear.management.domain.DataPermissionAware;
@@ -35,15 +37,16 @@ import org.datagear.management.service.SchemaGuardService;
 import org.datagear.management.service.impl.SaveSchemaUrlPermissionDeniedException;
 import org.datagear.meta.SimpleTable;
 import org.datagear.meta.Table;
-import org.datagear.meta.TableType;
+import org.datagear.persistence.DialectSource;
 import org.datagear.persistence.Order;
 import org.datagear.persistence.PagingData;
 import org.datagear.persistence.PagingQuery;
+import org.datagear.persistence.support.DefaultDialectSource;
 import org.datagear.util.IDUtil;
 import org.datagear.util.JdbcUtil;
 import org.datagear.util.StringUtil;
-import org.datagear.web.util.KeywordMatcher;
 import org.datagear.web.util.OperationMessage;
+import org.datagear.web.util.TableListCache.TableList;
 import org.datagear.web.util.WebUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -72,6 +75,9 @@ public class SchemaController extends AbstractSchemaConnTableController
 	@Autowired
 	private SchemaGuardService schemaGuardService;
 
+	@Autowired
+	private DialectSource dialectSource;
+
 	public SchemaController()
 	{
 		super();
@@ -97,6 +103,16 @@ public class SchemaController extends AbstractSchemaConnTableController
 		this.schemaGuardService = schemaGuardService;
 	}
 
+	public DialectSource getDialectSource()
+	{
+		return dialectSource;
+	}
+
+	public void setDialectSource(DialectSource dialectSource)
+	{
+		this.dialectSource = dialectSource;
+	}
+
 	@RequestMapping("/add")
 	public String add(org.springframework.ui.Model model)
 	{
@@ -170,6 +186,11 @@ public class SchemaController extends AbstractSchemaConnTableController
 				&& (!StringUtil.isEquals(schema.getUrl(), old.getUrl()) || !StringUtil.isEquals(schema.getUser(), old.getUser())))
 			getTableCache().invalidate(schema.getId());
 
+		// 如果URL或者驱动变更了，则需要清除方言缓存
+		if (updated && old != null && (!StringUtil.isEquals(schema.getUrl(), old.getUrl())
+				|| !StringUtil.isEquals(getDriverEntityId(schema), getDriverEntityId(old))))
+			invalidateDialect(old.getUrl());
+
 		return optSuccessDataResponseEntity(request, schema);
 	}
 
@@ -196,11 +217,17 @@ public class SchemaController extends AbstractSchemaConnTableController
 		{
 			String id = ids[i];
 
+			Schema old = getSchemaService().getById(id);
 			boolean deleted = getSchemaService().deleteById(user, id);
 
 			// 清除缓存
 			if (deleted)
+			{
 				getTableCache().invalidate(id);
+
+				if (old != null)
+					invalidateDialect(old.getUrl());
+			}
 		}
 
 		return optSuccessResponseEntity(request);
@@ -283,6 +310,30 @@ public class SchemaController extends AbstractSchemaConnTableController
 		return optSuccessDataResponseEntity(request, "schema.testConnection.ok");
 	}
 
+	/**
+	 * 获取数据源的连接池统计信息。
+	 * 
+	 * @param request
+	 * @param response
+	 * @param id
+	 * @return
+	 */
+	@RequestMapping(value = "/poolStats", produces = CONTENT_TYPE_JSON)
+	@ResponseBody
+	public List<ConnectionPoolStats> poolStats(HttpServletRequest request, HttpServletResponse response,
+			@RequestParam("id") String id)
+	{
+		User user = WebUtils.getUser();
+		Schema schema = getByIdForView(getSchemaService(), user, id);
+
+		ConnectionSource connectionSource = getConnectionSource();
+
+		if (!(connectionSource instanceof DefaultConnectionSource))
+			return Collections.emptyList();
+
+		return ((DefaultConnectionSource) connectionSource).getPoolStats(schema.getUrl(), schema.getUser());
+	}
+
 	@RequestMapping(value = "/list", produces = CONTENT_TYPE_JSON)
 	@ResponseBody
 	public List<Schema> list(HttpServletRequest request, HttpServletResponse response,
@@ -304,28 +355,23 @@ public class SchemaController extends AbstractSchemaConnTableController
 	@ResponseBody
 	public PagingData<SimpleTable> pagingQueryTable(HttpServletRequest request, HttpServletResponse response,
 			org.springframework.ui.Model springModel, @PathVariable("schemaId") String schemaId,
-			@RequestBody PagingQuery pagingQueryParam) throws Throwable
+			@RequestBody PagingQuery pagingQueryParam,
+			@RequestParam(value = "reload", required = false) final Boolean reload) throws Throwable
 	{
 		final PagingQuery pagingQuery = inflatePagingQuery(request, pagingQueryParam, COOKIE_PAGINATION_SIZE);
 
-		List<SimpleTable> tables = new ReturnSchemaConnExecutor<List<SimpleTable>>(request, response, springModel,
-				schemaId, true)
+		TableList tableList = new ReturnSchemaConnExecutor<TableList>(request, response, springModel, schemaId, true)
 		{
 			@Override
-			protected List<SimpleTable> execute(HttpServletRequest request, HttpServletResponse response,
+			protected TableList execute(HttpServletRequest request, HttpServletResponse response,
 					org.springframework.ui.Model springModel, Schema schema) throws Throwable
 			{
-				Connection cn = getConnection();
-
-				List<SimpleTable> tables = getDbMetaResolver().getSimpleTables(cn);
-				return TableType.filterUserDataTables(cn, getDbMetaResolver(), tables);
+				return getTableList(getConnection(), schema, Boolean.TRUE.equals(reload));
 			}
 
 		}.execute();
 
-		sortByTableName(tables);
-
-		List<SimpleTable> keywordTables = findByKeyword(tables, pagingQuery.getKeyword());
+		List<SimpleTable> keywordTables = tableList.find(pagingQuery.getKeyword());
 
 		PagingData<SimpleTable> pagingData = new PagingData<>(pagingQuery.getPage(), keywordTables.size(),
 				pagingQuery.getPageSize());
@@ -401,41 +447,20 @@ public class SchemaController extends AbstractSchemaConnTableController
 		}
 	}
 
-	/**
-	 * 将{@linkplain SimpleTable}数组按照{@linkplain SimpleTable#getName()}排序。
-	 * 
-	 * @param tables
-	 */
-	public static void sortByTableName(List<SimpleTable> tables)
+	protected String getDriverEntityId(Schema schema)
 	{
-		Collections.sort(tables, TABLE_SORT_BY_NAME_COMPARATOR);
+		DriverEntity driverEntity = schema.getDriverEntity();
+		return (driverEntity == null ? null : driverEntity.getId());
 	}
 
 	/**
-	 * 根据表名称关键字查询{@linkplain TableInfo}列表。
+	 * 清除指定URL的方言缓存。
 	 * 
-	 * @param tables
-	 * @param tableNameKeyword
-	 * @return
+	 * @param url
 	 */
-	public static List<SimpleTable> findByKeyword(List<SimpleTable> tables, String tableNameKeyword)
+	protected void invalidateDialect(String url)
 	{
-		return KeywordMatcher.<SimpleTable> match(tables, tableNameKeyword, new KeywordMatcher.MatchValue<SimpleTable>()
-		{
-			@Override
-			public String[] get(SimpleTable t)
-			{
-				return new String[] { t.getName() };
-			}
-		});
+		if (this.dialectSource instanceof DefaultDialectSource)
+			((DefaultDialectSource) this.dialectSource).invalidateDialect(url);
 	}
-
-	public static Comparator<SimpleTable> TABLE_SORT_BY_NAME_COMPARATOR = new Comparator<SimpleTable>()
-	{
-		@Override
-		public int compare(SimpleTable o1, SimpleTable o2)
-		{
-			return o1.getName().compareTo(o2.getName());
-		}
-	};
 }
@@ -18,13 +18,17 @@
 package org.datagear.web.util;
 
 import java.io.Serializable;
+import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
 import org.datagear.management.domain.Schema;
 import org.datagear.meta.Table;
+import org.datagear.meta.resolver.DBMetaResolver;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
@@ -43,6 +47,9 @@ public class TableCache
 	/** 缓存过期分钟数 */
 	private int expireAfterAccessMinutes = 60 * 72;
 
+	/** 配套的表列表缓存，允许为{@code null} */
+	private TableListCache tableListCache = null;
+
 	private Cache<TableCacheKey, Table> _cache = null;
 
 	public TableCache()
@@ -70,6 +77,21 @@ public class TableCache
 		this.expireAfterAccessMinutes = expireAfterAccessMinutes;
 	}
 
+	public TableListCache getTableListCache()
+	{
+		return tableListCache;
+	}
+
+	/**
+	 * 设置配套的表列表缓存，{@linkplain #invalidate(String)}时将一并清除它。
+	 * 
+	 * @param tableListCache
+	 */
+	public void setTableListCache(TableListCache tableListCache)
+	{
+		this.tableListCache = tableListCache;
+	}
+
 	/**
 	 * 初始化。
 	 */
@@ -104,6 +126,52 @@ public class TableCache
 		this._cache.put(key, table);
 	}
 
+	/**
+	 * 获取多个{@linkplain Table}，没有缓存的将使用{@linkplain DBMetaResolver#getTables(Connection, String...)}一次批量加载并缓存。
+	 * 
+	 * @param cn
+	 * @param dbMetaResolver
+	 * @param schemaId
+	 * @param tableNames
+	 * @return 与{@code tableNames}一一对应的列表，表不存在时对应元素为{@code null}
+	 */
+	public List<Table> getTables(Connection cn, DBMetaResolver dbMetaResolver, String schemaId, String... tableNames)
+	{
+		List<Table> tables = new ArrayList<>(tableNames.length);
+		List<String> loadNames = new ArrayList<>();
+
+		for (String tableName : tableNames)
+		{
+			Table table = (tableName == null ? null : get(schemaId, tableName));
+
+			if (table == null && tableName != null && !loadNames.contains(tableName))
+				loadNames.add(tableName);
+
+			tables.add(table);
+		}
+
+		if (loadNames.isEmpty())
+			return tables;
+
+		List<Table> loadeds = dbMetaResolver.getTables(cn, loadNames.toArray(new String[loadNames.size()]));
+
+		for (int i = 0; i < tableNames.length; i++)
+		{
+			if (tables.get(i) != null || tableNames[i] == null)
+				continue;
+
+			Table table = loadeds.get(loadNames.indexOf(tableNames[i]));
+
+			if (table != null)
+			{
+				put(schemaId, table);
+				tables.set(i, table);
+			}
+		}
+
+		return tables;
+	}
+
 	/**
 	 * 清除指定名称{@linkplain Table}缓存。
 	 * 
@@ -117,12 +185,15 @@ public class TableCache
 	}
 
 	/**
-	 * 清除指定{@linkplain Schema} ID的所有{@linkplain Table}缓存。
+	 * 清除指定{@linkplain Schema} ID的所有{@linkplain Table}缓存，以及{@linkplain #getTableListCache()}缓存。
 	 * 
 	 * @param schemaId
 	 */
 	public void invalidate(String schemaId)
 	{
+		if (this.tableListCache != null)
+			this.tableListCache.invalidate(schemaId);
+
 		ConcurrentMap<TableCacheKey, Table> map = this._cache.asMap();
 		Set<TableCacheKey> keys = map.keySet();
 
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.web.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.datagear.management.domain.Schema;
+import org.datagear.meta.SimpleTable;
+import org.datagear.web.util.KeywordMatcher.KeywordInfo;
+import org.datagear.web.util.KeywordMatcher.MatchType;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * {@linkplain Schema}的{@linkplain SimpleTable}列表缓存。
+ * <p>
+ * 它是{@linkplain TableCache}的配套缓存，缓存每个{@linkplain Schema}的表列表（{@linkplain TableList}），
+ * 使表列表的关键字查询可以直接在内存中进行，而不必每次都读取数据库元信息。
+ * </p>
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class TableListCache
+{
+	/** 缓存值的最大数 */
+	private int maximumSize = 100;
+
+	/** 缓存过期分钟数 */
+	private int expireAfterWriteMinutes = 10;
+
+	private Cache<String, TableList> _cache = null;
+
+	public TableListCache()
+	{
+		super();
+	}
+
+	public int getMaximumSize()
+	{
+		return maximumSize;
+	}
+
+	public void setMaximumSize(int maximumSize)
+	{
+		this.maximumSize = maximumSize;
+	}
+
+	public int getExpireAfterWriteMinutes()
+	{
+		return expireAfterWriteMinutes;
+	}
+
+	public void setExpireAfterWriteMinutes(int expireAfterWriteMinutes)
+	{
+		this.expireAfterWriteMinutes = expireAfterWriteMinutes;
+	}
+
+	/**
+	 * 初始化。
+	 */
+	public void init()
+	{
+		this._cache = Caffeine.newBuilder().maximumSize(this.maximumSize)
+				.expireAfterWrite(this.expireAfterWriteMinutes, TimeUnit.MINUTES).build();
+	}
+
+	/**
+	 * 获取{@linkplain TableList}。
+	 * 
+	 * @param schemaId
+	 * @return 返回{@code null}表示没有缓存
+	 */
+	public TableList get(String schemaId)
+	{
+		return this._cache.getIfPresent(schemaId);
+	}
+
+	/**
+	 * 将{@linkplain SimpleTable}列表添加至缓存。
+	 * 
+	 * @param schemaId
+	 * @param tables
+	 * @return
+	 */
+	public TableList put(String schemaId, List<SimpleTable> tables)
+	{
+		TableList tableList = new TableList(tables);
+		this._cache.put(schemaId, tableList);
+
+		return tableList;
+	}
+
+	/**
+	 * 清除指定{@linkplain Schema} ID的缓存。
+	 * 
+	 * @param schemaId
+	 */
+	public void invalidate(String schemaId)
+	{
+		this._cache.invalidate(schemaId);
+	}
+
+	/**
+	 * 按名称排序、可按关键字查找的{@linkplain SimpleTable}列表。
+	 * <p>
+	 * 它预先计算了大写表名，并维护了大写表名的排序索引，使以{@code "%"}结尾的前缀查询可以使用二分查找。
+	 * </p>
+	 * 
+	 * @author datagear@163.com
+	 * 
+	 */
+	public static class TableList
+	{
+		/** 按名称排序的表 */
+		private final SimpleTable[] tables;
+
+		/** 与{@linkplain #tables}对应的大写表名 */
+		private final String[] upperNames;
+
+		/** 按大写表名排序的{@linkplain #tables}索引 */
+		private final Integer[] upperNameIndexes;
+
+		public TableList(List<SimpleTable> tables)
+		{
+			super();
+
+			SimpleTable[] sorted = tables.toArray(new SimpleTable[tables.size()]);
+			Arrays.sort(sorted, TABLE_SORT_BY_NAME_COMPARATOR);
+
+			final String[] upperNames = new String[sorted.length];
+			Integer[] upperNameIndexes = new Integer[sorted.length];
+
+			for (int i = 0; i < sorted.length; i++)
+			{
+				upperNames[i] = sorted[i].getName().toUpperCase();
+				upperNameIndexes[i] = i;
+			}
+
+			Arrays.sort(upperNameIndexes, new Comparator<Integer>()
+			{
+				@Override
+				public int compare(Integer o1, Integer o2)
+				{
+					return upperNames[o1].compareTo(upperNames[o2]);
+				}
+			});
+
+			this.tables = sorted;
+			this.upperNames = upperNames;
+			this.upperNameIndexes = upperNameIndexes;
+		}
+
+		public int size()
+		{
+			return this.tables.length;
+		}
+
+		/**
+		 * 获取按名称排序的所有表。
+		 * 
+		 * @return
+		 */
+		public List<SimpleTable> getTables()
+		{
+			return Collections.unmodifiableList(Arrays.asList(this.tables));
+		}
+
+		/**
+		 * 根据表名称关键字查找，结果按名称排序。
+		 * <p>
+		 * 关键字规则与{@linkplain KeywordMatcher}一致。
+		 * </p>
+		 * 
+		 * @param keyword
+		 *            允许为{@code null}
+		 * @return
+		 */
+		public List<SimpleTable> find(String keyword)
+		{
+			KeywordInfo keywordInfo = KeywordMatcher.resolveKeywordInfo(keyword);
+
+			if (keywordInfo == null)
+				return getTables();
+
+			MatchType matchType = keywordInfo.getMatchType();
+			String upperKeyword = keywordInfo.getUpperKeyword();
+
+			if (MatchType.START.equals(matchType))
+				return findByPrefix(upperKeyword);
+
+			List<SimpleTable> result = new ArrayList<>();
+
+			for (int i = 0; i < this.upperNames.length; i++)
+			{
+				String upperName = this.upperNames[i];
+
+				boolean match = (MatchType.END.equals(matchType) ? upperName.endsWith(upperKeyword)
+						: upperName.indexOf(upperKeyword) >= 0);
+
+				if (match)
+					result.add(this.tables[i]);
+			}
+
+			return result;
+		}
+
+		protected List<SimpleTable> findByPrefix(String upperPrefix)
+		{
+			int start = 0;
+			int end = this.upperNameIndexes.length;
+
+			// 查找第一个大于等于前缀的位置
+			while (start < end)
+			{
+				int mid = (start + end) >>> 1;
+
+				if (this.upperNames[this.upperNameIndexes[mid]].compareTo(upperPrefix) < 0)
+					start = mid + 1;
+				else
+					end = mid;
+			}
+
+			List<Integer> indexes = new ArrayList<>();
+
+			for (int i = start; i < this.upperNameIndexes.length; i++)
+			{
+				int index = this.upperNameIndexes[i];
+
+				if (!this.upperNames[index].startsWith(upperPrefix))
+					break;
+
+				indexes.add(index);
+			}
+
+			Collections.sort(indexes);
+
+			List<SimpleTable> result = new ArrayList<>(indexes.size());
+
+			for (Integer index : indexes)
+				result.add(this.tables[index]);
+
+			return result;
+		}
+	}
+
+	/**
+	 * 按照{@linkplain SimpleTable#getName()}排序的比较器。
+	 */
+	public static final Comparator<SimpleTable> TABLE_SORT_BY_NAME_COMPARATOR = new Comparator<SimpleTable>()
+	{
+		@Override
+		public int compare(SimpleTable o1, SimpleTable o2)
+		{
+			return o1.getName().compareTo(o2.getName());
+		}
+	};
+}
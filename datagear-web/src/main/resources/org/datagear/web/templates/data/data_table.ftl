@@ -57,9 +57,9 @@
 				:class="{'p-button-secondary': pm.isSelectAction}"
 				v-if="pm.canReadTableData">
 			</p-button>
-			<p-button label="<@spring.message code='export' />" @click="onExport"
+			<p-splitbutton label="<@spring.message code='export' />" @click="onExport" :model="pm.exportBtnItems"
 				v-if="!pm.isSelectAction && pm.canReadTableData">
-			</p-button>
+			</p-splitbutton>
 			<p-button label="<@spring.message code='delete' />" @click="onDelete"
 				class="p-button-danger"
 				v-if="!pm.isReadonlyAction && pm.canDeleteTableData">
@@ -104,6 +104,148 @@
 		return po.schemaId;
 	};
 	
+	//顺序翻到下一页时，使用上一页返回的键集分页，避免大表深度翻页时的大偏移量查询
+	po.setupKeysetPaging = function()
+	{
+		var loadAjaxTableSuper = po.loadAjaxTable;
+		var setAjaxTableDataSuper = po.setAjaxTableData;
+		
+		po.loadAjaxTable = function(options)
+		{
+			var query = po.ajaxTableQuery();
+			var state = po.keysetPagingState;
+			
+			if(state && state.nextKeyset && query.page == state.page + 1
+					&& po.keysetPagingQueryKey(query) == state.queryKey)
+			{
+				query.keyset = state.nextKeyset;
+				//总记录数沿用上一页的
+				query.countTotal = false;
+			}
+			else
+			{
+				query.keyset = null;
+				query.countTotal = true;
+			}
+			
+			loadAjaxTableSuper.call(po, options);
+		};
+		
+		po.setAjaxTableData = function(data)
+		{
+			var query = po.ajaxTableQuery();
+			var pm = po.vuePageModel();
+			var prevTotal = pm.totalRecords;
+			
+			setAjaxTableDataSuper.call(po, data);
+			
+			if(data.totalUnknown)
+				pm.totalRecords = prevTotal;
+			
+			po.keysetPagingState = { page: data.page, queryKey: po.keysetPagingQueryKey(query), nextKeyset: data.nextKeyset };
+		};
+	};
+	
+	//后台返回估算记录数时，先显示为"~N"，再异步获取精确记录数，同一查询条件只获取一次
+	po.setupApproximateTotal = function()
+	{
+		var setAjaxTableDataSuper = po.setAjaxTableData;
+		var refreshSuper = po.refresh;
+		var pageReportTemplate = po.vuePageModel().pageReportTemplate;
+		
+		po.setAjaxTableData = function(data)
+		{
+			var query = po.ajaxTableQuery();
+			var queryKey = po.exactTotalQueryKey(query);
+			var pm = po.vuePageModel();
+			var state = po.exactTotalState;
+			
+			setAjaxTableDataSuper.call(po, data);
+			
+			if(data.totalUnknown)
+				return;
+			
+			if(!data.totalApproximate)
+			{
+				po.exactTotalState = { queryKey: queryKey, total: data.total };
+				pm.pageReportTemplate = pageReportTemplate;
+			}
+			else if(state && state.queryKey == queryKey && state.total != null)
+			{
+				pm.totalRecords = state.total;
+				pm.pageReportTemplate = pageReportTemplate;
+			}
+			else
+			{
+				pm.pageReportTemplate = pageReportTemplate.replace("{totalRecords}", "~{totalRecords}");
+				
+				if(!state || state.queryKey != queryKey)
+					po.loadExactTotal(query, queryKey);
+			}
+		};
+		
+		//增删改后的刷新需重新获取精确记录数
+		po.refresh = function()
+		{
+			po.exactTotalState = null;
+			refreshSuper.call(po);
+		};
+		
+		po.loadExactTotal = function(query, queryKey)
+		{
+			po.exactTotalState = { queryKey: queryKey, total: null };
+			
+			po.ajaxJson(po.dataUrl("countQueryData"),
+			{
+				data: { keyword: query.keyword, condition: query.condition, notLike: query.notLike },
+				success: function(response)
+				{
+					var state = po.exactTotalState;
+					
+					if(!state || state.queryKey != queryKey)
+						return;
+					
+					state.total = response.total;
+					
+					var pm = po.vuePageModel();
+					pm.totalRecords = response.total;
+					pm.pageReportTemplate = pageReportTemplate;
+				}
+			});
+		};
+	};
+	
+	//记录数只与查询条件有关，与排序、分页无关
+	po.exactTotalQueryKey = function(query)
+	{
+		return JSON.stringify({ keyword: query.keyword, condition: query.condition, notLike: query.notLike });
+	};
+	
+	po.keysetPagingQueryKey = function(query)
+	{
+		return JSON.stringify($.extend({}, query, { page: null, keyset: null, countTotal: null }));
+	};
+	
+	//直接下载当前查询的数据，不经过导出页面
+	po.streamExport = function(dataType)
+	{
+		var query = po.ajaxTableQuery();
+		po.ajaxJson(po.dataUrl("getQuerySql"),
+		{
+			data: query,
+			success: function(response)
+			{
+				var url = "/dataexchange/"+encodeURIComponent(po.schemaId)+"/export/stream";
+				url = $.addParam(url, "dataType", dataType);
+				url = $.addParam(url, "query", response.sql);
+				url = $.addParam(url, "tableName", po.tableName);
+				url = $.addParam(url, "fileEncoding", "UTF-8");
+				
+				po.open(url, { target : "_blank" });
+			}
+		});
+	};
+	
 	po.onDbTable(function(dbTable)
 	{
 		po.inflateEntityAction = function(action, entityOrArray)
@@ -120,7 +262,31 @@
 		
 		po.vuePageModel(
 		{
-			dbTable: dbTable
+			dbTable: dbTable,
+			exportBtnItems:
+			[
+				{
+					label: "<@spring.message code='streamExportCsv' />",
+					command: function()
+					{
+						po.streamExport("csv");
+					}
+				},
+				{
+					label: "<@spring.message code='streamExportJson' />",
+					command: function()
+					{
+						po.streamExport("json");
+					}
+				},
+				{
+					label: "<@spring.message code='streamExportSql' />",
+					command: function()
+					{
+						po.streamExport("sql");
+					}
+				}
+			]
 		});
 		
 		po.setupAjaxTable(po.dataUrl("pagingQueryData"),
@@ -128,6 +294,9 @@
 			multiSortMeta: []
 		});
 		
+		po.setupKeysetPaging();
+		po.setupApproximateTotal();
+		
 		po.vueMethod(
 		{
 			onAdd: function()
@@ -124,6 +124,17 @@
 					</p-inputtext>
 				</div>
 			</div>
+			<div class="field grid">
+				<label for="${pid}timeout" class="field-label col-12 mb-2 md:col-3 md:mb-0"
+					title="<@spring.message code='httpDataSet.timeout.desc' />">
+					<@spring.message code='timeoutSeconds' />
+				</label>
+				<div class="field-input col-12 md:col-9">
+					<p-inputtext id="${pid}timeout" v-model="fm.timeout" type="text" class="input w-full"
+						name="timeout" required maxlength="10">
+					</p-inputtext>
+				</div>
+			</div>
 			<#include "include/dataSet_form_param_property.ftl">
 		</div>
 		<div class="page-form-foot flex-grow-0 pt-3 text-center h-opts">
@@ -154,6 +165,7 @@
 		fingerprint.headerContent = dataSet.headerContent;
 		fingerprint.responseContentType = dataSet.responseContentType;
 		fingerprint.responseDataJsonPath = dataSet.responseDataJsonPath;
+		fingerprint.timeout = dataSet.timeout;
 	};
 	
 	po.beforeSubmitForm = function(action)
@@ -167,6 +179,7 @@
 	};
 	
 	var formModel = $.unescapeHtmlForJson(<@writeJson var=formModel />);
+	formModel.timeout = (formModel.timeout == null ? 0 : formModel.timeout);
 	po.inflateDataSetModel(formModel);
 	
 	po.setupForm(formModel,
@@ -175,6 +188,10 @@
 		ignoreIfViewAction: false
 	},
 	{
+		rules:
+		{
+			"timeout": {"integer": true}
+		},
 		customNormalizers:
 		{
 			requestContent: function()
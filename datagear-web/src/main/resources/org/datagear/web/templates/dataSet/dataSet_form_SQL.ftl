@@ -48,6 +48,17 @@
 		        	</div>
 		        </div>
 			</div>
+			<div class="field grid">
+				<label for="${pid}resultCacheTtl" class="field-label col-12 mb-2 md:col-3 md:mb-0"
+					title="<@spring.message code='sqlDataSet.resultCacheTtl.desc' />">
+					<@spring.message code='resultCacheTtl' />
+				</label>
+				<div class="field-input col-12 md:col-9">
+					<p-inputtext id="${pid}resultCacheTtl" v-model="fm.resultCacheTtl" type="text" class="input w-full"
+						name="resultCacheTtl" required maxlength="10">
+					</p-inputtext>
+				</div>
+			</div>
 			<div class="field grid">
 				<label for="${pid}sql" class="field-label col-12 mb-2"
 					title="<@spring.message code='sqlDataSet.url.desc' />">
@@ -116,6 +127,10 @@
 		ignoreIfViewAction: false
 	},
 	{
+		rules:
+		{
+			"resultCacheTtl": {"integer": true}
+		},
 		customNormalizers:
 		{
 			sql: function()
@@ -50,6 +50,7 @@
 			<p-button label="<@spring.message code='edit' />" @click="onEdit" v-if="!pm.isReadonlyAction"></p-button>
 			<p-button label="<@spring.message code='share' />" @click="onShare" v-if="!pm.isReadonlyAction"></p-button>
 			<p-button label="<@spring.message code='view' />" @click="onView" :class="{'p-button-secondary': pm.isSelectAction}"></p-button>
+			<p-button label="<@spring.message code='evictResultCache' />" @click="onEvictResultCache" v-if="!pm.isReadonlyAction"></p-button>
 			<p-button label="<@spring.message code='delete' />" @click="onDelete" class="p-button-danger" v-if="!pm.isReadonlyAction"></p-button>
 		</div>
 	</div>
@@ -200,6 +201,17 @@
 			});
 		},
 		
+		onEvictResultCache: function()
+		{
+			po.executeOnSelects(function(entities)
+			{
+				var action = { url: "/dataSet/evictResultCache", options: { contentType: $.CONTENT_TYPE_JSON } };
+				po.inflateEntityAction(action, entities);
+				
+				po.ajaxJson(action.url, action.options);
+			});
+		},
+		
 		onDelete: function()
 		{
 			po.handleDeleteAction("/dataSet/delete");
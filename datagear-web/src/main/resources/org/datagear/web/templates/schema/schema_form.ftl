@@ -147,6 +147,16 @@
 		        	</div>
 		        </div>
 			</div>
+			<div class="field grid" v-if="pm.isReadonlyAction">
+				<label for="${pid}poolStats" class="field-label col-12 mb-2 md:col-3 md:mb-0"
+					title="<@spring.message code='schema.connectionPool.desc' />">
+					<@spring.message code='schema.connectionPool' />
+				</label>
+		        <div class="field-input col-12 md:col-9">
+		        	<p-inputtext id="${pid}poolStats" v-model="pm.poolStatsLabel" type="text" class="input w-full" readonly="readonly">
+		        	</p-inputtext>
+		        </div>
+			</div>
 			<div class="field grid" v-if="pm.isReadonlyAction">
 				<label for="${pid}createUser" class="field-label col-12 mb-2 md:col-3 md:mb-0">
 					<@spring.message code='createUser' />
@@ -207,12 +217,37 @@
 		action.options.defaultSuccessCallback = false;
 	};
 	
+	po.loadPoolStats = function()
+	{
+		if(!po.isReadonlyAction || !formModel.id)
+			return;
+		
+		po.ajaxJson("/schema/poolStats",
+		{
+			data: { id: formModel.id },
+			success: function(response)
+			{
+				var pm = po.vuePageModel();
+				var labels = [];
+				
+				$.each(response, function(i, stats)
+				{
+					labels.push($.validator.format("<@spring.message code='schema.connectionPool.stats' />",
+							stats.active, stats.idle, stats.maxTotal, stats.waiters, stats.meanBorrowWaitMillis, stats.maxBorrowWaitMillis));
+				});
+				
+				pm.poolStatsLabel = (labels.length > 0 ? labels.join("; ") : "<@spring.message code='schema.connectionPool.none' />");
+			}
+		});
+	};
+	
 	po.vuePageModel(
 	{
 		selectedProperties: [],
 		editingPropertyRows: [],
 		inTestAction: false,
-		testActionBtnLabel: "<@spring.message code='test' />"
+		testActionBtnLabel: "<@spring.message code='test' />",
+		poolStatsLabel: ""
 	});
 	
 	var formModel = $.unescapeHtmlForJson(<@writeJson var=formModel />);
@@ -345,6 +380,7 @@
 	});
 	
 	po.vueMount();
+	po.loadPoolStats();
 })
 (${pid});
 </script>
@@ -110,8 +110,17 @@
 	po.schemaTabTypeImportData = "importData";
 	po.schemaTabTypeExportData = "exportData";
 	
+	//需要重新加载表列表的数据源ID
+	po.reloadTableSchemaIds = {};
+	
 	po.refresh = function()
 	{
+		var pm = po.vuePageModel();
+		var schemaNodes = (pm.schemaNodes || []);
+		
+		for(var i=0; i<schemaNodes.length; i++)
+			po.reloadTableSchemaIds[schemaNodes[i].schemaId] = true;
+		
 		po.loadSchemaNodes();
 	};
 	
@@ -170,8 +179,16 @@
 		var pm = po.vuePageModel();
 		var keyword = pm.searchForm.keyword;
 		
+		var url = "/schema/"+encodeURIComponent(schemaNode.schemaId)+"/pagingQueryTable";
+		
+		if(page == 1 && po.reloadTableSchemaIds[schemaNode.schemaId])
+		{
+			url += "?reload=true";
+			delete po.reloadTableSchemaIds[schemaNode.schemaId];
+		}
+		
 		pm.loadingSchema = true;
-		po.ajaxJson("/schema/"+encodeURIComponent(schemaNode.schemaId)+"/pagingQueryTable",
+		po.ajaxJson(url,
 		{
 			data: { keyword: keyword, pageSize: 100, page: page },
 			success: function(response)
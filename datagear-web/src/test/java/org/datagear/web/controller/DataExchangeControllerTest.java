@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.web.controller;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@linkplain DataExchangeController}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class DataExchangeControllerTest
+{
+	private DataExchangeController controller = new DataExchangeController();
+
+	@Test
+	public void toStreamExportCharsetTest()
+	{
+		Assert.assertEquals(Charset.defaultCharset(), controller.toStreamExportCharset(null));
+		Assert.assertEquals(Charset.defaultCharset(), controller.toStreamExportCharset(""));
+		Assert.assertEquals(StandardCharsets.UTF_8, controller.toStreamExportCharset("UTF-8"));
+
+		// 不支持、非法的字符集名称应是输入错误，而不是服务出错
+		Assert.assertThrows(IllegalInputException.class, () ->
+		{
+			controller.toStreamExportCharset("NOT-EXISTS-CHARSET");
+		});
+		Assert.assertThrows(IllegalInputException.class, () ->
+		{
+			controller.toStreamExportCharset("illegal charset name");
+		});
+	}
+
+	@Test
+	public void getStreamExportContentTypeTest()
+	{
+		Charset charset = StandardCharsets.UTF_8;
+
+		Assert.assertEquals("text/csv;charset=UTF-8", controller
+				.getStreamExportContentType(DataExchangeController.STREAM_EXPORT_DATA_TYPE_CSV, null, charset));
+		Assert.assertEquals("application/json;charset=UTF-8", controller
+				.getStreamExportContentType(DataExchangeController.STREAM_EXPORT_DATA_TYPE_JSON, "", charset));
+		Assert.assertEquals("text/plain;charset=UTF-8", controller
+				.getStreamExportContentType(DataExchangeController.STREAM_EXPORT_DATA_TYPE_SQL, null, charset));
+		Assert.assertEquals("application/zip",
+				controller.getStreamExportContentType(DataExchangeController.STREAM_EXPORT_DATA_TYPE_CSV,
+						DataExchangeController.STREAM_EXPORT_COMPRESS_ZIP, charset));
+		Assert.assertEquals("application/gzip",
+				controller.getStreamExportContentType(DataExchangeController.STREAM_EXPORT_DATA_TYPE_JSON,
+						DataExchangeController.STREAM_EXPORT_COMPRESS_GZIP, charset));
+	}
+}
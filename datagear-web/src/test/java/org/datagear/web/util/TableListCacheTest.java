@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018-2023 datagear.tech
+ * 
+ * This file is part of DataGear.
+ * 
+ * DataGear is free software: you can redistribute it and/or modify it under the terms of
+ * the GNU Lesser General Public License as published by the Free Software Foundation,
+ * either version 3 of the License, or (at your option) any later version.
+ * 
+ * DataGear is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+ * without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ * See the GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License along with DataGear.
+ * If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package org.datagear.web.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.datagear.meta.SimpleTable;
+import org.datagear.meta.TableType;
+import org.datagear.web.util.TableListCache.TableList;
+import org.junit.Test;
+
+/**
+ * {@linkplain TableListCache}单元测试类。
+ * 
+ * @author datagear@163.com
+ * 
+ */
+public class TableListCacheTest
+{
+	private static final String[] TABLE_NAMES = { "t_user", "T_USER_ROLE", "T_ROLE", "tb_log", "Tb_Order", "x_t_user",
+			"ABC", "abd", "Zoo", "_tmp", "T", "t_User" };
+
+	public TableListCacheTest()
+	{
+		super();
+	}
+
+	@Test
+	public void getTablesTest()
+	{
+		TableList tableList = new TableList(createTables());
+
+		List<String> expected = new ArrayList<>(Arrays.asList(TABLE_NAMES));
+		Collections.sort(expected);
+
+		assertEquals(TABLE_NAMES.length, tableList.size());
+		assertEquals(expected, toNames(tableList.getTables()));
+	}
+
+	@Test
+	public void findTest()
+	{
+		List<SimpleTable> tables = createTables();
+		TableList tableList = new TableList(tables);
+
+		List<SimpleTable> sortedTables = new ArrayList<>(tables);
+		Collections.sort(sortedTables, TableListCache.TABLE_SORT_BY_NAME_COMPARATOR);
+
+		String[] keywords = { null, "", "  ", "t%", "T_U%", "t_user%", "tb%", "_%", "a%", "zz%", "%", "%%",
+				"%user", "%_USER", "%user%", "user", "T_", "Role", " t_u% " };
+
+		for (String keyword : keywords)
+		{
+			List<SimpleTable> expected = KeywordMatcher.match(sortedTables, keyword,
+					new KeywordMatcher.MatchValue<SimpleTable>()
+					{
+						@Override
+						public String[] get(SimpleTable t)
+						{
+							return new String[] { t.getName() };
+						}
+					});
+
+			assertEquals("keyword: " + keyword, toNames(expected), toNames(tableList.find(keyword)));
+		}
+	}
+
+	@Test
+	public void findTest_prefix()
+	{
+		TableList tableList = new TableList(createTables());
+
+		// 前缀查询不区分大小写，结果按名称排序
+		assertEquals(Arrays.asList("T", "T_ROLE", "T_USER_ROLE", "Tb_Order", "t_User", "t_user", "tb_log"),
+				toNames(tableList.find("t%")));
+		assertEquals(Arrays.asList("T_USER_ROLE", "t_User", "t_user"), toNames(tableList.find("T_U%")));
+		assertEquals(Arrays.asList("ABC", "abd"), toNames(tableList.find("ab%")));
+		assertEquals(Arrays.asList("_tmp"), toNames(tableList.find("_%")));
+		assertEquals(Collections.emptyList(), toNames(tableList.find("zz%")));
+		assertEquals(Collections.emptyList(), toNames(tableList.find("ZOOO%")));
+		assertEquals(Arrays.asList("Zoo"), toNames(tableList.find("zoo%")));
+	}
+
+	@Test
+	public void findTest_empty()
+	{
+		TableList tableList = new TableList(new ArrayList<SimpleTable>());
+
+		assertEquals(0, tableList.size());
+		assertEquals(Collections.emptyList(), tableList.find(null));
+		assertEquals(Collections.emptyList(), tableList.find("t%"));
+		assertEquals(Collections.emptyList(), tableList.find("%t%"));
+	}
+
+	@Test
+	public void cacheTest()
+	{
+		TableListCache cache = new TableListCache();
+		cache.init();
+
+		assertNull(cache.get("schema-0"));
+
+		TableList tableList = cache.put("schema-0", createTables());
+
+		assertSame(tableList, cache.get("schema-0"));
+		assertNull(cache.get("schema-1"));
+
+		cache.invalidate("schema-0");
+
+		assertNull(cache.get("schema-0"));
+	}
+
+	protected List<SimpleTable> createTables()
+	{
+		List<SimpleTable> tables = new ArrayList<>();
+
+		for (String name : TABLE_NAMES)
+			tables.add(new SimpleTable(name, TableType.TABLE));
+
+		return tables;
+	}
+
+	protected List<String> toNames(List<SimpleTable> tables)
+	{
+		List<String> names = new ArrayList<>(tables.size());
+
+		for (SimpleTable table : tables)
+			names.add(table.getName());
+
+		return names;
+	}
+}